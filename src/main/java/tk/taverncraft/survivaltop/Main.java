@@ -14,6 +14,7 @@ import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.permission.Permission;
 
 import tk.taverncraft.survivaltop.balance.BalanceManager;
+import tk.taverncraft.survivaltop.events.land.LandChangeEvent;
 import tk.taverncraft.survivaltop.events.leaderboard.SignBreakEvent;
 import tk.taverncraft.survivaltop.events.leaderboard.SignPlaceEvent;
 import tk.taverncraft.survivaltop.events.stats.ViewPageEvent;
@@ -23,6 +24,7 @@ import tk.taverncraft.survivaltop.land.LandManager;
 import tk.taverncraft.survivaltop.commands.CommandParser;
 import tk.taverncraft.survivaltop.commands.CommandTabCompleter;
 import tk.taverncraft.survivaltop.events.DependencyLoadEvent;
+import tk.taverncraft.survivaltop.events.PlayerResolutionEvent;
 import tk.taverncraft.survivaltop.leaderboard.LeaderboardManager;
 import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.config.Options;
@@ -33,6 +35,7 @@ import tk.taverncraft.survivaltop.ui.InfoGui;
 import tk.taverncraft.survivaltop.config.ConfigManager;
 import tk.taverncraft.survivaltop.utils.services.DependencyManager;
 import tk.taverncraft.survivaltop.utils.services.PapiManager;
+import tk.taverncraft.survivaltop.utils.services.PlayerResolutionManager;
 import tk.taverncraft.survivaltop.utils.services.PluginUpdateManager;
 import tk.taverncraft.survivaltop.utils.services.Metrics;
 
@@ -64,6 +67,7 @@ public class Main extends JavaPlugin {
     private LeaderboardManager leaderboardManager;
     private StorageManager storageManager;
     private LogManager logManager;
+    private PlayerResolutionManager playerResolutionManager;
 
     // options
     // todo: move this into an options manager
@@ -77,6 +81,8 @@ public class Main extends JavaPlugin {
         entityStatsManager.setStopCalculations(true);
         serverStatsManager.setStopCalculations(true);
         landManager.setStopOperations(true);
+        landManager.shutdown();
+        balanceManager.shutdown();
         inventoryManager.setStopOperations(true);
         LogManager.info(String.format("Disabled Version %s", getDescription().getVersion()));
     }
@@ -105,6 +111,7 @@ public class Main extends JavaPlugin {
 
         try {
             this.dependencyManager = new DependencyManager(this);
+            this.playerResolutionManager = new PlayerResolutionManager(this);
             this.storageManager = new StorageManager(this);
             this.entityStatsManager = new EntityStatsManager(this);
             this.serverStatsManager = new ServerStatsManager(this);
@@ -149,6 +156,10 @@ public class Main extends JavaPlugin {
                 new SignBreakEvent(this), this);
         this.getServer().getPluginManager().registerEvents(
                 new ViewPageEvent(this), this);
+        this.getServer().getPluginManager().registerEvents(
+                new LandChangeEvent(this), this);
+        this.getServer().getPluginManager().registerEvents(
+                new PlayerResolutionEvent(this), this);
     }
 
     /**
@@ -301,6 +312,10 @@ public class Main extends JavaPlugin {
         return this.logManager;
     }
 
+    public PlayerResolutionManager getPlayerResolutionManager() {
+        return this.playerResolutionManager;
+    }
+
     public Options getOptions() {
         return this.options;
     }
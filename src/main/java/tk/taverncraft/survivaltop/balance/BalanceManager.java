@@ -1,8 +1,11 @@
 package tk.taverncraft.survivaltop.balance;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 
 import tk.taverncraft.survivaltop.Main;
@@ -12,6 +15,7 @@ import tk.taverncraft.survivaltop.Main;
  */
 public class BalanceManager {
     private final Main main;
+    private BalanceProvider balanceProvider;
 
     /**
      * Constructor for BalanceManager.
@@ -20,6 +24,57 @@ public class BalanceManager {
      */
     public BalanceManager(Main main) {
         this.main = main;
+        initializeProvider();
+    }
+
+    /**
+     * Initializes the provider that balances are looked up from, called during startup and
+     * reload.
+     */
+    public void initializeProvider() {
+        if (balanceProvider != null) {
+            balanceProvider.shutdown();
+        }
+        balanceProvider = new VaultBalanceProvider(main.getOptions().getBalanceLookupThreads(),
+                main.getOptions().getBalanceLookupTimeoutMs(),
+                main.getOptions().getBalanceCacheSeconds());
+    }
+
+    /**
+     * Stops the provider, called when the plugin is disabled.
+     */
+    public void shutdown() {
+        balanceProvider.shutdown();
+    }
+
+    /**
+     * Looks up the balances of players in one batch ahead of an update, so that retrieving the
+     * balance of each entity afterwards does not wait on the economy one player at a time.
+     *
+     * @param players players to look up
+     */
+    public void prefetchBalances(Collection<OfflinePlayer> players) {
+        balanceProvider.getBalances(players);
+    }
+
+    /**
+     * Looks up the balances of every member of the given groups in one batch ahead of an update.
+     * Players in more than one group are only looked up once.
+     *
+     * @param groups names of groups to look up
+     */
+    public void prefetchBalancesForGroups(List<String> groups) {
+        Map<UUID, OfflinePlayer> members = new LinkedHashMap<>();
+        try {
+            for (String group : groups) {
+                for (OfflinePlayer offlinePlayer : this.main.getGroupManager().getPlayers(group)) {
+                    members.putIfAbsent(offlinePlayer.getUniqueId(), offlinePlayer);
+                }
+            }
+        } catch (NoClassDefFoundError | NullPointerException e) {
+            return;
+        }
+        balanceProvider.getBalances(members.values());
     }
 
     /**
@@ -44,14 +99,11 @@ public class BalanceManager {
      * @return total balance of player
      */
     private double getBalanceByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
-        try {
-            return Main.getEconomy().getBalance(player);
-        }
-         catch (Exception | NoClassDefFoundError e) {
-            // vault might throw an error here related to null user, remove when resolved
-             return 0;
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
+        if (player == null) {
+            return 0;
         }
+        return balanceProvider.getBalance(player);
     }
 
     /**
@@ -63,10 +115,10 @@ public class BalanceManager {
      */
     private double getBalanceByGroup(String group) {
         try {
-            double totalBalance = 0;
             List<OfflinePlayer> offlinePlayers = this.main.getGroupManager().getPlayers(group);
-            for (OfflinePlayer offlinePlayer : offlinePlayers) {
-                totalBalance += Main.getEconomy().getBalance(offlinePlayer);
+            double totalBalance = 0;
+            for (double balance : balanceProvider.getBalances(offlinePlayers).values()) {
+                totalBalance += balance;
             }
             return totalBalance;
         } catch (NoClassDefFoundError | NullPointerException e) {
@@ -0,0 +1,38 @@
+package tk.taverncraft.survivaltop.balance;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Interface for looking up the balances of players from an economy.
+ */
+public interface BalanceProvider {
+
+    /**
+     * Gets the balance of a player.
+     *
+     * @param player player to get balance for
+     *
+     * @return balance of player, the last balance looked up if it could not be looked up now
+     *     or 0 if there is none
+     */
+    double getBalance(OfflinePlayer player);
+
+    /**
+     * Gets the balances of many players at once, looking each player up at most once.
+     *
+     * @param players players to get balances for
+     *
+     * @return map of player uuid to balance, the last balance looked up or 0 for players that
+     *     could not be looked up now
+     */
+    Map<UUID, Double> getBalances(Collection<OfflinePlayer> players);
+
+    /**
+     * Stops any threads used for lookups, called when reloaded or the plugin is disabled.
+     */
+    void shutdown();
+}
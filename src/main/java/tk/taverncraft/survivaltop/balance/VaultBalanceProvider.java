@@ -0,0 +1,230 @@
+package tk.taverncraft.survivaltop.balance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.OfflinePlayer;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Looks up balances through vault. Economy plugins backed by a database can take a round trip
+ * for every lookup, so batches are looked up in parallel on a bounded pool with a timeout for
+ * each lookup, and balances are cached for a short time so that a player in several groups is
+ * only looked up once per update. A lookup that times out is left to finish in the background
+ * and fills the cache once it does, while the last balance looked up for the player is used in
+ * the meantime. Players with a lookup still running are not looked up again or waited on.
+ */
+public class VaultBalanceProvider implements BalanceProvider {
+    private final int threads;
+    private final long timeoutNanos;
+    private final long cacheNanos;
+    private final ExecutorService lookupPool;
+    private final ConcurrentHashMap<UUID, CachedBalance> balanceCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CompletableFuture<Double>> pendingLookups =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for VaultBalanceProvider.
+     *
+     * @param threads number of threads to look up balances with
+     * @param timeoutMs milliseconds to wait for a single lookup before giving up on it
+     * @param cacheSeconds seconds to keep looked up balances for
+     */
+    public VaultBalanceProvider(int threads, int timeoutMs, int cacheSeconds) {
+        this.threads = Math.max(1, threads);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMs));
+        this.cacheNanos = TimeUnit.SECONDS.toNanos(Math.max(0, cacheSeconds));
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.lookupPool = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable,
+                    "SurvivalTop-Balance-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        Double balance = getCachedBalance(player.getUniqueId(), System.nanoTime());
+        if (balance != null) {
+            return balance;
+        }
+        return getBalances(List.of(player)).getOrDefault(player.getUniqueId(), 0.0);
+    }
+
+    @Override
+    public Map<UUID, Double> getBalances(Collection<OfflinePlayer> players) {
+        long now = System.nanoTime();
+        Map<UUID, Double> balances = new HashMap<>();
+        Map<UUID, OfflinePlayer> playersToLookUp = new LinkedHashMap<>();
+        for (OfflinePlayer player : players) {
+            UUID uuid = player.getUniqueId();
+            Double balance = getCachedBalance(uuid, now);
+            if (balance != null) {
+                balances.put(uuid, balance);
+            } else if (pendingLookups.containsKey(uuid)) {
+                // already given its time to finish, so the last balance is used until it does
+                balances.put(uuid, getLastBalance(uuid));
+            } else {
+                playersToLookUp.put(uuid, player);
+            }
+        }
+        if (playersToLookUp.isEmpty()) {
+            return balances;
+        }
+
+        List<UUID> uuids = new ArrayList<>(playersToLookUp.size());
+        List<Future<Double>> lookups = new ArrayList<>(playersToLookUp.size());
+        for (Map.Entry<UUID, OfflinePlayer> entry : playersToLookUp.entrySet()) {
+            uuids.add(entry.getKey());
+            lookups.add(submitLookup(entry.getKey(), entry.getValue()));
+        }
+
+        // lookups run in order on a bounded pool, so each is given its timeout from around
+        // when a thread would have picked it up rather than from when the batch started
+        int timedOut = 0;
+        long batchStart = System.nanoTime();
+        boolean interrupted = false;
+        for (int i = 0; i < lookups.size(); i++) {
+            UUID uuid = uuids.get(i);
+            double balance = getLastBalance(uuid);
+            if (!interrupted) {
+                long deadline = batchStart + timeoutNanos * (i / threads + 1);
+                try {
+                    balance = lookups.get(i).get(Math.max(0, deadline - System.nanoTime()),
+                            TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    timedOut++;
+                } catch (ExecutionException e) {
+                    // lookup failures are already handled within the lookup
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                }
+            }
+            balances.put(uuid, balance);
+        }
+        if (timedOut > 0) {
+            LogManager.warn(String.format("Timed out looking up the balance of %d players.",
+                    timedOut));
+        }
+        return balances;
+    }
+
+    /**
+     * Submits a lookup of the balance of a player, or gets the lookup already running for the
+     * player. The looked up balance is cached once the lookup completes, even if nothing waits
+     * on it anymore.
+     *
+     * @param uuid uuid of player
+     * @param player player to look up
+     *
+     * @return lookup of the balance of player
+     */
+    private Future<Double> submitLookup(UUID uuid, OfflinePlayer player) {
+        CompletableFuture<Double> lookup = new CompletableFuture<>();
+        CompletableFuture<Double> pendingLookup = pendingLookups.putIfAbsent(uuid, lookup);
+        if (pendingLookup != null) {
+            return pendingLookup;
+        }
+        try {
+            lookupPool.execute(() -> {
+                try {
+                    double balance = lookUpBalance(player);
+                    balanceCache.put(uuid, new CachedBalance(balance, System.nanoTime()));
+                    lookup.complete(balance);
+                } catch (RuntimeException e) {
+                    lookup.completeExceptionally(e);
+                } finally {
+                    pendingLookups.remove(uuid, lookup);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // pool is shut down on reload, the lookup completes with the last balance
+            pendingLookups.remove(uuid, lookup);
+            lookup.complete(getLastBalance(uuid));
+        }
+        return lookup;
+    }
+
+    /**
+     * Looks up the balance of a player from vault.
+     *
+     * @param player player to look up
+     *
+     * @return balance of player
+     */
+    protected double lookUpBalance(OfflinePlayer player) {
+        try {
+            return Main.getEconomy().getBalance(player);
+        } catch (Exception | NoClassDefFoundError e) {
+            // vault might throw an error here related to null user, remove when resolved
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the cached balance of a player if it has not expired.
+     *
+     * @param uuid uuid of player
+     * @param now current time in nanos
+     *
+     * @return cached balance, or null if there is none
+     */
+    private Double getCachedBalance(UUID uuid, long now) {
+        CachedBalance cachedBalance = balanceCache.get(uuid);
+        if (cachedBalance == null || now - cachedBalance.cachedAt > cacheNanos) {
+            return null;
+        }
+        return cachedBalance.balance;
+    }
+
+    /**
+     * Gets the last balance looked up for a player, even if it has expired.
+     *
+     * @param uuid uuid of player
+     *
+     * @return last balance of player, or 0 if never looked up
+     */
+    private double getLastBalance(UUID uuid) {
+        CachedBalance cachedBalance = balanceCache.get(uuid);
+        return cachedBalance == null ? 0 : cachedBalance.balance;
+    }
+
+    @Override
+    public void shutdown() {
+        lookupPool.shutdownNow();
+        pendingLookups.clear();
+        balanceCache.clear();
+    }
+
+    /**
+     * Balance of a player along with when it was looked up.
+     */
+    private static class CachedBalance {
+        private final double balance;
+        private final long cachedAt;
+
+        private CachedBalance(double balance, long cachedAt) {
+            this.balance = balance;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
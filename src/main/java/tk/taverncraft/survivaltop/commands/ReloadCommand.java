@@ -53,6 +53,8 @@ public class ReloadCommand {
 
             // reinitialize manager values
             main.getStorageManager().initializeValues();
+            main.getPlayerResolutionManager().initializeValues();
+            main.getBalanceManager().initializeProvider();
             main.getEntityStatsManager().setStopCalculations(true);
             main.getEntityStatsManager().clearCache();
             main.getServerStatsManager().setStopCalculations(true);
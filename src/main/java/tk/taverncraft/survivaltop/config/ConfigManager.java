@@ -6,6 +6,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.Map;
 
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -176,15 +177,39 @@ public class ConfigManager {
         config.set("filter-player-time", main.getOptions().filterPlayerTime());
         config.set("enable-group", main.getOptions().groupIsEnabled());
         config.set("group-type", main.getOptions().getGroupType());
+        config.set("aggregate-groups", main.getOptions().isAggregateGroups());
         config.set("include-bal", main.getOptions().balIsIncluded());
+        config.set("balance-lookup-threads", main.getOptions().getBalanceLookupThreads());
+        config.set("balance-lookup-timeout-ms", main.getOptions().getBalanceLookupTimeoutMs());
+        config.set("balance-cache-seconds", main.getOptions().getBalanceCacheSeconds());
         config.set("include-land", main.getOptions().landIsIncluded());
         config.set("land-type", main.getOptions().getLandType());
         config.set("include-spawners", main.getOptions().spawnerIsIncluded());
         config.set("include-containers", main.getOptions().containerIsIncluded());
         config.set("max-land-height", main.getOptions().getMaxLandHeight());
         config.set("min-land-height", main.getOptions().getMinLandHeight());
+        for (Map.Entry<String, Integer> entry :
+                main.getOptions().getWorldMaxLandHeights().entrySet()) {
+            config.set("world-land-heights." + entry.getKey() + ".max", entry.getValue());
+        }
+        for (Map.Entry<String, Integer> entry :
+                main.getOptions().getWorldMinLandHeights().entrySet()) {
+            config.set("world-land-heights." + entry.getKey() + ".min", entry.getValue());
+        }
+        config.set("chunk-snapshot-batch-size", main.getOptions().getChunkSnapshotBatchSize());
+        config.set("land-scan-threads", main.getOptions().getLandScanThreads());
+        config.set("track-land-changes", main.getOptions().isTrackLandChanges());
+        config.set("chunk-cache-size-mb", main.getOptions().getChunkCacheSizeMb());
+        config.set("max-chunk-loads-in-flight", main.getOptions().getMaxChunkLoadsInFlight());
+        config.set("chunk-load-budget-ms", main.getOptions().getChunkLoadBudgetMs());
+        config.set("chunk-capture-timeout-ms", main.getOptions().getChunkCaptureTimeoutMs());
+        config.set("read-region-files", main.getOptions().isReadRegionFiles());
+        config.set("persist-chunk-index", main.getOptions().isPersistChunkIndex());
+        config.set("spawner-container-budget-ms", main.getOptions().getSpawnerContainerBudgetMs());
         config.set("include-inventory", main.getOptions().inventoryIsIncluded());
         config.set("update-interval", main.getOptions().getUpdateInterval());
+        config.set("refresh-slices", main.getOptions().getRefreshSlices());
+        config.set("dormant-days", main.getOptions().getDormantDays());
         config.set("update-on-start", main.getOptions().updateOnStart());
         config.set("minimum-wealth", main.getOptions().getMinimumWealth());
         config.set("storage-type", main.getOptions().getStorageType());
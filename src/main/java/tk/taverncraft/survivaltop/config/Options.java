@@ -1,8 +1,10 @@
 package tk.taverncraft.survivaltop.config;
 
 import java.time.Instant;
+import java.util.HashMap;
 
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import tk.taverncraft.survivaltop.Main;
@@ -19,19 +21,37 @@ public class Options {
     private long filterPlayerTime;
     private boolean enableGroup;
     private String groupType;
+    private boolean aggregateGroups;
     private boolean includeBal;
+    private int balanceLookupThreads;
+    private int balanceLookupTimeoutMs;
+    private int balanceCacheSeconds;
     private boolean includeLand;
     private String landType;
     private boolean includeSpawners;
     private boolean includeContainers;
     private boolean includeInventory;
     private int updateInterval;
+    private int refreshSlices;
+    private int dormantDays;
     private boolean updateOnStart;
     private double minimumWealth;
     private boolean useGuiLeaderboard;
     private String storageType;
     private int maxLandHeight;
     private int minLandHeight;
+    private HashMap<String, Integer> worldMaxLandHeights;
+    private HashMap<String, Integer> worldMinLandHeights;
+    private int chunkSnapshotBatchSize;
+    private int landScanThreads;
+    private boolean trackLandChanges;
+    private int chunkCacheSizeMb;
+    private int maxChunkLoadsInFlight;
+    private int chunkLoadBudgetMs;
+    private int chunkCaptureTimeoutMs;
+    private boolean readRegionFiles;
+    private boolean persistChunkIndex;
+    private int spawnerContainerBudgetMs;
     private long lastLoadTime;
     private int cacheDuration;
 
@@ -56,21 +76,38 @@ public class Options {
         this.filterPlayerTime = config.getLong("filter-player-time", 2592000);
         this.enableGroup = config.getBoolean("enable-group", false);
         this.groupType = config.getString("group-type", "FactionsUuid");
+        this.aggregateGroups = config.getBoolean("aggregate-groups", false);
         this.includeBal = config.getBoolean("include-bal", false);
+        this.balanceLookupThreads = config.getInt("balance-lookup-threads", 4);
+        this.balanceLookupTimeoutMs = config.getInt("balance-lookup-timeout-ms", 2000);
+        this.balanceCacheSeconds = config.getInt("balance-cache-seconds", 60);
         this.includeLand = config.getBoolean("include-land", false);
         this.landType = config.getString("land-type", "GriefPrevention");
         this.includeSpawners = config.getBoolean("include-spawners", false);
         this.includeContainers = config.getBoolean("include-containers", false);
         this.includeInventory = config.getBoolean("include-inventory", false);
         this.updateInterval = config.getInt("update-interval", 3600);
+        this.refreshSlices = config.getInt("refresh-slices", 1);
+        this.dormantDays = config.getInt("dormant-days", 0);
         this.updateOnStart = config.getBoolean("update-on-start", false);
         this.minimumWealth = config.getInt("minimum-wealth", 0);
         this.useGuiLeaderboard = config.getBoolean("use-gui-leaderboard", false);
         this.storageType = config.getString("storage-type", "None");
         this.lastLoadTime = Instant.now().getEpochSecond();
         this.cacheDuration = config.getInt("cache-duration", 1800);
+        this.chunkSnapshotBatchSize = config.getInt("chunk-snapshot-batch-size", 16);
+        this.landScanThreads = config.getInt("land-scan-threads", 2);
+        this.trackLandChanges = config.getBoolean("track-land-changes", true);
+        this.chunkCacheSizeMb = config.getInt("chunk-cache-size-mb", 64);
+        this.maxChunkLoadsInFlight = config.getInt("max-chunk-loads-in-flight", 8);
+        this.chunkLoadBudgetMs = config.getInt("chunk-load-budget-ms", 10);
+        this.chunkCaptureTimeoutMs = config.getInt("chunk-capture-timeout-ms", 60000);
+        this.readRegionFiles = config.getBoolean("read-region-files", false);
+        this.persistChunkIndex = config.getBoolean("persist-chunk-index", true);
+        this.spawnerContainerBudgetMs = config.getInt("spawner-container-budget-ms", 10);
         setMaxLandHeight();
         setMinLandHeight();
+        setWorldLandHeights();
     }
 
     // getters below
@@ -119,6 +156,62 @@ public class Options {
         return minLandHeight;
     }
 
+    public int getMaxLandHeight(String worldName) {
+        return worldMaxLandHeights.getOrDefault(worldName, maxLandHeight);
+    }
+
+    public int getMinLandHeight(String worldName) {
+        return worldMinLandHeights.getOrDefault(worldName, minLandHeight);
+    }
+
+    public HashMap<String, Integer> getWorldMaxLandHeights() {
+        return worldMaxLandHeights;
+    }
+
+    public HashMap<String, Integer> getWorldMinLandHeights() {
+        return worldMinLandHeights;
+    }
+
+    public int getChunkSnapshotBatchSize() {
+        return chunkSnapshotBatchSize;
+    }
+
+    public int getLandScanThreads() {
+        return landScanThreads;
+    }
+
+    public boolean isTrackLandChanges() {
+        return trackLandChanges;
+    }
+
+    public int getChunkCacheSizeMb() {
+        return chunkCacheSizeMb;
+    }
+
+    public int getMaxChunkLoadsInFlight() {
+        return maxChunkLoadsInFlight;
+    }
+
+    public int getChunkLoadBudgetMs() {
+        return chunkLoadBudgetMs;
+    }
+
+    public int getChunkCaptureTimeoutMs() {
+        return chunkCaptureTimeoutMs;
+    }
+
+    public boolean isReadRegionFiles() {
+        return readRegionFiles;
+    }
+
+    public boolean isPersistChunkIndex() {
+        return persistChunkIndex;
+    }
+
+    public int getSpawnerContainerBudgetMs() {
+        return spawnerContainerBudgetMs;
+    }
+
     public boolean filterLastJoin() {
         return filterLastJoin;
     }
@@ -131,6 +224,10 @@ public class Options {
         return groupType;
     }
 
+    public boolean isAggregateGroups() {
+        return aggregateGroups;
+    }
+
     public String getLandType() {
         return landType;
     }
@@ -139,6 +236,26 @@ public class Options {
         return updateInterval;
     }
 
+    public int getBalanceLookupThreads() {
+        return balanceLookupThreads;
+    }
+
+    public int getBalanceLookupTimeoutMs() {
+        return balanceLookupTimeoutMs;
+    }
+
+    public int getBalanceCacheSeconds() {
+        return balanceCacheSeconds;
+    }
+
+    public int getRefreshSlices() {
+        return refreshSlices;
+    }
+
+    public int getDormantDays() {
+        return dormantDays;
+    }
+
     public boolean updateOnStart() {
         return updateOnStart;
     }
@@ -187,6 +304,24 @@ public class Options {
         }
     }
 
+    private void setWorldLandHeights() {
+        this.worldMaxLandHeights = new HashMap<>();
+        this.worldMinLandHeights = new HashMap<>();
+        ConfigurationSection section = main.getConfig().getConfigurationSection(
+                "world-land-heights");
+        if (section == null) {
+            return;
+        }
+        for (String worldName : section.getKeys(false)) {
+            if (section.isInt(worldName + ".max")) {
+                worldMaxLandHeights.put(worldName, section.getInt(worldName + ".max"));
+            }
+            if (section.isInt(worldName + ".min")) {
+                worldMinLandHeights.put(worldName, section.getInt(worldName + ".min"));
+            }
+        }
+    }
+
     public void disableBal() {
         this.includeBal = false;
     }
@@ -197,5 +332,6 @@ public class Options {
 
     public void disableGroup() {
         this.enableGroup = false;
+        this.aggregateGroups = false;
     }
 }
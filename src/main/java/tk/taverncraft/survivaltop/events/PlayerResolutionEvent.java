@@ -0,0 +1,32 @@
+package tk.taverncraft.survivaltop.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import tk.taverncraft.survivaltop.Main;
+
+/**
+ * PlayerResolutionEvent keeps the player name index current as players join, including players
+ * joining for the first time or under a new name.
+ */
+public class PlayerResolutionEvent implements Listener {
+    private final Main main;
+
+    /**
+     * Constructor for PlayerResolutionEvent.
+     *
+     * @param main plugin class
+     */
+    public PlayerResolutionEvent(Main main) {
+        this.main = main;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onPlayerJoin(PlayerJoinEvent e) {
+        Player player = e.getPlayer();
+        main.getPlayerResolutionManager().registerPlayer(player.getUniqueId(), player.getName());
+    }
+}
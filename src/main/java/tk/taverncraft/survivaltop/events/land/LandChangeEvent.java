@@ -0,0 +1,286 @@
+package tk.taverncraft.survivaltop.events.land;
+
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.block.SpongeAbsorbEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.LandManager;
+
+/**
+ * LandChangeEvent checks for blocks that are added to or removed from the world so that cached
+ * chunks can be scanned again and block wealth on the leaderboard can be kept current without
+ * scanning land again. Only listens on monitor priority since the outcome of the event must be
+ * final.
+ *
+ * <p>Blocks changed without an event, such as by WorldEdit, /fill, /setblock or plugins setting
+ * block types directly, are not seen here. Block wealth on the leaderboard only picks those up in
+ * the next update, and cached chunks are scanned again once they unload.
+ */
+public class LandChangeEvent implements Listener {
+    private final Main main;
+
+    /**
+     * Constructor for LandChangeEvent.
+     *
+     * @param main plugin class
+     */
+    public LandChangeEvent(Main main) {
+        this.main = main;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockPlace(BlockPlaceEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        LandManager landManager = main.getLandManager();
+
+        // beds and doors place more than one block, including the one placed
+        if (e instanceof BlockMultiPlaceEvent) {
+            for (BlockState state : ((BlockMultiPlaceEvent) e).getReplacedBlockStates()) {
+                Block block = state.getBlock();
+                landManager.applyBlockChange(block, state.getType(), -1);
+                landManager.applyBlockChange(block, block.getType(), 1);
+            }
+            return;
+        }
+        Block block = e.getBlockPlaced();
+        landManager.applyBlockChange(block, e.getBlockReplacedState().getType(), -1);
+        landManager.applyBlockChange(block, block.getType(), 1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBreak(BlockBreakEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        Block block = e.getBlock();
+        main.getLandManager().applyBlockChange(block, block.getType(), -1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBurn(BlockBurnEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        Block block = e.getBlock();
+        main.getLandManager().applyBlockChange(block, block.getType(), -1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onLeavesDecay(LeavesDecayEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        Block block = e.getBlock();
+        main.getLandManager().applyBlockChange(block, block.getType(), -1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockExplode(BlockExplodeEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        removeBlocks(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityExplode(EntityExplodeEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        removeBlocks(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonExtend(BlockPistonExtendEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        moveBlocks(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonRetract(BlockPistonRetractEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        moveBlocks(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFromTo(BlockFromToEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        Block block = e.getBlock();
+        Block toBlock = e.getToBlock();
+        LandManager landManager = main.getLandManager();
+
+        // dragon eggs teleporting also fire this event, otherwise a fluid is replacing a block
+        if (block.getType() == Material.DRAGON_EGG) {
+            landManager.applyBlockChange(block, Material.DRAGON_EGG, -1);
+            landManager.applyBlockChange(toBlock, Material.DRAGON_EGG, 1);
+            return;
+        }
+        landManager.applyBlockChange(toBlock, toBlock.getType(), -1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockForm(BlockFormEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        replaceBlock(e.getBlock(), e.getNewState());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockSpread(BlockSpreadEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        replaceBlock(e.getBlock(), e.getNewState());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockGrow(BlockGrowEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        replaceBlock(e.getBlock(), e.getNewState());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFade(BlockFadeEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        replaceBlock(e.getBlock(), e.getNewState());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onSpongeAbsorb(SpongeAbsorbEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        LandManager landManager = main.getLandManager();
+        for (BlockState state : e.getBlocks()) {
+            replaceBlock(state.getBlock(), state);
+        }
+
+        // the sponge turns wet once it absorbed anything
+        if (!e.getBlocks().isEmpty()) {
+            landManager.applyBlockChange(e.getBlock(), Material.SPONGE, -1);
+            landManager.applyBlockChange(e.getBlock(), Material.WET_SPONGE, 1);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityChangeBlock(EntityChangeBlockEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        Block block = e.getBlock();
+        LandManager landManager = main.getLandManager();
+        landManager.applyBlockChange(block, block.getType(), -1);
+        landManager.applyBlockChange(block, e.getTo(), 1);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onStructureGrow(StructureGrowEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        for (BlockState state : e.getBlocks()) {
+            replaceBlock(state.getBlock(), state);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onChunkUnload(ChunkUnloadEvent e) {
+        if (!isLandIncluded()) {
+            return;
+        }
+        main.getLandManager().onChunkUnload(e.getChunk());
+    }
+
+    /**
+     * Checks if land is included and changes to it should be handled.
+     *
+     * @return true if land is included, false otherwise
+     */
+    private boolean isLandIncluded() {
+        return main.getOptions().landIsIncluded() && main.getLandManager() != null;
+    }
+
+    /**
+     * Replaces the worth of a block with that of the state it changes into.
+     *
+     * @param block block that changes
+     * @param newState state the block changes into
+     */
+    private void replaceBlock(Block block, BlockState newState) {
+        LandManager landManager = main.getLandManager();
+        landManager.applyBlockChange(block, block.getType(), -1);
+        landManager.applyBlockChange(block, newState.getType(), 1);
+    }
+
+    /**
+     * Removes the worth of blocks that are destroyed.
+     *
+     * @param blocks blocks that are destroyed
+     */
+    private void removeBlocks(List<Block> blocks) {
+        LandManager landManager = main.getLandManager();
+        for (Block block : blocks) {
+            landManager.applyBlockChange(block, block.getType(), -1);
+        }
+    }
+
+    /**
+     * Moves the worth of blocks pushed or pulled by a piston by one block in its direction.
+     *
+     * @param blocks blocks that are moved
+     * @param direction direction the blocks are moved in
+     */
+    private void moveBlocks(List<Block> blocks, BlockFace direction) {
+        LandManager landManager = main.getLandManager();
+
+        // types are read before any are applied since moved blocks may take each other's place
+        Material[] materials = new Material[blocks.size()];
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = blocks.get(i).getType();
+        }
+        for (int i = 0; i < materials.length; i++) {
+            landManager.applyBlockChange(blocks.get(i), materials[i], -1);
+        }
+        for (int i = 0; i < materials.length; i++) {
+            landManager.applyBlockChange(blocks.get(i).getRelative(direction), materials[i], 1);
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package tk.taverncraft.survivaltop.group;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import org.bukkit.OfflinePlayer;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.group.groups.FactionsUuidGroup;
 import tk.taverncraft.survivaltop.group.groups.GroupHandler;
+import tk.taverncraft.survivaltop.group.groups.GroupSnapshot;
 import tk.taverncraft.survivaltop.group.groups.KingdomsXGroup;
 import tk.taverncraft.survivaltop.group.groups.McmmoPartyGroup;
 import tk.taverncraft.survivaltop.group.groups.PartiesGroup;
@@ -22,6 +25,10 @@ public class GroupManager {
 
     // helper classes
     private GroupHandler groupHandler;
+    private String groupType;
+
+    // members of groups as of the start of the ongoing leaderboard update
+    private volatile GroupSnapshot groupSnapshot;
 
     /**
      * Constructor for GroupManager.
@@ -37,8 +44,9 @@ public class GroupManager {
      * Initializes values for land type depending on which land plugin is used.
      */
     public void initializeLandType() throws NullPointerException {
-        String groupType = main.getConfig().getString("group-type", "factionsuuid")
+        groupType = main.getConfig().getString("group-type", "factionsuuid")
                 .toLowerCase();
+        groupSnapshot = null;
         switch (groupType) {
         case "factionsuuid":
         case "saberfactions":
@@ -83,6 +91,10 @@ public class GroupManager {
      * @return list of players from given group
      */
     public List<OfflinePlayer> getPlayers(String name) {
+        GroupSnapshot snapshot = this.groupSnapshot;
+        if (snapshot != null) {
+            return snapshot.getPlayers(name);
+        }
         if (this.groupHandler == null) {
             return new ArrayList<>();
         }
@@ -95,12 +107,50 @@ public class GroupManager {
      * @return list of all groups
      */
     public List<String> getGroups() {
+        GroupSnapshot snapshot = this.groupSnapshot;
+        if (snapshot != null) {
+            return snapshot.getGroups();
+        }
         if (this.groupHandler == null) {
             return new ArrayList<>();
         }
         return this.groupHandler.getGroups();
     }
 
+    /**
+     * Reads the members of every group from the group plugin once at the start of a leaderboard
+     * update. Until the snapshot is cleared, groups and their members are looked up from it
+     * instead of the group plugin, so every stage of the update sees the same members.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot takeSnapshot() {
+        GroupSnapshot snapshot = this.groupHandler == null ? new GroupSnapshot()
+                : this.groupHandler.getSnapshot();
+        this.groupSnapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Clears the snapshot once a leaderboard update is done, so that groups are looked up from
+     * the group plugin again.
+     */
+    public void clearSnapshot() {
+        this.groupSnapshot = null;
+    }
+
+    /**
+     * Gets the uuid of a group. Group uuids are derived from the group type and name, so a group
+     * keeps the same uuid across updates and restarts for as long as it keeps its name.
+     *
+     * @param name name of group to get uuid for
+     *
+     * @return uuid of group
+     */
+    public UUID getGroupUuid(String name) {
+        return UUID.nameUUIDFromBytes((groupType + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Gets the group a player belongs to.
      *
@@ -85,6 +85,28 @@ public class FactionsUuidGroup implements GroupHandler {
         return groups;
     }
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot getSnapshot() {
+        GroupSnapshot snapshot = new GroupSnapshot();
+        List<Faction> factions = Factions.getInstance().getAllFactions();
+        for (Faction faction : factions) {
+            String group = faction.getTag();
+            if (isFilteredGroup(group)) {
+                continue;
+            }
+            List<OfflinePlayer> offlinePlayers = new ArrayList<>();
+            for (FPlayer fPlayer : faction.getFPlayers()) {
+                offlinePlayers.add(Bukkit.getOfflinePlayer(UUID.fromString(fPlayer.getId())));
+            }
+            snapshot.addGroup(group, offlinePlayers);
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the group a player belongs to.
      *
@@ -34,6 +34,13 @@ public interface GroupHandler {
      */
     List<String> getGroups();
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    GroupSnapshot getSnapshot();
+
     /**
      * Gets the group a player belongs to.
      *
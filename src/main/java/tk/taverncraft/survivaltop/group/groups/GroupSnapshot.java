@@ -0,0 +1,70 @@
+package tk.taverncraft.survivaltop.group.groups;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * GroupSnapshot holds the members of every group as read from the group plugin at one point in
+ * time, so that an update can look up groups and their members as often as it needs to without
+ * going back to the group plugin each time.
+ */
+public class GroupSnapshot {
+    private final Map<String, List<OfflinePlayer>> groupToMembersMap = new LinkedHashMap<>();
+    private final Map<UUID, String> memberToGroupMap = new HashMap<>();
+
+    /**
+     * Adds a group and its members.
+     *
+     * @param group name of group
+     * @param members members of group
+     */
+    public void addGroup(String group, List<OfflinePlayer> members) {
+        List<OfflinePlayer> groupMembers = new ArrayList<>(members.size());
+        for (OfflinePlayer member : members) {
+            if (member == null) {
+                continue;
+            }
+            groupMembers.add(member);
+            memberToGroupMap.putIfAbsent(member.getUniqueId(), group);
+        }
+        groupToMembersMap.put(group, Collections.unmodifiableList(groupMembers));
+    }
+
+    /**
+     * Gets all groups.
+     *
+     * @return list of all groups
+     */
+    public List<String> getGroups() {
+        return new ArrayList<>(groupToMembersMap.keySet());
+    }
+
+    /**
+     * Gets the members of a group.
+     *
+     * @param group name of group
+     *
+     * @return unmodifiable list of members, empty if the group does not exist
+     */
+    public List<OfflinePlayer> getPlayers(String group) {
+        return groupToMembersMap.getOrDefault(group, Collections.emptyList());
+    }
+
+    /**
+     * Gets the group a player belongs to.
+     *
+     * @param uuid uuid of player
+     *
+     * @return name of group, or null if the player is not in any group
+     */
+    public String getGroupOfPlayer(UUID uuid) {
+        return memberToGroupMap.get(uuid);
+    }
+}
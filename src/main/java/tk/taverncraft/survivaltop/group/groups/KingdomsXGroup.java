@@ -63,6 +63,21 @@ public class KingdomsXGroup implements GroupHandler {
         return groups;
     }
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot getSnapshot() {
+        GroupSnapshot snapshot = new GroupSnapshot();
+        Collection<Kingdom> kingdoms = Kingdoms.get().getDataHandlers().getKingdomManager()
+                .getKingdoms();
+        for (Kingdom kingdom : kingdoms) {
+            snapshot.addGroup(kingdom.getName(), kingdom.getPlayerMembers());
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the group a player belongs to.
      *
@@ -70,6 +70,24 @@ public class McmmoPartyGroup implements GroupHandler {
         return partyNames;
     }
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot getSnapshot() {
+        GroupSnapshot snapshot = new GroupSnapshot();
+        List<Party> parties = PartyAPI.getParties();
+        for (Party party : parties) {
+            List<OfflinePlayer> players = new ArrayList<>();
+            for (UUID uuid : party.getMembers().keySet()) {
+                players.add(Bukkit.getOfflinePlayer(uuid));
+            }
+            snapshot.addGroup(party.getName(), players);
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the group a player belongs to.
      *
@@ -67,22 +67,29 @@ public class TownyAdvancedNationGroup implements GroupHandler {
      */
     public List<String> getGroups() {
         List<String> groups = new ArrayList<>();
-        List<Town> towns = api.getTowns();
-        Set<String> nationNames = new HashSet<>();
-        for (Town town : towns) {
-            try {
-                nationNames.add(town.getNation().getName());
-            } catch (NotRegisteredException ignored) {
-            }
-        }
-
-        List<Nation> nations = api.getNations(nationNames.toArray(new String[0]));
-        for (Nation nation : nations) {
+        for (Nation nation : getNations()) {
             groups.add(nation.getName());
         }
         return groups;
     }
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot getSnapshot() {
+        GroupSnapshot snapshot = new GroupSnapshot();
+        for (Nation nation : getNations()) {
+            List<OfflinePlayer> players = new ArrayList<>();
+            for (Resident resident : nation.getResidents()) {
+                players.add(resident.getPlayer());
+            }
+            snapshot.addGroup(nation.getName(), players);
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the group a player belongs to.
      *
@@ -119,4 +126,21 @@ public class TownyAdvancedNationGroup implements GroupHandler {
 
         return nation.getKing().getName();
     }
+
+    /**
+     * Gets all nations that have at least one town.
+     *
+     * @return list of all nations
+     */
+    private List<Nation> getNations() {
+        List<Town> towns = api.getTowns();
+        Set<String> nationNames = new HashSet<>();
+        for (Town town : towns) {
+            try {
+                nationNames.add(town.getNation().getName());
+            } catch (NotRegisteredException ignored) {
+            }
+        }
+        return api.getNations(nationNames.toArray(new String[0]));
+    }
 }
\ No newline at end of file
@@ -70,6 +70,24 @@ public class TownyAdvancedTownGroup implements GroupHandler {
         return groups;
     }
 
+    /**
+     * Gets every group along with its members in one pass over the groups.
+     *
+     * @return snapshot of all groups and their members
+     */
+    public GroupSnapshot getSnapshot() {
+        GroupSnapshot snapshot = new GroupSnapshot();
+        List<Town> towns = api.getTowns();
+        for (Town town : towns) {
+            List<OfflinePlayer> players = new ArrayList<>();
+            for (Resident resident : town.getResidents()) {
+                players.add(resident.getPlayer());
+            }
+            snapshot.addGroup(town.getName(), players);
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the group a player belongs to.
      *
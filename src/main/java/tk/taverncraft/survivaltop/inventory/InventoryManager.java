@@ -4,11 +4,9 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -19,6 +17,7 @@ import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.inventory.holders.InventoryHolder;
 import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Handles logic for calculating the worth of entity inventory.
@@ -26,13 +25,14 @@ import tk.taverncraft.survivaltop.utils.types.MutableInt;
 public class InventoryManager {
     private final Main main;
     private LinkedHashMap<String, Double> inventoryWorth;
-    private Set<String> inventoryMaterial;
+    private WorthTable inventoryWorthTable;
 
     // boolean to allow reloads to stop current inventory operations
     private boolean stopOperations = false;
 
     // holders containing count of each material mapped to uuid
-    private HashMap<UUID, InventoryHolder> inventoryHolderMapForLeaderboard = new HashMap<>();
+    private ConcurrentHashMap<UUID, InventoryHolder> inventoryHolderMapForLeaderboard =
+            new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, InventoryHolder> inventoryHolderMapForStats =
             new ConcurrentHashMap<>();
 
@@ -50,7 +50,7 @@ public class InventoryManager {
      * Cleans up holders after leaderboard update.
      */
     public void doCleanUpForLeaderboard() {
-        inventoryHolderMapForLeaderboard = new HashMap<>();
+        inventoryHolderMapForLeaderboard = new ConcurrentHashMap<>();
     }
 
     /**
@@ -68,7 +68,7 @@ public class InventoryManager {
      * @param uuid uuid of each entity
      */
     public void createHolderForLeaderboard(UUID uuid) {
-        inventoryHolderMapForLeaderboard.put(uuid, new InventoryHolder(inventoryMaterial));
+        inventoryHolderMapForLeaderboard.put(uuid, new InventoryHolder(inventoryWorthTable));
     }
 
     /**
@@ -77,7 +77,7 @@ public class InventoryManager {
      * @param uuid uuid of sender, not to confused with the entity itself!
      */
     public void createHolderForStats(UUID uuid) {
-        inventoryHolderMapForStats.put(uuid, new InventoryHolder(inventoryMaterial));
+        inventoryHolderMapForStats.put(uuid, new InventoryHolder(inventoryWorthTable));
     }
 
     /**
@@ -104,7 +104,7 @@ public class InventoryManager {
                 LogManager.warn(e.getMessage());
             }
         }
-        inventoryMaterial = inventoryWorth.keySet();
+        inventoryWorthTable = new WorthTable(inventoryWorth, Material.values());
     }
 
     /**
@@ -174,8 +174,8 @@ public class InventoryManager {
      * @param name name of player to get inventory worth for
      */
     private void processPlayerForLeaderboard(UUID uuid, String name) {
-        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(name);
-        if (offlinePlayer.isOnline()) {
+        OfflinePlayer offlinePlayer = main.getPlayerResolutionManager().getOfflinePlayer(name);
+        if (offlinePlayer != null && offlinePlayer.isOnline()) {
             Player player = offlinePlayer.getPlayer();
             Inventory inventory = player.getInventory();
             processInventoryItemsForLeaderboard(uuid, inventory);
@@ -189,8 +189,8 @@ public class InventoryManager {
      * @param name name of player to get inventory worth for
      */
     private void processPlayerForStats(UUID uuid, String name) {
-        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(name);
-        if (offlinePlayer.isOnline()) {
+        OfflinePlayer offlinePlayer = main.getPlayerResolutionManager().getOfflinePlayer(name);
+        if (offlinePlayer != null && offlinePlayer.isOnline()) {
             Player player = offlinePlayer.getPlayer();
             Inventory inventory = player.getInventory();
             processInventoryItemsForStats(uuid, inventory);
@@ -208,9 +208,9 @@ public class InventoryManager {
             if (itemStack == null) {
                 continue;
             }
-            String material = itemStack.getType().name();
-            if (inventoryMaterial.contains(material)) {
-                inventoryHolderMapForLeaderboard.get(uuid).addToHolder(material,
+            int id = inventoryWorthTable.getId(itemStack.getType());
+            if (id >= 0) {
+                inventoryHolderMapForLeaderboard.get(uuid).addToHolder(id,
                     itemStack.getAmount());
             }
         }
@@ -227,9 +227,9 @@ public class InventoryManager {
             if (itemStack == null) {
                 continue;
             }
-            String material = itemStack.getType().name();
-            if (inventoryMaterial.contains(material)) {
-                inventoryHolderMapForStats.get(uuid).addToHolder(material, itemStack.getAmount());
+            int id = inventoryWorthTable.getId(itemStack.getType());
+            if (id >= 0) {
+                inventoryHolderMapForStats.get(uuid).addToHolder(id, itemStack.getAmount());
             }
         }
     }
@@ -267,13 +267,7 @@ public class InventoryManager {
      * @return double value representing total worth of inventories
      */
     public double getAllInventoriesWorth(InventoryHolder inventoryHolder) {
-        double totalInventoryWorth = 0;
-        HashMap<String, MutableInt> counter = inventoryHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalInventoryWorth += map.getValue().get() * inventoryWorth.get(map.getKey());
-        }
-        return totalInventoryWorth;
+        return inventoryHolder.getTotalWorth();
     }
 
     /**
@@ -3,6 +3,13 @@ package tk.taverncraft.survivaltop.land;
 import java.util.UUID;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.claimplugins.*;
@@ -72,9 +79,28 @@ public class LandManager {
      * Initializes land operations helper.
      */
     public void initializeLandOperations() {
+        if (landOperationsHelper != null) {
+            landOperationsHelper.shutdown();
+        }
         this.landOperationsHelper = new LandOperationsHelper(main);
     }
 
+    /**
+     * Runs the given tasks in parallel on the land scan pool and waits for them to complete.
+     *
+     * @param tasks tasks to run
+     */
+    public void invokeAll(List<Runnable> tasks) {
+        landOperationsHelper.invokeAll(tasks);
+    }
+
+    /**
+     * Stops the land scan pool, called when the plugin is disabled.
+     */
+    public void shutdown() {
+        landOperationsHelper.shutdown();
+    }
+
     /**
      * Cleans up holders after leaderboard update.
      */
@@ -91,6 +117,34 @@ public class LandManager {
         landOperationsHelper.doCleanUpForStats(uuid);
     }
 
+    /**
+     * Sets whether entities share the scan of claims they have in common in the leaderboard
+     * update about to start.
+     *
+     * @param shareClaims true to share claims between entities, false otherwise
+     */
+    public void setShareClaimsForLeaderboard(boolean shareClaims) {
+        landOperationsHelper.setShareClaimsForLeaderboard(shareClaims);
+    }
+
+    /**
+     * Gets the entities whose land could not be fully scanned in the current leaderboard
+     * update.
+     *
+     * @return uuids of entities
+     */
+    public Set<UUID> getIncompleteEntitiesForLeaderboard() {
+        return landOperationsHelper.getIncompleteEntitiesForLeaderboard();
+    }
+
+    /**
+     * Scans the claims shared between entities in the current leaderboard update, once the land
+     * of every entity has been processed.
+     */
+    public void processSharedClaimsForLeaderboard() {
+        landOperationsHelper.processSharedClaimsForLeaderboard();
+    }
+
     /**
      * Processes the worth of a land.
      *
@@ -102,6 +156,84 @@ public class LandManager {
         landClaimPluginHandler.processEntityLand(uuid, name, isLeaderboardUpdate);
     }
 
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
+        landClaimPluginHandler.processEntityLand(uuid, name, isGroup, isLeaderboardUpdate);
+    }
+
+    /**
+     * Starts tracking land changes against the regions scanned in the leaderboard update that
+     * just completed.
+     *
+     * @return block wealth changed in the land of entities after it was scanned in the update
+     */
+    public Map<UUID, Double> publishTrackedRegions() {
+        return landOperationsHelper.publishTrackedRegions();
+    }
+
+    /**
+     * Saves chunks scanned in the leaderboard update that just completed to the chunk index.
+     */
+    public void saveChunkIndex() {
+        landOperationsHelper.saveChunkIndex();
+    }
+
+    /**
+     * Handles a block that was added or removed, marking its chunk dirty and applying its worth
+     * to the entities whose land it is in.
+     *
+     * @param block block that changed
+     * @param material material of block that was added or removed
+     * @param amount 1 if added, -1 if removed
+     */
+    public void applyBlockChange(Block block, Material material, int amount) {
+        landOperationsHelper.applyBlockChange(block, material, amount);
+    }
+
+    /**
+     * Handles a chunk being unloaded.
+     *
+     * @param chunk chunk that was unloaded
+     */
+    public void onChunkUnload(Chunk chunk) {
+        landOperationsHelper.onChunkUnload(chunk);
+    }
+
+    /**
+     * Gets the number of chunk sections scanned in the current leaderboard update.
+     *
+     * @return number of sections scanned
+     */
+    public long getSectionsScannedForLeaderboard() {
+        return landOperationsHelper.getSectionsScannedForLeaderboard();
+    }
+
+    /**
+     * Gets the number of chunk sections skipped in the current leaderboard update.
+     *
+     * @return number of sections skipped
+     */
+    public long getSectionsSkippedForLeaderboard() {
+        return landOperationsHelper.getSectionsSkippedForLeaderboard();
+    }
+
+    /**
+     * Gets the number of chunks reused from cache in the current leaderboard update.
+     *
+     * @return number of chunks reused
+     */
+    public long getChunksReusedForLeaderboard() {
+        return landOperationsHelper.getChunksReusedForLeaderboard();
+    }
+
     /**
      * Creates holders for leaderboard.
      *
@@ -148,10 +280,13 @@ public class LandManager {
     }
 
     /**
-     * Processes spawner types on the main thread for leaderboard.
+     * Processes spawners and containers on the main thread for leaderboard, a few milliseconds
+     * in each tick.
+     *
+     * @param onComplete callback run on the main thread once done or stopped
      */
-    public void processSpawnerTypesForLeaderboard() {
-        landOperationsHelper.processSpawnerTypesForLeaderboard();
+    public void processSpawnersAndContainersForLeaderboard(Runnable onComplete) {
+        landOperationsHelper.processSpawnersAndContainersForLeaderboard(onComplete);
     }
 
     /**
@@ -163,13 +298,6 @@ public class LandManager {
         landOperationsHelper.processSpawnerTypesForStats(uuid);
     }
 
-    /**
-     * Processes container items on the main thread for leaderboard.
-     */
-    public void processContainerItemsForLeaderboard() {
-        landOperationsHelper.processContainerItemsForLeaderboard();
-    }
-
     /**
      * Processes container items on the main thread for stats.
      *
@@ -14,6 +14,7 @@ import net.crashcraft.crashclaim.claimobjects.Claim;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using CrashClaim plugin.
@@ -42,13 +43,17 @@ public class CrashClaimHandler implements LandClaimPluginHandler {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        ArrayList<Claim> claims = getClaims(name);
+        ArrayList<Claim> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (Claim claim : claims) {
+            World world = Bukkit.getWorld(claim.getWorld());
+            if (world == null) {
+                continue;
+            }
             double minX = Math.min(claim.getMaxX(), claim.getMinX());
-            double minY = main.getOptions().getMinLandHeight();
+            double minY = landOperationsHelper.getMinLandHeight(world);
             double minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
             double maxX = Math.max(claim.getMaxX(), claim.getMinX()) + 1;
-            double maxY = main.getOptions().getMaxLandHeight();
+            double maxY = landOperationsHelper.getMaxLandHeight(world);
             double maxZ = Math.max(claim.getMaxZ(), claim.getMinZ()) + 1;
             numBlocks += (maxX - minX) * (maxY - minY) * (maxZ - minZ);
         }
@@ -63,50 +68,68 @@ public class CrashClaimHandler implements LandClaimPluginHandler {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            ArrayList<Claim> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            ArrayList<Claim> claims = getClaims(name, isGroup);
             for (Claim claim : claims) {
                 int maxX = claim.getMaxX();
                 int maxZ = claim.getMaxZ();
                 int minX = claim.getMinX();
                 int minZ = claim.getMinZ();
                 World world = Bukkit.getWorld(claim.getWorld());
+                if (world == null) {
+                    continue;
+                }
                 Location loc1 = new Location(world, maxX, 0, maxZ);
                 Location loc2 = new Location(world, minX, 0, minZ);
-                processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                regions.add(getClaimRegion(loc1, loc2, world));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    private void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    private ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
-        double minY = main.getOptions().getMinLandHeight();
+        double minY = landOperationsHelper.getMinLandHeight(world);
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
-        double maxY = main.getOptions().getMaxLandHeight();
+        double maxY = landOperationsHelper.getMaxLandHeight(world);
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private ArrayList<Claim> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private ArrayList<Claim> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -121,7 +144,7 @@ public class CrashClaimHandler implements LandClaimPluginHandler {
      * @return List of claims of player
      */
     private ArrayList<Claim> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return CrashClaim.getPlugin().getApi().getClaims(player.getPlayer());
     }
 
@@ -1,12 +1,13 @@
 package tk.taverncraft.survivaltop.land.claimplugins;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
 
 import com.massivecraft.factions.FLocation;
 import com.massivecraft.factions.FPlayer;
@@ -16,6 +17,7 @@ import com.massivecraft.factions.Factions;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using FactionsUuid plugin.
@@ -43,9 +45,17 @@ public class FactionsUuidHandler implements LandClaimPluginHandler {
      * @return size 2 array with 1st element = number of claims and 2nd element = number of blocks
      */
     public Long[] getClaimsInfo(String name) {
-        Set<FLocation> claims = getClaims(name);
-        double height = main.getOptions().getMaxLandHeight() - main.getOptions().getMinLandHeight();
-        long numBlocks = claims.size() * 16L * 16L * Double.valueOf(height).longValue();
+        Set<FLocation> claims = getClaims(name, main.getOptions().groupIsEnabled());
+        long numBlocks = 0;
+        for (FLocation claim : claims) {
+            World world = claim.getWorld();
+            if (world == null) {
+                continue;
+            }
+            long height = landOperationsHelper.getMaxLandHeight(world)
+                    - landOperationsHelper.getMinLandHeight(world);
+            numBlocks += 16L * 16L * height;
+        }
         return new Long[]{(long) claims.size(), numBlocks};
     }
 
@@ -57,12 +67,31 @@ public class FactionsUuidHandler implements LandClaimPluginHandler {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            Set<FLocation> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            Set<FLocation> claims = getClaims(name, isGroup);
             for (FLocation claim : claims) {
-                landOperationsHelper.processEntityChunk(uuid, claim.getChunk(), claim.getWorld(),
-                        isLeaderboardUpdate);
+                World world = claim.getWorld();
+                if (world == null) {
+                    continue;
+                }
+                regions.add(landOperationsHelper.getChunkRegion(world, (int) claim.getX(),
+                        (int) claim.getZ()));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
@@ -71,9 +100,10 @@ public class FactionsUuidHandler implements LandClaimPluginHandler {
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private Set<FLocation> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private Set<FLocation> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -88,7 +118,7 @@ public class FactionsUuidHandler implements LandClaimPluginHandler {
      * @return List of claims of player
      */
     private Set<FLocation> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         FPlayer fPlayer = FPlayers.getInstance().getByOfflinePlayer(player);
         Faction faction = fPlayer.getFaction();
         return faction.getAllClaims();
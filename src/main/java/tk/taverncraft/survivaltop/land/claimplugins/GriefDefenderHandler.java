@@ -15,6 +15,7 @@ import com.griefdefender.api.claim.Claim;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using GriefDefender plugin.
@@ -43,7 +44,7 @@ public class GriefDefenderHandler implements LandClaimPluginHandler {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        List<Claim> claims = getClaims(name);
+        List<Claim> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (Claim claim : claims) {
             Vector3i greaterBoundary = claim.getGreaterBoundaryCorner();
             Vector3i lesserBoundary = claim.getLesserBoundaryCorner();
@@ -66,8 +67,22 @@ public class GriefDefenderHandler implements LandClaimPluginHandler {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            List<Claim> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            List<Claim> claims = getClaims(name, isGroup);
             for (Claim claim : claims) {
                 Vector3i greaterBoundary = claim.getGreaterBoundaryCorner();
                 Vector3i lesserBoundary = claim.getLesserBoundaryCorner();
@@ -76,40 +91,41 @@ public class GriefDefenderHandler implements LandClaimPluginHandler {
                         greaterBoundary.getY(), greaterBoundary.getZ());
                 Location loc2 = new Location(world, lesserBoundary.getX(),
                         lesserBoundary.getY(), lesserBoundary.getZ());
-                processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                regions.add(getClaimRegion(loc1, loc2, world));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    private void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    private ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
         double minY = Math.min(l1.getY(), l2.getY());
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
         double maxY = Math.max(l1.getY(), l2.getY()) + 1;
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private List<Claim> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private List<Claim> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -124,7 +140,7 @@ public class GriefDefenderHandler implements LandClaimPluginHandler {
      * @return List of claims of player
      */
     private List<Claim> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return GriefDefender.getCore().getAllPlayerClaims(player.getUniqueId());
     }
 
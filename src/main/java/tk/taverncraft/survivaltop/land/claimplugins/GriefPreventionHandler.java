@@ -1,10 +1,10 @@
 package tk.taverncraft.survivaltop.land.claimplugins;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.Vector;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
@@ -14,6 +14,7 @@ import me.ryanhamshire.GriefPrevention.GriefPrevention;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using GriefPrevention plugin.
@@ -42,10 +43,14 @@ public class GriefPreventionHandler implements LandClaimPluginHandler {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        Vector<Claim> claims = getClaims(name);
+        Vector<Claim> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (Claim claim : claims) {
-            double maxY = main.getOptions().getMaxLandHeight();
-            double minY = main.getOptions().getMinLandHeight();
+            World world = claim.getGreaterBoundaryCorner().getWorld();
+            if (world == null) {
+                continue;
+            }
+            double maxY = landOperationsHelper.getMaxLandHeight(world);
+            double minY = landOperationsHelper.getMinLandHeight(world);
             numBlocks += claim.getArea() * (maxY - minY);
         }
         return new Long[]{(long) claims.size(), numBlocks};
@@ -59,46 +64,64 @@ public class GriefPreventionHandler implements LandClaimPluginHandler {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            Vector<Claim> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            Vector<Claim> claims = getClaims(name, isGroup);
             for (Claim claim : claims) {
                 Location loc1 = claim.getGreaterBoundaryCorner();
                 Location loc2 = claim.getLesserBoundaryCorner();
                 World world = loc1.getWorld();
-                processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                if (world == null) {
+                    continue;
+                }
+                regions.add(getClaimRegion(loc1, loc2, world));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    public void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    public ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
-        double minY = main.getOptions().getMinLandHeight();
+        double minY = landOperationsHelper.getMinLandHeight(world);
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
-        double maxY = main.getOptions().getMaxLandHeight();
+        double maxY = landOperationsHelper.getMaxLandHeight(world);
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private Vector<Claim> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private Vector<Claim> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -113,7 +136,7 @@ public class GriefPreventionHandler implements LandClaimPluginHandler {
      * @return List of claims of player
      */
     private Vector<Claim> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return GriefPrevention.instance.dataStore.getPlayerData(player.getUniqueId()).getClaims();
     }
 
@@ -16,6 +16,16 @@ public interface LandClaimPluginHandler {
      */
     void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate);
 
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    void processEntityLand(UUID uuid, String name, boolean isGroup, boolean isLeaderboardUpdate);
+
     /**
      * Gets the claim info for an entity.
      *
@@ -1,5 +1,6 @@
 package tk.taverncraft.survivaltop.land.claimplugins;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -15,6 +16,7 @@ import br.net.fabiozumbi12.RedProtect.Bukkit.Region;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using RedProtect plugin.
@@ -43,7 +45,7 @@ public class RedProtectHandler implements LandClaimPluginHandler  {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        Set<Region> claims = getClaims(name);
+        Set<Region> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (Region claim : claims) {
             Location loc1 = claim.getMaxLocation();
             Location loc2 = claim.getMinLocation();
@@ -62,46 +64,61 @@ public class RedProtectHandler implements LandClaimPluginHandler  {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            Set<Region> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            Set<Region> claims = getClaims(name, isGroup);
             for (Region claim : claims) {
                 World world = Bukkit.getWorld(claim.getWorld());
                 Location loc1 = claim.getMaxLocation();
                 Location loc2 = claim.getMinLocation();
-                processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                regions.add(getClaimRegion(loc1, loc2, world));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    public void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    public ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
         double minY = Math.min(l1.getY(), l2.getY());
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
         double maxY = Math.max(l1.getY(), l2.getY()) + 1;
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private Set<Region> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private Set<Region> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -116,7 +133,7 @@ public class RedProtectHandler implements LandClaimPluginHandler  {
      * @return List of claims of player
      */
     private Set<Region> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return RedProtect.get().getRegionManager().getMemberRegions(
                 player.getUniqueId().toString());
     }
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
@@ -15,6 +14,7 @@ import com.bekvon.bukkit.residence.protection.CuboidArea;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using Residence plugin.
@@ -43,7 +43,7 @@ public class ResidenceHandler implements LandClaimPluginHandler  {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        List<ClaimedResidence> claims = getClaims(name);
+        List<ClaimedResidence> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (ClaimedResidence claim : claims) {
             numBlocks += claim.getTotalSize();
         }
@@ -58,49 +58,64 @@ public class ResidenceHandler implements LandClaimPluginHandler  {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            List<ClaimedResidence> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            List<ClaimedResidence> claims = getClaims(name, isGroup);
             for (ClaimedResidence claim : claims) {
                 CuboidArea[] areas = claim.getAreaArray();
                 for (CuboidArea area : areas) {
                     Location loc1 = area.getHighLocation();
                     Location loc2 = area.getLowLocation();
                     World world = area.getWorld();
-                    processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                    regions.add(getClaimRegion(loc1, loc2, world));
                 }
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    public void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    public ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
         double minY = Math.min(l1.getY(), l2.getY());
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
         double maxY = Math.max(l1.getY(), l2.getY()) + 1;
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private List<ClaimedResidence> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private List<ClaimedResidence> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -115,7 +130,7 @@ public class ResidenceHandler implements LandClaimPluginHandler  {
      * @return List of claims of player
      */
     private List<ClaimedResidence> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return Residence.getInstance().getPlayerManager().getResidencePlayer(
                 player.getUniqueId()).getResList();
     }
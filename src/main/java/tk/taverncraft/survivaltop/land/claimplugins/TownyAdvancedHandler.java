@@ -1,11 +1,11 @@
 package tk.taverncraft.survivaltop.land.claimplugins;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 
@@ -18,6 +18,7 @@ import com.palmergames.bukkit.towny.object.TownBlock;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using Towny Advanced plugin.
@@ -48,14 +49,18 @@ public class TownyAdvancedHandler implements LandClaimPluginHandler {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        Collection<TownBlock> claims = getClaims(name);
+        Collection<TownBlock> claims = getClaims(name, main.getOptions().groupIsEnabled());
         int townSize = this.main.getConfig().getInt("town-block-size", 16);
         for (TownBlock claim : claims) {
+            World world = claim.getWorldCoord().getBukkitWorld();
+            if (world == null) {
+                continue;
+            }
             double minX = claim.getX() * townSize;
-            double minY = this.main.getOptions().getMinLandHeight();
+            double minY = landOperationsHelper.getMinLandHeight(world);
             double minZ = claim.getZ() * townSize;
             double maxX = minX + townSize;
-            double maxY = this.main.getOptions().getMaxLandHeight();
+            double maxY = landOperationsHelper.getMaxLandHeight(world);
             double maxZ = minZ + townSize;
             numBlocks += (maxX - minX) * (maxZ - minZ) * (maxY - minY);
         }
@@ -70,47 +75,66 @@ public class TownyAdvancedHandler implements LandClaimPluginHandler {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            Collection<TownBlock> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            Collection<TownBlock> claims = getClaims(name, isGroup);
             int townSize = this.main.getConfig().getInt("town-block-size", 16);
             for (TownBlock claim : claims) {
                 World world = claim.getWorldCoord().getBukkitWorld();
+                if (world == null) {
+                    continue;
+                }
                 double minX = claim.getX() * townSize;
                 double minZ = claim.getZ() * townSize;
                 double maxX = minX + townSize;
                 double maxZ = minZ + townSize;
-                processEntityClaim(uuid, maxX, maxZ, minX, minZ, world, isLeaderboardUpdate);
+                regions.add(getClaimRegion(maxX, maxZ, minX, minZ, world));
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param maxX max value of x
      * @param maxZ max value of z
      * @param minX min value of x
      * @param minZ min value of z
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    public void processEntityClaim(UUID uuid, double maxX, double maxZ, double minX, double minZ,
-            World world, boolean isLeaderboardUpdate) {
-        double minY = this.main.getOptions().getMinLandHeight();
-        double maxY = this.main.getOptions().getMaxLandHeight();
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+    public ScanRegion getClaimRegion(double maxX, double maxZ, double minX, double minZ,
+            World world) {
+        double minY = landOperationsHelper.getMinLandHeight(world);
+        double maxY = landOperationsHelper.getMaxLandHeight(world);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private Collection<TownBlock> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private Collection<TownBlock> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -125,7 +149,7 @@ public class TownyAdvancedHandler implements LandClaimPluginHandler {
      * @return List of claims of player
      */
     private Collection<TownBlock> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         Resident resident = api.getResident(player.getUniqueId());
         // assume made that if group is not enabled, player land comes from towns and not nations
         try {
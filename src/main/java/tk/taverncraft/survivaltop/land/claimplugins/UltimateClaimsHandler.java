@@ -17,6 +17,7 @@ import com.songoda.ultimateclaims.claim.region.RegionCorners;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.LandOperationsHelper;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
 
 /**
  * Handles land wealth calculated using UltimateClaims plugin.
@@ -49,10 +50,17 @@ public class UltimateClaimsHandler implements LandClaimPluginHandler  {
      */
     public Long[] getClaimsInfo(String name) {
         long numBlocks = 0;
-        List<Claim> claims = getClaims(name);
+        List<Claim> claims = getClaims(name, main.getOptions().groupIsEnabled());
         for (Claim claim : claims) {
-            double maxY = main.getOptions().getMaxLandHeight();
-            double minY = main.getOptions().getMinLandHeight();
+            if (claim.getClaimedChunks().isEmpty()) {
+                continue;
+            }
+            World world = Bukkit.getWorld(claim.getClaimedChunks().get(0).getWorld());
+            if (world == null) {
+                continue;
+            }
+            double maxY = landOperationsHelper.getMaxLandHeight(world);
+            double minY = landOperationsHelper.getMinLandHeight(world);
             numBlocks += claim.getClaimSize() * (maxY - minY);
         }
         return new Long[]{(long) claims.size(), numBlocks};
@@ -66,11 +74,25 @@ public class UltimateClaimsHandler implements LandClaimPluginHandler  {
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
     public void processEntityLand(UUID uuid, String name, boolean isLeaderboardUpdate) {
+        processEntityLand(uuid, name, main.getOptions().groupIsEnabled(), isLeaderboardUpdate);
+    }
+
+    /**
+     * Processes the worth of the land of a player or group.
+     *
+     * @param uuid uuid of sender if this is run through stats command; otherwise entities
+     * @param name name of entity to get land worth for
+     * @param isGroup true if entity is a group, false if it is a player
+     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     */
+    public void processEntityLand(UUID uuid, String name, boolean isGroup,
+            boolean isLeaderboardUpdate) {
         try {
-            OfflinePlayer player = Bukkit.getOfflinePlayer(name);
-            List<Claim> claims = getClaims(name);
+            List<ScanRegion> regions = new ArrayList<>();
+            OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
+            List<Claim> claims = getClaims(name, isGroup);
             for (Claim claim : claims) {
-                if (!claim.getOwner().getUniqueId().equals(player.getUniqueId())) {
+                if (!isGroup && !claim.getOwner().getUniqueId().equals(player.getUniqueId())) {
                     continue;
                 }
                 List<RegionCorners> regionCorners = claim.getCorners();
@@ -82,44 +104,48 @@ public class UltimateClaimsHandler implements LandClaimPluginHandler  {
                         double z1 = claimCorner.z[0];
                         double z2 = claimCorner.z[1];
                         World world = Bukkit.getWorld(claim.getClaimedChunks().get(0).getWorld());
+                        if (world == null) {
+                            continue;
+                        }
                         Location loc1 = new Location(world, x1, 0, z1);
                         Location loc2 = new Location(world, x2, 0, z2);
-                        processEntityClaim(uuid, loc1, loc2, world, isLeaderboardUpdate);
+                        regions.add(getClaimRegion(loc1, loc2, world));
                     }
                 }
             }
+            landOperationsHelper.processEntityRegions(uuid, regions, isLeaderboardUpdate);
         } catch (NoClassDefFoundError | NullPointerException ignored) {
         }
     }
 
     /**
-     * Processes the worth of a claim identified between 2 locations.
+     * Gets the region of a claim identified between 2 locations.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param l1 location 1
      * @param l2 location 2
      * @param world world that the claim is in
-     * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
+     *
+     * @return region of the claim
      */
-    public void processEntityClaim(UUID uuid, Location l1, Location l2, World world,
-            boolean isLeaderboardUpdate) {
+    public ScanRegion getClaimRegion(Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
-        double minY = main.getOptions().getMinLandHeight();
+        double minY = landOperationsHelper.getMinLandHeight(world);
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
-        double maxY = main.getOptions().getMaxLandHeight();
+        double maxY = landOperationsHelper.getMaxLandHeight(world);
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
-        landOperationsHelper.processEntityClaim(uuid, maxX, minX, maxY, minY, maxZ, minZ, world,
-                isLeaderboardUpdate);
+        return new ScanRegion(world, (int) minX, (int) maxX, (int) minY, (int) maxY, (int) minZ,
+                (int) maxZ);
     }
 
     /**
      * Gets the claim for entity.
      *
      * @param name name of entity
+     * @param isGroup true if entity is a group, false if it is a player
      */
-    private List<Claim> getClaims(String name) {
-        if (this.main.getOptions().groupIsEnabled()) {
+    private List<Claim> getClaims(String name, boolean isGroup) {
+        if (isGroup) {
             return getClaimsByGroup(name);
         } else {
             return getClaimsByPlayer(name);
@@ -134,7 +160,7 @@ public class UltimateClaimsHandler implements LandClaimPluginHandler  {
      * @return List of claims of player
      */
     private List<Claim> getClaimsByPlayer(String name) {
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(name);
         return ultimateClaims.getClaimManager().getClaims(player);
     }
 
@@ -1,73 +1,60 @@
 package tk.taverncraft.survivaltop.land.operations;
 
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
-
-import org.bukkit.block.Block;
 
 import tk.taverncraft.survivaltop.land.operations.holders.BlockHolder;
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Handles the logic for performing block operations when scanning locations.
  */
 public class BlockOperations {
-    private final LinkedHashMap<String, Double> blockWorth;
-    private Set<String> blockMaterial;
+    private final WorthTable blockWorth;
 
     // holders containing count of each material mapped to uuid
-    private HashMap<UUID, BlockHolder> blockHolderMapForLeaderboard = new HashMap<>();
+    private ConcurrentHashMap<UUID, BlockHolder> blockHolderMapForLeaderboard =
+            new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, BlockHolder> blockHolderMapForStats = new ConcurrentHashMap<>();
 
     /**
      * Constructor for BlockOperations.
      *
-     * @param blockWorth map of block materials to their values
+     * @param blockWorth table of block materials to their values
      */
-    public BlockOperations(LinkedHashMap<String, Double> blockWorth) {
+    public BlockOperations(WorthTable blockWorth) {
         this.blockWorth = blockWorth;
-        this.blockMaterial = blockWorth.keySet();
     }
 
     /**
      * Returns block holder for given uuid.
      *
-     * @param uuid uuid of sender, not to be confused with the entity itself!
+     * @param uuid uuid of each entity
      *
      * @return block holder for given uuid
      */
-    public BlockHolder getBlockHolderForStats(UUID uuid) {
-        return blockHolderMapForStats.get(uuid);
+    public BlockHolder getBlockHolderForLeaderboard(UUID uuid) {
+        return blockHolderMapForLeaderboard.get(uuid);
     }
 
     /**
-     * Returns block operation for leaderboard.
+     * Returns block holder for given uuid.
      *
-     * @return block operation for leaderboard
-     */
-    public BiFunction<UUID, Block, Boolean> getLeaderboardOperation() {
-        return processBlockForLeaderboard;
-    }
-
-    /**
-     * Returns block operation for stats.
+     * @param uuid uuid of sender, not to be confused with the entity itself!
      *
-     * @return block operation for stats
+     * @return block holder for given uuid
      */
-    public BiFunction<UUID, Block, Boolean> getStatsOperation() {
-        return processBlockForStats;
+    public BlockHolder getBlockHolderForStats(UUID uuid) {
+        return blockHolderMapForStats.get(uuid);
     }
 
     /**
      * Cleans up holders after leaderboard update.
      */
     public void doCleanUpForLeaderboard() {
-        blockHolderMapForLeaderboard = new HashMap<>();
+        blockHolderMapForLeaderboard = new ConcurrentHashMap<>();
     }
 
     /**
@@ -85,7 +72,7 @@ public class BlockOperations {
      * @param uuid uuid of each entities
      */
     public void createHolderForLeaderboard(UUID uuid) {
-        blockHolderMapForLeaderboard.put(uuid, new BlockHolder(blockMaterial));
+        blockHolderMapForLeaderboard.put(uuid, new BlockHolder(blockWorth));
     }
 
     /**
@@ -94,7 +81,7 @@ public class BlockOperations {
      * @param uuid uuid of sender, not to confused with the entity itself!
      */
     public void createHolderForStats(UUID uuid) {
-        blockHolderMapForStats.put(uuid, new BlockHolder(blockMaterial));
+        blockHolderMapForStats.put(uuid, new BlockHolder(blockWorth));
     }
 
     /**
@@ -130,36 +117,6 @@ public class BlockOperations {
      * @return double value representing total worth of blocks
      */
     public double getAllBlocksWorth(BlockHolder blockHolder) {
-        double totalBlockWorth = 0;
-        HashMap<String, MutableInt> counter = blockHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalBlockWorth += map.getValue().get() * blockWorth.get(map.getKey());
-        }
-        return totalBlockWorth;
+        return blockHolder.getTotalWorth();
     }
-
-    /**
-     * Processes blocks immediately (and asynchronously) for leaderboard.
-     */
-    private final BiFunction<UUID, Block, Boolean> processBlockForLeaderboard = (uuid, block) -> {
-        String material = block.getType().name();
-        if (blockMaterial.contains(material)) {
-            blockHolderMapForLeaderboard.get(uuid).addToHolder(material);
-            return true;
-        }
-        return false;
-    };
-
-    /**
-     * Processes blocks immediately (and asynchronously) for stats.
-     */
-    private final BiFunction<UUID, Block, Boolean> processBlockForStats = (uuid, block) -> {
-        String material = block.getType().name();
-        if (blockMaterial.contains(material)) {
-            blockHolderMapForStats.get(uuid).addToHolder(material);
-            return true;
-        }
-        return false;
-    };
 }
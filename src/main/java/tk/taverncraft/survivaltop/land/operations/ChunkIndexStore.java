@@ -0,0 +1,414 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.land.operations.anvil.AnvilChunkScanner;
+import tk.taverncraft.survivaltop.land.operations.anvil.RegionFileReader;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Stores cached chunk scan results on disk so they survive restarts, in one file per world
+ * region. Numbers are written as varints and sorted values (chunk indexes, block ids and
+ * positions) as deltas, which keeps most chunks to a few dozen bytes. Each file carries a
+ * fingerprint of the worth configs since block ids change whenever those do, and each chunk
+ * carries the time it was scanned so that it is only reused if the region file was not written
+ * to since.
+ */
+public class ChunkIndexStore {
+    private static final int MAGIC = 0x53544349;
+    private static final int FORMAT_VERSION = 1;
+    private static final Pattern FILE_NAME = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.idx");
+
+    private final File folder;
+    private final String fingerprint;
+    private final RegionFileReader regionFileReader = new RegionFileReader();
+
+    /**
+     * Constructor for ChunkIndexStore.
+     *
+     * @param folder folder to keep index files in
+     * @param fingerprint fingerprint of the worth configs results were scanned with
+     */
+    public ChunkIndexStore(File folder, String fingerprint) {
+        this.folder = folder;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Lists regions that have an index file.
+     *
+     * @return keys of regions with an index file
+     */
+    public Set<RegionKey> listRegions() {
+        Set<RegionKey> regionKeys = new HashSet<>();
+        File[] worldFolders = folder.listFiles(File::isDirectory);
+        if (worldFolders == null) {
+            return regionKeys;
+        }
+        for (File worldFolder : worldFolders) {
+            UUID worldUid;
+            try {
+                worldUid = UUID.fromString(worldFolder.getName());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            String[] fileNames = worldFolder.list();
+            if (fileNames == null) {
+                continue;
+            }
+            for (String fileName : fileNames) {
+                Matcher matcher = FILE_NAME.matcher(fileName);
+                if (matcher.matches()) {
+                    regionKeys.add(new RegionKey(worldUid, Integer.parseInt(matcher.group(1)),
+                            Integer.parseInt(matcher.group(2))));
+                }
+            }
+        }
+        return regionKeys;
+    }
+
+    /**
+     * Loads the chunks of a region that are still valid, which are those whose chunk was not
+     * written to the region file since the second they were scanned in.
+     *
+     * @param world world the region is in
+     * @param regionKey key of region to load
+     *
+     * @return valid chunks of region
+     */
+    public synchronized List<IndexedChunk> load(World world, RegionKey regionKey) {
+        List<IndexedChunk> indexedChunks = new ArrayList<>();
+        File indexFile = getIndexFile(regionKey);
+        if (!indexFile.isFile()) {
+            return indexedChunks;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readUnsignedByte() != FORMAT_VERSION
+                    || !input.readUTF().equals(fingerprint)) {
+                return indexedChunks;
+            }
+            int[] timestamps = regionFileReader.readTimestamps(
+                    AnvilChunkScanner.getRegionFolder(world), regionKey.regionX,
+                    regionKey.regionZ);
+            int numChunks = readVarInt(input);
+            int localIndex = 0;
+            for (int i = 0; i < numChunks; i++) {
+                localIndex += readVarInt(input);
+                long scannedAt = readVarLong(input);
+                HashMap<Long, PartValuation> parts = readParts(input);
+
+                // chunks never written to disk cannot be checked and are scanned again, and
+                // timestamps are in seconds so a write in the second of the scan counts as later
+                if (timestamps == null || localIndex >= timestamps.length
+                        || timestamps[localIndex] == 0
+                        || timestamps[localIndex] >= scannedAt / 1000) {
+                    continue;
+                }
+                indexedChunks.add(new IndexedChunk((regionKey.regionX << 5) + (localIndex & 31),
+                        (regionKey.regionZ << 5) + (localIndex >> 5), scannedAt, parts));
+            }
+        } catch (IOException | RuntimeException e) {
+            LogManager.warn("Failed to read chunk index " + indexFile.getName() + ": "
+                    + e.getMessage());
+            indexedChunks.clear();
+        }
+        return indexedChunks;
+    }
+
+    /**
+     * Saves the chunks of a region, replacing its index file. The file is deleted if there is
+     * nothing to save.
+     *
+     * @param regionKey key of region to save
+     * @param indexedChunks chunks of region to save
+     */
+    public synchronized void save(RegionKey regionKey, List<IndexedChunk> indexedChunks) {
+        File indexFile = getIndexFile(regionKey);
+        if (indexedChunks.isEmpty()) {
+            if (indexFile.exists() && !indexFile.delete()) {
+                LogManager.warn("Failed to delete chunk index " + indexFile.getName());
+            }
+            return;
+        }
+        indexedChunks.sort((a, b) -> Integer.compare(getLocalIndex(a), getLocalIndex(b)));
+        File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(indexFile.getParentFile().toPath());
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tempFile)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(FORMAT_VERSION);
+                output.writeUTF(fingerprint);
+                writeVarInt(output, indexedChunks.size());
+                int previousIndex = 0;
+                for (IndexedChunk indexedChunk : indexedChunks) {
+                    int localIndex = getLocalIndex(indexedChunk);
+                    writeVarInt(output, localIndex - previousIndex);
+                    previousIndex = localIndex;
+                    writeVarLong(output, indexedChunk.scannedAt);
+                    writeParts(output, indexedChunk.parts);
+                }
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogManager.warn("Failed to save chunk index " + indexFile.getName() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the index file of a region.
+     *
+     * @param regionKey key of region
+     *
+     * @return index file of region
+     */
+    private File getIndexFile(RegionKey regionKey) {
+        return new File(folder, regionKey.worldUid + File.separator + "r." + regionKey.regionX
+                + "." + regionKey.regionZ + ".idx");
+    }
+
+    /**
+     * Gets the index of a chunk within its region.
+     *
+     * @param indexedChunk chunk to get index of
+     *
+     * @return local x + local z * 32
+     */
+    private static int getLocalIndex(IndexedChunk indexedChunk) {
+        return (indexedChunk.chunkX & 31) | ((indexedChunk.chunkZ & 31) << 5);
+    }
+
+    /**
+     * Writes the results of the parts of a chunk.
+     *
+     * @param output output to write to
+     * @param parts results by key of part
+     */
+    private static void writeParts(DataOutputStream output, Map<Long, PartValuation> parts)
+            throws IOException {
+        writeVarInt(output, parts.size());
+        for (Map.Entry<Long, PartValuation> entry : parts.entrySet()) {
+            PartValuation partValuation = entry.getValue();
+            writeVarLong(output, entry.getKey());
+            int[] blockIds = partValuation.getBlockIds();
+            long[] blockCounts = partValuation.getBlockCounts();
+            writeVarInt(output, blockIds.length);
+            int previousId = 0;
+            for (int i = 0; i < blockIds.length; i++) {
+                writeVarInt(output, blockIds[i] - previousId);
+                previousId = blockIds[i];
+                writeVarLong(output, blockCounts[i]);
+            }
+            writePositions(output, partValuation.getSpawnerPositions());
+            writePositions(output, partValuation.getContainerPositions());
+        }
+    }
+
+    /**
+     * Reads the results of the parts of a chunk.
+     *
+     * @param input input to read from
+     *
+     * @return results by key of part
+     */
+    private static HashMap<Long, PartValuation> readParts(DataInputStream input)
+            throws IOException {
+        int numParts = readVarInt(input);
+        HashMap<Long, PartValuation> parts = new HashMap<>();
+        for (int i = 0; i < numParts; i++) {
+            long partKey = readVarLong(input);
+            int numIds = readVarInt(input);
+            int[] blockIds = new int[numIds];
+            long[] blockCounts = new long[numIds];
+            int previousId = 0;
+            for (int j = 0; j < numIds; j++) {
+                previousId += readVarInt(input);
+                blockIds[j] = previousId;
+                blockCounts[j] = readVarLong(input);
+            }
+            parts.put(partKey, new PartValuation(blockIds, blockCounts, readPositions(input),
+                    readPositions(input)));
+        }
+        return parts;
+    }
+
+    /**
+     * Writes flattened positions, each coordinate as a zigzag delta of the previous position.
+     *
+     * @param output output to write to
+     * @param positions x, y, z values of positions
+     */
+    private static void writePositions(DataOutputStream output, int[] positions)
+            throws IOException {
+        writeVarInt(output, positions.length / 3);
+        for (int i = 0; i < positions.length; i++) {
+            int previous = i < 3 ? 0 : positions[i - 3];
+            int delta = positions[i] - previous;
+            writeVarInt(output, (delta << 1) ^ (delta >> 31));
+        }
+    }
+
+    /**
+     * Reads flattened positions written by {@link #writePositions}.
+     *
+     * @param input input to read from
+     *
+     * @return x, y, z values of positions
+     */
+    private static int[] readPositions(DataInputStream input) throws IOException {
+        int[] positions = new int[readVarInt(input) * 3];
+        for (int i = 0; i < positions.length; i++) {
+            int zigzag = readVarInt(input);
+            int previous = i < 3 ? 0 : positions[i - 3];
+            positions[i] = previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return positions;
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        return (int) readVarLong(input);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint is too long");
+    }
+
+    /**
+     * Key of a region across worlds.
+     */
+    public static class RegionKey {
+        private final UUID worldUid;
+        private final int regionX;
+        private final int regionZ;
+
+        /**
+         * Constructor for RegionKey.
+         *
+         * @param worldUid uid of world the region is in
+         * @param regionX x coordinate of region
+         * @param regionZ z coordinate of region
+         */
+        public RegionKey(UUID worldUid, int regionX, int regionZ) {
+            this.worldUid = worldUid;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+        /**
+         * Gets the uid of the world the region is in.
+         *
+         * @return uid of world
+         */
+        public UUID getWorldUid() {
+            return worldUid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RegionKey)) {
+                return false;
+            }
+            RegionKey other = (RegionKey) o;
+            return regionX == other.regionX && regionZ == other.regionZ
+                    && worldUid.equals(other.worldUid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldUid, regionX, regionZ);
+        }
+    }
+
+    /**
+     * Results of the parts of a chunk as stored in the index.
+     */
+    public static class IndexedChunk {
+        private final int chunkX;
+        private final int chunkZ;
+        private final long scannedAt;
+        private final HashMap<Long, PartValuation> parts;
+
+        /**
+         * Constructor for IndexedChunk.
+         *
+         * @param chunkX x coordinate of chunk
+         * @param chunkZ z coordinate of chunk
+         * @param scannedAt epoch millis the chunk was scanned at
+         * @param parts results by key of part
+         */
+        public IndexedChunk(int chunkX, int chunkZ, long scannedAt,
+                HashMap<Long, PartValuation> parts) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.scannedAt = scannedAt;
+            this.parts = parts;
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public long getScannedAt() {
+            return scannedAt;
+        }
+
+        public HashMap<Long, PartValuation> getParts() {
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Captures snapshots of chunks on the main thread without stalling it on chunk loads. Chunks
+ * that are already loaded are captured right away. On Paper, unloaded chunks are loaded with
+ * getChunkAtAsync with a limit on how many loads may be in flight, while on other servers they
+ * are loaded synchronously but only for a limited time in each tick. Chunks loaded
+ * asynchronously are held by a plugin chunk ticket (where supported) from before the load until
+ * they are captured, so they cannot unload in between. Chunks loaded here are requested to
+ * unload again right after they are captured. When reading region files is
+ * enabled, unloaded chunks are not loaded at all but marked to be read from disk instead.
+ * Spawners and containers are taken from the tile entities of each chunk when it is captured
+ * rather than found by reading every block.
+ */
+public class ChunkSnapshotLoader {
+    // the server saves unloaded chunks well within this time, so older unloads need no check
+    private static final long UNLOAD_SAVE_GRACE_MS = 60000;
+
+    private final Main main;
+    private final LandOperationsHelper landOperationsHelper;
+    private final Method getChunkAtAsyncMethod;
+    private final Method getTileEntitiesMethod;
+    private final Method addPluginChunkTicketMethod;
+    private final Method removePluginChunkTicketMethod;
+
+    // when chunks were last unloaded, by world and packed chunk coordinates
+    private final ConcurrentHashMap<UUID, ConcurrentHashMap<Long, Long>> unloadTimes =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for ChunkSnapshotLoader.
+     *
+     * @param main plugin class
+     * @param landOperationsHelper helper for land operations
+     */
+    public ChunkSnapshotLoader(Main main, LandOperationsHelper landOperationsHelper) {
+        this.main = main;
+        this.landOperationsHelper = landOperationsHelper;
+        Method method;
+        try {
+            method = World.class.getMethod("getChunkAtAsync", int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        this.getChunkAtAsyncMethod = method;
+        try {
+            // paper can list tile entities without copying each of them into a snapshot
+            method = Chunk.class.getMethod("getTileEntities", boolean.class);
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        this.getTileEntitiesMethod = method;
+        Method removeMethod;
+        try {
+            // chunk tickets only exist from 1.14 onwards
+            method = World.class.getMethod("addPluginChunkTicket", int.class, int.class,
+                    Plugin.class);
+            removeMethod = World.class.getMethod("removePluginChunkTicket", int.class, int.class,
+                    Plugin.class);
+        } catch (NoSuchMethodException e) {
+            method = null;
+            removeMethod = null;
+        }
+        this.addPluginChunkTicketMethod = method;
+        this.removePluginChunkTicketMethod = removeMethod;
+    }
+
+    /**
+     * Captures snapshots of a batch of chunks, waiting until all of them are captured.
+     *
+     * @param batch chunks to capture
+     * @param allowOffline true if unloaded chunks may be marked to be read from region files
+     *
+     * @return true if all chunks were captured, false if capturing failed, timed out or was
+     *     stopped
+     */
+    public boolean capture(List<ChunkWork> batch, boolean allowOffline)
+            throws InterruptedException, ExecutionException {
+        boolean readOffline = allowOffline && main.getOptions().isReadRegionFiles();
+        pruneUnloadTimes();
+
+        // waiting on ticks while on the main thread would never complete
+        if (Bukkit.isPrimaryThread()) {
+            for (ChunkWork chunkWork : batch) {
+                boolean loaded = isChunkLoaded(chunkWork);
+                if (!loaded && readOffline) {
+                    markOffline(chunkWork);
+                } else {
+                    captureChunk(chunkWork, !loaded);
+                }
+            }
+            return true;
+        }
+
+        // the task itself completes the batch as failed once operations are stopped
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        BatchCapture batchCapture = new BatchCapture(batch, done, readOffline);
+        batchCapture.runTaskTimer(main, 0, 1);
+        try {
+            return done.get(main.getOptions().getChunkCaptureTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            done.complete(false);
+            batchCapture.cancel();
+            LogManager.warn("Timed out capturing a batch of " + batch.size() + " chunks.");
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a chunk is loaded.
+     *
+     * @param chunkWork chunk to check
+     *
+     * @return true if loaded, false otherwise
+     */
+    private boolean isChunkLoaded(ChunkWork chunkWork) {
+        return chunkWork.getWorld().isChunkLoaded(chunkWork.getChunkX(), chunkWork.getChunkZ());
+    }
+
+    /**
+     * Captures a snapshot of a chunk on the main thread, loading it synchronously if needed.
+     *
+     * @param chunkWork chunk to capture
+     * @param loadedHere true if the chunk was not loaded before it was captured here
+     */
+    private void captureChunk(ChunkWork chunkWork, boolean loadedHere) {
+        World world = chunkWork.getWorld();
+        int chunkX = chunkWork.getChunkX();
+        int chunkZ = chunkWork.getChunkZ();
+        Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+        ScanDispatchTable scanDispatchTable = landOperationsHelper.getScanDispatchTable();
+        ChunkSnapshot snapshot = scanDispatchTable.hasBlocks()
+                ? chunk.getChunkSnapshot(true, false, false) : null;
+        int[] tileEntities = scanDispatchTable.hasTileEntities()
+                ? getTileEntities(chunk, scanDispatchTable) : new int[0];
+
+        // taken together with the snapshot so later changes discard the results
+        ChunkValuationCache chunkValuationCache = landOperationsHelper.getChunkValuationCache();
+        chunkWork.setCapture(snapshot, tileEntities,
+                chunkValuationCache.getOrCreate(world, chunkX, chunkZ));
+        landOperationsHelper.markChunkCaptured(chunkWork);
+        if (loadedHere) {
+            chunkValuationCache.markLoadedByScan(world, chunkX, chunkZ);
+            world.unloadChunkRequest(chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Gets the spawners and containers among the tile entities of a chunk.
+     *
+     * @param chunk chunk to get tile entities of
+     * @param scanDispatchTable table of how each material is handled
+     *
+     * @return x, y, z and scan category of each spawner and container
+     */
+    private int[] getTileEntities(Chunk chunk, ScanDispatchTable scanDispatchTable) {
+        BlockState[] blockStates = null;
+        if (getTileEntitiesMethod != null) {
+            try {
+                blockStates = (BlockState[]) getTileEntitiesMethod.invoke(chunk, false);
+            } catch (ReflectiveOperationException ignored) {
+            }
+        }
+        if (blockStates == null) {
+            blockStates = chunk.getTileEntities();
+        }
+        int[] tileEntities = new int[blockStates.length * 4];
+        int size = 0;
+        for (BlockState blockState : blockStates) {
+            byte category = scanDispatchTable.getCategory(blockState.getType());
+            if (category != ScanDispatchTable.SPAWNER && category != ScanDispatchTable.CONTAINER) {
+                continue;
+            }
+            tileEntities[size++] = blockState.getX();
+            tileEntities[size++] = blockState.getY();
+            tileEntities[size++] = blockState.getZ();
+            tileEntities[size++] = category;
+        }
+        return Arrays.copyOf(tileEntities, size);
+    }
+
+    /**
+     * Marks an unloaded chunk to be read from region files. If the chunk unloaded only moments
+     * ago, the region file is only trusted if it was written after that, since the server may
+     * still be saving the chunk. Called on the main thread so that the cache entry is reserved
+     * before the chunk can next be loaded and changed.
+     *
+     * @param chunkWork chunk to mark
+     */
+    private void markOffline(ChunkWork chunkWork) {
+        World world = chunkWork.getWorld();
+        int chunkX = chunkWork.getChunkX();
+        int chunkZ = chunkWork.getChunkZ();
+        long notBefore = 0;
+        ConcurrentHashMap<Long, Long> worldUnloadTimes = unloadTimes.get(world.getUID());
+        if (worldUnloadTimes != null) {
+            Long unloadTime = worldUnloadTimes.get(getChunkKey(chunkX, chunkZ));
+            if (unloadTime != null) {
+                notBefore = unloadTime;
+            }
+        }
+        chunkWork.setOffline(notBefore, landOperationsHelper.getChunkValuationCache()
+                .getOrCreate(world, chunkX, chunkZ));
+        landOperationsHelper.markChunkCaptured(chunkWork);
+    }
+
+    /**
+     * Records when a chunk was unloaded, so that region files written before that are not
+     * read while the server may still be saving it.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public void onChunkUnload(World world, int chunkX, int chunkZ) {
+        if (!main.getOptions().isReadRegionFiles()) {
+            return;
+        }
+        unloadTimes.computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>())
+                .put(getChunkKey(chunkX, chunkZ), System.currentTimeMillis());
+    }
+
+    /**
+     * Drops unload times old enough that the chunks have been saved since.
+     */
+    private void pruneUnloadTimes() {
+        long cutoff = System.currentTimeMillis() - UNLOAD_SAVE_GRACE_MS;
+        for (ConcurrentHashMap<Long, Long> worldUnloadTimes : unloadTimes.values()) {
+            worldUnloadTimes.values().removeIf(unloadTime -> unloadTime < cutoff);
+        }
+    }
+
+    /**
+     * Packs the coordinates of a chunk into a key.
+     *
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return key of chunk
+     */
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a plugin chunk ticket to a chunk so that it stays loaded until the ticket is removed.
+     * Does nothing on servers without chunk tickets.
+     *
+     * @param chunkWork chunk to add ticket to
+     */
+    private void addChunkTicket(ChunkWork chunkWork) {
+        if (addPluginChunkTicketMethod == null) {
+            return;
+        }
+        try {
+            addPluginChunkTicketMethod.invoke(chunkWork.getWorld(), chunkWork.getChunkX(),
+                    chunkWork.getChunkZ(), main);
+        } catch (ReflectiveOperationException ignored) {
+        }
+    }
+
+    /**
+     * Removes the plugin chunk ticket added to a chunk. Does nothing on servers without chunk
+     * tickets.
+     *
+     * @param chunkWork chunk to remove ticket from
+     */
+    private void removeChunkTicket(ChunkWork chunkWork) {
+        if (removePluginChunkTicketMethod == null) {
+            return;
+        }
+        try {
+            removePluginChunkTicketMethod.invoke(chunkWork.getWorld(), chunkWork.getChunkX(),
+                    chunkWork.getChunkZ(), main);
+        } catch (ReflectiveOperationException ignored) {
+        }
+    }
+
+    /**
+     * Requests a chunk to be loaded asynchronously through Paper.
+     *
+     * @param chunkWork chunk to load
+     *
+     * @return future completing with the chunk once loaded
+     */
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Chunk> loadChunkAsync(ChunkWork chunkWork) {
+        try {
+            return (CompletableFuture<Chunk>) getChunkAtAsyncMethod.invoke(chunkWork.getWorld(),
+                    chunkWork.getChunkX(), chunkWork.getChunkZ());
+        } catch (ReflectiveOperationException e) {
+            CompletableFuture<Chunk> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Task run every tick on the main thread until every chunk of a batch is captured.
+     */
+    private class BatchCapture extends BukkitRunnable {
+        private final List<ChunkWork> batch;
+        private final CompletableFuture<Boolean> done;
+        private final boolean readOffline;
+        private final boolean loadAsync = getChunkAtAsyncMethod != null;
+        private final int maxLoadsInFlight = Math.max(1,
+                main.getOptions().getMaxChunkLoadsInFlight());
+        private final long loadBudgetNanos = TimeUnit.MILLISECONDS.toNanos(
+                main.getOptions().getChunkLoadBudgetMs());
+        private int next = 0;
+        private int loadsInFlight = 0;
+        private boolean failed = false;
+
+        private BatchCapture(List<ChunkWork> batch, CompletableFuture<Boolean> done,
+                boolean readOffline) {
+            this.batch = batch;
+            this.done = done;
+            this.readOffline = readOffline;
+        }
+
+        @Override
+        public void run() {
+            if (landOperationsHelper.getStopOperations()) {
+                cancel();
+                done.complete(false);
+                return;
+            }
+            long deadline = System.nanoTime() + loadBudgetNanos;
+            int loadedThisTick = 0;
+            while (next < batch.size() && !failed) {
+                ChunkWork chunkWork = batch.get(next);
+                if (isChunkLoaded(chunkWork)) {
+                    captureChunk(chunkWork, false);
+                    next++;
+                    continue;
+                }
+                if (readOffline) {
+                    markOffline(chunkWork);
+                    next++;
+                    continue;
+                }
+                if (loadAsync) {
+                    if (loadsInFlight >= maxLoadsInFlight) {
+                        break;
+                    }
+                    loadsInFlight++;
+                    next++;
+                    addChunkTicket(chunkWork);
+                    loadChunkAsync(chunkWork).whenComplete((chunk, e) -> {
+                        // paper completes loads on the main thread, but never assume so
+                        if (Bukkit.isPrimaryThread()) {
+                            onChunkLoaded(chunkWork, e == null && chunk != null);
+                        } else {
+                            Bukkit.getScheduler().runTask(main, () ->
+                                    onChunkLoaded(chunkWork, e == null && chunk != null));
+                        }
+                    });
+                    continue;
+                }
+
+                // always load at least one chunk per tick so a small budget still progresses
+                if (loadedThisTick > 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                captureChunk(chunkWork, true);
+                loadedThisTick++;
+                next++;
+            }
+            checkDone();
+        }
+
+        /**
+         * Captures a chunk once its asynchronous load completes, then releases the ticket that
+         * held it loaded.
+         *
+         * @param chunkWork chunk that was loaded
+         * @param loaded true if the chunk was loaded, false if loading failed
+         */
+        private void onChunkLoaded(ChunkWork chunkWork, boolean loaded) {
+            loadsInFlight--;
+            try {
+                if (done.isDone()) {
+                    return;
+                }
+                if (loaded) {
+                    captureChunk(chunkWork, true);
+                } else {
+                    failed = true;
+                }
+            } finally {
+                removeChunkTicket(chunkWork);
+            }
+            checkDone();
+        }
+
+        /**
+         * Completes the batch once all chunks are captured or capturing failed.
+         */
+        private void checkDone() {
+            if (loadsInFlight > 0) {
+                return;
+            }
+            if (failed || next >= batch.size()) {
+                cancel();
+                done.complete(!failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+/**
+ * Caches what was found when scanning each chunk so that leaderboard updates only have to read
+ * chunks that changed since they were last scanned. Entries are dropped (marked dirty) when a
+ * valued block, spawner or container in the chunk changes or when a chunk that was loaded by
+ * something other than a scan unloads, since other plugins may have edited it without events.
+ * Least recently used entries are evicted from memory once the estimated size exceeds the memory
+ * budget. If given an index store, entries are saved to disk and loaded back one region at a time
+ * the first time a chunk in that region is looked up, and regions with evicted entries are loaded
+ * again the next time they are looked up, so the index on disk is not bound by the memory budget.
+ * Index files are only read and written outside the lock of the cache.
+ */
+public class ChunkValuationCache {
+    private final long maxBytes;
+    private final LinkedHashMap<ChunkKey, ChunkValuation> entries =
+            new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes = 0;
+
+    // regions with indexed entries that are not in memory, and chunks whose indexed results
+    // changed since they were last saved so they are discarded when loaded
+    private final ChunkIndexStore chunkIndexStore;
+    private final Set<ChunkIndexStore.RegionKey> unloadedRegions = new HashSet<>();
+    private final Set<ChunkKey> staleIndexedChunks = new HashSet<>();
+
+    // regions whose entries changed since they were last saved, and entries evicted before
+    // they were saved which are kept until the next save
+    private final Set<ChunkIndexStore.RegionKey> changedRegions = new HashSet<>();
+    private final HashMap<ChunkKey, ChunkValuation> unsavedEvictedEntries = new HashMap<>();
+
+    // held while reading or writing index files so a region is never loaded while being saved
+    private final Object indexLock = new Object();
+
+    // chunks loaded only to capture snapshots, only accessed on the main thread
+    private final Set<ChunkKey> chunksLoadedByScan = new HashSet<>();
+
+    /**
+     * Constructor for ChunkValuationCache.
+     *
+     * @param maxBytes memory budget in bytes, 0 or less to disable caching
+     * @param chunkIndexStore store to save entries in, null to keep them in memory only
+     */
+    public ChunkValuationCache(long maxBytes, ChunkIndexStore chunkIndexStore) {
+        this.maxBytes = maxBytes;
+        this.chunkIndexStore = isEnabled() ? chunkIndexStore : null;
+        if (this.chunkIndexStore != null) {
+            unloadedRegions.addAll(this.chunkIndexStore.listRegions());
+        }
+    }
+
+    /**
+     * Checks if caching is enabled.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Gets the cached results of the given parts of a chunk.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     * @param parts parts of the chunk to get results for
+     *
+     * @return results in the same order as the parts, or null if any part is not cached
+     */
+    public PartValuation[] getParts(World world, int chunkX, int chunkZ,
+            List<ScanRegion> parts) {
+        if (!isEnabled()) {
+            return null;
+        }
+        loadRegion(world, chunkX, chunkZ);
+        synchronized (this) {
+            ChunkValuation chunkValuation = entries.get(new ChunkKey(world, chunkX, chunkZ));
+            if (chunkValuation == null) {
+                return null;
+            }
+            PartValuation[] partValuations = new PartValuation[parts.size()];
+            for (int i = 0; i < partValuations.length; i++) {
+                partValuations[i] = chunkValuation.parts.get(getPartKey(parts.get(i)));
+                if (partValuations[i] == null) {
+                    return null;
+                }
+            }
+            return partValuations;
+        }
+    }
+
+    /**
+     * Gets the entry of a chunk to store results in, creating it if absent. Called on the main
+     * thread when the chunk is captured so that any change to the chunk after it was captured
+     * also discards results stored later from that capture. The region of the chunk is not
+     * loaded here since its indexed entries are only older than the results about to be stored.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return entry of chunk, or null if caching is disabled
+     */
+    public synchronized ChunkValuation getOrCreate(World world, int chunkX, int chunkZ) {
+        if (!isEnabled()) {
+            return null;
+        }
+        ChunkKey chunkKey = new ChunkKey(world, chunkX, chunkZ);
+        ChunkValuation chunkValuation = entries.get(chunkKey);
+        if (chunkValuation == null) {
+            chunkValuation = new ChunkValuation(chunkKey, System.currentTimeMillis());
+            entries.put(chunkKey, chunkValuation);
+            usedBytes += chunkValuation.bytes;
+        } else {
+            chunkValuation.scannedAt = System.currentTimeMillis();
+        }
+        return chunkValuation;
+    }
+
+    /**
+     * Stores the results of scanning a part of a chunk.
+     *
+     * @param chunkValuation entry of the chunk the part is in
+     * @param part part that was scanned
+     * @param partValuation results of scanning the part
+     */
+    public synchronized void putPart(ChunkValuation chunkValuation, ScanRegion part,
+            PartValuation partValuation) {
+        if (chunkValuation.dirty) {
+            return;
+        }
+        PartValuation previous = chunkValuation.parts.put(getPartKey(part), partValuation);
+        long change = partValuation.getBytes() - (previous == null ? 0 : previous.getBytes());
+        chunkValuation.bytes += change;
+        chunkValuation.saved = false;
+        usedBytes += change;
+        changedRegions.add(chunkValuation.chunkKey.getRegionKey());
+        evict();
+    }
+
+    /**
+     * Marks a chunk as dirty so that it is read again in the next scan.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public synchronized void markDirty(World world, int chunkX, int chunkZ) {
+        if (!isEnabled()) {
+            return;
+        }
+        ChunkKey chunkKey = new ChunkKey(world, chunkX, chunkZ);
+        ChunkValuation chunkValuation = entries.remove(chunkKey);
+        if (chunkValuation != null) {
+            chunkValuation.dirty = true;
+            usedBytes -= chunkValuation.bytes;
+        }
+        boolean wasEvicted = unsavedEvictedEntries.remove(chunkKey) != null;
+        if (chunkIndexStore != null && (chunkValuation != null || wasEvicted
+                || unloadedRegions.contains(chunkKey.getRegionKey()))) {
+            staleIndexedChunks.add(chunkKey);
+            changedRegions.add(chunkKey.getRegionKey());
+        }
+    }
+
+    /**
+     * Records a chunk as loaded only to be captured by a scan, so that it unloading again does
+     * not mark it dirty. Only called on the main thread.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public void markLoadedByScan(World world, int chunkX, int chunkZ) {
+        if (isEnabled()) {
+            chunksLoadedByScan.add(new ChunkKey(world, chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Handles a chunk being unloaded, marking it dirty unless it was only loaded by a scan.
+     * Only called on the main thread.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public void onChunkUnload(World world, int chunkX, int chunkZ) {
+        if (!chunksLoadedByScan.remove(new ChunkKey(world, chunkX, chunkZ))) {
+            markDirty(world, chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Evicts least recently used entries from memory until the cache is within its memory
+     * budget. Their region is loaded from the index again when next looked up, and entries not
+     * saved yet are kept aside until the next save writes them.
+     */
+    private void evict() {
+        Iterator<Map.Entry<ChunkKey, ChunkValuation>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            ChunkValuation chunkValuation = iterator.next().getValue();
+            iterator.remove();
+            // results are no longer stored into evicted entries
+            chunkValuation.dirty = true;
+            usedBytes -= chunkValuation.bytes;
+            if (chunkIndexStore == null) {
+                continue;
+            }
+            unloadedRegions.add(chunkValuation.chunkKey.getRegionKey());
+            if (!chunkValuation.saved) {
+                unsavedEvictedEntries.put(chunkValuation.chunkKey, chunkValuation);
+            }
+        }
+    }
+
+    /**
+     * Loads the indexed entries of the region a chunk is in, if not in memory. Entries already
+     * in memory are newer and kept over indexed ones. The index file is read outside the lock
+     * of the cache.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public void loadRegion(World world, int chunkX, int chunkZ) {
+        if (chunkIndexStore == null) {
+            return;
+        }
+        ChunkIndexStore.RegionKey regionKey = new ChunkIndexStore.RegionKey(world.getUID(),
+                chunkX >> 5, chunkZ >> 5);
+        if (!isRegionUnloaded(regionKey)) {
+            return;
+        }
+        synchronized (indexLock) {
+            // another thread may have loaded the region while this one waited
+            if (!isRegionUnloaded(regionKey)) {
+                return;
+            }
+            List<ChunkIndexStore.IndexedChunk> indexedChunks = chunkIndexStore.load(world,
+                    regionKey);
+            synchronized (this) {
+                if (!unloadedRegions.remove(regionKey)) {
+                    return;
+                }
+                for (ChunkIndexStore.IndexedChunk indexedChunk : indexedChunks) {
+                    ChunkKey chunkKey = new ChunkKey(world, indexedChunk.getChunkX(),
+                            indexedChunk.getChunkZ());
+                    if (staleIndexedChunks.contains(chunkKey) || entries.containsKey(chunkKey)) {
+                        continue;
+                    }
+                    ChunkValuation chunkValuation = new ChunkValuation(chunkKey,
+                            indexedChunk.getScannedAt());
+                    for (Map.Entry<Long, PartValuation> part
+                            : indexedChunk.getParts().entrySet()) {
+                        chunkValuation.parts.put(part.getKey(), part.getValue());
+                        chunkValuation.bytes += part.getValue().getBytes();
+                    }
+                    chunkValuation.saved = true;
+                    entries.put(chunkKey, chunkValuation);
+                    usedBytes += chunkValuation.bytes;
+                }
+                evict();
+            }
+        }
+    }
+
+    /**
+     * Checks if the indexed entries of a region are not in memory.
+     *
+     * @param regionKey key of region
+     *
+     * @return true if not in memory, false otherwise
+     */
+    private synchronized boolean isRegionUnloaded(ChunkIndexStore.RegionKey regionKey) {
+        return unloadedRegions.contains(regionKey);
+    }
+
+    /**
+     * Saves entries of regions that changed since they were last saved to the index store.
+     * Results are copied under the lock and written to disk outside of it. Regions with
+     * entries evicted from memory are merged with their index file so those are not lost.
+     */
+    public void save() {
+        if (chunkIndexStore == null) {
+            return;
+        }
+        HashMap<ChunkIndexStore.RegionKey, HashMap<ChunkKey, ChunkIndexStore.IndexedChunk>>
+                regions = new HashMap<>();
+        Set<ChunkIndexStore.RegionKey> partialRegions = new HashSet<>();
+        Set<ChunkKey> staleChunks;
+        synchronized (indexLock) {
+            synchronized (this) {
+                for (ChunkIndexStore.RegionKey regionKey : changedRegions) {
+                    regions.put(regionKey, new HashMap<>());
+                    if (unloadedRegions.contains(regionKey)) {
+                        partialRegions.add(regionKey);
+                    }
+                }
+                changedRegions.clear();
+                for (ChunkValuation chunkValuation : unsavedEvictedEntries.values()) {
+                    addIndexedChunk(regions, chunkValuation);
+                }
+                unsavedEvictedEntries.clear();
+                for (ChunkValuation chunkValuation : entries.values()) {
+                    addIndexedChunk(regions, chunkValuation);
+                }
+                staleChunks = new HashSet<>(staleIndexedChunks);
+            }
+            for (Map.Entry<ChunkIndexStore.RegionKey,
+                    HashMap<ChunkKey, ChunkIndexStore.IndexedChunk>> region
+                    : regions.entrySet()) {
+                HashMap<ChunkKey, ChunkIndexStore.IndexedChunk> indexedChunks = region.getValue();
+                World world = Bukkit.getWorld(region.getKey().getWorldUid());
+                if (world != null && partialRegions.contains(region.getKey())) {
+                    for (ChunkIndexStore.IndexedChunk indexedChunk
+                            : chunkIndexStore.load(world, region.getKey())) {
+                        ChunkKey chunkKey = new ChunkKey(world, indexedChunk.getChunkX(),
+                                indexedChunk.getChunkZ());
+                        if (!staleChunks.contains(chunkKey)) {
+                            indexedChunks.putIfAbsent(chunkKey, indexedChunk);
+                        }
+                    }
+                }
+                chunkIndexStore.save(region.getKey(), new ArrayList<>(indexedChunks.values()));
+            }
+            synchronized (this) {
+                staleIndexedChunks.removeIf(chunkKey -> staleChunks.contains(chunkKey)
+                        && regions.containsKey(chunkKey.getRegionKey()));
+            }
+        }
+    }
+
+    /**
+     * Copies the results of an entry to be saved, if its region is being saved.
+     *
+     * @param regions chunks to save mapped by region
+     * @param chunkValuation entry to copy
+     */
+    private void addIndexedChunk(HashMap<ChunkIndexStore.RegionKey,
+            HashMap<ChunkKey, ChunkIndexStore.IndexedChunk>> regions,
+            ChunkValuation chunkValuation) {
+        Map<ChunkKey, ChunkIndexStore.IndexedChunk> indexedChunks =
+                regions.get(chunkValuation.chunkKey.getRegionKey());
+        if (indexedChunks == null || chunkValuation.parts.isEmpty()) {
+            return;
+        }
+        chunkValuation.saved = true;
+        indexedChunks.put(chunkValuation.chunkKey, new ChunkIndexStore.IndexedChunk(
+                chunkValuation.chunkKey.chunkX, chunkValuation.chunkKey.chunkZ,
+                chunkValuation.scannedAt, new HashMap<>(chunkValuation.parts)));
+    }
+
+    /**
+     * Gets the key of a part within its chunk. Parts of the same claim have the same bounds on
+     * every scan so their results can be looked up again.
+     *
+     * @param part part to get key for
+     *
+     * @return key of part
+     */
+    private static long getPartKey(ScanRegion part) {
+        long key = part.getMinX() & 15;
+        key = (key << 4) | ((part.getMaxX() - 1) & 15);
+        key = (key << 4) | (part.getMinZ() & 15);
+        key = (key << 4) | ((part.getMaxZ() - 1) & 15);
+        key = (key << 16) | (part.getMinY() & 0xFFFF);
+        key = (key << 16) | (part.getMaxY() & 0xFFFF);
+        return key;
+    }
+
+    /**
+     * Cached results of all parts of a chunk that have been scanned.
+     */
+    public static class ChunkValuation {
+        private final ChunkKey chunkKey;
+        private long scannedAt;
+        private final HashMap<Long, PartValuation> parts = new HashMap<>();
+        private long bytes = 96;
+        private boolean dirty = false;
+        private boolean saved = false;
+
+        private ChunkValuation(ChunkKey chunkKey, long scannedAt) {
+            this.chunkKey = chunkKey;
+            this.scannedAt = scannedAt;
+        }
+    }
+
+    /**
+     * Key of a chunk across worlds.
+     */
+    private static class ChunkKey {
+        private final UUID worldUid;
+        private final int chunkX;
+        private final int chunkZ;
+
+        private ChunkKey(World world, int chunkX, int chunkZ) {
+            this.worldUid = world.getUID();
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private ChunkIndexStore.RegionKey getRegionKey() {
+            return new ChunkIndexStore.RegionKey(worldUid, chunkX >> 5, chunkZ >> 5);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey other = (ChunkKey) o;
+            return chunkX == other.chunkX && chunkZ == other.chunkZ
+                    && worldUid.equals(other.worldUid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldUid, chunkX, chunkZ);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+/**
+ * A chunk to capture together with the region parts to scan within it. Chunks that are not
+ * loaded may instead be marked to be read from region files.
+ */
+public class ChunkWork {
+    private final World world;
+    private final int chunkX;
+    private final int chunkZ;
+    private final List<ScanRegion> parts = new ArrayList<>();
+    private final List<LandScanSink> partSinks = new ArrayList<>();
+    private ChunkSnapshot snapshot;
+    private int[] tileEntities;
+    private ChunkValuationCache.ChunkValuation chunkValuation;
+    private boolean offline = false;
+    private long notBefore = 0;
+    private boolean needsCapture = false;
+
+    /**
+     * Constructor for ChunkWork.
+     *
+     * @param world world that the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public ChunkWork(World world, int chunkX, int chunkZ) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public List<ScanRegion> getParts() {
+        return parts;
+    }
+
+    /**
+     * Adds a region part to scan within the chunk.
+     *
+     * @param part part of a region within the chunk
+     * @param partSink sink to collect results of the part in
+     */
+    public void addPart(ScanRegion part, LandScanSink partSink) {
+        parts.add(part);
+        partSinks.add(partSink);
+    }
+
+    public List<LandScanSink> getPartSinks() {
+        return partSinks;
+    }
+
+    /**
+     * Gets the entities whose land is scanned within the chunk.
+     *
+     * @return uuids of entities
+     */
+    public Set<UUID> getEntities() {
+        Set<UUID> entities = new HashSet<>();
+        for (LandScanSink partSink : partSinks) {
+            entities.addAll(partSink.getEntities());
+        }
+        return entities;
+    }
+
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int[] getTileEntities() {
+        return tileEntities;
+    }
+
+    public ChunkValuationCache.ChunkValuation getChunkValuation() {
+        return chunkValuation;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public long getNotBefore() {
+        return notBefore;
+    }
+
+    public boolean isNeedsCapture() {
+        return needsCapture;
+    }
+
+    /**
+     * Sets the captured snapshot and tile entities of the chunk together with the cache entry
+     * to store results of scanning it in.
+     *
+     * @param snapshot snapshot of chunk, null if no blocks are valued
+     * @param tileEntities x, y, z and scan category of each spawner and container in the chunk
+     * @param chunkValuation cache entry of chunk, null if caching is disabled
+     */
+    public void setCapture(ChunkSnapshot snapshot, int[] tileEntities,
+            ChunkValuationCache.ChunkValuation chunkValuation) {
+        this.snapshot = snapshot;
+        this.tileEntities = tileEntities;
+        this.chunkValuation = chunkValuation;
+        this.offline = false;
+        this.needsCapture = false;
+    }
+
+    /**
+     * Marks the chunk to be read from region files instead of captured, together with the
+     * cache entry to store results of scanning it in.
+     *
+     * @param notBefore epoch millis the chunk must have been saved at or after, 0 if any
+     * @param chunkValuation cache entry of chunk, null if caching is disabled
+     */
+    public void setOffline(long notBefore, ChunkValuationCache.ChunkValuation chunkValuation) {
+        this.offline = true;
+        this.notBefore = notBefore;
+        this.chunkValuation = chunkValuation;
+    }
+
+    /**
+     * Marks the chunk as unreadable from region files, so it has to be captured after all.
+     */
+    public void setNeedsCapture() {
+        this.offline = false;
+        this.chunkValuation = null;
+        this.needsCapture = true;
+    }
+
+    /**
+     * Clears the captured snapshot once the chunk is scanned so it can be garbage collected.
+     */
+    public void clearCapture() {
+        this.snapshot = null;
+        this.tileEntities = null;
+        this.chunkValuation = null;
+        this.offline = false;
+    }
+}
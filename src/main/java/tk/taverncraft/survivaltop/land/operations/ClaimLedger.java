@@ -0,0 +1,249 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.World;
+
+/**
+ * Lets entities share the scan of land they have in common within a leaderboard update, such as
+ * a claim that counts towards both its owner and the owner's group. The regions of every entity
+ * are recorded first and then cut into cells along chunk borders and the bounds of all regions
+ * within each chunk, so the cells do not depend on how the regions of any one entity were split.
+ * Cells held by the same entities make up one claim, which is scanned once into holders of its
+ * own, and the worth found in each claim is added up for every entity holding it once the update
+ * is done.
+ */
+public class ClaimLedger {
+    private final ConcurrentHashMap<UUID, List<ScanRegion>> entityRegions =
+            new ConcurrentHashMap<>();
+    private final HashMap<UUID, Set<UUID>> claimOwners = new HashMap<>();
+
+    /**
+     * Records the regions claimed by an entity.
+     *
+     * @param uuid uuid of entity
+     * @param regions disjoint regions claimed by the entity
+     */
+    public void addEntityRegions(UUID uuid, List<ScanRegion> regions) {
+        entityRegions.put(uuid, regions);
+    }
+
+    /**
+     * Gets the entities whose regions have been recorded.
+     *
+     * @return uuids of entities
+     */
+    public Set<UUID> getEntities() {
+        return new HashSet<>(entityRegions.keySet());
+    }
+
+    /**
+     * Cuts the regions of all entities into claims, each being the land held by the same set of
+     * entities. Called once all entities have been recorded.
+     *
+     * @return disjoint regions of each claim mapped by claim id, which are left to the caller to
+     *     scan
+     */
+    public synchronized Map<UUID, List<ScanRegion>> buildClaims() {
+        claimOwners.clear();
+        HashMap<World, LinkedHashMap<Long, List<OwnedPart>>> worldChunks = new HashMap<>();
+        for (Map.Entry<UUID, List<ScanRegion>> map : entityRegions.entrySet()) {
+            for (ScanRegion region : map.getValue()) {
+                addChunkParts(worldChunks, map.getKey(), region);
+            }
+        }
+
+        Map<UUID, List<ScanRegion>> claims = new LinkedHashMap<>();
+        HashMap<Set<UUID>, UUID> ownersToClaimId = new HashMap<>();
+        for (LinkedHashMap<Long, List<OwnedPart>> chunks : worldChunks.values()) {
+            for (List<OwnedPart> ownedParts : chunks.values()) {
+                cutChunk(ownedParts, claims, ownersToClaimId);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Splits a region of an entity into the parts that fall within each chunk.
+     *
+     * @param worldChunks parts of all entities grouped by world and chunk
+     * @param uuid uuid of entity
+     * @param region region to split
+     */
+    private void addChunkParts(HashMap<World, LinkedHashMap<Long, List<OwnedPart>>> worldChunks,
+            UUID uuid, ScanRegion region) {
+        World world = region.getWorld();
+        if (world == null || region.isEmpty()) {
+            return;
+        }
+        Map<Long, List<OwnedPart>> chunks = worldChunks.computeIfAbsent(world,
+                k -> new LinkedHashMap<>());
+        int maxChunkX = (region.getMaxX() - 1) >> 4;
+        int maxChunkZ = (region.getMaxZ() - 1) >> 4;
+        for (int chunkX = region.getMinX() >> 4; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = region.getMinZ() >> 4; chunkZ <= maxChunkZ; chunkZ++) {
+                int x = chunkX << 4;
+                int z = chunkZ << 4;
+                ScanRegion part = new ScanRegion(world, Math.max(region.getMinX(), x),
+                        Math.min(region.getMaxX(), x + 16), region.getMinY(), region.getMaxY(),
+                        Math.max(region.getMinZ(), z), Math.min(region.getMaxZ(), z + 16));
+                long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+                chunks.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(new OwnedPart(uuid, part));
+            }
+        }
+    }
+
+    /**
+     * Cuts the parts of all entities within a chunk into cells along the bounds of every part,
+     * and adds each cell to the claim of the entities holding it. Cells next to each other
+     * along x that are held by the same entities are joined back into one region.
+     *
+     * @param ownedParts parts of all entities within the chunk
+     * @param claims claims to add the cells to
+     * @param ownersToClaimId ids of claims mapped by the entities holding them
+     */
+    private void cutChunk(List<OwnedPart> ownedParts, Map<UUID, List<ScanRegion>> claims,
+            HashMap<Set<UUID>, UUID> ownersToClaimId) {
+        World world = ownedParts.get(0).part.getWorld();
+        TreeSet<Integer> xSet = new TreeSet<>();
+        TreeSet<Integer> ySet = new TreeSet<>();
+        TreeSet<Integer> zSet = new TreeSet<>();
+        for (OwnedPart ownedPart : ownedParts) {
+            ScanRegion part = ownedPart.part;
+            xSet.add(part.getMinX());
+            xSet.add(part.getMaxX());
+            ySet.add(part.getMinY());
+            ySet.add(part.getMaxY());
+            zSet.add(part.getMinZ());
+            zSet.add(part.getMaxZ());
+        }
+        int[] xs = toArray(xSet);
+        int[] ys = toArray(ySet);
+        int[] zs = toArray(zSet);
+        for (int yi = 0; yi < ys.length - 1; yi++) {
+            for (int zi = 0; zi < zs.length - 1; zi++) {
+                int startXi = 0;
+                Set<UUID> startOwners = getOwners(ownedParts, xs[0], ys[yi], zs[zi]);
+                for (int xi = 1; xi <= xs.length - 1; xi++) {
+                    Set<UUID> owners = xi < xs.length - 1
+                            ? getOwners(ownedParts, xs[xi], ys[yi], zs[zi])
+                            : null;
+                    if (startOwners.equals(owners)) {
+                        continue;
+                    }
+                    if (!startOwners.isEmpty()) {
+                        UUID claimId = ownersToClaimId.computeIfAbsent(startOwners,
+                                k -> UUID.randomUUID());
+                        claimOwners.putIfAbsent(claimId, startOwners);
+                        claims.computeIfAbsent(claimId, k -> new ArrayList<>())
+                                .add(new ScanRegion(world, xs[startXi], xs[xi], ys[yi],
+                                        ys[yi + 1], zs[zi], zs[zi + 1]));
+                    }
+                    startXi = xi;
+                    startOwners = owners;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the entities holding the cell starting at the given block.
+     *
+     * @param ownedParts parts of all entities within the chunk
+     * @param x min x of cell
+     * @param y min y of cell
+     * @param z min z of cell
+     *
+     * @return uuids of entities holding the cell
+     */
+    private static Set<UUID> getOwners(List<OwnedPart> ownedParts, int x, int y, int z) {
+        Set<UUID> owners = new HashSet<>();
+        for (OwnedPart ownedPart : ownedParts) {
+            if (ownedPart.part.contains(x, y, z)) {
+                owners.add(ownedPart.uuid);
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * Gets the sorted values of a set as an array.
+     *
+     * @param values values to convert
+     *
+     * @return sorted array of values
+     */
+    private static int[] toArray(TreeSet<Integer> values) {
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (int value : values) {
+            array[i++] = value;
+        }
+        return array;
+    }
+
+    /**
+     * Gets the entities holding a claim.
+     *
+     * @param claimId id of claim
+     *
+     * @return uuids of entities holding the claim
+     */
+    public synchronized Set<UUID> getClaimOwners(UUID claimId) {
+        return claimOwners.getOrDefault(claimId, new HashSet<>());
+    }
+
+    /**
+     * Adds up the worth found in claims for each entity holding them.
+     *
+     * @param claimWorthMap map of claim ids to their worth
+     *
+     * @return map of entity uuids to the worth of their claims
+     */
+    public synchronized HashMap<UUID, Double> foldIntoEntities(
+            HashMap<UUID, Double> claimWorthMap) {
+        HashMap<UUID, Double> entityWorthMap = new HashMap<>();
+        for (UUID uuid : entityRegions.keySet()) {
+            entityWorthMap.put(uuid, 0.0);
+        }
+        for (Map.Entry<UUID, Set<UUID>> map : claimOwners.entrySet()) {
+            double worth = claimWorthMap.getOrDefault(map.getKey(), 0.0);
+            for (UUID owner : map.getValue()) {
+                entityWorthMap.merge(owner, worth, Double::sum);
+            }
+        }
+        return entityWorthMap;
+    }
+
+    /**
+     * Gets the number of distinct claims built in this update.
+     *
+     * @return number of claims
+     */
+    public synchronized int getClaimCount() {
+        return claimOwners.size();
+    }
+
+    /**
+     * A part of a region within a chunk together with the entity claiming it.
+     */
+    private static class OwnedPart {
+        private final UUID uuid;
+        private final ScanRegion part;
+
+        private OwnedPart(UUID uuid, ScanRegion part) {
+            this.uuid = uuid;
+            this.part = part;
+        }
+    }
+}
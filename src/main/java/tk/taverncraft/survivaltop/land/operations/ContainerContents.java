@@ -0,0 +1,147 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Arrays;
+
+import org.bukkit.Material;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.ShulkerBox;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import tk.taverncraft.survivaltop.utils.types.WorthCounter;
+
+/**
+ * Contents of the containers of an entity copied on the main thread in a compact form, so that
+ * they can be valued on worker threads afterwards. Each item stack is packed into a single int
+ * of its material ordinal and amount. The contents of shulker boxes carried as items can only be
+ * read through their item meta, so they are read here as well and kept as material ordinals with
+ * the amount held across all boxes in the stack.
+ */
+public class ContainerContents {
+    private static final int AMOUNT_BITS = 8;
+    private static final int MAX_AMOUNT = (1 << AMOUNT_BITS) - 1;
+
+    // shulker boxes cannot be placed within shulker boxes, this only guards against modded items
+    private static final int MAX_NESTING = 2;
+    private static final boolean[] SHULKER_BOXES = new boolean[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            SHULKER_BOXES[material.ordinal()] = material.name().endsWith("SHULKER_BOX");
+        }
+    }
+
+    private int[] packedItems = new int[64];
+    private int size = 0;
+    private int[] shulkerOrdinals = new int[0];
+    private long[] shulkerAmounts = new long[0];
+    private int shulkerSize = 0;
+
+    /**
+     * Copies the contents of an inventory, only called on the main thread.
+     *
+     * @param inventory inventory to copy contents of
+     */
+    public void copyFrom(Inventory inventory) {
+        for (ItemStack itemStack : inventory.getContents()) {
+            if (itemStack == null) {
+                continue;
+            }
+            int ordinal = itemStack.getType().ordinal();
+            int amount = itemStack.getAmount();
+            while (amount > 0) {
+                int packedAmount = Math.min(amount, MAX_AMOUNT);
+                add((ordinal << AMOUNT_BITS) | packedAmount);
+                amount -= packedAmount;
+            }
+            if (SHULKER_BOXES[ordinal]) {
+                copyShulkerBox(itemStack, 1, 1);
+            }
+        }
+    }
+
+    /**
+     * Adds a packed item stack.
+     *
+     * @param packedItem material ordinal and amount of item stack
+     */
+    private void add(int packedItem) {
+        if (size == packedItems.length) {
+            packedItems = Arrays.copyOf(packedItems, size * 2);
+        }
+        packedItems[size++] = packedItem;
+    }
+
+    /**
+     * Copies the contents of a shulker box item, multiplied by the number of shulker boxes in
+     * the stack. Only called on the main thread.
+     *
+     * @param shulkerBox shulker box item stack
+     * @param multiplier number of times the stack itself is held
+     * @param depth how deeply the shulker box is nested
+     */
+    private void copyShulkerBox(ItemStack shulkerBox, long multiplier, int depth) {
+        if (depth > MAX_NESTING) {
+            return;
+        }
+        ItemMeta itemMeta = shulkerBox.getItemMeta();
+        if (!(itemMeta instanceof BlockStateMeta)
+                || !((BlockStateMeta) itemMeta).hasBlockState()) {
+            return;
+        }
+        BlockState blockState = ((BlockStateMeta) itemMeta).getBlockState();
+        if (!(blockState instanceof ShulkerBox)) {
+            return;
+        }
+        long stackAmount = shulkerBox.getAmount() * multiplier;
+        for (ItemStack itemStack : ((ShulkerBox) blockState).getInventory().getContents()) {
+            if (itemStack == null) {
+                continue;
+            }
+            int ordinal = itemStack.getType().ordinal();
+            addShulkerItem(ordinal, itemStack.getAmount() * stackAmount);
+            if (SHULKER_BOXES[ordinal]) {
+                copyShulkerBox(itemStack, stackAmount, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Adds an item held within shulker boxes.
+     *
+     * @param ordinal material ordinal of item
+     * @param amount amount held across all shulker boxes in the stack
+     */
+    private void addShulkerItem(int ordinal, long amount) {
+        if (shulkerSize == shulkerOrdinals.length) {
+            int capacity = Math.max(16, shulkerSize * 2);
+            shulkerOrdinals = Arrays.copyOf(shulkerOrdinals, capacity);
+            shulkerAmounts = Arrays.copyOf(shulkerAmounts, capacity);
+        }
+        shulkerOrdinals[shulkerSize] = ordinal;
+        shulkerAmounts[shulkerSize++] = amount;
+    }
+
+    /**
+     * Counts the copied items, including the contents of shulker boxes, into a holder. Called
+     * on a worker thread once all containers of the entity are copied.
+     *
+     * @param worthCounter holder to count items in
+     */
+    public void countInto(WorthCounter worthCounter) {
+        for (int i = 0; i < size; i++) {
+            int id = worthCounter.getWorthTable().getIdByOrdinal(packedItems[i] >>> AMOUNT_BITS);
+            if (id >= 0) {
+                worthCounter.addToHolder(id, packedItems[i] & MAX_AMOUNT);
+            }
+        }
+        for (int i = 0; i < shulkerSize; i++) {
+            int id = worthCounter.getWorthTable().getIdByOrdinal(shulkerOrdinals[i]);
+            if (id >= 0) {
+                worthCounter.addToHolder(id, shulkerAmounts[i]);
+            }
+        }
+    }
+}
@@ -4,13 +4,11 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
 
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -18,11 +16,10 @@ import org.bukkit.block.BlockState;
 import org.bukkit.block.Chest;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
-import org.bukkit.inventory.ItemStack;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.holders.ContainerHolder;
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Handles the logic for performing container operations when scanning locations.
@@ -30,17 +27,24 @@ import tk.taverncraft.survivaltop.utils.types.MutableInt;
 public class ContainerOperations {
     private final Main main;
     private final LandOperationsHelper landOperationsHelper;
-    private final LinkedHashMap<String, Double> containerWorth;
-    private final Set<String> containerMaterial;
+    private final WorthTable containerWorth;
 
     // holders containing count of each material mapped to uuid
-    private HashMap<UUID, ContainerHolder> containerHolderMapForLeaderboard = new HashMap<>();
+    private ConcurrentHashMap<UUID, ContainerHolder> containerHolderMapForLeaderboard =
+            new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, ContainerHolder> containerHolderMapForStats =
             new ConcurrentHashMap<>();
 
     // populated from main thread and processed on async thread later
-    private HashMap<UUID, ArrayList<Block>> preprocessedContainersForLeaderboard = new HashMap<>();
-    private final ConcurrentHashMap<UUID, ArrayList<Block>> preprocessedContainersForStats =
+    private ConcurrentHashMap<UUID, PositionBuffer> preprocessedContainersForLeaderboard =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PositionBuffer> preprocessedContainersForStats =
+            new ConcurrentHashMap<>();
+
+    // contents copied on main thread and counted into holders on worker threads later
+    private ConcurrentHashMap<UUID, ContainerContents> containerContentsMapForLeaderboard =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, ContainerContents> containerContentsMapForStats =
             new ConcurrentHashMap<>();
 
     // todo: is there a better way?
@@ -77,15 +81,14 @@ public class ContainerOperations {
      *
      * @param main plugin class
      * @param landOperationsHelper helper for land operations
-     * @param containerWorth map of container item names to their values
+     * @param containerWorth table of container item names to their values
      */
     public ContainerOperations(Main main, LandOperationsHelper landOperationsHelper,
-            LinkedHashMap<String, Double> containerWorth) {
+            WorthTable containerWorth) {
         this.main = main;
         this.landOperationsHelper = landOperationsHelper;
         this.containerWorth = containerWorth;
         this.containerTypes = new HashSet<>();
-        this.containerMaterial = containerWorth.keySet();
         setUpContainerType();
     }
 
@@ -114,29 +117,43 @@ public class ContainerOperations {
     }
 
     /**
-     * Returns container operation for leaderboard.
+     * Returns preprocessed containers for given uuid.
      *
-     * @return container operation for leaderboard
+     * @param uuid uuid of each entity
+     *
+     * @return positions of containers for given uuid
      */
-    public BiFunction<UUID, Block, Boolean> getLeaderboardOperation() {
-        return preprocessContainerForLeaderboard;
+    public PositionBuffer getPreprocessedContainersForLeaderboard(UUID uuid) {
+        return preprocessedContainersForLeaderboard.get(uuid);
     }
 
     /**
-     * Returns container operation for stats.
+     * Returns preprocessed containers for given uuid.
      *
-     * @return container operation for stats
+     * @param uuid uuid of sender, not to be confused with the entity itself!
+     *
+     * @return positions of containers for given uuid
      */
-    public BiFunction<UUID, Block, Boolean> getStatsOperation() {
-        return preprocessContainerForStats;
+    public PositionBuffer getPreprocessedContainersForStats(UUID uuid) {
+        return preprocessedContainersForStats.get(uuid);
+    }
+
+    /**
+     * Gets the container materials chosen to be included.
+     *
+     * @return set of container material names
+     */
+    public Set<String> getContainerTypes() {
+        return containerTypes;
     }
 
     /**
      * Cleans up holders and preprocessed containers after leaderboard update.
      */
     public void doCleanUpForLeaderboard() {
-        containerHolderMapForLeaderboard = new HashMap<>();
-        preprocessedContainersForLeaderboard = new HashMap<>();
+        containerHolderMapForLeaderboard = new ConcurrentHashMap<>();
+        preprocessedContainersForLeaderboard = new ConcurrentHashMap<>();
+        containerContentsMapForLeaderboard = new ConcurrentHashMap<>();
     }
 
     /**
@@ -147,6 +164,7 @@ public class ContainerOperations {
     public void doCleanUpForStats(UUID uuid) {
         containerHolderMapForStats.remove(uuid);
         preprocessedContainersForStats.remove(uuid);
+        containerContentsMapForStats.remove(uuid);
     }
 
     /**
@@ -155,10 +173,11 @@ public class ContainerOperations {
      * @param uuid uuid of each entity
      */
     public void createHolderForLeaderboard(UUID uuid) {
-        containerHolderMapForLeaderboard.put(uuid, new ContainerHolder(containerMaterial));
+        containerHolderMapForLeaderboard.put(uuid, new ContainerHolder(containerWorth));
 
-        // temp array list also needed for tracking containers
-        preprocessedContainersForLeaderboard.put(uuid, new ArrayList<>());
+        // temp buffer also needed for tracking containers
+        preprocessedContainersForLeaderboard.put(uuid, new PositionBuffer());
+        containerContentsMapForLeaderboard.put(uuid, new ContainerContents());
     }
 
     /**
@@ -167,10 +186,11 @@ public class ContainerOperations {
      * @param uuid uuid of sender, not to confused with the entity itself!
      */
     public void createHolderForStats(UUID uuid) {
-        containerHolderMapForStats.put(uuid, new ContainerHolder(containerMaterial));
+        containerHolderMapForStats.put(uuid, new ContainerHolder(containerWorth));
 
-        // temp array list also needed for tracking containers
-        preprocessedContainersForStats.put(uuid, new ArrayList<>());
+        // temp buffer also needed for tracking containers
+        preprocessedContainersForStats.put(uuid, new PositionBuffer());
+        containerContentsMapForStats.put(uuid, new ContainerContents());
     }
 
     /**
@@ -195,7 +215,9 @@ public class ContainerOperations {
      * @return map of sender uuid to the calculated container worth
      */
     public double calculateContainerWorthForStats(UUID uuid) {
-        return getAllContainersWorth(containerHolderMapForStats.get(uuid));
+        ContainerHolder containerHolder = containerHolderMapForStats.get(uuid);
+        containerContentsMapForStats.get(uuid).countInto(containerHolder);
+        return getAllContainersWorth(containerHolder);
     }
 
     /**
@@ -206,63 +228,65 @@ public class ContainerOperations {
      * @return double value representing total worth of containers
      */
     public double getAllContainersWorth(ContainerHolder containerHolder) {
-        double totalContainerWorth = 0;
-        HashMap<String, MutableInt> counter = containerHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalContainerWorth += map.getValue().get() * containerWorth.get(map.getKey());
-        }
-        return totalContainerWorth;
+        return containerHolder.getTotalWorth();
     }
 
     /**
-     * Processes the worth of container items.
+     * Creates a cursor over the containers of all entities, to be copied on the main thread.
+     *
+     * @return cursor over preprocessed containers
      */
-    public void processContainerItemsForLeaderboard() {
-        for (Map.Entry<UUID, ArrayList<Block>> map : preprocessedContainersForLeaderboard.entrySet()) {
-            UUID uuid = map.getKey();
-            ArrayList<Block> blocks = map.getValue();
-            int numBlocks = blocks.size();
-            for (int i = 0; i < numBlocks; i++) {
-                if (landOperationsHelper.getStopOperations()) {
-                    return;
-                }
-                Inventory inventory = getBlockInventory(blocks.get(i));
-                for (ItemStack itemStack : inventory) {
-                    if (itemStack == null) {
-                        continue;
-                    }
-                    String material = itemStack.getType().name();
-                    if (containerMaterial.contains(material)) {
-                        containerHolderMapForLeaderboard.get(uuid).addToHolder(material);
-                    }
-                }
-            }
+    public MainThreadJob.BlockCursor createContainerCursorForLeaderboard() {
+        ConcurrentHashMap<UUID, ContainerContents> containerContentsMap =
+                containerContentsMapForLeaderboard;
+        return new MainThreadJob.BlockCursor(preprocessedContainersForLeaderboard,
+                (uuid, block) -> copyContainer(containerContentsMap.get(uuid), block));
+    }
+
+    /**
+     * Creates tasks that count the copied container contents of each entity into its holder,
+     * to be run on worker threads.
+     *
+     * @return tasks counting container contents
+     */
+    public List<Runnable> createCountTasksForLeaderboard() {
+        List<Runnable> tasks = new ArrayList<>();
+        for (Map.Entry<UUID, ContainerContents> map
+                : containerContentsMapForLeaderboard.entrySet()) {
+            ContainerHolder containerHolder = containerHolderMapForLeaderboard.get(map.getKey());
+            tasks.add(() -> map.getValue().countInto(containerHolder));
         }
+        return tasks;
     }
 
     /**
-     * Processes the worth of container items.
+     * Copies the contents of containers on the main thread.
      *
      * @param uuid uuid of sender, not to be confused with the entity itself!
      */
     public void processContainerItemsForStats(UUID uuid) {
-        ArrayList<Block> blocks = preprocessedContainersForStats.get(uuid);
-        int numBlocks = blocks.size();
+        PositionBuffer positions = preprocessedContainersForStats.get(uuid);
+        ContainerContents containerContents = containerContentsMapForStats.get(uuid);
+        int numBlocks = positions.size();
         for (int i = 0; i < numBlocks; i++) {
             if (landOperationsHelper.getStopOperations()) {
                 return;
             }
-            Inventory inventory = getBlockInventory(blocks.get(i));
-            for (ItemStack itemStack : inventory) {
-                if (itemStack == null) {
-                    continue;
-                }
-                String material = itemStack.getType().name();
-                if (containerMaterial.contains(material)) {
-                    containerHolderMapForStats.get(uuid).addToHolder(material);
-                }
-            }
+            copyContainer(containerContents, positions.getBlock(i));
+        }
+    }
+
+    /**
+     * Copies the contents of a container into the copied contents of its entity.
+     *
+     * @param containerContents copied contents of the entity
+     * @param block container block
+     */
+    private void copyContainer(ContainerContents containerContents, Block block) {
+        try {
+            containerContents.copyFrom(getBlockInventory(block));
+        } catch (ClassCastException e) {
+            // error thrown if player breaks container just as calculation is taking place
         }
     }
 
@@ -285,33 +309,4 @@ public class ContainerOperations {
         }
         return inventory;
     }
-
-    /**
-     * Preprocesses containers to be handled on main thread later for when the leaderboard command is
-     * being updated. Uuid here belongs to the sender and comes with the block that is being
-     * checked. This always returns 0 since if a block is not a container (ignored) and if it is
-     * a container, then it is set to be processed later anyways
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessContainerForLeaderboard = (uuid, block) -> {
-        if (containerTypes.contains(block.getType().name())) {
-            preprocessedContainersForLeaderboard.get(uuid).add(block);
-            return true;
-        }
-        return false;
-    };
-
-
-    /**
-     * Preprocesses containers to be handled on main thread later for when the stats command is
-     * executed. Uuid here belongs to the sender and comes with the block that is being checked.
-     * This always returns 0 since if a block is not a container (ignored) and if it is
-     * a container, then it is set to be processed later anyways
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessContainerForStats = (uuid, block) -> {
-        if (containerTypes.contains(block.getType().name())) {
-            preprocessedContainersForStats.get(uuid).add(block);
-            return true;
-        }
-        return false;
-    };
 }
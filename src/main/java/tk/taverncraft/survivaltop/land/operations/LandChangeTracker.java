@@ -0,0 +1,264 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+/**
+ * Keeps block wealth on the leaderboard current between updates by applying the worth of each
+ * placed or removed block to the entities whose land it is in. Land is looked up from the regions
+ * that were scanned in the last leaderboard update, so changes are counted exactly the way the
+ * scan counted them and claims changed since are only picked up by the next update.
+ *
+ * <p>While an update is in progress, changes in the land of entities being updated are not
+ * applied right away since their block wealth is about to be replaced. A change in a chunk that
+ * was not captured for the entity yet is left to the scan to find, while a change in a chunk
+ * that already was is held back and returned once the update completes.
+ */
+public class LandChangeTracker {
+    private final Main main;
+    private final LandOperationsHelper landOperationsHelper;
+    private final WorthTable blockWorthTable;
+
+    // regions scanned in the current leaderboard update, published once the update completes
+    private ConcurrentHashMap<UUID, List<ScanRegion>> pendingRegions = new ConcurrentHashMap<>();
+
+    // regions of the last completed leaderboard update indexed by world uid and chunk
+    private volatile HashMap<UUID, HashMap<Long, List<TrackedRegion>>> chunkIndex =
+            new HashMap<>();
+
+    // chunks captured for each entity in the current update and changes made in them since,
+    // both only accessed while holding the lock of this tracker
+    private final Set<CapturedChunk> capturedChunks = new HashSet<>();
+    private HashMap<UUID, Double> heldChanges = new HashMap<>();
+
+    /**
+     * Constructor for LandChangeTracker.
+     *
+     * @param main plugin class
+     * @param landOperationsHelper helper for land operations
+     * @param blockWorthTable table of block materials to their values
+     */
+    public LandChangeTracker(Main main, LandOperationsHelper landOperationsHelper,
+            WorthTable blockWorthTable) {
+        this.main = main;
+        this.landOperationsHelper = landOperationsHelper;
+        this.blockWorthTable = blockWorthTable;
+    }
+
+    /**
+     * Records the regions scanned for an entity in the current leaderboard update.
+     *
+     * @param uuid uuid of entity
+     * @param regions regions scanned for the entity
+     */
+    public void registerRegions(UUID uuid, List<ScanRegion> regions) {
+        pendingRegions.computeIfAbsent(uuid, k -> new ArrayList<>()).addAll(regions);
+    }
+
+    /**
+     * Records a chunk as captured for the entities being scanned in it in the current update.
+     *
+     * @param chunkWork chunk that was captured
+     */
+    public synchronized void markCaptured(ChunkWork chunkWork) {
+        long chunkKey = getChunkKey(chunkWork.getChunkX(), chunkWork.getChunkZ());
+        for (UUID uuid : chunkWork.getEntities()) {
+            capturedChunks.add(new CapturedChunk(uuid, chunkWork.getWorld().getUID(), chunkKey));
+        }
+    }
+
+    /**
+     * Gets the cached results of a chunk and records the chunk as captured if found, without a
+     * block change being applied in between.
+     *
+     * @param chunkWork chunk to get cached results for
+     * @param cachedParts lookup of the cached results
+     *
+     * @return results of the parts of the chunk, or null if not cached
+     */
+    public synchronized PartValuation[] markCapturedIfCached(ChunkWork chunkWork,
+            Supplier<PartValuation[]> cachedParts) {
+        PartValuation[] partValuations = cachedParts.get();
+        if (partValuations != null) {
+            markCaptured(chunkWork);
+        }
+        return partValuations;
+    }
+
+    /**
+     * Replaces the tracked regions with those of the leaderboard update that just completed.
+     * Entities that were not refreshed in the update keep the regions they were tracked by.
+     *
+     * @return block wealth changed in the land of entities after it was captured in the update
+     */
+    public synchronized Map<UUID, Double> publishRegions() {
+        HashMap<UUID, HashMap<Long, List<TrackedRegion>>> newChunkIndex = new HashMap<>();
+        for (Map.Entry<UUID, List<ScanRegion>> entry : pendingRegions.entrySet()) {
+            for (ScanRegion region : entry.getValue()) {
+                World world = region.getWorld();
+                if (world == null) {
+                    continue;
+                }
+
+                // clamp heights the same way scans do
+                ScanRegion tracked = new ScanRegion(world, region.getMinX(), region.getMaxX(),
+                        Math.max(region.getMinY(), landOperationsHelper.getMinLandHeight(world)),
+                        Math.min(region.getMaxY(), landOperationsHelper.getMaxLandHeight(world)),
+                        region.getMinZ(), region.getMaxZ());
+                if (tracked.isEmpty()) {
+                    continue;
+                }
+                HashMap<Long, List<TrackedRegion>> chunks = newChunkIndex.computeIfAbsent(
+                        world.getUID(), k -> new HashMap<>());
+                TrackedRegion trackedRegion = new TrackedRegion(entry.getKey(), tracked);
+                int maxChunkX = (tracked.getMaxX() - 1) >> 4;
+                int maxChunkZ = (tracked.getMaxZ() - 1) >> 4;
+                for (int chunkX = tracked.getMinX() >> 4; chunkX <= maxChunkX; chunkX++) {
+                    for (int chunkZ = tracked.getMinZ() >> 4; chunkZ <= maxChunkZ; chunkZ++) {
+                        chunks.computeIfAbsent(getChunkKey(chunkX, chunkZ),
+                                k -> new ArrayList<>()).add(trackedRegion);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<UUID, HashMap<Long, List<TrackedRegion>>> world : chunkIndex.entrySet()) {
+            for (Map.Entry<Long, List<TrackedRegion>> chunk : world.getValue().entrySet()) {
+                for (TrackedRegion trackedRegion : chunk.getValue()) {
+                    if (pendingRegions.containsKey(trackedRegion.uuid)) {
+                        continue;
+                    }
+                    newChunkIndex.computeIfAbsent(world.getKey(), k -> new HashMap<>())
+                            .computeIfAbsent(chunk.getKey(), k -> new ArrayList<>())
+                            .add(trackedRegion);
+                }
+            }
+        }
+        chunkIndex = newChunkIndex;
+        HashMap<UUID, Double> changes = heldChanges;
+        clearPendingRegions();
+        return changes;
+    }
+
+    /**
+     * Discards regions recorded for a leaderboard update that did not complete.
+     */
+    public synchronized void clearPendingRegions() {
+        pendingRegions = new ConcurrentHashMap<>();
+        capturedChunks.clear();
+        heldChanges = new HashMap<>();
+    }
+
+    /**
+     * Applies a change in the number of blocks of a material at a location to the block wealth
+     * of every entity whose land contains the location. Only ever called on the main thread.
+     *
+     * @param world world the block is in
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     * @param material material of block
+     * @param amount number of blocks added, negative if removed
+     */
+    public synchronized void applyChange(World world, int x, int y, int z, Material material,
+            int amount) {
+        // most changes involve blocks without worth so check that before looking up land
+        int blockId = blockWorthTable.getId(material);
+        if (blockId < 0) {
+            return;
+        }
+        HashMap<Long, List<TrackedRegion>> chunks = chunkIndex.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+        long chunkKey = getChunkKey(x >> 4, z >> 4);
+        List<TrackedRegion> trackedRegions = chunks.get(chunkKey);
+        if (trackedRegions == null) {
+            return;
+        }
+        double worth = blockWorthTable.getWorth(blockId) * amount;
+        for (TrackedRegion trackedRegion : trackedRegions) {
+            if (!trackedRegion.region.contains(x, y, z)) {
+                continue;
+            }
+            UUID uuid = trackedRegion.uuid;
+            if (!pendingRegions.containsKey(uuid)) {
+                main.getServerStatsManager().addBlockWealth(uuid, worth);
+            } else if (capturedChunks.contains(new CapturedChunk(uuid, world.getUID(),
+                    chunkKey))) {
+                heldChanges.merge(uuid, worth, Double::sum);
+            }
+        }
+    }
+
+    /**
+     * Gets the key of a chunk within a world.
+     *
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return key of chunk
+     */
+    private long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A chunk captured for an entity in the current update.
+     */
+    private static class CapturedChunk {
+        private final UUID uuid;
+        private final UUID worldUid;
+        private final long chunkKey;
+
+        private CapturedChunk(UUID uuid, UUID worldUid, long chunkKey) {
+            this.uuid = uuid;
+            this.worldUid = worldUid;
+            this.chunkKey = chunkKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CapturedChunk)) {
+                return false;
+            }
+            CapturedChunk other = (CapturedChunk) o;
+            return chunkKey == other.chunkKey && worldUid.equals(other.worldUid)
+                    && uuid.equals(other.uuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uuid, worldUid, chunkKey);
+        }
+    }
+
+    /**
+     * A scanned region together with the entity it was scanned for.
+     */
+    private static class TrackedRegion {
+        private final UUID uuid;
+        private final ScanRegion region;
+
+        private TrackedRegion(UUID uuid, ScanRegion region) {
+            this.uuid = uuid;
+            this.region = region;
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package tk.taverncraft.survivaltop.land.operations;
 
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -16,6 +26,7 @@ import org.bukkit.entity.EntityType;
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Helper function for loading the logic of calculations.
@@ -25,15 +36,28 @@ public class LandOperationsHelper {
     private BlockOperations blockOperations;
     private SpawnerOperations spawnerOperations;
     private ContainerOperations containerOperations;
+    private WorthTable blockWorthTable;
+    private final LandScanEngine landScanEngine;
+    private LandChangeTracker landChangeTracker;
+    private final ChunkValuationCache chunkValuationCache;
+    private final Method getMinHeightMethod;
 
     // boolean to allow reloads to stop current operations
-    private boolean stopOperations = false;
+    private volatile boolean stopOperations = false;
+
+    // lookup table of how each material is handled when scanning land
+    private ScanDispatchTable scanDispatchTable;
 
-    // list of operations to perform for calculating land wealth
-    // leaderboard and stats uses different calculations because of gui setups and
-    // different tracking mechanisms (i.e. for stats, inventory needs to be shown to sender)
-    ArrayList<BiFunction<UUID, Block, Boolean>> landOperationsForLeaderboard = new ArrayList<>();
-    ArrayList<BiFunction<UUID, Block, Boolean>> landOperationsForStats = new ArrayList<>();
+    // number of chunk sections scanned and skipped during a leaderboard update
+    private LongAdder sectionsScannedForLeaderboard = new LongAdder();
+    private LongAdder sectionsSkippedForLeaderboard = new LongAdder();
+    private LongAdder chunksReusedForLeaderboard = new LongAdder();
+
+    // claims shared between entities in the current leaderboard update, null if not shared
+    private volatile ClaimLedger claimLedgerForLeaderboard;
+
+    // entities whose land could not be fully scanned in the current leaderboard update
+    private final Set<UUID> incompleteEntitiesForLeaderboard = ConcurrentHashMap.newKeySet();
 
     // worth of blocks, spawners and containers
     private LinkedHashMap<String, Double> blockWorth = new LinkedHashMap<>();
@@ -47,9 +71,19 @@ public class LandOperationsHelper {
      */
     public LandOperationsHelper(Main main) {
         this.main = main;
+        Method method;
+        try {
+            method = World.class.getMethod("getMinHeight");
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        this.getMinHeightMethod = method;
+        this.landScanEngine = new LandScanEngine(main, this);
         initializeWorth();
         initializeLandSubOperations();
-        initializeLandOperations();
+        initializeScanDispatchTable();
+        this.chunkValuationCache = new ChunkValuationCache(
+                main.getOptions().getChunkCacheSizeMb() * 1024L * 1024L, createChunkIndexStore());
     }
 
     /**
@@ -65,33 +99,46 @@ public class LandOperationsHelper {
      * Initializes block, spawner and container operations for land.
      */
     private void initializeLandSubOperations() {
-        blockOperations = new BlockOperations(blockWorth);
-        spawnerOperations = new SpawnerOperations(main, this, spawnerWorth);
-        containerOperations = new ContainerOperations(main, this, containerWorth);
+        blockWorthTable = new WorthTable(blockWorth, Material.values());
+        blockOperations = new BlockOperations(blockWorthTable);
+        spawnerOperations = new SpawnerOperations(main, this,
+                new WorthTable(spawnerWorth, EntityType.values()));
+        containerOperations = new ContainerOperations(main, this,
+                new WorthTable(containerWorth, Material.values()));
+        landChangeTracker = new LandChangeTracker(main, this, blockWorthTable);
     }
 
     /**
-     * Initializes land operations to be included.
+     * Initializes the lookup table of land operations to be included.
      */
-    private void initializeLandOperations() {
-        landOperationsForLeaderboard = new ArrayList<>();
-        landOperationsForStats = new ArrayList<>();
-
-        if (main.getOptions().landIsIncluded()) {
-            landOperationsForLeaderboard.add(blockOperations.getLeaderboardOperation());
-            landOperationsForStats.add(blockOperations.getStatsOperation());
-        } else {
-            return;
-        }
-        if (main.getOptions().spawnerIsIncluded()) {
-            landOperationsForLeaderboard.add(spawnerOperations.getLeaderboardOperation());
-            landOperationsForStats.add(spawnerOperations.getStatsOperation());
+    private void initializeScanDispatchTable() {
+        Set<String> containerTypes = new HashSet<>();
+        if (main.getOptions().containerIsIncluded()) {
+            containerTypes = containerOperations.getContainerTypes();
         }
+        scanDispatchTable = new ScanDispatchTable(blockWorthTable,
+                main.getOptions().spawnerIsIncluded(), containerTypes);
+    }
 
+    /**
+     * Creates the store that scanned chunks are saved to so they can be reused after restarts.
+     * Indexed results are only valid for the worth configs they were scanned with, so those
+     * are part of the fingerprint of the index.
+     *
+     * @return chunk index store, or null if disabled
+     */
+    private ChunkIndexStore createChunkIndexStore() {
+        if (!main.getOptions().isPersistChunkIndex()) {
+            return null;
+        }
+        Set<String> containerTypes = new TreeSet<>();
         if (main.getOptions().containerIsIncluded()) {
-            landOperationsForLeaderboard.add(containerOperations.getLeaderboardOperation());
-            landOperationsForStats.add(containerOperations.getStatsOperation());
+            containerTypes.addAll(containerOperations.getContainerTypes());
         }
+        String fingerprint = String.join(",", blockWorth.keySet()) + "|"
+                + main.getOptions().spawnerIsIncluded() + "|" + String.join(",", containerTypes);
+        return new ChunkIndexStore(new File(main.getDataFolder(), "chunkIndex"),
+                UUID.nameUUIDFromBytes(fingerprint.getBytes(StandardCharsets.UTF_8)).toString());
     }
 
     /**
@@ -158,6 +205,12 @@ public class LandOperationsHelper {
         blockOperations.doCleanUpForLeaderboard();
         spawnerOperations.doCleanUpForLeaderboard();
         containerOperations.doCleanUpForLeaderboard();
+        landChangeTracker.clearPendingRegions();
+        claimLedgerForLeaderboard = null;
+        incompleteEntitiesForLeaderboard.clear();
+        sectionsScannedForLeaderboard = new LongAdder();
+        sectionsSkippedForLeaderboard = new LongAdder();
+        chunksReusedForLeaderboard = new LongAdder();
     }
 
     /**
@@ -194,80 +247,303 @@ public class LandOperationsHelper {
     }
 
     /**
-     * Gets worth of a claim with possible inclusion of search for spawners/containers.
+     * Sets whether entities share the scan of claims they have in common in the leaderboard
+     * update about to start. If shared, the regions of entities are only recorded while their
+     * land is processed and scanned together afterwards, so that land held by several entities
+     * is only scanned once, and worth calculated for the leaderboard is added up from the claims
+     * of each entity.
+     *
+     * @param shareClaims true to share claims between entities, false otherwise
+     */
+    public void setShareClaimsForLeaderboard(boolean shareClaims) {
+        claimLedgerForLeaderboard = shareClaims ? new ClaimLedger() : null;
+    }
+
+    /**
+     * Gets worth of the regions claimed by an entity with possible inclusion of search for
+     * spawners/containers. Overlapping regions are normalized into disjoint ones first so no
+     * block is counted twice.
      *
      * @param uuid uuid of sender if this is run through stats command; otherwise entities
-     * @param maxX max x coordinate
-     * @param minX min x coordinate
-     * @param maxY max y coordinate
-     * @param minY min y coordinate
-     * @param maxZ max z coordinate
-     * @param minZ min z coordinate
-     * @param world world to search in
+     * @param regions regions claimed by the entity
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
-    public void processEntityClaim(UUID uuid, double maxX, double minX, double maxY, double minY,
-                                   double maxZ, double minZ, World world, boolean isLeaderboardUpdate) {
-        ArrayList<BiFunction<UUID, Block, Boolean>> blockOperations;
+    public void processEntityRegions(UUID uuid, List<ScanRegion> regions,
+            boolean isLeaderboardUpdate) {
+        regions = ScanRegion.toDisjoint(regions);
+        LandScanSink landScanSink;
         if (isLeaderboardUpdate) {
-            blockOperations = landOperationsForLeaderboard;
+            if (main.getOptions().isTrackLandChanges()) {
+                landChangeTracker.registerRegions(uuid, regions);
+            }
+            ClaimLedger claimLedger = claimLedgerForLeaderboard;
+            if (claimLedger != null) {
+                claimLedger.addEntityRegions(uuid, regions);
+                return;
+            }
+            landScanSink = createSinkForLeaderboard(uuid, Collections.singleton(uuid));
         } else {
-            blockOperations = landOperationsForStats;
+            landScanSink = new LandScanSink(Collections.emptySet(),
+                    blockOperations.getBlockHolderForStats(uuid),
+                    spawnerOperations.getPreprocessedSpawnersForStats(uuid),
+                    containerOperations.getPreprocessedContainersForStats(uuid),
+                    new LongAdder(), new LongAdder(), new LongAdder());
         }
-
-        for (int i = (int) minX; i < maxX; i++) {
-            for (int j = (int) minY; j < maxY; j++) {
-                for (int k = (int) minZ; k < maxZ; k++) {
-                    if (stopOperations) {
-                        return;
-                    }
-                    Block block = world.getBlockAt(i, j, k);
-                    for (BiFunction<UUID, Block, Boolean> f : blockOperations) {
-                        if (f.apply(uuid, block)) {
-                            break;
-                        }
-                    }
-                }
-            }
+        if (!landScanEngine.scanRegions(landScanSink, regions)) {
+            onIncompleteScan(Collections.singleton(uuid), isLeaderboardUpdate);
         }
     }
 
     /**
-     * Gets worth of a claim with possible inclusion of search for spawners/containers.
-     * Only plugins that claim lands in chunks uses this which is faster.
+     * Records entities whose land could not be fully scanned, so that a leaderboard update
+     * keeps their previous land wealth instead of ranking a partial value.
      *
-     * @param uuid uuid of sender if this is run through stats command; otherwise entities
-     * @param chunk chunk to get worth for.
-     * @param world world to search in
+     * @param uuids uuids of entities
      * @param isLeaderboardUpdate true if is a leaderboard update, false otherwise (i.e. stats)
      */
-    public void processEntityChunk(UUID uuid, Chunk chunk, World world, boolean isLeaderboardUpdate) {
-        ArrayList<BiFunction<UUID, Block, Boolean>> blockOperations;
+    private void onIncompleteScan(Set<UUID> uuids, boolean isLeaderboardUpdate) {
+        if (stopOperations) {
+            return;
+        }
         if (isLeaderboardUpdate) {
-            blockOperations = landOperationsForLeaderboard;
+            incompleteEntitiesForLeaderboard.addAll(uuids);
+            LogManager.warn("Land of " + uuids.size() + " entities could not be fully scanned, "
+                    + "keeping their previous land wealth.");
         } else {
-            blockOperations = landOperationsForStats;
+            LogManager.warn("Land could not be fully scanned, land wealth shown is incomplete.");
         }
+    }
 
-        int x = chunk.getX() << 4;
-        int z = chunk.getZ() << 4;
-        int maxHeight = (int) main.getOptions().getMaxLandHeight();
-        int minHeight = (int) main.getOptions().getMinLandHeight();
-        for (int i = x; i < x + 16; ++i) {
-            for (int j = z; j < z + 16; ++j) {
-                for (int k = minHeight; k < maxHeight; ++k) {
-                    if (stopOperations) {
-                        return;
-                    }
-                    Block block = world.getBlockAt(i, k, j);
-                    for (BiFunction<UUID, Block, Boolean> f : blockOperations) {
-                        if (f.apply(uuid, block)) {
-                            break;
-                        }
-                    }
-                }
+    /**
+     * Gets the entities whose land could not be fully scanned in the current leaderboard
+     * update.
+     *
+     * @return uuids of entities
+     */
+    public Set<UUID> getIncompleteEntitiesForLeaderboard() {
+        return incompleteEntitiesForLeaderboard;
+    }
+
+    /**
+     * Scans the claims shared between entities in the current leaderboard update, each into
+     * holders of its own. Called once the land of every entity has been processed.
+     */
+    public void processSharedClaimsForLeaderboard() {
+        ClaimLedger claimLedger = claimLedgerForLeaderboard;
+        if (claimLedger == null) {
+            return;
+        }
+        List<ScanRegion> claimRegions = new ArrayList<>();
+        List<LandScanSink> claimSinks = new ArrayList<>();
+        for (Map.Entry<UUID, List<ScanRegion>> claim : claimLedger.buildClaims().entrySet()) {
+            createHoldersForLeaderboard(claim.getKey());
+            LandScanSink claimSink = createSinkForLeaderboard(claim.getKey(),
+                    claimLedger.getClaimOwners(claim.getKey()));
+            for (ScanRegion region : claim.getValue()) {
+                claimRegions.add(region);
+                claimSinks.add(claimSink);
             }
         }
+        if (!landScanEngine.scanRegions(claimRegions, claimSinks)) {
+            onIncompleteScan(claimLedger.getEntities(), true);
+        }
+    }
+
+    /**
+     * Creates the sink to collect the scan results of an entity or claim in for leaderboard.
+     *
+     * @param uuid uuid of entity or claim
+     * @param entities entities whose land the results count towards
+     *
+     * @return sink of the entity or claim
+     */
+    private LandScanSink createSinkForLeaderboard(UUID uuid, Collection<UUID> entities) {
+        return new LandScanSink(entities, blockOperations.getBlockHolderForLeaderboard(uuid),
+                spawnerOperations.getPreprocessedSpawnersForLeaderboard(uuid),
+                containerOperations.getPreprocessedContainersForLeaderboard(uuid),
+                sectionsScannedForLeaderboard, sectionsSkippedForLeaderboard,
+                chunksReusedForLeaderboard);
+    }
+
+    /**
+     * Gets the region covering a whole chunk between the land heights of its world. Only plugins
+     * that claim lands in chunks uses this.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return region covering the chunk
+     */
+    public ScanRegion getChunkRegion(World world, int chunkX, int chunkZ) {
+        return ScanRegion.ofChunk(world, chunkX, chunkZ, getMinLandHeight(world),
+                getMaxLandHeight(world));
+    }
+
+    /**
+     * Starts tracking land changes against the regions scanned in the leaderboard update that
+     * just completed.
+     *
+     * @return block wealth changed in the land of entities after it was scanned in the update,
+     *     which is left to the caller to apply
+     */
+    public Map<UUID, Double> publishTrackedRegions() {
+        return landChangeTracker.publishRegions();
+    }
+
+    /**
+     * Records a chunk as captured for the entities being scanned in it, so that block changes
+     * in it from now on are applied to them after the update instead of being left to the scan.
+     * Only called on the main thread.
+     *
+     * @param chunkWork chunk that was captured
+     */
+    public void markChunkCaptured(ChunkWork chunkWork) {
+        if (main.getOptions().isTrackLandChanges()) {
+            landChangeTracker.markCaptured(chunkWork);
+        }
+    }
+
+    /**
+     * Gets the cached results of the parts of a chunk, recording the chunk as captured for the
+     * entities being scanned in it if found. Both are one step with respect to block changes, so
+     * a change is either in the cached results or applied after the update.
+     *
+     * @param chunkWork chunk to get cached results for
+     *
+     * @return results in the same order as the parts, or null if any part is not cached
+     */
+    public PartValuation[] getCachedParts(ChunkWork chunkWork) {
+        if (!main.getOptions().isTrackLandChanges()) {
+            return chunkValuationCache.getParts(chunkWork.getWorld(), chunkWork.getChunkX(),
+                    chunkWork.getChunkZ(), chunkWork.getParts());
+        }
+        // the region is loaded first so that no index file is read while changes are held up
+        chunkValuationCache.loadRegion(chunkWork.getWorld(), chunkWork.getChunkX(),
+                chunkWork.getChunkZ());
+        return landChangeTracker.markCapturedIfCached(chunkWork, () ->
+                chunkValuationCache.getParts(chunkWork.getWorld(), chunkWork.getChunkX(),
+                        chunkWork.getChunkZ(), chunkWork.getParts()));
+    }
+
+    /**
+     * Handles a block that was added or removed. The chunk of the block is marked dirty if the
+     * block is of worth to scans, and its worth is applied to the entities whose land it is in
+     * if land changes are tracked.
+     *
+     * @param block block that changed
+     * @param material material of block that was added or removed
+     * @param amount 1 if added, -1 if removed
+     */
+    public void applyBlockChange(Block block, Material material, int amount) {
+        if (scanDispatchTable.getCategory(material) == ScanDispatchTable.IGNORE) {
+            return;
+        }
+        chunkValuationCache.markDirty(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+        if (main.getOptions().isTrackLandChanges()) {
+            landChangeTracker.applyChange(block.getWorld(), block.getX(), block.getY(),
+                    block.getZ(), material, amount);
+        }
+    }
+
+    /**
+     * Handles a chunk being unloaded.
+     *
+     * @param chunk chunk that was unloaded
+     */
+    public void onChunkUnload(Chunk chunk) {
+        chunkValuationCache.onChunkUnload(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        landScanEngine.onChunkUnload(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Gets the cache of chunk scan results.
+     *
+     * @return chunk valuation cache
+     */
+    public ChunkValuationCache getChunkValuationCache() {
+        return chunkValuationCache;
+    }
+
+    /**
+     * Gets the min height of land to scan in a world, which is the configured min land height
+     * for the world kept within its build limits.
+     *
+     * @param world world to get min land height for
+     *
+     * @return min land height of world (inclusive)
+     */
+    public int getMinLandHeight(World world) {
+        return Math.max(main.getOptions().getMinLandHeight(world.getName()),
+                getWorldMinHeight(world));
+    }
+
+    /**
+     * Gets the max height of land to scan in a world, which is the configured max land height
+     * for the world kept within its build limits.
+     *
+     * @param world world to get max land height for
+     *
+     * @return max land height of world (exclusive)
+     */
+    public int getMaxLandHeight(World world) {
+        return Math.min(main.getOptions().getMaxLandHeight(world.getName()),
+                world.getMaxHeight());
+    }
+
+    /**
+     * Gets the min height of a world. Worlds before 1.17 have no such method and always start
+     * at 0.
+     *
+     * @param world world to get min height for
+     *
+     * @return min height of world
+     */
+    public int getWorldMinHeight(World world) {
+        if (getMinHeightMethod == null) {
+            return 0;
+        }
+        try {
+            return (int) getMinHeightMethod.invoke(world);
+        } catch (ReflectiveOperationException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the lookup table of how each material is handled when scanning land.
+     *
+     * @return scan dispatch table
+     */
+    public ScanDispatchTable getScanDispatchTable() {
+        return scanDispatchTable;
+    }
+
+    /**
+     * Gets the number of chunk sections scanned in the current leaderboard update.
+     *
+     * @return number of sections scanned
+     */
+    public long getSectionsScannedForLeaderboard() {
+        return sectionsScannedForLeaderboard.sum();
+    }
+
+    /**
+     * Gets the number of chunk sections skipped in the current leaderboard update.
+     *
+     * @return number of sections skipped
+     */
+    public long getSectionsSkippedForLeaderboard() {
+        return sectionsSkippedForLeaderboard.sum();
+    }
+
+    /**
+     * Gets the number of chunks reused from cache in the current leaderboard update.
+     *
+     * @return number of chunks reused
+     */
+    public long getChunksReusedForLeaderboard() {
+        return chunksReusedForLeaderboard.sum();
     }
 
     /**
@@ -370,10 +646,27 @@ public class LandOperationsHelper {
     }
 
     /**
-     * Processes spawner types on the main thread for leaderboard.
+     * Processes spawners and containers of all entities on the main thread for leaderboard,
+     * spread over as many ticks as needed to stay within the configured budget of each tick.
+     * Containers only have their contents copied here, they are valued later off the main
+     * thread.
+     *
+     * @param onComplete callback run on the main thread once done or stopped
+     *
+     * @return job processing the spawners and containers
      */
-    public void processSpawnerTypesForLeaderboard() {
-        spawnerOperations.processSpawnerTypesForLeaderboard();
+    public MainThreadJob processSpawnersAndContainersForLeaderboard(Runnable onComplete) {
+        List<MainThreadJob.BlockCursor> cursors = new ArrayList<>();
+        if (main.getOptions().spawnerIsIncluded()) {
+            cursors.add(spawnerOperations.createSpawnerCursorForLeaderboard());
+        }
+        if (main.getOptions().containerIsIncluded()) {
+            cursors.add(containerOperations.createContainerCursorForLeaderboard());
+        }
+        MainThreadJob mainThreadJob = new MainThreadJob(main, this, "spawners and containers",
+                cursors, onComplete);
+        mainThreadJob.start();
+        return mainThreadJob;
     }
 
     /**
@@ -385,13 +678,6 @@ public class LandOperationsHelper {
         spawnerOperations.processSpawnerTypesForStats(uuid);
     }
 
-    /**
-     * Processes container items on the main thread for leaderboard,
-     */
-    public void processContainerItemsForLeaderboard() {
-        containerOperations.processContainerItemsForLeaderboard();
-    }
-
     /**
      * Processes container items on the main thread for stats.
      *
@@ -407,7 +693,7 @@ public class LandOperationsHelper {
      * @return map of entities uuid to their block worth
      */
     public HashMap<UUID, Double> calculateBlockWorthForLeaderboard() {
-        return blockOperations.calculateBlockWorthForLeaderboard();
+        return foldClaimsForLeaderboard(blockOperations.calculateBlockWorthForLeaderboard());
     }
 
     /**
@@ -427,7 +713,7 @@ public class LandOperationsHelper {
      * @return map of entities uuid to their spawner worth
      */
     public HashMap<UUID, Double> calculateSpawnerWorthForLeaderboard() {
-        return spawnerOperations.calculateSpawnerWorthForLeaderboard();
+        return foldClaimsForLeaderboard(spawnerOperations.calculateSpawnerWorthForLeaderboard());
     }
 
     /**
@@ -442,12 +728,31 @@ public class LandOperationsHelper {
     }
 
     /**
-     * Calculates container worth for all entities.
+     * Calculates container worth for all entities. Container contents copied on the main thread
+     * are counted on the land scan pool first.
      *
      * @return map of entities uuid to their container worth
      */
     public HashMap<UUID, Double> calculateContainerWorthForLeaderboard() {
-        return containerOperations.calculateContainerWorthForLeaderboard();
+        landScanEngine.invokeAll(containerOperations.createCountTasksForLeaderboard());
+        return foldClaimsForLeaderboard(
+                containerOperations.calculateContainerWorthForLeaderboard());
+    }
+
+    /**
+     * Adds up worth calculated for claims into the entities holding them if claims are shared
+     * in the current leaderboard update.
+     *
+     * @param worthMap map of uuids of entities (or claims if shared) to their worth
+     *
+     * @return map of entity uuids to their worth
+     */
+    private HashMap<UUID, Double> foldClaimsForLeaderboard(HashMap<UUID, Double> worthMap) {
+        ClaimLedger claimLedger = claimLedgerForLeaderboard;
+        if (claimLedger == null) {
+            return worthMap;
+        }
+        return claimLedger.foldIntoEntities(worthMap);
     }
 
     /**
@@ -461,6 +766,30 @@ public class LandOperationsHelper {
         return containerOperations.calculateContainerWorthForStats(uuid);
     }
 
+    /**
+     * Runs the given tasks in parallel on the land scan pool and waits for them to complete.
+     *
+     * @param tasks tasks to run
+     */
+    public void invokeAll(List<Runnable> tasks) {
+        landScanEngine.invokeAll(tasks);
+    }
+
+    /**
+     * Stops the land scan pool and saves scanned chunks to the chunk index.
+     */
+    public void shutdown() {
+        landScanEngine.shutdown();
+        chunkValuationCache.save();
+    }
+
+    /**
+     * Saves chunks scanned since the last save to the chunk index.
+     */
+    public void saveChunkIndex() {
+        chunkValuationCache.save();
+    }
+
     /**
      * Gets the state for operations to stop or continue. Mainly used for spawner and container
      * operations.
@@ -0,0 +1,456 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.operations.anvil.AnvilChunkScanner;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Scans land against chunk snapshots. Snapshots are captured on the main thread in small batches
+ * while all counting is done on a fork join pool, so a scan never reads live world state. Chunks
+ * that are not loaded may be read from region files on the pool instead of being loaded.
+ */
+public class LandScanEngine {
+    private final Main main;
+    private final LandOperationsHelper landOperationsHelper;
+    private final ForkJoinPool scanPool;
+    private final ChunkSnapshotLoader chunkSnapshotLoader;
+    private final AnvilChunkScanner anvilChunkScanner;
+
+    /**
+     * Constructor for LandScanEngine.
+     *
+     * @param main plugin class
+     * @param landOperationsHelper helper for land operations
+     */
+    public LandScanEngine(Main main, LandOperationsHelper landOperationsHelper) {
+        this.main = main;
+        this.landOperationsHelper = landOperationsHelper;
+        this.scanPool = createScanPool(main.getOptions().getLandScanThreads());
+        this.chunkSnapshotLoader = new ChunkSnapshotLoader(main, landOperationsHelper);
+        this.anvilChunkScanner = new AnvilChunkScanner();
+    }
+
+    /**
+     * Creates the pool that land scans are run on.
+     *
+     * @param threads number of worker threads
+     *
+     * @return fork join pool for scanning
+     */
+    private ForkJoinPool createScanPool(int threads) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("SurvivalTop-Scan-" + thread.getPoolIndex());
+            return thread;
+        };
+        return new ForkJoinPool(Math.max(1, threads), factory, null, false);
+    }
+
+    /**
+     * Runs the given tasks on the scan pool and waits for all of them to complete. Tasks that
+     * scan land fork their chunks onto the same pool, so idle workers steal chunks from large
+     * claims instead of waiting on them.
+     *
+     * @param tasks tasks to run
+     */
+    public void invokeAll(List<Runnable> tasks) {
+        List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            forkJoinTasks.add(ForkJoinTask.adapt(task));
+        }
+        invokeInPool(forkJoinTasks);
+    }
+
+    /**
+     * Invokes tasks directly if already running on a pool worker, otherwise hands them to the
+     * scan pool and waits.
+     *
+     * @param forkJoinTasks tasks to invoke
+     */
+    private void invokeInPool(List<? extends ForkJoinTask<?>> forkJoinTasks) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(forkJoinTasks);
+        } else {
+            scanPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forkJoinTasks)));
+        }
+    }
+
+    /**
+     * Stops the scan pool, called when land operations are reloaded or the plugin is disabled.
+     */
+    public void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    /**
+     * Handles a chunk being unloaded.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     */
+    public void onChunkUnload(World world, int chunkX, int chunkZ) {
+        chunkSnapshotLoader.onChunkUnload(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Scans the given regions and dispatches every block in them to the sink. Each chunk
+     * touched by the regions is captured only once even if several regions overlap it, and
+     * every captured chunk is scanned as its own subtask on the scan pool. Chunks with cached
+     * results are not captured at all. Chunks read from region files that turn out to be
+     * unreadable or outdated are captured through the server after the rest of their batch.
+     *
+     * @param landScanSink sink of the entity to collect results in
+     * @param regions regions to scan
+     *
+     * @return true if every chunk was scanned, false if the scan was stopped or chunks could
+     *     not be captured, leaving the results incomplete
+     */
+    public boolean scanRegions(LandScanSink landScanSink, List<ScanRegion> regions) {
+        return scanRegions(regions, Collections.nCopies(regions.size(), landScanSink));
+    }
+
+    /**
+     * Scans the given regions, dispatching the blocks in each region to a sink of its own. Used
+     * to scan several claims in one pass while still keeping the results of each claim apart.
+     *
+     * @param regions regions to scan
+     * @param landScanSinks sink to collect results of each region in, in the same order
+     *
+     * @return true if every chunk was scanned, false if the scan was stopped or chunks could
+     *     not be captured, leaving the results incomplete
+     */
+    public boolean scanRegions(List<ScanRegion> regions, List<LandScanSink> landScanSinks) {
+        List<ChunkWork> chunkWorks = reuseCachedChunks(groupByChunk(regions, landScanSinks));
+        int batchSize = Math.max(1, main.getOptions().getChunkSnapshotBatchSize());
+        int numChunks = chunkWorks.size();
+        for (int start = 0; start < numChunks; start += batchSize) {
+            if (landOperationsHelper.getStopOperations()) {
+                return false;
+            }
+            int end = Math.min(start + batchSize, numChunks);
+            List<ChunkWork> batch = chunkWorks.subList(start, end);
+            if (!captureSnapshots(batch, true)) {
+                return false;
+            }
+            scanBatch(batch);
+
+            List<ChunkWork> uncapturedChunkWorks = new ArrayList<>();
+            for (ChunkWork chunkWork : batch) {
+                if (chunkWork.isNeedsCapture()) {
+                    uncapturedChunkWorks.add(chunkWork);
+                }
+            }
+            if (uncapturedChunkWorks.isEmpty()) {
+                continue;
+            }
+            if (!captureSnapshots(uncapturedChunkWorks, false)) {
+                return false;
+            }
+            scanBatch(uncapturedChunkWorks);
+        }
+        return true;
+    }
+
+    /**
+     * Scans a batch of captured chunks, each as its own subtask on the scan pool.
+     *
+     * @param batch chunks to scan
+     */
+    private void scanBatch(List<ChunkWork> batch) {
+        List<ChunkScanTask> chunkScanTasks = new ArrayList<>(batch.size());
+        for (ChunkWork chunkWork : batch) {
+            chunkScanTasks.add(new ChunkScanTask(chunkWork));
+        }
+        invokeInPool(chunkScanTasks);
+    }
+
+    /**
+     * Splits regions into the parts that fall within each chunk, grouped by chunk. Heights of
+     * each part are kept within the land heights of its world.
+     *
+     * @param regions regions to split
+     * @param landScanSinks sink of each region
+     *
+     * @return list of chunks to capture with the region parts inside them
+     */
+    private List<ChunkWork> groupByChunk(List<ScanRegion> regions,
+            List<LandScanSink> landScanSinks) {
+        HashMap<World, LinkedHashMap<Long, ChunkWork>> worldChunks = new HashMap<>();
+        List<ChunkWork> chunkWorks = new ArrayList<>();
+        int numRegions = regions.size();
+        for (int i = 0; i < numRegions; i++) {
+            ScanRegion region = regions.get(i);
+            World world = region.getWorld();
+            if (world == null || region.isEmpty()) {
+                continue;
+            }
+            int minY = Math.max(region.getMinY(), landOperationsHelper.getMinLandHeight(world));
+            int maxY = Math.min(region.getMaxY(), landOperationsHelper.getMaxLandHeight(world));
+            if (minY >= maxY) {
+                continue;
+            }
+            Map<Long, ChunkWork> chunks = worldChunks.computeIfAbsent(world,
+                    k -> new LinkedHashMap<>());
+            int maxChunkX = (region.getMaxX() - 1) >> 4;
+            int maxChunkZ = (region.getMaxZ() - 1) >> 4;
+            for (int chunkX = region.getMinX() >> 4; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = region.getMinZ() >> 4; chunkZ <= maxChunkZ; chunkZ++) {
+                    int x = chunkX << 4;
+                    int z = chunkZ << 4;
+                    ScanRegion part = new ScanRegion(world, Math.max(region.getMinX(), x),
+                            Math.min(region.getMaxX(), x + 16), minY, maxY,
+                            Math.max(region.getMinZ(), z), Math.min(region.getMaxZ(), z + 16));
+                    long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+                    ChunkWork chunkWork = chunks.get(key);
+                    if (chunkWork == null) {
+                        chunkWork = new ChunkWork(world, chunkX, chunkZ);
+                        chunks.put(key, chunkWork);
+                        chunkWorks.add(chunkWork);
+                    }
+                    chunkWork.addPart(part, landScanSinks.get(i));
+                }
+            }
+        }
+        return chunkWorks;
+    }
+
+    /**
+     * Adds the cached results of chunks to the sinks of their parts.
+     *
+     * @param chunkWorks chunks to look up in cache
+     *
+     * @return chunks that are not cached and have to be captured
+     */
+    private List<ChunkWork> reuseCachedChunks(List<ChunkWork> chunkWorks) {
+        ChunkValuationCache chunkValuationCache = landOperationsHelper.getChunkValuationCache();
+        if (!chunkValuationCache.isEnabled()) {
+            return chunkWorks;
+        }
+        List<ChunkWork> uncachedChunkWorks = new ArrayList<>();
+        for (ChunkWork chunkWork : chunkWorks) {
+            PartValuation[] partValuations = landOperationsHelper.getCachedParts(chunkWork);
+            if (partValuations == null) {
+                uncachedChunkWorks.add(chunkWork);
+                continue;
+            }
+            List<LandScanSink> partSinks = chunkWork.getPartSinks();
+            for (int i = 0; i < partValuations.length; i++) {
+                partValuations[i].replay(partSinks.get(i), chunkWork.getWorld());
+            }
+            partSinks.get(0).addReusedChunk();
+        }
+        return uncachedChunkWorks;
+    }
+
+    /**
+     * Captures snapshots of a batch of chunks.
+     *
+     * @param batch chunks to capture
+     * @param allowOffline true if unloaded chunks may be read from region files instead
+     *
+     * @return true if all chunks were captured, false if capturing failed
+     */
+    private boolean captureSnapshots(List<ChunkWork> batch, boolean allowOffline) {
+        try {
+            return chunkSnapshotLoader.capture(batch, allowOffline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // scheduler rejects tasks when the plugin is disabled
+            if (!landOperationsHelper.getStopOperations()) {
+                LogManager.warn("Failed to capture chunk snapshots: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Adds every valued block of a region part within a snapshot to the sink. Sections that are
+     * empty or above the highest block of every column in the part are skipped without reading
+     * any of their blocks, and each column is only read up to its highest block. Spawners and
+     * containers are not looked for here but among the tile entities of the chunk.
+     *
+     * @param landScanSink sink of the entity to collect results in
+     * @param snapshot snapshot of the chunk containing the part
+     * @param columnTops y above the highest block of each column, indexed by z * 16 + x
+     * @param part region part to scan
+     */
+    private void scanSnapshot(LandScanSink landScanSink, ChunkSnapshot snapshot,
+            int[] columnTops, ScanRegion part) {
+        ScanDispatchTable scanDispatchTable = landOperationsHelper.getScanDispatchTable();
+        int minSection = landOperationsHelper.getWorldMinHeight(part.getWorld()) >> 4;
+        int partTop = part.getMinY();
+        for (int z = part.getMinZ(); z < part.getMaxZ(); z++) {
+            for (int x = part.getMinX(); x < part.getMaxX(); x++) {
+                partTop = Math.max(partTop, columnTops[((z & 15) << 4) | (x & 15)]);
+            }
+        }
+        int partMaxY = Math.min(part.getMaxY(), partTop);
+        int maxSectionY = (part.getMaxY() - 1) >> 4;
+        try {
+            for (int sectionY = part.getMinY() >> 4; sectionY <= maxSectionY; sectionY++) {
+                if (landOperationsHelper.getStopOperations()) {
+                    return;
+                }
+                // snapshots index sections from the bottom of the world
+                if (sectionY << 4 >= partMaxY || snapshot.isSectionEmpty(sectionY - minSection)) {
+                    landScanSink.addSkippedSection();
+                    continue;
+                }
+                landScanSink.addScannedSection();
+                int minY = Math.max(part.getMinY(), sectionY << 4);
+                int maxY = Math.min(partMaxY, (sectionY << 4) + 16);
+
+                // y-z-x order follows how sections store blocks
+                for (int y = minY; y < maxY; y++) {
+                    for (int z = part.getMinZ(); z < part.getMaxZ(); z++) {
+                        int columnIndex = (z & 15) << 4;
+                        for (int x = part.getMinX(); x < part.getMaxX(); x++) {
+                            if (y >= columnTops[columnIndex | (x & 15)]) {
+                                continue;
+                            }
+                            Material material = snapshot.getBlockType(x & 15, y, z & 15);
+                            if (scanDispatchTable.getCategory(material)
+                                    == ScanDispatchTable.BLOCK) {
+                                landScanSink.addBlock(scanDispatchTable.getBlockId(material));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // configured heights are outside of what the world supports
+            LogManager.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Dispatches the spawners and containers of a chunk that lie within a region part to the
+     * sink.
+     *
+     * @param landScanSink sink of the entity to collect results in
+     * @param tileEntities x, y, z and scan category of each spawner and container in the chunk
+     * @param part region part to scan
+     */
+    private void scanTileEntities(LandScanSink landScanSink, int[] tileEntities,
+            ScanRegion part) {
+        World world = part.getWorld();
+        for (int i = 0; i < tileEntities.length; i += 4) {
+            int x = tileEntities[i];
+            int y = tileEntities[i + 1];
+            int z = tileEntities[i + 2];
+            if (!part.contains(x, y, z)) {
+                continue;
+            }
+            if (tileEntities[i + 3] == ScanDispatchTable.SPAWNER) {
+                landScanSink.addSpawner(world, x, y, z);
+            } else {
+                landScanSink.addContainer(world, x, y, z);
+            }
+        }
+    }
+
+    /**
+     * Gets the y above the highest block of each column of a snapshot from its heightmap.
+     *
+     * @param snapshot snapshot to read heightmap of
+     *
+     * @return y above the highest block of each column, indexed by z * 16 + x
+     */
+    private int[] getColumnTops(ChunkSnapshot snapshot) {
+        int[] columnTops = new int[256];
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                // heightmaps differ across versions on whether this is the block or the air
+                // above it, so one more layer is always read
+                columnTops[(z << 4) | x] = snapshot.getHighestBlockYAt(x, z) + 1;
+            }
+        }
+        return columnTops;
+    }
+
+    /**
+     * Subtask that scans a single captured chunk into a local sink before merging it into the
+     * sink of the entity, so workers never contend on the same counters while scanning. Each
+     * part is scanned separately so its results can be cached. Chunks marked offline are read
+     * from region files here, or left to be captured if they cannot be.
+     */
+    private class ChunkScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkWork chunkWork;
+
+        private ChunkScanTask(ChunkWork chunkWork) {
+            this.chunkWork = chunkWork;
+        }
+
+        @Override
+        protected void compute() {
+            ChunkValuationCache chunkValuationCache =
+                    landOperationsHelper.getChunkValuationCache();
+            ChunkValuationCache.ChunkValuation chunkValuation = chunkWork.getChunkValuation();
+            ChunkSnapshot snapshot = chunkWork.getSnapshot();
+            AnvilChunkScanner.OfflineChunk offlineChunk = null;
+            int[] columnTops = null;
+            if (chunkWork.isOffline()) {
+                offlineChunk = anvilChunkScanner.readChunk(chunkWork.getWorld(),
+                        chunkWork.getChunkX(), chunkWork.getChunkZ(), chunkWork.getNotBefore());
+                if (offlineChunk == null) {
+                    chunkWork.setNeedsCapture();
+                    return;
+                }
+            } else if (snapshot != null) {
+                columnTops = getColumnTops(snapshot);
+            }
+
+            // parts of the same sink are collected locally and merged into it once
+            Map<LandScanSink, LandScanSink> localSinks = new IdentityHashMap<>();
+            List<ScanRegion> parts = chunkWork.getParts();
+            int numParts = parts.size();
+            for (int i = 0; i < numParts; i++) {
+                ScanRegion part = parts.get(i);
+                LandScanSink localSink = localSinks.computeIfAbsent(
+                        chunkWork.getPartSinks().get(i), LandScanSink::createLocalSink);
+                LandScanSink partSink = localSink.createPartSink();
+                if (offlineChunk != null) {
+                    offlineChunk.scanPart(partSink, landOperationsHelper.getScanDispatchTable(),
+                            part);
+                } else {
+                    if (snapshot != null) {
+                        scanSnapshot(partSink, snapshot, columnTops, part);
+                    }
+                    scanTileEntities(partSink, chunkWork.getTileEntities(), part);
+                }
+
+                // results of a scan cut short by a reload are incomplete
+                if (chunkValuation != null && !landOperationsHelper.getStopOperations()) {
+                    chunkValuationCache.putPart(chunkValuation, part, partSink.toPartValuation());
+                }
+                localSink.merge(partSink);
+            }
+            for (Map.Entry<LandScanSink, LandScanSink> map : localSinks.entrySet()) {
+                map.getKey().merge(map.getValue());
+            }
+            chunkWork.clearCapture();
+        }
+    }
+}
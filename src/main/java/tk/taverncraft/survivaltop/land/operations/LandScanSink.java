@@ -0,0 +1,162 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.land.operations.holders.BlockHolder;
+
+/**
+ * Collects the results of scanning land for a single entity. The holder and buffers of the
+ * entity are resolved once when the sink is created instead of for every scanned block. Apart
+ * from merging, a sink is only ever written to by one thread at a time.
+ */
+public class LandScanSink {
+    private final BlockHolder blockHolder;
+    private final PositionBuffer spawners;
+    private final PositionBuffer containers;
+    private final LongAdder sectionsScanned;
+    private final LongAdder sectionsSkipped;
+    private final LongAdder chunksReused;
+    private final Collection<UUID> entities;
+
+    /**
+     * Constructor for LandScanSink.
+     *
+     * @param entities entities whose land the results count towards, empty if none are tracked
+     * @param blockHolder block holder of the entity
+     * @param spawners buffer to add spawners of the entity to
+     * @param containers buffer to add containers of the entity to
+     * @param sectionsScanned counter for chunk sections scanned
+     * @param sectionsSkipped counter for chunk sections skipped
+     * @param chunksReused counter for chunks reused from cache
+     */
+    public LandScanSink(Collection<UUID> entities, BlockHolder blockHolder,
+            PositionBuffer spawners, PositionBuffer containers, LongAdder sectionsScanned,
+            LongAdder sectionsSkipped, LongAdder chunksReused) {
+        this.entities = entities;
+        this.blockHolder = blockHolder;
+        this.spawners = spawners;
+        this.containers = containers;
+        this.sectionsScanned = sectionsScanned;
+        this.sectionsSkipped = sectionsSkipped;
+        this.chunksReused = chunksReused;
+    }
+
+    /**
+     * Adds a valued block.
+     *
+     * @param blockId id of block material
+     */
+    public void addBlock(int blockId) {
+        blockHolder.addToHolder(blockId);
+    }
+
+    /**
+     * Adds a number of valued blocks of the same material.
+     *
+     * @param blockId id of block material
+     * @param count number of blocks
+     */
+    public void addBlocks(int blockId, long count) {
+        blockHolder.addToHolder(blockId, count);
+    }
+
+    /**
+     * Adds a spawner to be processed on the main thread later.
+     *
+     * @param world world that the spawner is in
+     * @param x x coordinate of spawner
+     * @param y y coordinate of spawner
+     * @param z z coordinate of spawner
+     */
+    public void addSpawner(World world, int x, int y, int z) {
+        spawners.add(world, x, y, z);
+    }
+
+    /**
+     * Adds a container to be processed on the main thread later.
+     *
+     * @param world world that the container is in
+     * @param x x coordinate of container
+     * @param y y coordinate of container
+     * @param z z coordinate of container
+     */
+    public void addContainer(World world, int x, int y, int z) {
+        containers.add(world, x, y, z);
+    }
+
+    /**
+     * Creates an empty sink with its own holder and buffers, sharing only the section counters.
+     * Used by subtasks so that they can scan without locking.
+     *
+     * @return local sink to merge back later
+     */
+    public LandScanSink createLocalSink() {
+        return new LandScanSink(entities, new BlockHolder(blockHolder.getWorthTable()),
+                new PositionBuffer(), new PositionBuffer(), sectionsScanned, sectionsSkipped,
+                chunksReused);
+    }
+
+    /**
+     * Gets the entities whose land the results count towards.
+     *
+     * @return uuids of entities
+     */
+    public Collection<UUID> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Creates an empty sink for scanning a single part of a chunk, whose results can be cached
+     * since its buffers only hold what was found in that part.
+     *
+     * @return part sink to merge back later
+     */
+    public LandScanSink createPartSink() {
+        return createLocalSink();
+    }
+
+    /**
+     * Gets the results of a part sink in a compact form for caching.
+     *
+     * @return results of part
+     */
+    public PartValuation toPartValuation() {
+        return new PartValuation(blockHolder, spawners.toXyzArray(), containers.toXyzArray());
+    }
+
+    /**
+     * Merges the results of a local sink into this sink.
+     *
+     * @param localSink local sink to merge
+     */
+    public synchronized void merge(LandScanSink localSink) {
+        blockHolder.addAll(localSink.blockHolder);
+        spawners.addAll(localSink.spawners);
+        containers.addAll(localSink.containers);
+    }
+
+    /**
+     * Records a chunk section that was scanned.
+     */
+    public void addScannedSection() {
+        sectionsScanned.increment();
+    }
+
+    /**
+     * Records a chunk section that was skipped without reading its blocks.
+     */
+    public void addSkippedSection() {
+        sectionsSkipped.increment();
+    }
+
+    /**
+     * Records a chunk that was reused from cache without being read.
+     */
+    public void addReusedChunk() {
+        chunksReused.increment();
+    }
+}
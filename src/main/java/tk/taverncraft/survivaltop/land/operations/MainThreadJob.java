@@ -0,0 +1,182 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Work that has to be done on the main thread, split up so that each tick only spends a limited
+ * number of milliseconds on it before yielding to the next tick. The job resumes from where it
+ * left off, logs its progress every few seconds and stops early once land operations are
+ * stopped. The completion callback is run on the main thread either way.
+ */
+public class MainThreadJob extends BukkitRunnable {
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Main main;
+    private final LandOperationsHelper landOperationsHelper;
+    private final String name;
+    private final List<BlockCursor> cursors;
+    private final Runnable onComplete;
+    private final long budgetNanos;
+    private final int total;
+    private int processed = 0;
+    private int cursorIndex = 0;
+    private long lastProgressTime = System.nanoTime();
+
+    /**
+     * Constructor for MainThreadJob.
+     *
+     * @param main plugin class
+     * @param landOperationsHelper helper for land operations
+     * @param name name of the work, used when logging progress
+     * @param cursors cursors over the work to process, in order
+     * @param onComplete callback run on the main thread once done or stopped
+     */
+    public MainThreadJob(Main main, LandOperationsHelper landOperationsHelper, String name,
+            List<BlockCursor> cursors, Runnable onComplete) {
+        this.main = main;
+        this.landOperationsHelper = landOperationsHelper;
+        this.name = name;
+        this.cursors = cursors;
+        this.onComplete = onComplete;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(1, main.getOptions().getSpawnerContainerBudgetMs()));
+        int sum = 0;
+        for (BlockCursor cursor : cursors) {
+            sum += cursor.getTotal();
+        }
+        this.total = sum;
+    }
+
+    /**
+     * Starts the job, running its first slice on the next tick.
+     */
+    public void start() {
+        runTaskTimer(main, 0, 1);
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        long deadline = now + budgetNanos;
+        boolean processedThisTick = false;
+        while (cursorIndex < cursors.size()) {
+            if (landOperationsHelper.getStopOperations()) {
+                finish();
+                return;
+            }
+            BlockCursor cursor = cursors.get(cursorIndex);
+            if (!cursor.hasNext()) {
+                cursorIndex++;
+                continue;
+            }
+            // always process at least one entry per tick so a small budget still progresses
+            if (processedThisTick && System.nanoTime() >= deadline) {
+                logProgress(now);
+                return;
+            }
+            cursor.processNext();
+            processed++;
+            processedThisTick = true;
+        }
+        finish();
+    }
+
+    /**
+     * Logs how far the job is every few seconds.
+     *
+     * @param now current time in nanos
+     */
+    private void logProgress(long now) {
+        if (now - lastProgressTime < PROGRESS_INTERVAL_NANOS) {
+            return;
+        }
+        lastProgressTime = now;
+        LogManager.info(String.format("Processed %d of %d %s", processed, total, name));
+    }
+
+    /**
+     * Stops running the job and runs its completion callback.
+     */
+    private void finish() {
+        cancel();
+        onComplete.run();
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Resumable cursor over the preprocessed blocks of every entity.
+     */
+    public static class BlockCursor {
+        private final Iterator<Map.Entry<UUID, PositionBuffer>> entityIterator;
+        private final BiConsumer<UUID, Block> processor;
+        private final int total;
+        private UUID uuid;
+        private PositionBuffer positions;
+        private int positionIndex = 0;
+
+        /**
+         * Constructor for BlockCursor.
+         *
+         * @param preprocessedBlocks positions of preprocessed blocks mapped to the uuid of their
+         *     entity
+         * @param processor processor run on the main thread for each block
+         */
+        public BlockCursor(Map<UUID, PositionBuffer> preprocessedBlocks,
+                BiConsumer<UUID, Block> processor) {
+            this.entityIterator = preprocessedBlocks.entrySet().iterator();
+            this.processor = processor;
+            int sum = 0;
+            for (PositionBuffer entityPositions : preprocessedBlocks.values()) {
+                sum += entityPositions.size();
+            }
+            this.total = sum;
+        }
+
+        /**
+         * Checks if there are blocks left to process, moving on to the next entity if needed.
+         *
+         * @return true if there are blocks left, false otherwise
+         */
+        public boolean hasNext() {
+            while (positions == null || positionIndex >= positions.size()) {
+                if (!entityIterator.hasNext()) {
+                    return false;
+                }
+                Map.Entry<UUID, PositionBuffer> entry = entityIterator.next();
+                uuid = entry.getKey();
+                positions = entry.getValue();
+                positionIndex = 0;
+            }
+            return true;
+        }
+
+        /**
+         * Processes the next block, only valid if {@link #hasNext()} returned true.
+         */
+        public void processNext() {
+            processor.accept(uuid, positions.getBlock(positionIndex++));
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.utils.types.WorthCounter;
+
+/**
+ * Results of scanning a part of a chunk kept in a compact form: the histogram of valued blocks
+ * found is stored sparsely and spawners and containers are stored as flattened positions. Values
+ * of spawners and containers are not cached as they are always read again on the main thread.
+ */
+public class PartValuation {
+    private final int[] blockIds;
+    private final long[] blockCounts;
+    private final int[] spawnerPositions;
+    private final int[] containerPositions;
+
+    /**
+     * Constructor for PartValuation.
+     *
+     * @param blockCounter counter of blocks found in the part
+     * @param spawnerPositions x, y, z values of spawners found in the part
+     * @param containerPositions x, y, z values of containers found in the part
+     */
+    public PartValuation(WorthCounter blockCounter, int[] spawnerPositions,
+            int[] containerPositions) {
+        int size = blockCounter.getWorthTable().size();
+        int numIds = 0;
+        for (int i = 0; i < size; i++) {
+            if (blockCounter.getCount(i) != 0) {
+                numIds++;
+            }
+        }
+        this.blockIds = new int[numIds];
+        this.blockCounts = new long[numIds];
+        int index = 0;
+        for (int i = 0; i < size; i++) {
+            long count = blockCounter.getCount(i);
+            if (count != 0) {
+                blockIds[index] = i;
+                blockCounts[index] = count;
+                index++;
+            }
+        }
+        this.spawnerPositions = spawnerPositions;
+        this.containerPositions = containerPositions;
+    }
+
+    /**
+     * Constructor for PartValuation from results read back from the chunk index.
+     *
+     * @param blockIds ids of blocks found in the part, ascending
+     * @param blockCounts counts of each block found
+     * @param spawnerPositions x, y, z values of spawners found in the part
+     * @param containerPositions x, y, z values of containers found in the part
+     */
+    public PartValuation(int[] blockIds, long[] blockCounts, int[] spawnerPositions,
+            int[] containerPositions) {
+        this.blockIds = blockIds;
+        this.blockCounts = blockCounts;
+        this.spawnerPositions = spawnerPositions;
+        this.containerPositions = containerPositions;
+    }
+
+    public int[] getBlockIds() {
+        return blockIds;
+    }
+
+    public long[] getBlockCounts() {
+        return blockCounts;
+    }
+
+    public int[] getSpawnerPositions() {
+        return spawnerPositions;
+    }
+
+    public int[] getContainerPositions() {
+        return containerPositions;
+    }
+
+    /**
+     * Adds the cached results to a sink as if the part was scanned again.
+     *
+     * @param landScanSink sink to add results to
+     * @param world world the part is in
+     */
+    public void replay(LandScanSink landScanSink, World world) {
+        for (int i = 0; i < blockIds.length; i++) {
+            landScanSink.addBlocks(blockIds[i], blockCounts[i]);
+        }
+        for (int i = 0; i < spawnerPositions.length; i += 3) {
+            landScanSink.addSpawner(world, spawnerPositions[i], spawnerPositions[i + 1],
+                    spawnerPositions[i + 2]);
+        }
+        for (int i = 0; i < containerPositions.length; i += 3) {
+            landScanSink.addContainer(world, containerPositions[i], containerPositions[i + 1],
+                    containerPositions[i + 2]);
+        }
+    }
+
+    /**
+     * Gets the estimated number of bytes used by the results.
+     *
+     * @return estimated size in bytes
+     */
+    public long getBytes() {
+        return 112 + blockIds.length * 12L
+                + (spawnerPositions.length + containerPositions.length) * 4L;
+    }
+}
@@ -0,0 +1,129 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Growable buffer of block positions packed into primitive arrays, used instead of keeping a
+ * Block object for every spawner and container found until they are processed. Each position
+ * is packed into a long the same way the server packs block positions (26 bits for x and z, 12
+ * bits for y), while its world is kept as an index into the few worlds seen by the buffer.
+ */
+public class PositionBuffer {
+    private long[] positions = new long[16];
+    private short[] worldIndexes = new short[16];
+    private int size = 0;
+    private final ArrayList<World> worlds = new ArrayList<>(1);
+
+    /**
+     * Adds a position.
+     *
+     * @param world world the position is in
+     * @param x x coordinate of position
+     * @param y y coordinate of position
+     * @param z z coordinate of position
+     */
+    public void add(World world, int x, int y, int z) {
+        add(getWorldIndex(world), pack(x, y, z));
+    }
+
+    /**
+     * Adds all positions of another buffer.
+     *
+     * @param other buffer to add positions from
+     */
+    public void addAll(PositionBuffer other) {
+        for (int i = 0; i < other.size; i++) {
+            add(getWorldIndex(other.worlds.get(other.worldIndexes[i])), other.positions[i]);
+        }
+    }
+
+    /**
+     * Adds a packed position.
+     *
+     * @param worldIndex index of world within this buffer
+     * @param position packed position
+     */
+    private void add(int worldIndex, long position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            worldIndexes = Arrays.copyOf(worldIndexes, size * 2);
+        }
+        positions[size] = position;
+        worldIndexes[size] = (short) worldIndex;
+        size++;
+    }
+
+    /**
+     * Gets the index of a world within this buffer, adding it if not seen yet. Positions are
+     * added chunk by chunk so the last world is checked first.
+     *
+     * @param world world to get index of
+     *
+     * @return index of world
+     */
+    private int getWorldIndex(World world) {
+        int last = worlds.size() - 1;
+        if (last >= 0 && worlds.get(last) == world) {
+            return last;
+        }
+        int index = worlds.indexOf(world);
+        if (index < 0) {
+            index = worlds.size();
+            worlds.add(world);
+        }
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the block at a position, only called on the main thread.
+     *
+     * @param index index of position
+     *
+     * @return block at position
+     */
+    public Block getBlock(int index) {
+        long position = positions[index];
+        return worlds.get(worldIndexes[index]).getBlockAt(unpackX(position),
+                unpackY(position), unpackZ(position));
+    }
+
+    /**
+     * Gets all positions as a flattened array of x, y, z values, for buffers that only hold
+     * positions of a single world.
+     *
+     * @return array of positions
+     */
+    public int[] toXyzArray() {
+        int[] xyz = new int[size * 3];
+        for (int i = 0; i < size; i++) {
+            xyz[i * 3] = unpackX(positions[i]);
+            xyz[i * 3 + 1] = unpackY(positions[i]);
+            xyz[i * 3 + 2] = unpackZ(positions[i]);
+        }
+        return xyz;
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    private static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    private static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+}
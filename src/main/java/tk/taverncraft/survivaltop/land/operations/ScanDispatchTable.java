@@ -0,0 +1,100 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Set;
+
+import org.bukkit.Material;
+
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+/**
+ * Lookup table compiled from the worth configs that maps every material (by ordinal) to how it
+ * should be handled when scanned, so the scan loop does a single array read per block.
+ */
+public class ScanDispatchTable {
+    public static final byte IGNORE = 0;
+    public static final byte BLOCK = 1;
+    public static final byte SPAWNER = 2;
+    public static final byte CONTAINER = 3;
+
+    private final byte[] categories;
+    private final int[] blockIds;
+    private final boolean hasBlocks;
+    private final boolean hasTileEntities;
+
+    /**
+     * Constructor for ScanDispatchTable. Valued blocks take precedence over spawners, which take
+     * precedence over containers.
+     *
+     * @param blockWorth table of block materials to their values
+     * @param includeSpawners true if spawners are to be tracked
+     * @param containerTypes names of container materials to track, empty if none
+     */
+    public ScanDispatchTable(WorthTable blockWorth, boolean includeSpawners,
+            Set<String> containerTypes) {
+        Material[] materials = Material.values();
+        this.categories = new byte[materials.length];
+        this.blockIds = new int[materials.length];
+        boolean blocksFound = false;
+        boolean tileEntitiesFound = false;
+        for (Material material : materials) {
+            int ordinal = material.ordinal();
+            int blockId = blockWorth.getId(material);
+            blockIds[ordinal] = blockId;
+            if (blockId >= 0) {
+                categories[ordinal] = BLOCK;
+            } else if (includeSpawners && material == Material.SPAWNER) {
+                categories[ordinal] = SPAWNER;
+            } else if (containerTypes.contains(material.name())) {
+                categories[ordinal] = CONTAINER;
+            } else {
+                categories[ordinal] = IGNORE;
+            }
+            blocksFound |= categories[ordinal] == BLOCK;
+            tileEntitiesFound |= categories[ordinal] == SPAWNER
+                    || categories[ordinal] == CONTAINER;
+        }
+        this.hasBlocks = blocksFound;
+        this.hasTileEntities = tileEntitiesFound;
+    }
+
+    /**
+     * Checks if any material is valued as a block. If not, land scans only need to look at
+     * tile entities and never read blocks.
+     *
+     * @return true if any material is valued as a block, false otherwise
+     */
+    public boolean hasBlocks() {
+        return hasBlocks;
+    }
+
+    /**
+     * Checks if any material is tracked as a spawner or container, which are tile entities.
+     *
+     * @return true if spawners or containers are tracked, false otherwise
+     */
+    public boolean hasTileEntities() {
+        return hasTileEntities;
+    }
+
+    /**
+     * Gets the category of a material.
+     *
+     * @param material material to get category for
+     *
+     * @return category of material
+     */
+    public byte getCategory(Material material) {
+        return categories[material.ordinal()];
+    }
+
+    /**
+     * Gets the block id of a material, only valid if its category is {@link #BLOCK}.
+     *
+     * @param material material to get block id for
+     *
+     * @return block id of material
+     */
+    public int getBlockId(Material material) {
+        return blockIds[material.ordinal()];
+    }
+}
@@ -0,0 +1,250 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.bukkit.World;
+
+/**
+ * A cuboid region of land to be scanned. Min values are inclusive while max values are exclusive.
+ */
+public class ScanRegion {
+    private final World world;
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+    private final int minZ;
+    private final int maxZ;
+
+    /**
+     * Constructor for ScanRegion.
+     *
+     * @param world world that the region is in
+     * @param minX min x coordinate (inclusive)
+     * @param maxX max x coordinate (exclusive)
+     * @param minY min y coordinate (inclusive)
+     * @param maxY max y coordinate (exclusive)
+     * @param minZ min z coordinate (inclusive)
+     * @param maxZ max z coordinate (exclusive)
+     */
+    public ScanRegion(World world, int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        this.world = world;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Creates a region covering a whole chunk column between the given heights.
+     *
+     * @param world world that the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     * @param minY min y coordinate (inclusive)
+     * @param maxY max y coordinate (exclusive)
+     *
+     * @return region covering the chunk
+     */
+    public static ScanRegion ofChunk(World world, int chunkX, int chunkZ, int minY, int maxY) {
+        int x = chunkX << 4;
+        int z = chunkZ << 4;
+        return new ScanRegion(world, x, x + 16, minY, maxY, z, z + 16);
+    }
+
+    /**
+     * Checks if the region contains no blocks.
+     *
+     * @return true if region is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return minX >= maxX || minY >= maxY || minZ >= maxZ;
+    }
+
+    /**
+     * Gets the number of blocks within the region.
+     *
+     * @return number of blocks in region
+     */
+    public long getVolume() {
+        if (isEmpty()) {
+            return 0;
+        }
+        return (long) (maxX - minX) * (maxY - minY) * (maxZ - minZ);
+    }
+
+    /**
+     * Checks if a block lies within the region.
+     *
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     *
+     * @return true if block is in region, false otherwise
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ;
+    }
+
+    /**
+     * Checks if the region shares any block with another region.
+     *
+     * @param other region to check against
+     *
+     * @return true if regions overlap, false otherwise
+     */
+    public boolean intersects(ScanRegion other) {
+        return world == other.world && minX < other.maxX && other.minX < maxX
+                && minY < other.maxY && other.minY < maxY && minZ < other.maxZ
+                && other.minZ < maxZ;
+    }
+
+    /**
+     * Gets the parts of this region that are not in another region, as up to 6 disjoint
+     * regions. Slabs along x are cut first, then along y within the overlap, then along z.
+     *
+     * @param other region to remove
+     *
+     * @return disjoint regions covering this region without the other region
+     */
+    public List<ScanRegion> subtract(ScanRegion other) {
+        List<ScanRegion> remaining = new ArrayList<>();
+        if (!intersects(other)) {
+            remaining.add(this);
+            return remaining;
+        }
+        int overlapMinX = Math.max(minX, other.minX);
+        int overlapMaxX = Math.min(maxX, other.maxX);
+        int overlapMinY = Math.max(minY, other.minY);
+        int overlapMaxY = Math.min(maxY, other.maxY);
+        addIfNotEmpty(remaining, new ScanRegion(world, minX, overlapMinX, minY, maxY, minZ, maxZ));
+        addIfNotEmpty(remaining, new ScanRegion(world, overlapMaxX, maxX, minY, maxY, minZ, maxZ));
+        addIfNotEmpty(remaining, new ScanRegion(world, overlapMinX, overlapMaxX, minY,
+                overlapMinY, minZ, maxZ));
+        addIfNotEmpty(remaining, new ScanRegion(world, overlapMinX, overlapMaxX, overlapMaxY,
+                maxY, minZ, maxZ));
+        addIfNotEmpty(remaining, new ScanRegion(world, overlapMinX, overlapMaxX, overlapMinY,
+                overlapMaxY, minZ, Math.max(minZ, other.minZ)));
+        addIfNotEmpty(remaining, new ScanRegion(world, overlapMinX, overlapMaxX, overlapMinY,
+                overlapMaxY, Math.min(maxZ, other.maxZ), maxZ));
+        return remaining;
+    }
+
+    /**
+     * Normalizes regions into disjoint regions covering the same blocks, so that blocks in
+     * overlapping claims (e.g. claims of several group members, subclaims or sub-areas) are
+     * only scanned and counted once. Regions are swept in order of their min x so each region
+     * is only compared against kept regions it may overlap.
+     *
+     * @param regions regions to normalize
+     *
+     * @return disjoint regions
+     */
+    public static List<ScanRegion> toDisjoint(List<ScanRegion> regions) {
+        List<ScanRegion> sorted = new ArrayList<>();
+        for (ScanRegion region : regions) {
+            if (region.world != null && !region.isEmpty()) {
+                sorted.add(region);
+            }
+        }
+        sorted.sort(Comparator.comparing((ScanRegion region) -> region.world.getName())
+                .thenComparingInt(region -> region.minX)
+                .thenComparingInt(region -> region.minZ)
+                .thenComparingInt(region -> region.minY)
+                .thenComparingInt(region -> region.maxX)
+                .thenComparingInt(region -> region.maxZ)
+                .thenComparingInt(region -> region.maxY));
+
+        List<ScanRegion> disjoint = new ArrayList<>();
+        List<ScanRegion> active = new ArrayList<>();
+        World activeWorld = null;
+        for (ScanRegion region : sorted) {
+            if (region.world != activeWorld) {
+                activeWorld = region.world;
+                active.clear();
+            }
+
+            // kept regions ending before this one starts can never overlap later regions
+            active.removeIf(kept -> kept.maxX <= region.minX);
+            List<ScanRegion> pieces = new ArrayList<>();
+            pieces.add(region);
+            for (ScanRegion kept : active) {
+                List<ScanRegion> newPieces = new ArrayList<>();
+                for (ScanRegion piece : pieces) {
+                    newPieces.addAll(piece.subtract(kept));
+                }
+                pieces = newPieces;
+                if (pieces.isEmpty()) {
+                    break;
+                }
+            }
+            disjoint.addAll(pieces);
+            active.addAll(pieces);
+        }
+        return disjoint;
+    }
+
+    /**
+     * Adds a region to a list if it is not empty.
+     *
+     * @param regions list to add to
+     * @param region region to add
+     */
+    private static void addIfNotEmpty(List<ScanRegion> regions, ScanRegion region) {
+        if (!region.isEmpty()) {
+            regions.add(region);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScanRegion)) {
+            return false;
+        }
+        ScanRegion other = (ScanRegion) o;
+        return world == other.world && minX == other.minX && maxX == other.maxX
+                && minY == other.minY && maxY == other.maxY && minZ == other.minZ
+                && maxZ == other.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(world, minX, maxX, minY, maxY, minZ, maxZ);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
@@ -1,15 +1,10 @@
 package tk.taverncraft.survivaltop.land.operations;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
 
-import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.CreatureSpawner;
 
@@ -17,7 +12,7 @@ import dev.rosewood.rosestacker.api.RoseStackerAPI;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.operations.holders.SpawnerHolder;
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Handles the logic for performing spawner operations when scanning locations.
@@ -25,18 +20,19 @@ import tk.taverncraft.survivaltop.utils.types.MutableInt;
 public class SpawnerOperations {
     private final Main main;
     private final LandOperationsHelper landOperationsHelper;
-    private final LinkedHashMap<String, Double> spawnerWorth;
-    private final Set<String> spawnerEntityType;
+    private final WorthTable spawnerWorth;
     private RoseStackerAPI rApi;
 
     // holders containing count of each material mapped to uuid
-    private HashMap<UUID, SpawnerHolder> spawnerHolderMapForLeaderboard = new HashMap<>();
+    private ConcurrentHashMap<UUID, SpawnerHolder> spawnerHolderMapForLeaderboard =
+            new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, SpawnerHolder> spawnerHolderMapForStats =
             new ConcurrentHashMap<>();
 
     // populated from main thread and processed on async thread later
-    private HashMap<UUID, ArrayList<Block>> preprocessedSpawnersForLeaderboard = new HashMap<>();
-    private final ConcurrentHashMap<UUID, ArrayList<Block>> preprocessedSpawnersForStats =
+    private ConcurrentHashMap<UUID, PositionBuffer> preprocessedSpawnersForLeaderboard =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PositionBuffer> preprocessedSpawnersForStats =
             new ConcurrentHashMap<>();
 
     /**
@@ -44,14 +40,13 @@ public class SpawnerOperations {
      *
      * @param main plugin class
      * @param landOperationsHelper helper for land operations
-     * @param spawnerWorth map of spawner names to their values
+     * @param spawnerWorth table of spawner names to their values
      */
     public SpawnerOperations(Main main, LandOperationsHelper landOperationsHelper,
-            LinkedHashMap<String, Double> spawnerWorth) {
+            WorthTable spawnerWorth) {
         this.main = main;
         this.landOperationsHelper = landOperationsHelper;
         this.spawnerWorth = spawnerWorth;
-        this.spawnerEntityType = spawnerWorth.keySet();
         if (main.getDependencyManager().hasDependencyLoaded("RoseStacker")) {
             rApi = RoseStackerAPI.getInstance();
         }
@@ -69,35 +64,33 @@ public class SpawnerOperations {
     }
 
     /**
-     * Returns spawner operation for leaderboard.
+     * Returns preprocessed spawners for given uuid.
      *
-     * @return spawner operation for leaderboard
+     * @param uuid uuid of each entity
+     *
+     * @return positions of spawners for given uuid
      */
-    public BiFunction<UUID, Block, Boolean> getLeaderboardOperation() {
-        if (main.getDependencyManager().hasDependencyLoaded("RoseStacker")) {
-            return preprocessRoseStackerForLeaderboard;
-        }
-        return preprocessSpawnerForLeaderboard;
+    public PositionBuffer getPreprocessedSpawnersForLeaderboard(UUID uuid) {
+        return preprocessedSpawnersForLeaderboard.get(uuid);
     }
 
     /**
-     * Returns spawner operation for stats.
+     * Returns preprocessed spawners for given uuid.
+     *
+     * @param uuid uuid of sender, not to be confused with the entity itself!
      *
-     * @return spawner operation for stats
+     * @return positions of spawners for given uuid
      */
-    public BiFunction<UUID, Block, Boolean> getStatsOperation() {
-        if (main.getDependencyManager().hasDependencyLoaded("RoseStacker")) {
-            return preprocessRoseStackerForStats;
-        }
-        return preprocessSpawnerForStats;
+    public PositionBuffer getPreprocessedSpawnersForStats(UUID uuid) {
+        return preprocessedSpawnersForStats.get(uuid);
     }
 
     /**
      * Cleans up holders and preprocessed spawners after leaderboard update.
      */
     public void doCleanUpForLeaderboard() {
-        spawnerHolderMapForLeaderboard = new HashMap<>();
-        preprocessedSpawnersForLeaderboard = new HashMap<>();
+        spawnerHolderMapForLeaderboard = new ConcurrentHashMap<>();
+        preprocessedSpawnersForLeaderboard = new ConcurrentHashMap<>();
     }
 
     /**
@@ -116,10 +109,10 @@ public class SpawnerOperations {
      * @param uuid uuid of each entity
      */
     public void createHolderForLeaderboard(UUID uuid) {
-        spawnerHolderMapForLeaderboard.put(uuid, new SpawnerHolder(spawnerEntityType));
+        spawnerHolderMapForLeaderboard.put(uuid, new SpawnerHolder(spawnerWorth));
 
-        // temp array list for tracking containers
-        preprocessedSpawnersForLeaderboard.put(uuid, new ArrayList<>());
+        // temp buffer for tracking spawners
+        preprocessedSpawnersForLeaderboard.put(uuid, new PositionBuffer());
     }
 
     /**
@@ -128,10 +121,10 @@ public class SpawnerOperations {
      * @param uuid uuid of sender, not to confused with the entity itself!
      */
     public void createHolderForStats(UUID uuid) {
-        spawnerHolderMapForStats.put(uuid, new SpawnerHolder(spawnerEntityType));
+        spawnerHolderMapForStats.put(uuid, new SpawnerHolder(spawnerWorth));
 
-        // temp array list for tracking containers
-        preprocessedSpawnersForStats.put(uuid, new ArrayList<>());
+        // temp buffer for tracking spawners
+        preprocessedSpawnersForStats.put(uuid, new PositionBuffer());
     }
 
     /**
@@ -167,39 +160,18 @@ public class SpawnerOperations {
      * @return double value representing total worth of spawners
      */
     public double getAllSpawnersWorth(SpawnerHolder spawnerHolder) {
-        double totalSpawnerWorth = 0;
-        HashMap<String, MutableInt> counter = spawnerHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalSpawnerWorth += map.getValue().get() * spawnerWorth.get(map.getKey());
-        }
-        return totalSpawnerWorth;
+        return spawnerHolder.getTotalWorth();
     }
 
     /**
-     * Processes the worth of spawners.
+     * Creates a cursor over the spawners of all entities, to be processed on the main thread.
+     *
+     * @return cursor over preprocessed spawners
      */
-    public void processSpawnerTypesForLeaderboard() {
-        for (Map.Entry<UUID, ArrayList<Block>> map : preprocessedSpawnersForLeaderboard.entrySet()) {
-            UUID uuid = map.getKey();
-            ArrayList<Block> blocks = map.getValue();
-            int numBlocks = blocks.size();
-            for (int i = 0; i < numBlocks; i++) {
-                if (landOperationsHelper.getStopOperations()) {
-                    return;
-                }
-                Block block = blocks.get(i);
-                try {
-                    CreatureSpawner spawner = (CreatureSpawner) block.getState();
-                    String mobType = spawner.getSpawnedType().name();
-                    if (spawnerEntityType.contains(mobType)) {
-                        spawnerHolderMapForLeaderboard.get(uuid).addToHolder(mobType);
-                    }
-                } catch (ClassCastException e) {
-                    // error thrown if player breaks spawner just as calculation is taking place
-                }
-            }
-        }
+    public MainThreadJob.BlockCursor createSpawnerCursorForLeaderboard() {
+        ConcurrentHashMap<UUID, SpawnerHolder> spawnerHolderMap = spawnerHolderMapForLeaderboard;
+        return new MainThreadJob.BlockCursor(preprocessedSpawnersForLeaderboard,
+                (uuid, block) -> processSpawner(spawnerHolderMap.get(uuid), block));
     }
 
     /**
@@ -208,90 +180,38 @@ public class SpawnerOperations {
      * @param uuid uuid of sender, not to be confused with the entity itself!
      */
     public void processSpawnerTypesForStats(UUID uuid) {
-        ArrayList<Block> blocks = preprocessedSpawnersForStats.get(uuid);
-        int numBlocks = blocks.size();
+        PositionBuffer positions = preprocessedSpawnersForStats.get(uuid);
+        SpawnerHolder spawnerHolder = spawnerHolderMapForStats.get(uuid);
+        int numBlocks = positions.size();
         for (int i = 0; i < numBlocks; i++) {
             if (landOperationsHelper.getStopOperations()) {
                 return;
             }
-            Block block = blocks.get(i);
-            try {
-                CreatureSpawner spawner = (CreatureSpawner) block.getState();
-                String mobType = spawner.getSpawnedType().name();
-                if (spawnerEntityType.contains(mobType)) {
-                    spawnerHolderMapForStats.get(uuid).addToHolder(mobType);
-                }
-            } catch (ClassCastException e) {
-                // error thrown if player breaks spawner just as calculation is taking place
-            }
+            processSpawner(spawnerHolder, positions.getBlock(i));
         }
     }
 
     /**
-     * Preprocesses spawners to be handled on main thread later for when the leaderboard command is
-     * being updated. Uuid here belongs to the sender and comes with the block that is being
-     * checked. This always returns 0 since if a block is not a spawner (ignored) and if it is
-     * a spawner, then it is set to be processed later anyways
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessSpawnerForLeaderboard = (uuid, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            preprocessedSpawnersForLeaderboard.get(uuid).add(block);
-            return true;
-        }
-        return false;
-    };
-
-    /**
-     * Preprocesses spawners to be handled on main thread later for when the stats command is
-     * executed. Uuid here belongs to the sender and comes with the block that is being checked.
-     * This always returns 0 since if a block is not a spawner (ignored) and if it is
-     * a spawner, then it is set to be processed later anyways
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessSpawnerForStats = (uuid, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            preprocessedSpawnersForStats.get(uuid).add(block);
-            return true;
-        }
-        return false;
-    };
-
-    /**
-     * Variation of preprocessSpawnerForLeaderboard for RoseStacker support.
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessRoseStackerForLeaderboard = (uuid, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            if (rApi.isSpawnerStacked(block)) {
-                int stackSize = rApi.getStackedSpawner(block).getStackSize();
-                for (int i = 0; i < stackSize; i++) {
-                    preprocessedSpawnersForLeaderboard.get(uuid).add(block);
-                }
-            } else {
-                preprocessedSpawnersForLeaderboard.get(uuid).add(block);
+     * Adds the type of a spawner to the holder of its entity. If RoseStacker is used, a stacked
+     * spawner is weighted by the number of spawners in the stack.
+     *
+     * @param spawnerHolder holder of the entity
+     * @param block spawner block
+     */
+    private void processSpawner(SpawnerHolder spawnerHolder, Block block) {
+        try {
+            CreatureSpawner spawner = (CreatureSpawner) block.getState();
+            int id = spawnerWorth.getId(spawner.getSpawnedType());
+            if (id < 0) {
+                return;
             }
-            return true;
-        }
-        return false;
-    };
-
-    /**
-     * Variation of preprocessSpawnerForStats for RoseStacker support.
-     */
-    private final BiFunction<UUID, Block, Boolean> preprocessRoseStackerForStats = (uuid, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            if (rApi.isSpawnerStacked(block)) {
-                int stackSize = rApi.getStackedSpawner(block).getStackSize();
-                for (int i = 0; i < stackSize; i++) {
-                    preprocessedSpawnersForStats.get(uuid).add(block);
-                }
+            if (rApi != null && rApi.isSpawnerStacked(block)) {
+                spawnerHolder.addToHolder(id, rApi.getStackedSpawner(block).getStackSize());
             } else {
-                preprocessedSpawnersForStats.get(uuid).add(block);
+                spawnerHolder.addToHolder(id);
             }
-            return true;
+        } catch (ClassCastException e) {
+            // error thrown if player breaks spawner just as calculation is taking place
         }
-        return false;
-    };
+    }
 }
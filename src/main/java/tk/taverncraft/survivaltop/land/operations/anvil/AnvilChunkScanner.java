@@ -0,0 +1,348 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.land.operations.LandScanSink;
+import tk.taverncraft.survivaltop.land.operations.ScanDispatchTable;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Scans chunks that are not loaded by reading them from region files instead of loading them
+ * through the server. Blocks are counted by palette index and only mapped to materials once per
+ * palette entry, while spawners and containers are found from the block entities of the chunk.
+ * Chunks that cannot be read this way (missing, not fully generated, saved before 1.13 or in an
+ * unsupported compression) are left for the server to load.
+ */
+public class AnvilChunkScanner {
+    // chunks saved before the flattening use numeric block ids
+    private static final int FLATTENING_DATA_VERSION = 1451;
+    // block states stopped spanning across longs in 20w17a
+    private static final int PADDED_STATES_DATA_VERSION = 2529;
+    // sections moved out of the level tag in 21w43a
+    private static final int ROOT_SECTIONS_DATA_VERSION = 2844;
+    private static final Set<String> AIR_NAMES = Set.of("minecraft:air", "minecraft:cave_air",
+            "minecraft:void_air");
+
+    private final RegionFileReader regionFileReader = new RegionFileReader();
+    private final ConcurrentHashMap<String, Material> materials = new ConcurrentHashMap<>();
+    private final Set<String> worldsWarned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Reads a chunk from the region files of its world.
+     *
+     * @param world world the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     * @param notBefore epoch millis the chunk must have been saved at or after, 0 if any
+     *
+     * @return chunk that was read, or null if it has to be loaded through the server instead
+     */
+    public OfflineChunk readChunk(World world, int chunkX, int chunkZ, long notBefore) {
+        try {
+            RegionFileReader.RegionChunk regionChunk = regionFileReader.readChunk(
+                    getRegionFolder(world), chunkX, chunkZ);
+            // region timestamps are in seconds
+            if (regionChunk == null || regionChunk.getTimestamp() * 1000L + 999 < notBefore) {
+                return null;
+            }
+            return parseChunk(regionChunk.getNbt());
+        } catch (IOException | RuntimeException e) {
+            if (worldsWarned.add(world.getName())) {
+                LogManager.warn("Unable to read region files of " + world.getName()
+                        + ", chunks will be loaded instead: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Gets the folder that region files of a world are in.
+     *
+     * @param world world to get region folder for
+     *
+     * @return region folder of world
+     */
+    public static File getRegionFolder(World world) {
+        switch (world.getEnvironment()) {
+        case NETHER:
+            return new File(world.getWorldFolder(), "DIM-1" + File.separator + "region");
+        case THE_END:
+            return new File(world.getWorldFolder(), "DIM1" + File.separator + "region");
+        default:
+            return new File(world.getWorldFolder(), "region");
+        }
+    }
+
+    /**
+     * Parses the sections and block entities of a chunk.
+     *
+     * @param nbt root compound of chunk
+     *
+     * @return parsed chunk, or null if the chunk cannot be read from disk
+     */
+    @SuppressWarnings("unchecked")
+    private OfflineChunk parseChunk(HashMap<String, Object> nbt) throws IOException {
+        int dataVersion = nbt.get("DataVersion") instanceof Integer
+                ? (Integer) nbt.get("DataVersion") : 0;
+        if (dataVersion < FLATTENING_DATA_VERSION) {
+            return null;
+        }
+        boolean rootSections = dataVersion >= ROOT_SECTIONS_DATA_VERSION;
+        Map<String, Object> level = rootSections ? nbt
+                : (Map<String, Object>) nbt.get("Level");
+        if (level == null || !isFullyGenerated((String) level.get("Status"))) {
+            return null;
+        }
+
+        OfflineChunk offlineChunk = new OfflineChunk();
+        List<Object> sections = (List<Object>) level.get(rootSections ? "sections" : "Sections");
+        if (sections != null) {
+            for (Object sectionTag : sections) {
+                Map<String, Object> section = (Map<String, Object>) sectionTag;
+                Map<String, Object> states = rootSections
+                        ? (Map<String, Object>) section.get("block_states") : section;
+                if (states == null) {
+                    continue;
+                }
+                List<Object> palette = (List<Object>) states.get(rootSections ? "palette"
+                        : "Palette");
+                if (palette == null || palette.isEmpty()) {
+                    continue;
+                }
+                long[] data = (long[]) states.get(rootSections ? "data" : "BlockStates");
+                int sectionY = ((Number) section.get("Y")).intValue();
+                offlineChunk.sections.put(sectionY, parseSection(palette, data,
+                        dataVersion < PADDED_STATES_DATA_VERSION));
+            }
+        }
+
+        List<Object> blockEntities = (List<Object>) level.get(rootSections ? "block_entities"
+                : "TileEntities");
+        if (blockEntities != null) {
+            for (Object blockEntityTag : blockEntities) {
+                Map<String, Object> blockEntity = (Map<String, Object>) blockEntityTag;
+                if (blockEntity.get("x") instanceof Integer
+                        && blockEntity.get("y") instanceof Integer
+                        && blockEntity.get("z") instanceof Integer) {
+                    offlineChunk.blockEntities.add(new int[]{(Integer) blockEntity.get("x"),
+                            (Integer) blockEntity.get("y"), (Integer) blockEntity.get("z")});
+                }
+            }
+        }
+        return offlineChunk;
+    }
+
+    /**
+     * Checks if a chunk has finished generating. Chunks that have not would be generated
+     * further when loaded, so what is on disk is not what the server would scan.
+     *
+     * @param status generation status of chunk
+     *
+     * @return true if fully generated, false otherwise
+     */
+    private boolean isFullyGenerated(String status) {
+        return status == null || status.equals("full") || status.equals("minecraft:full")
+                || status.equals("postprocessed");
+    }
+
+    /**
+     * Parses the palette and block states of a section.
+     *
+     * @param palette palette of section
+     * @param data packed palette indices of section, null if the palette has a single entry
+     * @param spanning true if indices may span across two longs
+     *
+     * @return parsed section
+     */
+    @SuppressWarnings("unchecked")
+    private Section parseSection(List<Object> palette, long[] data, boolean spanning)
+            throws IOException {
+        Material[] paletteMaterials = new Material[palette.size()];
+        boolean empty = true;
+        for (int i = 0; i < paletteMaterials.length; i++) {
+            String name = (String) ((Map<String, Object>) palette.get(i)).get("Name");
+            paletteMaterials[i] = getMaterial(name);
+            empty &= AIR_NAMES.contains(name);
+        }
+        if (paletteMaterials.length == 1) {
+            return new Section(paletteMaterials, null, 0, spanning, empty);
+        }
+        if (data == null) {
+            throw new IOException("Missing block states for palette of "
+                    + paletteMaterials.length);
+        }
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(paletteMaterials.length - 1));
+        int expectedLength = spanning ? 4096 * bits / 64
+                : (4096 + (64 / bits) - 1) / (64 / bits);
+        if (data.length != expectedLength) {
+            throw new IOException("Unexpected block states length " + data.length);
+        }
+        return new Section(paletteMaterials, data, bits, spanning, empty);
+    }
+
+    /**
+     * Gets the material of a namespaced block name.
+     *
+     * @param name name of block
+     *
+     * @return material of block, air if unknown to this server
+     */
+    private Material getMaterial(String name) {
+        return materials.computeIfAbsent(name, k -> {
+            Material material = Material.matchMaterial(k);
+            return material == null ? Material.AIR : material;
+        });
+    }
+
+    /**
+     * A chunk read from disk.
+     */
+    public static class OfflineChunk {
+        private final HashMap<Integer, Section> sections = new HashMap<>();
+        private final List<int[]> blockEntities = new ArrayList<>();
+
+        /**
+         * Dispatches every block of a region part within this chunk to the sink. Blocks are
+         * counted per palette entry first, and not at all if no blocks are valued, while
+         * spawners and containers are only looked for where the chunk has block entities.
+         *
+         * @param landScanSink sink to collect results in
+         * @param scanDispatchTable table of how each material is handled
+         * @param part region part to scan
+         */
+        public void scanPart(LandScanSink landScanSink, ScanDispatchTable scanDispatchTable,
+                ScanRegion part) {
+            World world = part.getWorld();
+            int maxSectionY = scanDispatchTable.hasBlocks() ? (part.getMaxY() - 1) >> 4
+                    : Integer.MIN_VALUE;
+            for (int sectionY = part.getMinY() >> 4; sectionY <= maxSectionY; sectionY++) {
+                Section section = sections.get(sectionY);
+                if (section == null || section.empty) {
+                    landScanSink.addSkippedSection();
+                    continue;
+                }
+                landScanSink.addScannedSection();
+                int minY = Math.max(part.getMinY(), sectionY << 4);
+                int maxY = Math.min(part.getMaxY(), (sectionY << 4) + 16);
+                long[] counts = new long[section.materials.length];
+                if (section.bits == 0) {
+                    counts[0] = (long) (maxY - minY) * (part.getMaxX() - part.getMinX())
+                            * (part.getMaxZ() - part.getMinZ());
+                } else {
+                    for (int y = minY; y < maxY; y++) {
+                        for (int z = part.getMinZ(); z < part.getMaxZ(); z++) {
+                            int rowIndex = ((y & 15) << 8) | ((z & 15) << 4);
+                            for (int x = part.getMinX(); x < part.getMaxX(); x++) {
+                                int paletteIndex = section.getPaletteIndex(rowIndex | (x & 15));
+                                if (paletteIndex < counts.length) {
+                                    counts[paletteIndex]++;
+                                }
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < counts.length; i++) {
+                    Material material = section.materials[i];
+                    if (counts[i] > 0
+                            && scanDispatchTable.getCategory(material) == ScanDispatchTable.BLOCK) {
+                        landScanSink.addBlocks(scanDispatchTable.getBlockId(material), counts[i]);
+                    }
+                }
+            }
+
+            for (int[] position : blockEntities) {
+                int x = position[0];
+                int y = position[1];
+                int z = position[2];
+                if (!part.contains(x, y, z)) {
+                    continue;
+                }
+                switch (scanDispatchTable.getCategory(getMaterialAt(x, y, z))) {
+                case ScanDispatchTable.SPAWNER:
+                    landScanSink.addSpawner(world, x, y, z);
+                    break;
+                case ScanDispatchTable.CONTAINER:
+                    landScanSink.addContainer(world, x, y, z);
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Gets the material at a position within this chunk.
+         *
+         * @param x x coordinate of block
+         * @param y y coordinate of block
+         * @param z z coordinate of block
+         *
+         * @return material at position
+         */
+        private Material getMaterialAt(int x, int y, int z) {
+            Section section = sections.get(y >> 4);
+            if (section == null) {
+                return Material.AIR;
+            }
+            int paletteIndex = section.bits == 0 ? 0
+                    : section.getPaletteIndex(((y & 15) << 8) | ((z & 15) << 4) | (x & 15));
+            return paletteIndex < section.materials.length ? section.materials[paletteIndex]
+                    : Material.AIR;
+        }
+    }
+
+    /**
+     * A section of a chunk read from disk.
+     */
+    private static class Section {
+        private final Material[] materials;
+        private final long[] data;
+        private final int bits;
+        private final boolean spanning;
+        private final boolean empty;
+
+        private Section(Material[] materials, long[] data, int bits, boolean spanning,
+                boolean empty) {
+            this.materials = materials;
+            this.data = data;
+            this.bits = bits;
+            this.spanning = spanning;
+            this.empty = empty;
+        }
+
+        /**
+         * Gets the palette index of a block in this section.
+         *
+         * @param index index of block, ordered by y then z then x
+         *
+         * @return palette index of block
+         */
+        private int getPaletteIndex(int index) {
+            long mask = (1L << bits) - 1;
+            if (!spanning) {
+                int valuesPerLong = 64 / bits;
+                return (int) ((data[index / valuesPerLong] >>> ((index % valuesPerLong) * bits))
+                        & mask);
+            }
+            int bitIndex = index * bits;
+            int start = bitIndex >> 6;
+            int offset = bitIndex & 63;
+            long value = data[start] >>> offset;
+            if (offset + bits > 64) {
+                value |= data[start + 1] << (64 - offset);
+            }
+            return (int) (value & mask);
+        }
+    }
+}
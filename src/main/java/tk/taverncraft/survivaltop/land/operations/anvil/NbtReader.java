@@ -0,0 +1,145 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Minimal reader for the uncompressed NBT format that chunks are stored in. Compounds are read
+ * into maps, lists into lists and arrays into primitive arrays. Only the root compound is
+ * supported as that is all a chunk consists of.
+ */
+public class NbtReader {
+    private static final int TAG_END = 0;
+    private static final int TAG_BYTE = 1;
+    private static final int TAG_SHORT = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_INT_ARRAY = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    // nesting deeper than this never happens in chunks and only comes from corrupted data
+    private static final int MAX_DEPTH = 512;
+
+    private NbtReader() {
+    }
+
+    /**
+     * Reads the root compound.
+     *
+     * @param input input to read from
+     *
+     * @return map of names to values in the root compound
+     */
+    public static HashMap<String, Object> readRoot(DataInput input) throws IOException {
+        int type = input.readByte();
+        if (type != TAG_COMPOUND) {
+            throw new IOException("Root tag is not a compound");
+        }
+        input.readUTF();
+        return readCompound(input, 0);
+    }
+
+    /**
+     * Reads a compound up to its end tag.
+     *
+     * @param input input to read from
+     * @param depth current nesting depth
+     *
+     * @return map of names to values in the compound
+     */
+    private static HashMap<String, Object> readCompound(DataInput input, int depth)
+            throws IOException {
+        HashMap<String, Object> compound = new HashMap<>();
+        while (true) {
+            int type = input.readByte();
+            if (type == TAG_END) {
+                return compound;
+            }
+            String name = input.readUTF();
+            compound.put(name, readPayload(input, type, depth + 1));
+        }
+    }
+
+    /**
+     * Reads the payload of a tag.
+     *
+     * @param input input to read from
+     * @param type type of tag
+     * @param depth current nesting depth
+     *
+     * @return value of tag
+     */
+    private static Object readPayload(DataInput input, int type, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("NBT is nested too deeply");
+        }
+        switch (type) {
+        case TAG_BYTE:
+            return input.readByte();
+        case TAG_SHORT:
+            return input.readShort();
+        case TAG_INT:
+            return input.readInt();
+        case TAG_LONG:
+            return input.readLong();
+        case TAG_FLOAT:
+            return input.readFloat();
+        case TAG_DOUBLE:
+            return input.readDouble();
+        case TAG_BYTE_ARRAY:
+            byte[] bytes = new byte[readLength(input)];
+            input.readFully(bytes);
+            return bytes;
+        case TAG_STRING:
+            return input.readUTF();
+        case TAG_LIST:
+            int elementType = input.readByte();
+            int size = readLength(input);
+            List<Object> list = new ArrayList<>(Math.min(size, 1024));
+            for (int i = 0; i < size; i++) {
+                list.add(readPayload(input, elementType, depth + 1));
+            }
+            return list;
+        case TAG_COMPOUND:
+            return readCompound(input, depth);
+        case TAG_INT_ARRAY:
+            int[] ints = new int[readLength(input)];
+            for (int i = 0; i < ints.length; i++) {
+                ints[i] = input.readInt();
+            }
+            return ints;
+        case TAG_LONG_ARRAY:
+            long[] longs = new long[readLength(input)];
+            for (int i = 0; i < longs.length; i++) {
+                longs[i] = input.readLong();
+            }
+            return longs;
+        default:
+            throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+
+    /**
+     * Reads the length of an array or list.
+     *
+     * @param input input to read from
+     *
+     * @return length that was read
+     */
+    private static int readLength(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Negative NBT length " + length);
+        }
+        return length;
+    }
+}
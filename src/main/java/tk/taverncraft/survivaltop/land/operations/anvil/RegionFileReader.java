@@ -0,0 +1,159 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads chunks straight from Anvil region (.mca) files. Region files are written by the server
+ * while they are read, so only the bytes needed are read with positional reads rather than
+ * mapping the files, whose mappings would have to be replaced on every write.
+ */
+public class RegionFileReader {
+    private static final int SECTOR_BYTES = 4096;
+
+    /**
+     * Reads a chunk from the region folder of a world.
+     *
+     * @param regionFolder region folder of the world
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return chunk that was read, or null if the chunk was never saved
+     */
+    public RegionChunk readChunk(File regionFolder, int chunkX, int chunkZ) throws IOException {
+        File regionFile = new File(regionFolder, "r." + (chunkX >> 5) + "." + (chunkZ >> 5)
+                + ".mca");
+        if (!regionFile.isFile()) {
+            return null;
+        }
+        int headerIndex = ((chunkX & 31) + (chunkZ & 31) * 32) * 4;
+        byte[] data;
+        int timestamp;
+        int compression;
+        try (FileChannel channel = FileChannel.open(regionFile.toPath(),
+                StandardOpenOption.READ)) {
+            int location = readBytes(channel, regionFile, headerIndex, 4).getInt(0);
+            timestamp = readBytes(channel, regionFile, SECTOR_BYTES + headerIndex, 4).getInt(0);
+            int sectorOffset = location >>> 8;
+            int sectorCount = location & 0xFF;
+            if (sectorOffset == 0 || sectorCount == 0) {
+                return null;
+            }
+
+            long chunkPosition = (long) sectorOffset * SECTOR_BYTES;
+            ByteBuffer chunkHeader = readBytes(channel, regionFile, chunkPosition, 5);
+            int length = chunkHeader.getInt(0);
+            compression = chunkHeader.get(4);
+            if (length <= 1 || length > sectorCount * SECTOR_BYTES) {
+                throw new IOException("Invalid chunk length " + length + " in " + regionFile);
+            }
+            if ((compression & 0x80) != 0) {
+                // chunks too large for the region file are stored in separate files
+                throw new IOException("External chunk files are not supported");
+            }
+            data = readBytes(channel, regionFile, chunkPosition + 5, length - 1).array();
+        }
+
+        InputStream inputStream;
+        switch (compression) {
+        case 1:
+            inputStream = new GZIPInputStream(new ByteArrayInputStream(data));
+            break;
+        case 2:
+            inputStream = new InflaterInputStream(new ByteArrayInputStream(data));
+            break;
+        case 3:
+            inputStream = new ByteArrayInputStream(data);
+            break;
+        default:
+            throw new IOException("Unsupported chunk compression " + compression);
+        }
+        try (DataInputStream input = new DataInputStream(inputStream)) {
+            return new RegionChunk(timestamp, NbtReader.readRoot(input));
+        }
+    }
+
+    /**
+     * Reads the times that each chunk of a region was last written.
+     *
+     * @param regionFolder region folder of the world
+     * @param regionX x coordinate of region
+     * @param regionZ z coordinate of region
+     *
+     * @return epoch seconds of last write indexed by local x + local z * 32 (0 if never
+     *     written), or null if the region file does not exist
+     */
+    public int[] readTimestamps(File regionFolder, int regionX, int regionZ) throws IOException {
+        File regionFile = new File(regionFolder, "r." + regionX + "." + regionZ + ".mca");
+        if (!regionFile.isFile()) {
+            return null;
+        }
+        ByteBuffer timestampTable;
+        try (FileChannel channel = FileChannel.open(regionFile.toPath(),
+                StandardOpenOption.READ)) {
+            timestampTable = readBytes(channel, regionFile, SECTOR_BYTES, SECTOR_BYTES);
+        }
+        int[] timestamps = new int[1024];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = timestampTable.getInt(i * 4);
+        }
+        return timestamps;
+    }
+
+    /**
+     * Reads bytes from a region file.
+     *
+     * @param channel channel of region file
+     * @param regionFile region file to read from
+     * @param position position in file to read from
+     * @param length number of bytes to read
+     *
+     * @return buffer holding the bytes read
+     */
+    private static ByteBuffer readBytes(FileChannel channel, File regionFile, long position,
+            int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Chunk lies outside of " + regionFile);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * A chunk read from a region file.
+     */
+    public static class RegionChunk {
+        private final int timestamp;
+        private final HashMap<String, Object> nbt;
+
+        private RegionChunk(int timestamp, HashMap<String, Object> nbt) {
+            this.timestamp = timestamp;
+            this.nbt = nbt;
+        }
+
+        /**
+         * Gets the time the chunk was last written to the region file.
+         *
+         * @return epoch seconds of last write
+         */
+        public int getTimestamp() {
+            return timestamp;
+        }
+
+        public HashMap<String, Object> getNbt() {
+            return nbt;
+        }
+    }
+}
@@ -1,43 +1,19 @@
 package tk.taverncraft.survivaltop.land.operations.holders;
 
-import java.util.HashMap;
-import java.util.Set;
-
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.WorthCounter;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
 
 /**
  * Holder for tracking count of spawners.
  */
-public class SpawnerHolder {
-    private final HashMap<String, MutableInt> counter;
+public class SpawnerHolder extends WorthCounter {
 
     /**
      * Constructor for SpawnerHolder.
      *
-     * @param entityTypes list of spawner types
-     */
-    public SpawnerHolder(Set<String> entityTypes) {
-        counter = new HashMap<>();
-        for (String entityType : entityTypes) {
-            counter.put(entityType, new MutableInt());
-        }
-    }
-
-    /**
-     * Gets the tracking counter.
-     *
-     * @return counter map
-     */
-    public HashMap<String, MutableInt> getCounter() {
-        return this.counter;
-    }
-
-    /**
-     * Adds 1 count to holder.
-     *
-     * @param entityType entity type to add count for
+     * @param spawnerWorth table of spawner entity types and their worth
      */
-    public void addToHolder(String entityType) {
-        counter.get(entityType).increment();
+    public SpawnerHolder(WorthTable spawnerWorth) {
+        super(spawnerWorth);
     }
 }
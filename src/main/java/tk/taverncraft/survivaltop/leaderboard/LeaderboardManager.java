@@ -10,6 +10,7 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.stats.RefreshSlices;
 import tk.taverncraft.survivaltop.stats.cache.EntityLeaderboardCache;
 import tk.taverncraft.survivaltop.messages.MessageManager;
 
@@ -22,6 +23,7 @@ public class LeaderboardManager {
     private BukkitTask leaderboardTask;
     private long leaderboardUpdateStartTime = -1;
     private long lastUpdateDuration = -1;
+    private int nextRefreshSlice = 0;
 
     /**
      * Constructor for LeaderboardManager.
@@ -63,6 +65,15 @@ public class LeaderboardManager {
         }
         long interval = frequency * 20L;
         long delayTicks = delay * 20L;
+
+        // when rolling through slices, each run only refreshes a slice so runs are spread evenly,
+        // starting over from the first slice since the number of slices may have been reloaded
+        int refreshSlices = main.getOptions().getRefreshSlices();
+        nextRefreshSlice = 0;
+        if (refreshSlices > 1) {
+            interval = RefreshSlices.getSliceInterval(interval, refreshSlices);
+            delayTicks = Math.min(delayTicks, interval);
+        }
         leaderboardTask = new BukkitRunnable() {
 
             @Override
@@ -73,7 +84,13 @@ public class LeaderboardManager {
                 return;
             }
             isUpdating = true;
-            initiateLeaderboardUpdate(Bukkit.getConsoleSender());
+            if (refreshSlices > 1 && main.getServerStatsManager().hasRankedEntities()) {
+                initiateLeaderboardUpdate(Bukkit.getConsoleSender(), nextRefreshSlice,
+                        refreshSlices);
+                nextRefreshSlice = (nextRefreshSlice + 1) % refreshSlices;
+            } else {
+                initiateLeaderboardUpdate(Bukkit.getConsoleSender());
+            }
             }
 
         }.runTaskTimerAsynchronously(main, delayTicks, interval);
@@ -105,6 +122,18 @@ public class LeaderboardManager {
         main.getServerStatsManager().updateWealthStats(sender);
     }
 
+    /**
+     * Initiates the leaderboard update for one slice of entities.
+     *
+     * @param sender user executing the update
+     * @param slice slice of entities to refresh
+     * @param sliceCount number of slices entities are split into
+     */
+    public void initiateLeaderboardUpdate(CommandSender sender, int slice, int sliceCount) {
+        leaderboardUpdateStartTime = Instant.now().getEpochSecond();
+        main.getServerStatsManager().updateWealthStats(sender, slice, sliceCount);
+    }
+
     /**
      * Callback function for updating leaderboard message and leaderboard signs.
      *
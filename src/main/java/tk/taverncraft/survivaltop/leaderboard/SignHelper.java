@@ -175,14 +175,13 @@ public class SignHelper {
         PlayerHeadHelper playerHeadHelper = new PlayerHeadHelper();
         Block skullAboveBlockBehindSign = playerHeadHelper.getSkullAboveBlockBehindSign(block);
         Block skullAboveSign = playerHeadHelper.getSkullAboveSign(block);
-        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        String headName = name;
         if (main.getOptions().groupIsEnabled()) {
-            String leader = main.getGroupManager().getGroupLeader(name);
-            if (leader == null) {
-                player = Bukkit.getOfflinePlayer("MHF_QUESTION");
-            } else {
-                player = Bukkit.getOfflinePlayer(leader);
-            }
+            headName = main.getGroupManager().getGroupLeader(name);
+        }
+        OfflinePlayer player = main.getPlayerResolutionManager().getOfflinePlayer(headName);
+        if (player == null) {
+            player = Bukkit.getOfflinePlayer("MHF_QUESTION");
         }
         playerHeadHelper.update(player, skullAboveBlockBehindSign, skullAboveSign);
     }
@@ -111,10 +111,10 @@ public class MessageManager {
      * @param leaderboard hashmap of leaderboard positions
      * @param minimumWealth minimum wealth to show on leaderboard
      * @param useGroup whether group is enabled
-     * @param groupUuidToNameMap map of temporary uuid to name for groups
+     * @param groupUuidToNameMap map of uuid to name for groups
      */
     public static void setUpLeaderboard(HashMap<UUID, EntityLeaderboardCache> leaderboard, double minimumWealth,
-                                        boolean useGroup, HashMap<UUID, String> groupUuidToNameMap) {
+                                        boolean useGroup, Map<UUID, String> groupUuidToNameMap) {
         int positionsPerPage = 10;
 
         String header = getMessage("leaderboard-header");
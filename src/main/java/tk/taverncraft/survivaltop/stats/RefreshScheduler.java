@@ -0,0 +1,166 @@
+package tk.taverncraft.survivaltop.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+
+/**
+ * RefreshScheduler decides which players are refreshed in a leaderboard update. Players are
+ * ordered by how long ago they were last refreshed, weighted by how active they are, so that
+ * players who are online, played recently or are changing blocks in their land are refreshed
+ * more often than players who have not joined in a long time. Dormant players keep the values
+ * from their last refresh until they join again.
+ */
+public class RefreshScheduler {
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final double ONLINE_WEIGHT = 8;
+    private static final double PLAYED_TODAY_WEIGHT = 4;
+    private static final double PLAYED_THIS_WEEK_WEIGHT = 2;
+    private static final double MAX_BLOCK_CHANGE_WEIGHT = 10;
+    private static final int BLOCK_CHANGES_PER_WEIGHT = 100;
+
+    private final long dormantMillis;
+    private final long overdueMillis;
+
+    // time each player was last refreshed and block changes in their land since then
+    private final ConcurrentHashMap<UUID, Long> lastRefreshTimes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Integer> blockChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for RefreshScheduler.
+     *
+     * @param dormantDays days since last played after which a player is dormant, 0 to disable
+     * @param updateInterval seconds within which every player should be refreshed
+     */
+    public RefreshScheduler(int dormantDays, int updateInterval) {
+        this.dormantMillis = dormantDays > 0 ? TimeUnit.DAYS.toMillis(dormantDays) : -1;
+        this.overdueMillis = updateInterval > 0 ? TimeUnit.SECONDS.toMillis(updateInterval)
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Records that a player was refreshed.
+     *
+     * @param uuid uuid of player
+     * @param now current time in millis
+     */
+    public void recordRefresh(UUID uuid, long now) {
+        lastRefreshTimes.put(uuid, now);
+        blockChanges.remove(uuid);
+    }
+
+    /**
+     * Records a block change in the land of a player, raising how soon it is refreshed.
+     *
+     * @param uuid uuid of player
+     */
+    public void recordBlockChange(UUID uuid) {
+        blockChanges.merge(uuid, 1, Integer::sum);
+    }
+
+    /**
+     * Checks if a player is dormant, meaning it is offline and has not played for longer than
+     * the configured number of days.
+     *
+     * @param player player to check
+     * @param now current time in millis
+     *
+     * @return true if player is dormant, false otherwise
+     */
+    public boolean isDormant(OfflinePlayer player, long now) {
+        return dormantMillis > 0 && !player.isOnline()
+                && now - player.getLastPlayed() > dormantMillis;
+    }
+
+    /**
+     * Selects the players to refresh in an update. Dormant players that already have values are
+     * never selected. If more players are left than can be refreshed, players overdue for a
+     * refresh are selected first and the rest by priority.
+     *
+     * @param players players included in the leaderboard
+     * @param cachedPlayers players that already have values from an earlier update
+     * @param count maximum number of players to select, or -1 to select all
+     * @param now current time in millis
+     *
+     * @return players to refresh
+     */
+    public List<OfflinePlayer> selectPlayers(List<OfflinePlayer> players, Set<UUID> cachedPlayers,
+            int count, long now) {
+        List<OfflinePlayer> candidates = new ArrayList<>();
+        for (OfflinePlayer player : players) {
+            if (!isDormant(player, now) || !cachedPlayers.contains(player.getUniqueId())) {
+                candidates.add(player);
+            }
+        }
+        if (count < 0 || candidates.size() <= count) {
+            return candidates;
+        }
+
+        // keep the highest priorities seen so far with the lowest at the head to be replaced
+        PriorityQueue<Candidate> selected = new PriorityQueue<>(count + 1);
+        for (OfflinePlayer player : candidates) {
+            selected.add(new Candidate(player, now));
+            if (selected.size() > count) {
+                selected.poll();
+            }
+        }
+        List<OfflinePlayer> selectedPlayers = new ArrayList<>(selected.size());
+        for (Candidate candidate : selected) {
+            selectedPlayers.add(candidate.player);
+        }
+        return selectedPlayers;
+    }
+
+    /**
+     * Gets how much more often a player should be refreshed based on its activity.
+     *
+     * @param player player to get weight for
+     * @param now current time in millis
+     *
+     * @return weight of player, at least 1
+     */
+    private double getActivityWeight(OfflinePlayer player, long now) {
+        double weight = 1;
+        long sinceLastPlayed = now - player.getLastPlayed();
+        if (player.isOnline()) {
+            weight += ONLINE_WEIGHT;
+        } else if (sinceLastPlayed < DAY_MILLIS) {
+            weight += PLAYED_TODAY_WEIGHT;
+        } else if (sinceLastPlayed < DAY_MILLIS * 7) {
+            weight += PLAYED_THIS_WEEK_WEIGHT;
+        }
+        int changes = blockChanges.getOrDefault(player.getUniqueId(), 0);
+        weight += Math.min(MAX_BLOCK_CHANGE_WEIGHT, (double) changes / BLOCK_CHANGES_PER_WEIGHT);
+        return weight;
+    }
+
+    /**
+     * Player competing for a refresh, ordered from lowest to highest priority.
+     */
+    private class Candidate implements Comparable<Candidate> {
+        private final OfflinePlayer player;
+        private final boolean overdue;
+        private final double priority;
+
+        private Candidate(OfflinePlayer player, long now) {
+            this.player = player;
+            long staleness = now - lastRefreshTimes.getOrDefault(player.getUniqueId(), 0L);
+            this.overdue = staleness >= overdueMillis;
+            this.priority = staleness * getActivityWeight(player, now);
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (overdue != other.overdue) {
+                return overdue ? 1 : -1;
+            }
+            return Double.compare(priority, other.priority);
+        }
+    }
+}
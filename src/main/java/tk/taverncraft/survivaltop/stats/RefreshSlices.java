@@ -0,0 +1,37 @@
+package tk.taverncraft.survivaltop.stats;
+
+/**
+ * Splits entities into slices for rolling leaderboard refreshes. Entities are assigned to slices
+ * by the hash of a stable key, so refreshing every slice in turn refreshes every entity once.
+ */
+public final class RefreshSlices {
+
+    private RefreshSlices() {
+    }
+
+    /**
+     * Checks if an entity belongs to a slice.
+     *
+     * @param key uuid of player or name of group
+     * @param slice slice to check
+     * @param sliceCount number of slices entities are split into, 1 or less for a single slice
+     *
+     * @return true if entity belongs to slice, false otherwise
+     */
+    public static boolean isInSlice(Object key, int slice, int sliceCount) {
+        return sliceCount <= 1 || Math.floorMod(key.hashCode(), sliceCount) == slice;
+    }
+
+    /**
+     * Gets the ticks between refreshes of consecutive slices, so that every slice is refreshed
+     * once per update interval.
+     *
+     * @param interval ticks between full updates
+     * @param sliceCount number of slices entities are split into
+     *
+     * @return ticks between slice refreshes, at least 1
+     */
+    public static long getSliceInterval(long interval, int sliceCount) {
+        return sliceCount <= 1 ? interval : Math.max(1, interval / sliceCount);
+    }
+}
@@ -4,11 +4,11 @@ import java.time.Instant;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
@@ -17,8 +17,11 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.group.groups.GroupSnapshot;
 import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.stats.cache.EntityLeaderboardCache;
+import tk.taverncraft.survivaltop.stats.cache.LeaderboardIndex;
+import tk.taverncraft.survivaltop.stats.cache.LeaderboardSnapshot;
 import tk.taverncraft.survivaltop.ui.LeaderboardGui;
 import tk.taverncraft.survivaltop.messages.MessageManager;
 
@@ -31,14 +34,31 @@ public class ServerStatsManager {
     // boolean to allow reloads to stop current calculations
     private boolean stopCalculations = false;
 
-    // cache values used for leaderboard/papi
-    private ConcurrentHashMap<UUID, Integer> entityPositionCache;
+    // working values of the update in progress, only read through a published snapshot
+    private LeaderboardIndex leaderboardIndex;
     private ConcurrentHashMap<UUID, EntityLeaderboardCache> uuidToEntityCacheMap;
-    private ArrayList<EntityLeaderboardCache> entityLeaderboardCacheList;
 
-    // temp hashmaps with pseudo uuids used only when entity is set to group
+    // uuids of groups derived from their names, used only when entity is set to group
     private HashMap<UUID, String> groupUuidToNameMap;
-    private HashMap<String, UUID> groupNameToUuidMap;
+
+    // completed leaderboard used for papi/signs, replaced as a whole after each update
+    private volatile LeaderboardSnapshot leaderboardSnapshot = LeaderboardSnapshot.EMPTY;
+
+    // groups built from the players of each update when aggregating groups, ranked separately
+    private LeaderboardIndex groupLeaderboardIndex;
+    private ConcurrentHashMap<UUID, EntityLeaderboardCache> groupUuidToEntityCacheMap;
+    private volatile LeaderboardSnapshot groupLeaderboardSnapshot = LeaderboardSnapshot.EMPTY;
+
+    // whether block changes are waiting to be published and the entities they changed, only
+    // accessed on the main thread
+    private boolean publishScheduled = false;
+    private final Set<UUID> entitiesChangedByBlocks = new HashSet<>();
+
+    // slice of entities refreshed by the update in progress, a single slice means everyone
+    private int refreshSlice = 0;
+    private int refreshSliceCount = 1;
+    private RefreshScheduler refreshScheduler;
+    private final Set<UUID> refreshedEntities = new HashSet<>();
 
     // leaderboard gui, for upcoming update
     private final HashMap<UUID, LeaderboardGui> leaderboardGui = new HashMap<>();
@@ -57,11 +77,15 @@ public class ServerStatsManager {
      * Initializes all values to default.
      */
     public void initializeValues() throws NullPointerException {
-        entityPositionCache = new ConcurrentHashMap<>();
+        leaderboardIndex = new LeaderboardIndex();
         uuidToEntityCacheMap = new ConcurrentHashMap<>();
-        entityLeaderboardCacheList = new ArrayList<>();
         groupUuidToNameMap = new HashMap<>();
-        groupNameToUuidMap = new HashMap<>();
+        leaderboardSnapshot = LeaderboardSnapshot.EMPTY;
+        groupLeaderboardIndex = new LeaderboardIndex();
+        groupUuidToEntityCacheMap = new ConcurrentHashMap<>();
+        groupLeaderboardSnapshot = LeaderboardSnapshot.EMPTY;
+        refreshScheduler = new RefreshScheduler(main.getOptions().getDormantDays(),
+                main.getOptions().getUpdateInterval());
     }
 
     /**
@@ -70,9 +94,26 @@ public class ServerStatsManager {
      * @param sender user executing the update
      */
     public void updateWealthStats(CommandSender sender) {
+        updateWealthStats(sender, 0, 1);
+    }
+
+    /**
+     * Updates the leaderboard wealth of one slice of entities, leaving the wealth of the other
+     * entities as it was. Entities are assigned to slices by their uuid (or name for groups), so
+     * refreshing every slice in turn refreshes every entity once.
+     *
+     * @param sender user executing the update
+     * @param slice slice of entities to refresh
+     * @param sliceCount number of slices entities are split into
+     */
+    public void updateWealthStats(CommandSender sender, int slice, int sliceCount) {
         main.getLandManager().setStopOperations(false);
         main.getInventoryManager().setStopOperations(false);
         stopCalculations = false;
+        refreshSlice = slice;
+        refreshSliceCount = Math.max(1, sliceCount);
+        refreshedEntities.clear();
+        main.getLandManager().setShareClaimsForLeaderboard(isAggregatingGroups());
         try {
             MessageManager.sendMessage(sender, "update-started");
             if (this.main.getOptions().groupIsEnabled()) {
@@ -83,76 +124,194 @@ public class ServerStatsManager {
             processSpawnersAndContainers(sender);
         } catch (Exception e) {
             LogManager.error(e.getMessage());
+            main.getGroupManager().clearSnapshot();
             this.main.getLeaderboardManager().stopExistingTasks();
         }
     }
 
     /**
      * Processes spawners and containers on main thread before doing post updates on async thread
-     * again (if applicable).
+     * again (if applicable). Processing is spread across ticks so that large numbers of
+     * containers do not freeze the server.
      *
      * @param sender user executing the update
      */
     private void processSpawnersAndContainers(CommandSender sender) {
         if (stopCalculations) {
+            main.getGroupManager().clearSnapshot();
             main.getLeaderboardManager().interruptLeaderboardUpdate(sender);
             return;
         }
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                main.getLandManager().processSpawnerTypesForLeaderboard();
-                main.getLandManager().processContainerItemsForLeaderboard();
-                executePostUpdateActions(sender);
-            }
-        }.runTask(main);
+        main.getLandManager().processSpawnersAndContainersForLeaderboard(() ->
+                executePostUpdateActions(sender));
     }
 
     /**
-     * Performs update by individual players.
+     * Performs update by individual players. In rolling updates, a slice worth of players is
+     * picked by how stale and active they are rather than by uuid.
      */
     private void updateForPlayers() {
         boolean filterLastJoin = this.main.getConfig().getBoolean("filter-last-join", false);
         long lastJoinTime = this.main.getConfig().getLong("last-join-time", 2592000) * 1000;
+        long currentTime = Instant.now().getEpochSecond() * 1000;
+
+        // players no longer passing the last join filter are dropped from the leaderboard
+        List<OfflinePlayer> players = new ArrayList<>();
+        Set<UUID> includedPlayers = new HashSet<>();
+        for (OfflinePlayer offlinePlayer : this.main.getServer().getOfflinePlayers()) {
+            if (filterLastJoin && lastJoinTime > 0
+                    && currentTime - offlinePlayer.getLastPlayed() > lastJoinTime) {
+                continue;
+            }
+            players.add(offlinePlayer);
+            includedPlayers.add(offlinePlayer.getUniqueId());
+        }
+        uuidToEntityCacheMap.keySet().retainAll(includedPlayers);
 
-        // code intentionally duplicated to keep the if condition outside loop to save check time
+        int count = refreshSliceCount <= 1 ? -1
+                : (players.size() + refreshSliceCount - 1) / refreshSliceCount;
+        List<OfflinePlayer> playersToRefresh = refreshScheduler.selectPlayers(players,
+                uuidToEntityCacheMap.keySet(), count, currentTime);
+        if (main.getOptions().balIsIncluded()) {
+            main.getBalanceManager().prefetchBalances(playersToRefresh);
+        }
 
-        // path for if last join filter is off or if last join time is set <= 0 (cannot filter)
-        if (!filterLastJoin || lastJoinTime <= 0) {
-            Arrays.stream(this.main.getServer().getOfflinePlayers()).forEach(offlinePlayer ->
-                calculateAndCacheEntities(offlinePlayer.getUniqueId(), offlinePlayer.getName()));
-            return;
+        // land of every entity is queued up and scanned in parallel after the loop
+        List<Runnable> landTasks = new ArrayList<>();
+        for (OfflinePlayer offlinePlayer : playersToRefresh) {
+            calculateAndCacheEntities(offlinePlayer.getUniqueId(), offlinePlayer.getName(),
+                    landTasks);
+            refreshScheduler.recordRefresh(offlinePlayer.getUniqueId(), currentTime);
         }
+        if (isAggregatingGroups()) {
+            prepareAggregatedGroups(landTasks);
+        }
+        main.getLandManager().invokeAll(landTasks);
+        main.getLandManager().processSharedClaimsForLeaderboard();
+    }
+
+    /**
+     * Checks if groups are built from the players of each update, so that a group leaderboard
+     * comes out of the same update as the player leaderboard.
+     *
+     * @return true if groups are aggregated from players, false otherwise
+     */
+    private boolean isAggregatingGroups() {
+        return main.getOptions().isAggregateGroups() && !main.getOptions().groupIsEnabled();
+    }
+
+    /**
+     * Prepares the groups to build from players in this update. Groups are rebuilt from their
+     * members on every update, while the land of a group is only scanned again when the group is
+     * in the slice being refreshed (or has no land wealth yet) and is kept from the last update
+     * otherwise. Land to scan is queued up along with the land of players so that claims held by
+     * both are only scanned once.
+     *
+     * @param landTasks list to queue land calculations of groups in
+     */
+    private void prepareAggregatedGroups(List<Runnable> landTasks) {
+        GroupSnapshot groupSnapshot = main.getGroupManager().takeSnapshot();
+        HashMap<UUID, String> currentGroups = new HashMap<>();
+        groupUuidToEntityCacheMap = new ConcurrentHashMap<>();
+        for (String group : groupSnapshot.getGroups()) {
+            UUID uuid = main.getGroupManager().getGroupUuid(group);
+            currentGroups.put(uuid, group);
+            EntityLeaderboardCache groupCache = new EntityLeaderboardCache(uuid, 0);
+            groupUuidToEntityCacheMap.put(uuid, groupCache);
+            if (!main.getOptions().landIsIncluded()) {
+                continue;
+            }
+            EntityLeaderboardCache previousCache = groupLeaderboardSnapshot.getEntity(uuid);
+            if (previousCache != null && !isInRefreshSlice(group)) {
+                groupCache.setBlockWealth(previousCache.getBlockWealth());
+                groupCache.setSpawnerWealth(previousCache.getSpawnerWealth());
+                groupCache.setContainerWealth(previousCache.getContainerWealth());
+                continue;
+            }
+            landTasks.add(() -> main.getLandManager().processEntityLand(uuid, group, true,
+                    true));
+        }
+        groupUuidToNameMap = currentGroups;
+    }
 
-        // path for if last join filter is on
-        Instant instant = Instant.now();
-        long currentTime = instant.getEpochSecond() * 1000;
-        Arrays.stream(this.main.getServer().getOfflinePlayers()).forEach(offlinePlayer -> {
-            if (currentTime - offlinePlayer.getLastPlayed() > lastJoinTime) {
-                return;
+    /**
+     * Adds up the balance and inventory wealth of the members of each group built in this
+     * update. Land wealth of groups is counted from their own claims instead, since members of
+     * a group may share the same claims.
+     */
+    private void foldPlayersIntoGroups() {
+        for (Map.Entry<UUID, String> map : groupUuidToNameMap.entrySet()) {
+            EntityLeaderboardCache groupCache = groupUuidToEntityCacheMap.get(map.getKey());
+            if (groupCache == null) {
+                continue;
+            }
+            double balWealth = 0;
+            double inventoryWealth = 0;
+            for (OfflinePlayer member : main.getGroupManager().getPlayers(map.getValue())) {
+                EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(member.getUniqueId());
+                if (eCache == null) {
+                    continue;
+                }
+                balWealth += eCache.getBalWealth();
+                inventoryWealth += eCache.getInventoryWealth();
             }
-            calculateAndCacheEntities(offlinePlayer.getUniqueId(), offlinePlayer.getName());
-        });
+            groupCache.setBalWealth(balWealth);
+            groupCache.setInventoryWealth(inventoryWealth);
+        }
     }
 
     /**
      * Performs update by groups.
      */
     private void updateForGroups() {
-        // reset cache on each update since unlike players, group uuids are temporary
-        this.uuidToEntityCacheMap = new ConcurrentHashMap<>();
-        this.groupUuidToNameMap = new HashMap<>();
-        this.groupNameToUuidMap = new HashMap<>();
+        // members are read once here and shared by every stage of the update
+        GroupSnapshot groupSnapshot = this.main.getGroupManager().takeSnapshot();
+        HashMap<UUID, String> currentGroups = new HashMap<>();
+        List<String> groups = new ArrayList<>();
+        for (String group : groupSnapshot.getGroups()) {
+            currentGroups.put(this.main.getGroupManager().getGroupUuid(group), group);
+            if (isInRefreshSlice(group)) {
+                groups.add(group);
+            }
+        }
+
+        // group uuids are stable, so only groups that no longer exist (or were renamed) are
+        // dropped while the rest keep their cached values until they are refreshed
+        uuidToEntityCacheMap.keySet().retainAll(currentGroups.keySet());
+        groupUuidToNameMap = currentGroups;
+        if (main.getOptions().balIsIncluded()) {
+            main.getBalanceManager().prefetchBalancesForGroups(groups);
+        }
 
-        List<String> groups = this.main.getGroupManager().getGroups();
+        List<Runnable> landTasks = new ArrayList<>();
         int groupSize = groups.size();
         for (int i = 0; i < groupSize; i++) {
             String group = groups.get(i);
-            UUID tempUuid = UUID.randomUUID();
-            groupUuidToNameMap.put(tempUuid, group);
-            groupNameToUuidMap.put(group, tempUuid);
-            calculateAndCacheEntities(tempUuid, group);
+            calculateAndCacheEntities(main.getGroupManager().getGroupUuid(group), group,
+                    landTasks);
         }
+        main.getLandManager().invokeAll(landTasks);
+    }
+
+    /**
+     * Checks if a group belongs to the slice being refreshed.
+     *
+     * @param group name of group
+     *
+     * @return true if group is refreshed in this update, false otherwise
+     */
+    private boolean isInRefreshSlice(String group) {
+        return RefreshSlices.isInSlice(group, refreshSlice, refreshSliceCount);
+    }
+
+    /**
+     * Checks if any entity has been ranked yet, used to refresh everyone at once before rolling
+     * through slices.
+     *
+     * @return true if the leaderboard has entities, false otherwise
+     */
+    public boolean hasRankedEntities() {
+        return !leaderboardSnapshot.getRankedEntities().isEmpty();
     }
 
     /**
@@ -160,13 +319,14 @@ public class ServerStatsManager {
      *
      * @param uuid uuid of sender if this is run through stats command; otherwise entities
      * @param name name of entity to calculate for
+     * @param landTasks list to queue land calculations of the entity in
      */
-    private void calculateAndCacheEntities(UUID uuid, String name) {
+    private void calculateAndCacheEntities(UUID uuid, String name, List<Runnable> landTasks) {
         double entityBalWorth = 0;
         if (main.getOptions().landIsIncluded()) {
-            // land calculations are done async and will be retrieved later
+            // land calculations are done in parallel and will be retrieved later
             main.getLandManager().createHoldersForLeaderboard(uuid);
-            main.getLandManager().processEntityLand(uuid, name, true);
+            landTasks.add(() -> main.getLandManager().processEntityLand(uuid, name, true));
         }
         if (main.getOptions().balIsIncluded()) {
             entityBalWorth = main.getBalanceManager().getBalanceForEntity(name);
@@ -177,6 +337,7 @@ public class ServerStatsManager {
         }
         EntityLeaderboardCache eCache = new EntityLeaderboardCache(uuid, entityBalWorth);
         uuidToEntityCacheMap.put(uuid, eCache);
+        refreshedEntities.add(uuid);
     }
 
     /**
@@ -187,6 +348,7 @@ public class ServerStatsManager {
      */
     private void executePostUpdateActions(CommandSender sender) {
         if (stopCalculations) {
+            main.getGroupManager().clearSnapshot();
             main.getLeaderboardManager().interruptLeaderboardUpdate(sender);
             return;
         }
@@ -195,6 +357,8 @@ public class ServerStatsManager {
             public void run() {
                 if (main.getOptions().landIsIncluded()) {
                     executePostUpdateBlocks(main.getLandManager().calculateBlockWorthForLeaderboard());
+                    logLandScanSummary();
+                    main.getLandManager().saveChunkIndex();
                 }
                 if (main.getOptions().spawnerIsIncluded()) {
                     executePostUpdateSpawners(main.getLandManager().calculateSpawnerWorthForLeaderboard());
@@ -202,19 +366,74 @@ public class ServerStatsManager {
                 if (main.getOptions().containerIsIncluded()) {
                     executePostUpdateContainers(main.getLandManager().calculateContainerWorthForLeaderboard());
                 }
+                if (main.getOptions().landIsIncluded()) {
+                    keepPreviousLandWealth(
+                            main.getLandManager().getIncompleteEntitiesForLeaderboard());
+                    if (main.getOptions().isTrackLandChanges()) {
+                        applyHeldBlockChanges(main.getLandManager().publishTrackedRegions());
+                    }
+                }
                 if (main.getOptions().inventoryIsIncluded()) {
                     executePostUpdateInventories(main.getInventoryManager().calculateInventoryWorthForLeaderboard());
                 }
-                HashMap<UUID, EntityLeaderboardCache> tempSortedCache = sortEntitiesByTotalWealth(uuidToEntityCacheMap);
-                setUpEntityCache(tempSortedCache);
+                LeaderboardSnapshot groupSnapshot = LeaderboardSnapshot.EMPTY;
+                if (isAggregatingGroups()) {
+                    foldPlayersIntoGroups();
+                    rankEntitiesByTotalWealth(groupLeaderboardIndex, groupUuidToEntityCacheMap);
+                    groupSnapshot = buildSnapshot(groupLeaderboardIndex,
+                            groupUuidToEntityCacheMap, groupLeaderboardSnapshot);
+                    groupLeaderboardSnapshot = groupSnapshot;
+                }
+                rankEntitiesByTotalWealth(leaderboardIndex, uuidToEntityCacheMap);
+                LeaderboardSnapshot snapshot = publishSnapshot();
+                HashMap<UUID, EntityLeaderboardCache> tempSortedCache = new LinkedHashMap<>();
+                for (EntityLeaderboardCache eCache : snapshot.getRankedEntities()) {
+                    tempSortedCache.put(eCache.getUuid(), eCache);
+                }
                 main.getLandManager().doCleanUpForLeaderboard();
                 main.getInventoryManager().doCleanUpForLeaderboard();
+                main.getGroupManager().clearSnapshot();
                 main.getLeaderboardManager().completeLeaderboardUpdate(sender, tempSortedCache);
-                main.getStorageManager().saveToStorage(entityLeaderboardCacheList);
+                main.getStorageManager().saveToStorage(getEntitiesToStore(snapshot,
+                        groupSnapshot));
             }
         }.runTaskLaterAsynchronously(main, 0);
     }
 
+    /**
+     * Gets the entities to write to storage after an update. Only refreshed entities are written
+     * since the rest are unchanged, along with all groups aggregated in the update.
+     *
+     * @param snapshot snapshot published by the update
+     * @param groupSnapshot snapshot of groups aggregated in the update, empty if none
+     *
+     * @return list of entities to store
+     */
+    private ArrayList<EntityLeaderboardCache> getEntitiesToStore(LeaderboardSnapshot snapshot,
+            LeaderboardSnapshot groupSnapshot) {
+        ArrayList<EntityLeaderboardCache> entities = new ArrayList<>();
+        for (EntityLeaderboardCache eCache : snapshot.getRankedEntities()) {
+            if (refreshedEntities.contains(eCache.getUuid())) {
+                entities.add(eCache);
+            }
+        }
+        entities.addAll(groupSnapshot.getRankedEntities());
+        return entities;
+    }
+
+    /**
+     * Logs how many chunks were reused from cache and how many chunk sections were skipped when
+     * scanning land for the update.
+     */
+    private void logLandScanSummary() {
+        long sectionsScanned = main.getLandManager().getSectionsScannedForLeaderboard();
+        long sectionsSkipped = main.getLandManager().getSectionsSkippedForLeaderboard();
+        long chunksReused = main.getLandManager().getChunksReusedForLeaderboard();
+        LogManager.info(String.format("Land scan reused %d chunks from cache and skipped %d of "
+                + "%d chunk sections.", chunksReused, sectionsSkipped,
+                sectionsScanned + sectionsSkipped));
+    }
+
     /**
      * Updates the values of spawners after they are processed on the main thread.
      *
@@ -222,10 +441,101 @@ public class ServerStatsManager {
      */
     private void executePostUpdateBlocks(HashMap<UUID, Double> tempBlockCache) {
         for (Map.Entry<UUID, Double> map : tempBlockCache.entrySet()) {
-            uuidToEntityCacheMap.get(map.getKey()).setBlockWealth(map.getValue());
+            getWorkingCache(map.getKey()).setBlockWealth(map.getValue());
         }
     }
 
+    /**
+     * Keeps the land wealth that entities had before this update if their land could not be
+     * fully scanned in it, so that a partial value is never ranked. Entities that were not on
+     * the leaderboard before keep the partial value.
+     *
+     * @param uuids uuids of entities whose land could not be fully scanned
+     */
+    private void keepPreviousLandWealth(Set<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            EntityLeaderboardCache eCache = getWorkingCache(uuid);
+            EntityLeaderboardCache previousCache = leaderboardSnapshot.getEntity(uuid);
+            if (previousCache == null) {
+                previousCache = groupLeaderboardSnapshot.getEntity(uuid);
+            }
+            if (eCache == null || previousCache == null) {
+                continue;
+            }
+            eCache.setBlockWealth(previousCache.getBlockWealth());
+            eCache.setSpawnerWealth(previousCache.getSpawnerWealth());
+            eCache.setContainerWealth(previousCache.getContainerWealth());
+        }
+    }
+
+    /**
+     * Applies block changes made in the land of entities after it was captured in this update,
+     * which were held back until the scanned block wealth was set.
+     *
+     * @param blockWealthChanges block wealth changed for each entity
+     */
+    private void applyHeldBlockChanges(Map<UUID, Double> blockWealthChanges) {
+        for (Map.Entry<UUID, Double> map : blockWealthChanges.entrySet()) {
+            EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(map.getKey());
+            if (eCache != null) {
+                eCache.addBlockWealth(map.getValue());
+            }
+        }
+    }
+
+    /**
+     * Gets the cache of a player, or of a group when aggregating groups, in the update in
+     * progress.
+     *
+     * @param uuid uuid of entity
+     *
+     * @return cache of entity
+     */
+    private EntityLeaderboardCache getWorkingCache(UUID uuid) {
+        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        if (eCache == null) {
+            eCache = groupUuidToEntityCacheMap.get(uuid);
+        }
+        return eCache;
+    }
+
+    /**
+     * Adds to the block wealth of an entity when blocks in its land change between updates.
+     *
+     * @param uuid uuid of entity
+     * @param blockWealthChange block wealth to add, negative if removed
+     */
+    public void addBlockWealth(UUID uuid, double blockWealthChange) {
+        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        if (eCache == null) {
+            return;
+        }
+        eCache.addBlockWealth(blockWealthChange);
+        leaderboardIndex.update(uuid, eCache.getTotalWealth());
+        refreshScheduler.recordBlockChange(uuid);
+        entitiesChangedByBlocks.add(uuid);
+        schedulePublish();
+    }
+
+    /**
+     * Publishes block changes a second after the first one, so that a burst of changes only
+     * builds a single snapshot. Changes made while an update is in progress are left to be
+     * published by the update itself, since the working values are incomplete until then.
+     * Only the entities changed by blocks are copied into the new snapshot.
+     */
+    private void schedulePublish() {
+        if (publishScheduled) {
+            return;
+        }
+        publishScheduled = true;
+        Bukkit.getScheduler().runTaskLater(main, () -> {
+            publishScheduled = false;
+            if (!main.getLeaderboardManager().isUpdating()) {
+                publishChangedEntities();
+            }
+        }, 20);
+    }
+
     /**
      * Updates the values of spawners after they are processed on the main thread.
      *
@@ -233,7 +543,7 @@ public class ServerStatsManager {
      */
     private void executePostUpdateSpawners(HashMap<UUID, Double> tempSpawnerCache) {
         for (Map.Entry<UUID, Double> map : tempSpawnerCache.entrySet()) {
-            uuidToEntityCacheMap.get(map.getKey()).setSpawnerWealth(map.getValue());
+            getWorkingCache(map.getKey()).setSpawnerWealth(map.getValue());
         }
     }
 
@@ -244,7 +554,7 @@ public class ServerStatsManager {
      */
     private void executePostUpdateContainers(HashMap<UUID, Double> tempContainerCache) {
         for (Map.Entry<UUID, Double> map : tempContainerCache.entrySet()) {
-            uuidToEntityCacheMap.get(map.getKey()).setContainerWealth(map.getValue());
+            getWorkingCache(map.getKey()).setContainerWealth(map.getValue());
         }
     }
 
@@ -255,45 +565,77 @@ public class ServerStatsManager {
      */
     private void executePostUpdateInventories(HashMap<UUID, Double> tempInventoryCache) {
         for (Map.Entry<UUID, Double> map : tempInventoryCache.entrySet()) {
-            uuidToEntityCacheMap.get(map.getKey()).setInventoryWealth(map.getValue());
+            getWorkingCache(map.getKey()).setInventoryWealth(map.getValue());
         }
     }
 
     /**
-     * Sorts entities by total wealth.
+     * Ranks entities by total wealth, dropping entities that are no longer part of the
+     * leaderboard. Entities whose wealth did not change keep their place in the index.
      *
-     * @param hm hashmap of entity wealth to sort
-     *
-     * @return sorted total wealth hashmap
+     * @param index index to rank entities in
+     * @param hm hashmap of entity wealth to rank
      */
-    private HashMap<UUID, EntityLeaderboardCache> sortEntitiesByTotalWealth(ConcurrentHashMap<UUID,
-        EntityLeaderboardCache> hm) {
-        List<Map.Entry<UUID, EntityLeaderboardCache> > list =
-                new LinkedList<>(hm.entrySet());
+    private void rankEntitiesByTotalWealth(LeaderboardIndex index,
+            ConcurrentHashMap<UUID, EntityLeaderboardCache> hm) {
+        for (UUID uuid : index.getEntities()) {
+            if (!hm.containsKey(uuid)) {
+                index.remove(uuid);
+            }
+        }
+        for (Map.Entry<UUID, EntityLeaderboardCache> map : hm.entrySet()) {
+            index.update(map.getKey(), map.getValue().getTotalWealth());
+        }
+    }
 
-        list.sort((o1, o2) -> (o2.getValue().getTotalWealth())
-                .compareTo(o1.getValue().getTotalWealth()));
+    /**
+     * Builds a snapshot of the ranked entities and publishes it for readers in a single swap.
+     *
+     * @return snapshot that was published
+     */
+    private synchronized LeaderboardSnapshot publishSnapshot() {
+        LeaderboardSnapshot snapshot = buildSnapshot(leaderboardIndex, uuidToEntityCacheMap,
+                leaderboardSnapshot);
+        this.leaderboardSnapshot = snapshot;
+        return snapshot;
+    }
 
-        HashMap<UUID, EntityLeaderboardCache> temp = new LinkedHashMap<>();
-        for (Map.Entry<UUID, EntityLeaderboardCache> aa : list) {
-            temp.put(aa.getKey(), aa.getValue());
+    /**
+     * Publishes the entities changed by blocks since the last publish by patching the current
+     * snapshot, without copying the other entities again.
+     */
+    private synchronized void publishChangedEntities() {
+        List<EntityLeaderboardCache> changedEntities = new ArrayList<>();
+        for (UUID uuid : entitiesChangedByBlocks) {
+            EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+            if (eCache != null) {
+                changedEntities.add(eCache);
+            }
         }
-        return temp;
+        entitiesChangedByBlocks.clear();
+        leaderboardSnapshot = leaderboardSnapshot.withChangedEntities(changedEntities);
     }
 
     /**
-     * Set entity position and entity cache list for easy PAPI access.
+     * Builds a snapshot of entities in the order they are ranked in, sharing the copies of the
+     * previous snapshot for entities that did not change.
+     *
+     * @param index index entities are ranked in
+     * @param hm hashmap of entity wealth
+     * @param previous snapshot published before
      *
-     * @param tempSortedCache hashmap to use to generate cache for
+     * @return snapshot of the ranked entities
      */
-    private void setUpEntityCache(HashMap<UUID, EntityLeaderboardCache> tempSortedCache) {
-        this.entityPositionCache = new ConcurrentHashMap<>();
-        int i = 0;
-        for (UUID uuid : tempSortedCache.keySet()) {
-            this.entityPositionCache.put(uuid, i);
-            i++;
+    private LeaderboardSnapshot buildSnapshot(LeaderboardIndex index,
+            Map<UUID, EntityLeaderboardCache> hm, LeaderboardSnapshot previous) {
+        List<EntityLeaderboardCache> rankedEntities = new ArrayList<>();
+        for (UUID uuid : index.getEntities()) {
+            EntityLeaderboardCache eCache = hm.get(uuid);
+            if (eCache != null) {
+                rankedEntities.add(eCache);
+            }
         }
-        this.entityLeaderboardCacheList = new ArrayList<>(tempSortedCache.values());
+        return new LeaderboardSnapshot(rankedEntities, groupUuidToNameMap, previous);
     }
 
     /**
@@ -304,20 +646,20 @@ public class ServerStatsManager {
      * @return entity cache for the given name
      */
     public EntityLeaderboardCache getEntityCache(String name) {
+        LeaderboardSnapshot snapshot = this.leaderboardSnapshot;
         UUID uuid;
         if (main.getOptions().groupIsEnabled()) {
-            uuid = this.groupNameToUuidMap.get(name);
+            uuid = snapshot.getGroupNameToUuidMap().get(name);
             if (uuid == null) {
                 return null;
             }
         } else {
-            OfflinePlayer player = Bukkit.getOfflinePlayer(name);
-            if (player == null) {
+            uuid = main.getPlayerResolutionManager().getUuid(name);
+            if (uuid == null) {
                 return null;
             }
-            uuid = player.getUniqueId();
         }
-        return this.uuidToEntityCacheMap.get(uuid);
+        return snapshot.getEntity(uuid);
     }
 
     /**
@@ -328,18 +670,17 @@ public class ServerStatsManager {
      * @return name of entity at specified position
      */
     public String getEntityNameAtPosition(int index) {
-        EntityLeaderboardCache eCache = this.entityLeaderboardCacheList.get(index);
-        UUID uuid = eCache.getUuid();
+        LeaderboardSnapshot snapshot = this.leaderboardSnapshot;
+        UUID uuid = snapshot.getEntityAt(index).getUuid();
 
         if (uuid == null) {
             return "None";
         }
 
         if (this.main.getOptions().groupIsEnabled()) {
-            return this.groupUuidToNameMap.get(uuid);
+            return snapshot.getGroupUuidToNameMap().get(uuid);
         } else {
-            OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
-            return player.getName();
+            return main.getPlayerResolutionManager().getName(uuid);
         }
     }
 
@@ -351,14 +692,35 @@ public class ServerStatsManager {
      * @return wealth of entity at specified position
      */
     public String getEntityWealthAtPosition(int index) {
-        EntityLeaderboardCache eCache = this.entityLeaderboardCacheList.get(index);
-        Double value = eCache.getTotalWealth();
+        EntityLeaderboardCache eCache = this.leaderboardSnapshot.getEntityAt(index);
+        return String.format("%.02f", eCache.getTotalWealth());
+    }
 
-        if (value != null) {
-            return String.format("%.02f", value);
-        } else {
-            return "None";
-        }
+    /**
+     * Gets the name of a group at given position on the group leaderboard aggregated from
+     * players.
+     *
+     * @param index position to get group name at
+     *
+     * @return name of group at specified position
+     */
+    public String getGroupNameAtPosition(int index) {
+        LeaderboardSnapshot snapshot = this.groupLeaderboardSnapshot;
+        UUID uuid = snapshot.getEntityAt(index).getUuid();
+        return snapshot.getGroupUuidToNameMap().get(uuid);
+    }
+
+    /**
+     * Gets the wealth of a group at given position on the group leaderboard aggregated from
+     * players.
+     *
+     * @param index position to get group wealth at
+     *
+     * @return wealth of group at specified position
+     */
+    public String getGroupWealthAtPosition(int index) {
+        EntityLeaderboardCache eCache = this.groupLeaderboardSnapshot.getEntityAt(index);
+        return String.format("%.02f", eCache.getTotalWealth());
     }
 
     /**
@@ -369,8 +731,8 @@ public class ServerStatsManager {
      * @return position of given entity
      */
     public String getPositionOfEntity(UUID uuid) {
-        Integer position = this.entityPositionCache.get(uuid);
-        if (position != null) {
+        int position = this.leaderboardSnapshot.getPosition(uuid);
+        if (position >= 0) {
             position = position + 1; // index 0
             return String.format("%d", position);
         } else {
@@ -386,7 +748,7 @@ public class ServerStatsManager {
      * @return balance wealth of given entity
      */
     public String getEntityBalWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getBalWealth());
     }
 
@@ -398,7 +760,7 @@ public class ServerStatsManager {
      * @return land wealth of given entity
      */
     public String getEntityLandWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getLandWealth());
     }
 
@@ -410,7 +772,7 @@ public class ServerStatsManager {
      * @return block wealth of given entity
      */
     public String getEntityBlockWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getBlockWealth());
     }
 
@@ -422,7 +784,7 @@ public class ServerStatsManager {
      * @return spawner wealth of given entity
      */
     public String getEntitySpawnerWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getSpawnerWealth());
     }
 
@@ -434,7 +796,7 @@ public class ServerStatsManager {
      * @return container wealth of given entity
      */
     public String getEntityContainerWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getContainerWealth());
     }
 
@@ -446,7 +808,7 @@ public class ServerStatsManager {
      * @return inventory wealth of given entity
      */
     public String getEntityInvWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getInventoryWealth());
     }
 
@@ -458,26 +820,26 @@ public class ServerStatsManager {
      * @return total wealth of given entity
      */
     public String getEntityTotalWealth(UUID uuid) {
-        EntityLeaderboardCache eCache = uuidToEntityCacheMap.get(uuid);
+        EntityLeaderboardCache eCache = leaderboardSnapshot.getEntity(uuid);
         return String.format("%.02f", eCache.getTotalWealth());
     }
 
     /**
-     * Returns a map of temporary uuid to name for groups.
+     * Returns a map of uuid to name for groups of the last completed update.
      *
-     * @return map of temporary uuid to group names
+     * @return map of uuid to group names
      */
-    public HashMap<UUID, String> getGroupUuidToNameMap() {
-        return this.groupUuidToNameMap;
+    public Map<UUID, String> getGroupUuidToNameMap() {
+        return this.leaderboardSnapshot.getGroupUuidToNameMap();
     }
 
     /**
-     * Returns a map of name to temporary uuid for groups.
+     * Returns a map of name to uuid for groups of the last completed update.
      *
-     * @return map of group names to temporary uuid
+     * @return map of group names to uuid
      */
-    public HashMap<String, UUID> getGroupNameToUuidMap() {
-        return this.groupNameToUuidMap;
+    public Map<String, UUID> getGroupNameToUuidMap() {
+        return this.leaderboardSnapshot.getGroupNameToUuidMap();
     }
 
     /**
@@ -4,15 +4,17 @@ import java.util.UUID;
 
 /**
  * EntityLeaderboardCache holds all entity information stored after a leaderboard update. It is mainly
- * used for updating the leaderboard, non-realtime stats retrieval and papi placeholders.
+ * used for updating the leaderboard, non-realtime stats retrieval and papi placeholders. Values are
+ * written both by leaderboard updates and by block changes on the main thread, so writes are
+ * synchronized.
  */
 public class EntityLeaderboardCache {
     private final UUID UUID;
-    private double balWealth = 0;
-    private double blockWealth = 0;
-    private double spawnerWealth = 0;
-    private double containerWealth = 0;
-    private double inventoryWealth = 0;
+    private volatile double balWealth = 0;
+    private volatile double blockWealth = 0;
+    private volatile double spawnerWealth = 0;
+    private volatile double containerWealth = 0;
+    private volatile double inventoryWealth = 0;
 
     /**
      * Constructor for EntityLeaderboardCache.
@@ -25,6 +27,20 @@ public class EntityLeaderboardCache {
         this.balWealth = balWealth;
     }
 
+    /**
+     * Constructor for EntityLeaderboardCache that copies the values of another cache.
+     *
+     * @param other cache to copy
+     */
+    public EntityLeaderboardCache(EntityLeaderboardCache other) {
+        this.UUID = other.UUID;
+        this.balWealth = other.balWealth;
+        this.blockWealth = other.blockWealth;
+        this.spawnerWealth = other.spawnerWealth;
+        this.containerWealth = other.containerWealth;
+        this.inventoryWealth = other.inventoryWealth;
+    }
+
     /**
      * Gets the uuid of the entity.
      *
@@ -99,21 +115,55 @@ public class EntityLeaderboardCache {
         return balWealth + getLandWealth() + inventoryWealth;
     }
 
+    /**
+     * Checks if another cache of the same entity holds the same wealth as this one.
+     *
+     * @param other cache to compare with
+     *
+     * @return true if every wealth is the same, false otherwise
+     */
+    public boolean hasSameWealth(EntityLeaderboardCache other) {
+        return UUID.equals(other.UUID)
+                && Double.compare(balWealth, other.balWealth) == 0
+                && Double.compare(blockWealth, other.blockWealth) == 0
+                && Double.compare(spawnerWealth, other.spawnerWealth) == 0
+                && Double.compare(containerWealth, other.containerWealth) == 0
+                && Double.compare(inventoryWealth, other.inventoryWealth) == 0;
+    }
+
+    /**
+     * Sets the balance wealth of an entity.
+     *
+     * @param newBalWealth balance wealth to set
+     */
+    public synchronized void setBalWealth(double newBalWealth) {
+        this.balWealth = newBalWealth;
+    }
+
     /**
      * Sets the block wealth of an entity.
      *
      * @param newBlockWealth block wealth to set
      */
-    public void setBlockWealth(double newBlockWealth) {
+    public synchronized void setBlockWealth(double newBlockWealth) {
         this.blockWealth = newBlockWealth;
     }
 
+    /**
+     * Adds to the block wealth of an entity, used when blocks change between updates.
+     *
+     * @param blockWealthChange block wealth to add, negative if removed
+     */
+    public synchronized void addBlockWealth(double blockWealthChange) {
+        this.blockWealth += blockWealthChange;
+    }
+
     /**
      * Sets the spawner wealth of an entity.
      *
      * @param newSpawnerWealth spawner wealth to set
      */
-    public void setSpawnerWealth(double newSpawnerWealth) {
+    public synchronized void setSpawnerWealth(double newSpawnerWealth) {
         this.spawnerWealth = newSpawnerWealth;
     }
 
@@ -122,7 +172,7 @@ public class EntityLeaderboardCache {
      *
      * @param newContainerWealth container wealth to set
      */
-    public void setContainerWealth(double newContainerWealth) {
+    public synchronized void setContainerWealth(double newContainerWealth) {
         this.containerWealth = newContainerWealth;
     }
 
@@ -131,7 +181,7 @@ public class EntityLeaderboardCache {
      *
      * @param newInventoryWealth inventory wealth to set
      */
-    public void setInventoryWealth(double newInventoryWealth) {
+    public synchronized void setInventoryWealth(double newInventoryWealth) {
         this.inventoryWealth = newInventoryWealth;
     }
 }
@@ -0,0 +1,227 @@
+package tk.taverncraft.survivaltop.stats.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LeaderboardIndex keeps entities ranked by their total wealth so that the wealth of a single
+ * entity can be updated without sorting every entity again. Entities are held in a treap ordered
+ * by wealth from highest to lowest, with ties broken by uuid so that the order is stable, so that
+ * updating an entity takes O(log n). Positions are not read from the index, they are assigned
+ * when a leaderboard snapshot is built from the ranked entities.
+ */
+public class LeaderboardIndex {
+    private final HashMap<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * Sets the wealth of an entity, adding the entity if it is not ranked yet.
+     *
+     * @param uuid uuid of entity
+     * @param wealth total wealth of entity
+     */
+    public synchronized void update(UUID uuid, double wealth) {
+        Node node = nodes.get(uuid);
+        if (node != null) {
+            if (Double.compare(node.wealth, wealth) == 0) {
+                return;
+            }
+            root = remove(root, node);
+        }
+        node = new Node(uuid, wealth);
+        nodes.put(uuid, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes an entity from the ranking.
+     *
+     * @param uuid uuid of entity
+     */
+    public synchronized void remove(UUID uuid) {
+        Node node = nodes.remove(uuid);
+        if (node != null) {
+            root = remove(root, node);
+        }
+    }
+
+    /**
+     * Removes all entities from the ranking.
+     */
+    public synchronized void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Gets the uuids of all entities from the wealthiest to the least wealthy.
+     *
+     * @return list of ranked entities
+     */
+    public synchronized List<UUID> getEntities() {
+        List<UUID> entities = new ArrayList<>(nodes.size());
+        addInOrder(root, entities);
+        return entities;
+    }
+
+    /**
+     * Inserts a node into a subtree.
+     *
+     * @param subtree subtree to insert into
+     * @param node node to insert
+     *
+     * @return new root of subtree
+     */
+    private Node insert(Node subtree, Node node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.priority > subtree.priority) {
+            split(subtree, node);
+            return node;
+        }
+        if (compare(node, subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+        } else {
+            subtree.right = insert(subtree.right, node);
+        }
+        return subtree;
+    }
+
+    /**
+     * Splits a subtree around a node, setting the nodes ranked before it as its left subtree and
+     * the nodes ranked after it as its right subtree.
+     *
+     * @param subtree subtree to split
+     * @param node node to split around
+     */
+    private void split(Node subtree, Node node) {
+        if (subtree == null) {
+            node.left = null;
+            node.right = null;
+            return;
+        }
+        if (compare(subtree, node) < 0) {
+            split(subtree.right, node);
+            subtree.right = node.left;
+            node.left = subtree;
+        } else {
+            split(subtree.left, node);
+            subtree.left = node.right;
+            node.right = subtree;
+        }
+    }
+
+    /**
+     * Removes a node from a subtree.
+     *
+     * @param subtree subtree to remove from
+     * @param node node to remove
+     *
+     * @return new root of subtree
+     */
+    private Node remove(Node subtree, Node node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(subtree.left, subtree.right);
+        }
+        if (compare(node, subtree) < 0) {
+            subtree.left = remove(subtree.left, node);
+        } else {
+            subtree.right = remove(subtree.right, node);
+        }
+        return subtree;
+    }
+
+    /**
+     * Merges two subtrees where every node of the left subtree is ranked before every node of the
+     * right subtree.
+     *
+     * @param left left subtree
+     * @param right right subtree
+     *
+     * @return root of merged subtree
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        return right;
+    }
+
+    /**
+     * Adds the uuids of a subtree in ranked order.
+     *
+     * @param subtree subtree to add
+     * @param entities list to add to
+     */
+    private void addInOrder(Node subtree, List<UUID> entities) {
+        while (subtree != null) {
+            addInOrder(subtree.left, entities);
+            entities.add(subtree.uuid);
+            subtree = subtree.right;
+        }
+    }
+
+    /**
+     * Compares the ranking of two nodes, with higher wealth ranked first.
+     *
+     * @param a first node
+     * @param b second node
+     *
+     * @return negative if a is ranked before b, positive if after and 0 if they are the same
+     */
+    private static int compare(Node a, Node b) {
+        return compare(a.uuid, a.wealth, b.uuid, b.wealth);
+    }
+
+    /**
+     * Compares the ranking of two entities, with higher wealth ranked first and ties broken by
+     * uuid. Snapshots place entities with the same order.
+     *
+     * @param uuidA uuid of first entity
+     * @param wealthA wealth of first entity
+     * @param uuidB uuid of second entity
+     * @param wealthB wealth of second entity
+     *
+     * @return negative if the first entity is ranked before the second, positive if after and 0
+     *     if they are the same
+     */
+    static int compare(UUID uuidA, double wealthA, UUID uuidB, double wealthB) {
+        int comparison = Double.compare(wealthB, wealthA);
+        return comparison != 0 ? comparison : uuidA.compareTo(uuidB);
+    }
+
+    /**
+     * Ranked entity in the treap.
+     */
+    private static class Node {
+        private final UUID uuid;
+        private final double wealth;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+
+        private Node(UUID uuid, double wealth) {
+            this.uuid = uuid;
+            this.wealth = wealth;
+        }
+    }
+}
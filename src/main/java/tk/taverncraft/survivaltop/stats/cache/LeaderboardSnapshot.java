@@ -0,0 +1,187 @@
+package tk.taverncraft.survivaltop.stats.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * LeaderboardSnapshot holds the complete result of a leaderboard update. It is built in full
+ * before being published and never changes afterwards, so that papi placeholders, signs and the
+ * leaderboard command can read it from any thread without locking and always see entities,
+ * positions and group names that belong to the same update. Entity caches are copied into a
+ * snapshot only when they changed since the previous snapshot, whose copies are shared otherwise.
+ */
+public class LeaderboardSnapshot {
+    public static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(
+            new ArrayList<>(), new HashMap<>());
+
+    private static final Comparator<EntityLeaderboardCache> RANK_ORDER = (a, b) ->
+            LeaderboardIndex.compare(a.getUuid(), a.getTotalWealth(), b.getUuid(),
+                    b.getTotalWealth());
+
+    private final List<EntityLeaderboardCache> rankedEntities;
+    private final Map<UUID, Integer> positions;
+    private final Map<UUID, String> groupUuidToNameMap;
+    private final Map<String, UUID> groupNameToUuidMap;
+
+    /**
+     * Constructor for LeaderboardSnapshot. The given entity caches and group names are copied so
+     * that later changes to them do not affect the snapshot.
+     *
+     * @param rankedEntities entity caches ordered by position on the leaderboard
+     * @param groupUuidToNameMap map of group uuid to name, empty if groups are not enabled
+     */
+    public LeaderboardSnapshot(List<EntityLeaderboardCache> rankedEntities,
+            Map<UUID, String> groupUuidToNameMap) {
+        this(rankedEntities, groupUuidToNameMap, EMPTY);
+    }
+
+    /**
+     * Constructor for LeaderboardSnapshot that shares the copies of a previous snapshot for
+     * entities whose wealth did not change since. Other entity caches and the group names are
+     * copied so that later changes to them do not affect the snapshot.
+     *
+     * @param rankedEntities entity caches ordered by position on the leaderboard
+     * @param groupUuidToNameMap map of group uuid to name, empty if groups are not enabled
+     * @param previous snapshot published before this one
+     */
+    public LeaderboardSnapshot(List<EntityLeaderboardCache> rankedEntities,
+            Map<UUID, String> groupUuidToNameMap, LeaderboardSnapshot previous) {
+        List<EntityLeaderboardCache> entities = new ArrayList<>(rankedEntities.size());
+        for (EntityLeaderboardCache eCache : rankedEntities) {
+            EntityLeaderboardCache previousCopy = previous == null ? null
+                    : previous.getEntity(eCache.getUuid());
+            if (previousCopy != null && previousCopy.hasSameWealth(eCache)) {
+                entities.add(previousCopy);
+            } else {
+                entities.add(new EntityLeaderboardCache(eCache));
+            }
+        }
+        Map<String, UUID> groupNames = new HashMap<>();
+        for (Map.Entry<UUID, String> map : groupUuidToNameMap.entrySet()) {
+            groupNames.put(map.getValue(), map.getKey());
+        }
+        this.rankedEntities = Collections.unmodifiableList(entities);
+        this.positions = getPositions(entities);
+        this.groupUuidToNameMap = Collections.unmodifiableMap(new HashMap<>(groupUuidToNameMap));
+        this.groupNameToUuidMap = Collections.unmodifiableMap(groupNames);
+    }
+
+    /**
+     * Constructor for LeaderboardSnapshot from entities already copied, sharing the group names
+     * of another snapshot.
+     *
+     * @param entities copied entity caches ordered by position on the leaderboard
+     * @param other snapshot to share group names with
+     */
+    private LeaderboardSnapshot(List<EntityLeaderboardCache> entities,
+            LeaderboardSnapshot other) {
+        this.rankedEntities = Collections.unmodifiableList(entities);
+        this.positions = getPositions(entities);
+        this.groupUuidToNameMap = other.groupUuidToNameMap;
+        this.groupNameToUuidMap = other.groupNameToUuidMap;
+    }
+
+    /**
+     * Gets a snapshot with the given entities changed and moved to their new positions, used to
+     * publish block changes between updates. Only the changed entities are copied, every other
+     * entity is shared with this snapshot.
+     *
+     * @param changedEntities entity caches that changed since this snapshot
+     *
+     * @return new snapshot with the changes
+     */
+    public LeaderboardSnapshot withChangedEntities(
+            Collection<EntityLeaderboardCache> changedEntities) {
+        Map<UUID, EntityLeaderboardCache> copies = new HashMap<>();
+        for (EntityLeaderboardCache eCache : changedEntities) {
+            copies.put(eCache.getUuid(), new EntityLeaderboardCache(eCache));
+        }
+        List<EntityLeaderboardCache> entities = new ArrayList<>(
+                rankedEntities.size() + copies.size());
+        for (EntityLeaderboardCache eCache : rankedEntities) {
+            if (!copies.containsKey(eCache.getUuid())) {
+                entities.add(eCache);
+            }
+        }
+        for (EntityLeaderboardCache copy : copies.values()) {
+            int position = Collections.binarySearch(entities, copy, RANK_ORDER);
+            entities.add(position < 0 ? -position - 1 : position, copy);
+        }
+        return new LeaderboardSnapshot(entities, this);
+    }
+
+    /**
+     * Gets the position of each entity in a ranked list.
+     *
+     * @param entities entity caches ordered by position on the leaderboard
+     *
+     * @return unmodifiable map of entity uuid to position
+     */
+    private static Map<UUID, Integer> getPositions(List<EntityLeaderboardCache> entities) {
+        Map<UUID, Integer> entityPositions = new HashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            entityPositions.put(entities.get(i).getUuid(), i);
+        }
+        return Collections.unmodifiableMap(entityPositions);
+    }
+
+    /**
+     * Gets the entity caches ordered by position on the leaderboard.
+     *
+     * @return unmodifiable list of ranked entities
+     */
+    public List<EntityLeaderboardCache> getRankedEntities() {
+        return rankedEntities;
+    }
+
+    /**
+     * Gets the entity cache at a position.
+     *
+     * @param position position to get entity at, starting from 0
+     *
+     * @return entity cache at position
+     *
+     * @throws IndexOutOfBoundsException if there is no entity at the position
+     */
+    public EntityLeaderboardCache getEntityAt(int position) {
+        return rankedEntities.get(position);
+    }
+
+    /**
+     * Gets the entity cache of an entity.
+     *
+     * @param uuid uuid of entity
+     *
+     * @return entity cache of entity, or null if it is not on the leaderboard
+     */
+    public EntityLeaderboardCache getEntity(UUID uuid) {
+        Integer position = positions.get(uuid);
+        return position == null ? null : rankedEntities.get(position);
+    }
+
+    /**
+     * Gets the position of an entity, starting from 0 for the wealthiest entity.
+     *
+     * @param uuid uuid of entity
+     *
+     * @return position of entity, or -1 if it is not on the leaderboard
+     */
+    public int getPosition(UUID uuid) {
+        Integer position = positions.get(uuid);
+        return position == null ? -1 : position;
+    }
+
+    public Map<UUID, String> getGroupUuidToNameMap() {
+        return groupUuidToNameMap;
+    }
+
+    public Map<String, UUID> getGroupNameToUuidMap() {
+        return groupNameToUuidMap;
+    }
+}
@@ -7,6 +7,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.DatabaseMetaData;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -67,7 +69,14 @@ public class SqlHelper implements StorageHelper {
             body.append(getEntityQuery(eCache));
         }
 
-        if (body.length() == 0) {
+        // group uuids are stable, so groups are upserted like players and only rows of groups that
+        // no longer exist need to be removed
+        String deleteQuery = null;
+        if (this.main.getOptions().groupIsEnabled() || this.main.getOptions().isAggregateGroups()) {
+            deleteQuery = getStaleGroupsQuery(
+                    this.main.getServerStatsManager().getGroupUuidToNameMap().keySet());
+        }
+        if (body.length() == 0 && deleteQuery == null) {
             return;
         }
         String footer = " ON DUPLICATE KEY UPDATE BALANCE_WEALTH = VALUES(BALANCE_WEALTH), " +
@@ -75,22 +84,46 @@ public class SqlHelper implements StorageHelper {
             "SPAWNER_WEALTH = VALUES(SPAWNER_WEALTH), " +
             "CONTAINER_WEALTH = VALUES(CONTAINER_WEALTH), " +
             "INVENTORY_WEALTH = VALUES(INVENTORY_WEALTH), TOTAL_WEALTH = VALUES(TOTAL_WEALTH)";
-        String finalQuery = header + body.substring(0, body.length() - 2) + footer;
-        try (Connection conn = this.connectToSql(); PreparedStatement delStmt =
-            conn.prepareStatement("DELETE FROM " + tableName);
-             PreparedStatement stmt = conn.prepareStatement(finalQuery)) {
-            if (conn != null) {
-                // necessary to delete table for group since temp uuid results in multiple entries
-                if (this.main.getOptions().groupIsEnabled()) {
-                    delStmt.execute();
+        try (Connection conn = this.connectToSql()) {
+            if (conn == null) {
+                return;
+            }
+            if (deleteQuery != null) {
+                try (PreparedStatement delStmt = conn.prepareStatement(deleteQuery)) {
+                    delStmt.executeUpdate();
+                }
+            }
+            if (body.length() != 0) {
+                String finalQuery = header + body.substring(0, body.length() - 2) + footer;
+                try (PreparedStatement stmt = conn.prepareStatement(finalQuery)) {
+                    stmt.executeUpdate();
                 }
-                stmt.executeUpdate();
             }
         } catch (NullPointerException | SQLException e) {
             LogManager.error(e.getMessage());
         }
     }
 
+    /**
+     * Gets the query that deletes rows of groups that no longer exist, including rows left
+     * behind by groups that were renamed or disbanded.
+     *
+     * @param groupUuids uuids of all current groups
+     *
+     * @return query to delete stale group rows
+     */
+    private String getStaleGroupsQuery(Collection<UUID> groupUuids) {
+        String query = "DELETE FROM " + tableName + " WHERE ENTITY_TYPE = 'group'";
+        if (groupUuids.isEmpty()) {
+            return query;
+        }
+        StringJoiner uuids = new StringJoiner("', '", " AND UUID NOT IN ('", "')");
+        for (UUID uuid : groupUuids) {
+            uuids.add(uuid.toString());
+        }
+        return query + uuids;
+    }
+
     /**
      * Connects to MySQL database.
      *
@@ -190,8 +223,9 @@ public class SqlHelper implements StorageHelper {
         UUID uuid = eCache.getUuid();
         String entityName = "None";
         String entityType = "player";
-        if (this.main.getOptions().groupIsEnabled()) {
-            entityName = this.main.getServerStatsManager().getGroupUuidToNameMap().get(uuid);
+        String groupName = this.main.getServerStatsManager().getGroupUuidToNameMap().get(uuid);
+        if (groupName != null) {
+            entityName = groupName;
             entityType = "group";
         } else {
             OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
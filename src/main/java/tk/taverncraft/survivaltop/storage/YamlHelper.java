@@ -52,8 +52,9 @@ public class YamlHelper implements StorageHelper {
         String entityFileName;
         String entityName = "None";
         String entityType = "player";
-        if (this.main.getOptions().groupIsEnabled()) {
-            entityFileName = this.main.getServerStatsManager().getGroupUuidToNameMap().get(uuid);
+        String groupName = this.main.getServerStatsManager().getGroupUuidToNameMap().get(uuid);
+        if (groupName != null) {
+            entityFileName = groupName;
             entityName = entityFileName;
             entityType = "group";
         } else {
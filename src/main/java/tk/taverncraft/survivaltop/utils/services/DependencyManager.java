@@ -151,7 +151,8 @@ public class DependencyManager {
      */
     private boolean checkGroup() {
         boolean enabled;
-        if (main.getConfig().getBoolean("enable-group")) {
+        if (main.getConfig().getBoolean("enable-group")
+                || main.getConfig().getBoolean("aggregate-groups")) {
             String groupType = main.getConfig().getString("group-type",
                 "factionsuuid").toLowerCase();
             String depPlugin = pluginMap.get(groupType);
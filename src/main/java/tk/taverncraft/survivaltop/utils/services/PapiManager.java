@@ -2,7 +2,6 @@ package tk.taverncraft.survivaltop.utils.services;
 
 import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
@@ -67,6 +66,26 @@ public class PapiManager extends PlaceholderExpansion {
             }
         }
 
+        if (params.startsWith("group_top_name_")) {
+            String[] args = params.split("_", 4);
+            try {
+                int index = Integer.parseInt(args[3]) - 1;
+                return main.getServerStatsManager().getGroupNameAtPosition(index);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return "None";
+            }
+        }
+
+        if (params.startsWith("group_top_wealth_")) {
+            String[] args = params.split("_", 4);
+            try {
+                int index = Integer.parseInt(args[3]) - 1;
+                return main.getServerStatsManager().getGroupWealthAtPosition(index);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return "0";
+            }
+        }
+
         if (params.startsWith("entity_position")) {
             String[] args = params.split("_", 3);
             try {
@@ -175,8 +194,7 @@ public class PapiManager extends PlaceholderExpansion {
         }
 
         assert entityName != null;
-        OfflinePlayer target = Bukkit.getOfflinePlayer(entityName);
-        return target.getUniqueId();
+        return this.main.getPlayerResolutionManager().getUuid(entityName);
     }
 }
 
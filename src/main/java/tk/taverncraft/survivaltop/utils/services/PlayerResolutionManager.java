@@ -0,0 +1,111 @@
+package tk.taverncraft.survivaltop.utils.services;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import tk.taverncraft.survivaltop.Main;
+
+/**
+ * PlayerResolutionManager resolves player names and uuids from an index built once from the
+ * players known to the server and kept current as players join. Looking up a player by name
+ * through bukkit can block on a profile lookup, so anything that needs to resolve players during
+ * an update goes through here instead. Names are matched case-insensitively.
+ */
+public class PlayerResolutionManager {
+    private final Main main;
+    private final ConcurrentHashMap<String, UUID> nameToUuidMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> uuidToNameMap = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for PlayerResolutionManager.
+     *
+     * @param main plugin class
+     */
+    public PlayerResolutionManager(Main main) {
+        this.main = main;
+        initializeValues();
+    }
+
+    /**
+     * Builds the index from every player known to the server, called during startup and reload.
+     */
+    public void initializeValues() {
+        nameToUuidMap.clear();
+        uuidToNameMap.clear();
+        for (OfflinePlayer offlinePlayer : main.getServer().getOfflinePlayers()) {
+            registerPlayer(offlinePlayer.getUniqueId(), offlinePlayer.getName());
+        }
+    }
+
+    /**
+     * Adds a player to the index or updates its name, called when a player joins.
+     *
+     * @param uuid uuid of player
+     * @param name current name of player
+     */
+    public void registerPlayer(UUID uuid, String name) {
+        if (name == null) {
+            return;
+        }
+        String previousName = uuidToNameMap.put(uuid, name);
+        if (previousName != null && !previousName.equalsIgnoreCase(name)) {
+            nameToUuidMap.remove(toKey(previousName), uuid);
+        }
+        nameToUuidMap.put(toKey(name), uuid);
+    }
+
+    /**
+     * Gets the uuid of a player by name.
+     *
+     * @param name name of player
+     *
+     * @return uuid of player, or null if no player with the name has joined
+     */
+    public UUID getUuid(String name) {
+        if (name == null) {
+            return null;
+        }
+        return nameToUuidMap.get(toKey(name));
+    }
+
+    /**
+     * Gets the name of a player by uuid.
+     *
+     * @param uuid uuid of player
+     *
+     * @return name of player, or null if the player has not joined
+     */
+    public String getName(UUID uuid) {
+        return uuidToNameMap.get(uuid);
+    }
+
+    /**
+     * Gets a player by name without a profile lookup.
+     *
+     * @param name name of player
+     *
+     * @return player with the name, or null if no player with the name has joined
+     */
+    public OfflinePlayer getOfflinePlayer(String name) {
+        UUID uuid = getUuid(name);
+        if (uuid == null) {
+            return null;
+        }
+        return Bukkit.getOfflinePlayer(uuid);
+    }
+
+    /**
+     * Gets the key of a name in the index.
+     *
+     * @param name name of player
+     *
+     * @return lower case name
+     */
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -41,7 +41,7 @@ public class ValidationManager {
      * @param sender the player executing the command
      */
     public boolean playerExist(String name, CommandSender sender) {
-        if (name.length() > 16 || this.main.getServer().getOfflinePlayer(name).getFirstPlayed() == 0L) {
+        if (name.length() > 16 || this.main.getPlayerResolutionManager().getUuid(name) == null) {
             MessageManager.sendMessage(sender, "entity-not-exist",
                     new String[]{"%entity%"},
                     new String[]{name});
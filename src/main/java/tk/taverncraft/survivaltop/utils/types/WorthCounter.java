@@ -0,0 +1,100 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Tracks count of items in a primitive array indexed by the ids of a worth table, so counting is
+ * an array increment and total worth is a dot product with the worth of each id.
+ */
+public class WorthCounter {
+    private final WorthTable worthTable;
+    private final long[] counts;
+
+    /**
+     * Constructor for WorthCounter.
+     *
+     * @param worthTable table of ids and their worth
+     */
+    public WorthCounter(WorthTable worthTable) {
+        this.worthTable = worthTable;
+        this.counts = new long[worthTable.size()];
+    }
+
+    /**
+     * Adds 1 count to holder.
+     *
+     * @param id id of item to add count for
+     */
+    public void addToHolder(int id) {
+        counts[id]++;
+    }
+
+    /**
+     * Adds count to holder.
+     *
+     * @param id id of item to add count for
+     * @param amount amount to add
+     */
+    public void addToHolder(int id, long amount) {
+        counts[id] += amount;
+    }
+
+    /**
+     * Adds all counts of another counter using the same worth table.
+     *
+     * @param other counter to add counts from
+     */
+    public void addAll(WorthCounter other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * Gets the worth table used by this counter.
+     *
+     * @return worth table
+     */
+    public WorthTable getWorthTable() {
+        return worthTable;
+    }
+
+    /**
+     * Gets the count of an item.
+     *
+     * @param id id of item
+     *
+     * @return count of item
+     */
+    public long getCount(int id) {
+        return counts[id];
+    }
+
+    /**
+     * Gets the total worth of all items counted.
+     *
+     * @return double value representing total worth
+     */
+    public double getTotalWorth() {
+        double totalWorth = 0;
+        for (int i = 0; i < counts.length; i++) {
+            totalWorth += counts[i] * worthTable.getWorth(i);
+        }
+        return totalWorth;
+    }
+
+    /**
+     * Gets the tracking counter keyed by name, only built when needed for showing in GUI.
+     *
+     * @return counter map
+     */
+    public LinkedHashMap<String, MutableInt> getCounter() {
+        LinkedHashMap<String, MutableInt> counter = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            MutableInt count = new MutableInt();
+            count.increment((int) Math.min(counts[i], Integer.MAX_VALUE));
+            counter.put(worthTable.getName(i), count);
+        }
+        return counter;
+    }
+}
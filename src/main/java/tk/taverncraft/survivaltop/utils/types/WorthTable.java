@@ -0,0 +1,115 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Assigns dense ids to the names loaded from a worth config and stores their worth in an array
+ * indexed by those ids. Enum constants (materials, entity types) are mapped to ids by their
+ * ordinal so lookups during scans never hash a string.
+ */
+public class WorthTable {
+    private final String[] names;
+    private final double[] worth;
+    private final HashMap<String, Integer> nameToId;
+    private final int[] ordinalToId;
+
+    /**
+     * Constructor for WorthTable.
+     *
+     * @param worthMap map of names to their worth, in the order ids are to be assigned
+     * @param constants all constants of the enum the names belong to
+     */
+    public WorthTable(LinkedHashMap<String, Double> worthMap, Enum<?>[] constants) {
+        int size = worthMap.size();
+        this.names = new String[size];
+        this.worth = new double[size];
+        this.nameToId = new HashMap<>();
+        int id = 0;
+        for (Map.Entry<String, Double> entry : worthMap.entrySet()) {
+            names[id] = entry.getKey();
+            worth[id] = entry.getValue();
+            nameToId.put(entry.getKey(), id);
+            id++;
+        }
+
+        this.ordinalToId = new int[constants.length];
+        Arrays.fill(ordinalToId, -1);
+        for (Enum<?> constant : constants) {
+            Integer constantId = nameToId.get(constant.name());
+            if (constantId != null) {
+                ordinalToId[constant.ordinal()] = constantId;
+            }
+        }
+    }
+
+    /**
+     * Gets the id of an enum constant.
+     *
+     * @param constant constant to get id for
+     *
+     * @return id of constant, or -1 if it has no worth configured
+     */
+    public int getId(Enum<?> constant) {
+        return ordinalToId[constant.ordinal()];
+    }
+
+    /**
+     * Gets the id of an enum constant by its ordinal, for constants kept in packed form.
+     *
+     * @param ordinal ordinal of constant to get id for
+     *
+     * @return id of constant, or -1 if it has no worth configured
+     */
+    public int getIdByOrdinal(int ordinal) {
+        return ordinalToId[ordinal];
+    }
+
+    /**
+     * Gets the id of a name.
+     *
+     * @param name name to get id for
+     *
+     * @return id of name, or -1 if it has no worth configured
+     */
+    public int getId(String name) {
+        Integer id = nameToId.get(name);
+        if (id == null) {
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * Gets the name assigned to an id.
+     *
+     * @param id id to get name for
+     *
+     * @return name of id
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the worth assigned to an id.
+     *
+     * @param id id to get worth for
+     *
+     * @return worth of id
+     */
+    public double getWorth(int id) {
+        return worth[id];
+    }
+
+    /**
+     * Gets the number of ids in the table.
+     *
+     * @return number of ids
+     */
+    public int size() {
+        return names.length;
+    }
+}
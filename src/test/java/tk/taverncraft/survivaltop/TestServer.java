@@ -0,0 +1,32 @@
+package tk.taverncraft.survivaltop;
+
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mocked server shared by tests, since Bukkit only allows its server to be set once.
+ */
+public final class TestServer {
+
+    private TestServer() {
+    }
+
+    /**
+     * Gets the mocked server, setting it on first use.
+     *
+     * @return mocked server
+     */
+    public static synchronized Server get() {
+        if (Bukkit.getServer() == null) {
+            Server server = mock(Server.class);
+            when(server.getLogger()).thenReturn(Logger.getLogger("TestServer"));
+            Bukkit.setServer(server);
+        }
+        return Bukkit.getServer();
+    }
+}
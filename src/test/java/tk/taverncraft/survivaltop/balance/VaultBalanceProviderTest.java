@@ -0,0 +1,151 @@
+package tk.taverncraft.survivaltop.balance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VaultBalanceProviderTest {
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private VaultBalanceProvider vaultBalanceProvider;
+
+    @AfterEach
+    public void tearDown() {
+        vaultBalanceProvider.shutdown();
+    }
+
+    @Test
+    public void balancesAreCachedAfterLookup() {
+        vaultBalanceProvider = new TestProvider(2, 1000, 60, null);
+        OfflinePlayer player = createPlayer(25.0);
+
+        assertEquals(25.0, vaultBalanceProvider.getBalance(player), 0);
+        assertEquals(25.0, vaultBalanceProvider.getBalances(List.of(player))
+                .get(player.getUniqueId()), 0);
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void batchIsLookedUpInParallel() {
+        CountDownLatch allStarted = new CountDownLatch(4);
+        vaultBalanceProvider = new TestProvider(4, 5000, 60, allStarted);
+        List<OfflinePlayer> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            players.add(createPlayer(i));
+        }
+        Map<UUID, Double> result = vaultBalanceProvider.getBalances(players);
+
+        assertEquals(4, result.size());
+        for (OfflinePlayer player : players) {
+            assertEquals(balances.get(player.getUniqueId()), result.get(player.getUniqueId()));
+        }
+    }
+
+    @Test
+    public void timedOutLookupsKeepLastBalance() {
+        TestProvider testProvider = new TestProvider(1, 50, 0, null);
+        vaultBalanceProvider = testProvider;
+        OfflinePlayer player = createPlayer(10.0);
+        assertEquals(10.0, vaultBalanceProvider.getBalance(player), 0);
+
+        balances.put(player.getUniqueId(), 20.0);
+        CountDownLatch release = new CountDownLatch(2);
+        testProvider.latch = release;
+        assertEquals(10.0, vaultBalanceProvider.getBalance(player), 0);
+        release.countDown();
+    }
+
+    @Test
+    public void pendingLookupsAreNotSubmittedOrWaitedOnAgain() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(2);
+        vaultBalanceProvider = new TestProvider(1, 200, 60, release);
+        OfflinePlayer player = createPlayer(10.0);
+        assertEquals(0, vaultBalanceProvider.getBalances(List.of(player))
+                .get(player.getUniqueId()), 0);
+
+        long start = System.nanoTime();
+        assertEquals(0, vaultBalanceProvider.getBalance(player), 0);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1, lookups.get());
+
+        // the lookup fills the cache once it completes
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (vaultBalanceProvider.getBalance(player) != 10.0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(10.0, vaultBalanceProvider.getBalance(player), 0);
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void interruptedLookupsReturnLastBalance() {
+        CountDownLatch release = new CountDownLatch(2);
+        vaultBalanceProvider = new TestProvider(1, 5000, 60, release);
+        List<OfflinePlayer> players = List.of(createPlayer(10.0), createPlayer(20.0));
+        Thread.currentThread().interrupt();
+        Map<UUID, Double> result;
+        try {
+            result = vaultBalanceProvider.getBalances(players);
+        } finally {
+            assertTrue(Thread.interrupted());
+            release.countDown();
+        }
+
+        assertEquals(2, result.size());
+        for (OfflinePlayer player : players) {
+            assertEquals(0, result.get(player.getUniqueId()), 0);
+        }
+    }
+
+    private OfflinePlayer createPlayer(double balance) {
+        UUID uuid = UUID.randomUUID();
+        balances.put(uuid, balance);
+        OfflinePlayer player = mock(OfflinePlayer.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        return player;
+    }
+
+    /**
+     * Provider looking up balances from the test instead of vault, optionally waiting on a latch
+     * before returning so that lookups can be held back.
+     */
+    private class TestProvider extends VaultBalanceProvider {
+        private volatile CountDownLatch latch;
+
+        private TestProvider(int threads, int timeoutMs, int cacheSeconds,
+                CountDownLatch latch) {
+            super(threads, timeoutMs, cacheSeconds);
+            this.latch = latch;
+        }
+
+        @Override
+        protected double lookUpBalance(OfflinePlayer player) {
+            lookups.incrementAndGet();
+            CountDownLatch currentLatch = latch;
+            if (currentLatch != null) {
+                currentLatch.countDown();
+                try {
+                    currentLatch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return balances.get(player.getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package tk.taverncraft.survivaltop.group;
+
+import java.util.UUID;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.Main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupManagerTest {
+    private FileConfiguration config;
+    private Main main;
+    private GroupManager groupManager;
+
+    @BeforeEach
+    public void setUp() {
+        config = mock(FileConfiguration.class);
+        when(config.getString("group-type", "factionsuuid")).thenReturn("TownyAdvancedTown");
+        main = mock(Main.class);
+        when(main.getConfig()).thenReturn(config);
+        groupManager = new GroupManager(main);
+    }
+
+    @Test
+    public void groupUuidsAreDerivedFromName() {
+        assertEquals(groupManager.getGroupUuid("town"), groupManager.getGroupUuid("town"));
+        assertEquals(groupManager.getGroupUuid("town"),
+                new GroupManager(main).getGroupUuid("town"));
+        assertNotEquals(groupManager.getGroupUuid("town"), groupManager.getGroupUuid("Town"));
+        assertEquals(3, groupManager.getGroupUuid("town").version());
+    }
+
+    @Test
+    public void groupUuidsDifferByGroupType() {
+        UUID townUuid = groupManager.getGroupUuid("shire");
+        when(config.getString("group-type", "factionsuuid")).thenReturn("townyadvancednation");
+        groupManager.initializeLandType();
+
+        assertNotEquals(townUuid, groupManager.getGroupUuid("shire"));
+    }
+}
@@ -0,0 +1,53 @@
+package tk.taverncraft.survivaltop.group.groups;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupSnapshotTest {
+
+    @Test
+    public void groupsAndMembersAreKeptInOrder() {
+        OfflinePlayer first = createPlayer();
+        OfflinePlayer second = createPlayer();
+        GroupSnapshot groupSnapshot = new GroupSnapshot();
+        groupSnapshot.addGroup("town", Arrays.asList(first, null, second));
+        groupSnapshot.addGroup("nation", Collections.singletonList(second));
+
+        assertEquals(Arrays.asList("town", "nation"), groupSnapshot.getGroups());
+        assertEquals(Arrays.asList(first, second), groupSnapshot.getPlayers("town"));
+        assertTrue(groupSnapshot.getPlayers("village").isEmpty());
+        assertEquals("town", groupSnapshot.getGroupOfPlayer(second.getUniqueId()));
+        assertNull(groupSnapshot.getGroupOfPlayer(UUID.randomUUID()));
+    }
+
+    @Test
+    public void laterChangesToMembersDoNotAffectSnapshot() {
+        List<OfflinePlayer> members = new ArrayList<>(Collections.singletonList(createPlayer()));
+        GroupSnapshot groupSnapshot = new GroupSnapshot();
+        groupSnapshot.addGroup("town", members);
+        members.add(createPlayer());
+
+        assertEquals(1, groupSnapshot.getPlayers("town").size());
+        assertThrows(UnsupportedOperationException.class,
+                () -> groupSnapshot.getPlayers("town").clear());
+    }
+
+    private static OfflinePlayer createPlayer() {
+        OfflinePlayer player = mock(OfflinePlayer.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        return player;
+    }
+}
@@ -0,0 +1,156 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkIndexStoreTest {
+    private static final long SCANNED_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private World world;
+    private UUID worldUid;
+    private File indexFolder;
+    private ChunkIndexStore.RegionKey regionKey;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        worldUid = UUID.randomUUID();
+        when(world.getName()).thenReturn("world");
+        when(world.getUID()).thenReturn(worldUid);
+        when(world.getWorldFolder()).thenReturn(tempDir.resolve("world").toFile());
+        when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
+        indexFolder = tempDir.resolve("index").toFile();
+        regionKey = new ChunkIndexStore.RegionKey(worldUid, -1, -1);
+    }
+
+    @Test
+    public void extremeValuesSurviveRoundTrip() throws IOException {
+        writeRegionTimestamps(-1, -1, 31 + 31 * 32, (int) (SCANNED_AT / 1000) - 1);
+        HashMap<Long, PartValuation> parts = new HashMap<>();
+        parts.put(Long.MIN_VALUE | 0x1234L, new PartValuation(
+                new int[] {0, 1, 127, 128, 16384, Integer.MAX_VALUE},
+                new long[] {1, 0, 127, 128, Long.MAX_VALUE, 1L << 40},
+                new int[] {-1, -64, -1, 0, 320, 15, Integer.MIN_VALUE, 0, Integer.MAX_VALUE},
+                new int[] {(1 << 25) - 1, 0, -(1 << 25), -(1 << 25), 0, (1 << 25) - 1}));
+        parts.put(0L, new PartValuation(new int[0], new long[0], new int[0], new int[0]));
+        ChunkIndexStore chunkIndexStore = new ChunkIndexStore(indexFolder, "fingerprint");
+        chunkIndexStore.save(regionKey, new ArrayList<>(Collections.singletonList(
+                new ChunkIndexStore.IndexedChunk(-1, -1, SCANNED_AT, parts))));
+
+        List<ChunkIndexStore.IndexedChunk> loaded = chunkIndexStore.load(world, regionKey);
+        assertEquals(1, loaded.size());
+        ChunkIndexStore.IndexedChunk indexedChunk = loaded.get(0);
+        assertEquals(-1, indexedChunk.getChunkX());
+        assertEquals(-1, indexedChunk.getChunkZ());
+        assertEquals(SCANNED_AT, indexedChunk.getScannedAt());
+        assertEquals(parts.keySet(), indexedChunk.getParts().keySet());
+        for (Long partKey : parts.keySet()) {
+            PartValuation expected = parts.get(partKey);
+            PartValuation actual = indexedChunk.getParts().get(partKey);
+            assertArrayEquals(expected.getBlockIds(), actual.getBlockIds());
+            assertArrayEquals(expected.getBlockCounts(), actual.getBlockCounts());
+            assertArrayEquals(expected.getSpawnerPositions(), actual.getSpawnerPositions());
+            assertArrayEquals(expected.getContainerPositions(), actual.getContainerPositions());
+        }
+    }
+
+    @Test
+    public void chunksWrittenSinceScanOrNeverWrittenAreDropped() throws IOException {
+        int seconds = (int) (SCANNED_AT / 1000);
+        writeRegionTimestamps(-1, -1, 0, seconds - 1);
+        writeRegionTimestamps(-1, -1, 1, seconds);
+        ChunkIndexStore chunkIndexStore = new ChunkIndexStore(indexFolder, "fingerprint");
+        chunkIndexStore.save(regionKey, new ArrayList<>(Arrays.asList(
+                createIndexedChunk(-32, -32),
+                createIndexedChunk(-31, -32),
+                createIndexedChunk(-30, -32))));
+
+        List<ChunkIndexStore.IndexedChunk> loaded = chunkIndexStore.load(world, regionKey);
+        assertEquals(1, loaded.size());
+        assertEquals(-32, loaded.get(0).getChunkX());
+        assertEquals(-32, loaded.get(0).getChunkZ());
+    }
+
+    @Test
+    public void indexOfOtherFingerprintIsIgnored() throws IOException {
+        writeRegionTimestamps(-1, -1, 0, (int) (SCANNED_AT / 1000) - 1);
+        new ChunkIndexStore(indexFolder, "old").save(regionKey, new ArrayList<>(
+                Collections.singletonList(createIndexedChunk(-32, -32))));
+
+        assertEquals(1, new ChunkIndexStore(indexFolder, "old").load(world, regionKey).size());
+        assertTrue(new ChunkIndexStore(indexFolder, "new").load(world, regionKey).isEmpty());
+    }
+
+    @Test
+    public void indexWithBadHeaderIsIgnored() throws IOException {
+        writeRegionTimestamps(-1, -1, 0, (int) (SCANNED_AT / 1000) - 1);
+        ChunkIndexStore chunkIndexStore = new ChunkIndexStore(indexFolder, "fingerprint");
+        chunkIndexStore.save(regionKey, new ArrayList<>(
+                Collections.singletonList(createIndexedChunk(-32, -32))));
+        File indexFile = getIndexFile();
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            file.writeInt(0);
+        }
+
+        assertTrue(chunkIndexStore.load(world, regionKey).isEmpty());
+    }
+
+    @Test
+    public void savedRegionsAreListedUntilSavedEmpty() {
+        ChunkIndexStore chunkIndexStore = new ChunkIndexStore(indexFolder, "fingerprint");
+        chunkIndexStore.save(regionKey, new ArrayList<>(
+                Collections.singletonList(createIndexedChunk(-32, -32))));
+
+        assertEquals(Collections.singleton(regionKey), chunkIndexStore.listRegions());
+
+        chunkIndexStore.save(regionKey, new ArrayList<>());
+        assertFalse(getIndexFile().exists());
+        assertTrue(chunkIndexStore.listRegions().isEmpty());
+    }
+
+    private ChunkIndexStore.IndexedChunk createIndexedChunk(int chunkX, int chunkZ) {
+        HashMap<Long, PartValuation> parts = new HashMap<>();
+        parts.put(1L, new PartValuation(new int[] {3}, new long[] {10}, new int[0],
+                new int[0]));
+        return new ChunkIndexStore.IndexedChunk(chunkX, chunkZ, SCANNED_AT, parts);
+    }
+
+    private File getIndexFile() {
+        return new File(indexFolder, worldUid + File.separator + "r.-1.-1.idx");
+    }
+
+    private void writeRegionTimestamps(int regionX, int regionZ, int localIndex, int seconds)
+            throws IOException {
+        File regionFolder = new File(world.getWorldFolder(), "region");
+        assertTrue(regionFolder.isDirectory() || regionFolder.mkdirs());
+        File regionFile = new File(regionFolder, "r." + regionX + "." + regionZ + ".mca");
+        try (RandomAccessFile file = new RandomAccessFile(regionFile, "rw")) {
+            file.setLength(Math.max(file.length(), 8192));
+            file.seek(4096 + localIndex * 4L);
+            file.writeInt(seconds);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.TestServer;
+import tk.taverncraft.survivaltop.config.Options;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChunkSnapshotLoaderTest {
+    private Thread mainThread;
+    private BukkitScheduler scheduler;
+    private Main main;
+    private Options options;
+    private LandOperationsHelper landOperationsHelper;
+    private ChunkValuationCache chunkValuationCache;
+    private Chunk chunk;
+    private World world;
+    private ChunkSnapshotLoader chunkSnapshotLoader;
+
+    @BeforeEach
+    public void setUp() {
+        mainThread = Thread.currentThread();
+        Server server = TestServer.get();
+        when(server.isPrimaryThread()).thenAnswer(
+                invocation -> Thread.currentThread() == mainThread);
+        scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+        when(server.getScheduler()).thenReturn(scheduler);
+
+        options = mock(Options.class);
+        when(options.getMaxChunkLoadsInFlight()).thenReturn(4);
+        when(options.getChunkCaptureTimeoutMs()).thenReturn(5000);
+        main = mock(Main.class);
+        when(main.getOptions()).thenReturn(options);
+        chunkValuationCache = mock(ChunkValuationCache.class);
+        landOperationsHelper = mock(LandOperationsHelper.class);
+        when(landOperationsHelper.getChunkValuationCache()).thenReturn(chunkValuationCache);
+        setScanDispatchTable("STONE");
+
+        chunk = mock(Chunk.class);
+        when(chunk.getChunkSnapshot(true, false, false)).thenReturn(mock(ChunkSnapshot.class));
+        when(chunk.getTileEntities()).thenReturn(new BlockState[0]);
+        world = mock(World.class);
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        chunkSnapshotLoader = new ChunkSnapshotLoader(main, landOperationsHelper);
+    }
+
+    @Test
+    public void chunksAreCapturedDirectlyOnMainThread() throws Exception {
+        when(world.isChunkLoaded(0, 0)).thenReturn(true);
+        List<ChunkWork> batch = createBatch(2);
+
+        assertTrue(chunkSnapshotLoader.capture(batch, false));
+        assertNotNull(batch.get(0).getSnapshot());
+        assertNotNull(batch.get(1).getSnapshot());
+        verify(world, never()).unloadChunkRequest(0, 0);
+        verify(world).unloadChunkRequest(1, 0);
+        verify(chunkValuationCache).markLoadedByScan(world, 1, 0);
+        verify(scheduler, never()).runTaskTimer(any(), any(Runnable.class), eq(0L), eq(1L));
+    }
+
+    @Test
+    public void spawnersAndContainersAreTakenFromTileEntities() throws Exception {
+        setScanDispatchTable();
+        when(world.isChunkLoaded(0, 0)).thenReturn(true);
+        BlockState[] blockStates = {
+                createBlockState(Material.SPAWNER, 1, 2, 3),
+                createBlockState(Material.FURNACE, 4, 5, 6),
+                createBlockState(Material.CHEST, 7, 8, 9)};
+        when(chunk.getTileEntities()).thenReturn(blockStates);
+        List<ChunkWork> batch = createBatch(1);
+
+        assertTrue(chunkSnapshotLoader.capture(batch, false));
+        assertNull(batch.get(0).getSnapshot());
+        assertArrayEquals(new int[] {1, 2, 3, ScanDispatchTable.SPAWNER, 7, 8, 9,
+                ScanDispatchTable.CONTAINER}, batch.get(0).getTileEntities());
+        verify(chunk, never()).getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void unloadedChunksAreReadFromRegionFilesIfAllowed() throws Exception {
+        when(options.isReadRegionFiles()).thenReturn(true);
+        when(world.isChunkLoaded(0, 0)).thenReturn(true);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        chunkSnapshotLoader.onChunkUnload(world, 1, 0);
+        List<ChunkWork> batch = createBatch(3);
+
+        assertTrue(chunkSnapshotLoader.capture(batch, true));
+        assertNotNull(batch.get(0).getSnapshot());
+        assertTrue(batch.get(1).isOffline());
+        assertTrue(batch.get(1).getNotBefore() > 0);
+        assertTrue(batch.get(2).isOffline());
+        assertEquals(0, batch.get(2).getNotBefore());
+        verify(world).getChunkAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void unloadedChunksAreLoadedWithinBudgetOfEachTick() throws Exception {
+        when(world.isChunkLoaded(0, 0)).thenReturn(true);
+        List<ChunkWork> batch = createBatch(3);
+        CompletableFuture<Boolean> captured = captureOffMainThread(batch);
+        Runnable tick = getScheduledTick();
+
+        // a budget of 0 still loads one chunk in every tick
+        tick.run();
+        verify(world, times(2)).getChunkAt(anyInt(), anyInt());
+        assertFalse(captured.isDone());
+        tick.run();
+        verify(world, times(3)).getChunkAt(anyInt(), anyInt());
+        assertTrue(captured.get(5, TimeUnit.SECONDS));
+        verify(world, times(2)).unloadChunkRequest(anyInt(), eq(0));
+        verify(scheduler).cancelTask(anyInt());
+    }
+
+    @Test
+    public void stoppedCaptureFails() throws Exception {
+        CompletableFuture<Boolean> captured = captureOffMainThread(createBatch(2));
+        Runnable tick = getScheduledTick();
+        when(landOperationsHelper.getStopOperations()).thenReturn(true);
+        tick.run();
+
+        assertFalse(captured.get(5, TimeUnit.SECONDS));
+        verify(world, never()).getChunkAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void captureTimingOutFails() throws Exception {
+        when(options.getChunkCaptureTimeoutMs()).thenReturn(50);
+        CompletableFuture<Boolean> captured = captureOffMainThread(createBatch(2));
+        getScheduledTick();
+
+        assertFalse(captured.get(5, TimeUnit.SECONDS));
+        verify(scheduler, timeout(5000)).cancelTask(anyInt());
+    }
+
+    private void setScanDispatchTable(String... valuedBlocks) {
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        for (String name : valuedBlocks) {
+            worthMap.put(name, 1.0);
+        }
+        when(landOperationsHelper.getScanDispatchTable()).thenReturn(new ScanDispatchTable(
+                new WorthTable(worthMap, Material.values()), true,
+                Collections.singleton("CHEST")));
+    }
+
+    private BlockState createBlockState(Material material, int x, int y, int z) {
+        BlockState blockState = mock(BlockState.class);
+        when(blockState.getType()).thenReturn(material);
+        when(blockState.getX()).thenReturn(x);
+        when(blockState.getY()).thenReturn(y);
+        when(blockState.getZ()).thenReturn(z);
+        return blockState;
+    }
+
+    private List<ChunkWork> createBatch(int size) {
+        List<ChunkWork> batch = new ArrayList<>();
+        for (int chunkX = 0; chunkX < size; chunkX++) {
+            batch.add(new ChunkWork(world, chunkX, 0));
+        }
+        return batch;
+    }
+
+    private CompletableFuture<Boolean> captureOffMainThread(List<ChunkWork> batch) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return chunkSnapshotLoader.capture(batch, false);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private Runnable getScheduledTick() {
+        ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, timeout(5000)).runTaskTimer(eq(main), tick.capture(), eq(0L), eq(1L));
+        assertEquals(1, tick.getAllValues().size());
+        return tick.getValue();
+    }
+}
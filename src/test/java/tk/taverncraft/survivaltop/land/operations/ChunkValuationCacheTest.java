@@ -0,0 +1,161 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import tk.taverncraft.survivaltop.utils.types.WorthCounter;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChunkValuationCacheTest {
+    private World world;
+    private PartValuation partValuation;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("STONE", 1.0);
+        WorthCounter blockCounter = new WorthCounter(new WorthTable(worthMap, Material.values()));
+        blockCounter.addToHolder(0, 10);
+        partValuation = new PartValuation(blockCounter, new int[0], new int[0]);
+    }
+
+    @Test
+    public void partsAreOnlyReturnedIfAllAreCached() {
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(1 << 20, null);
+        ScanRegion part = ScanRegion.ofChunk(world, 0, 0, 0, 64);
+        ScanRegion otherPart = new ScanRegion(world, 0, 8, 0, 64, 0, 8);
+        chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, 0, 0), part,
+                partValuation);
+
+        assertNotNull(chunkValuationCache.getParts(world, 0, 0,
+                Collections.singletonList(part)));
+        assertNull(chunkValuationCache.getParts(world, 0, 0, List.of(part, otherPart)));
+        assertNull(chunkValuationCache.getParts(world, 1, 0,
+                Collections.singletonList(part)));
+    }
+
+    @Test
+    public void changesAfterCaptureDiscardResults() {
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(1 << 20, null);
+        ScanRegion part = ScanRegion.ofChunk(world, 0, 0, 0, 64);
+        ChunkValuationCache.ChunkValuation chunkValuation = chunkValuationCache.getOrCreate(
+                world, 0, 0);
+        chunkValuationCache.markDirty(world, 0, 0);
+        chunkValuationCache.putPart(chunkValuation, part, partValuation);
+
+        assertNull(chunkValuationCache.getParts(world, 0, 0, Collections.singletonList(part)));
+    }
+
+    @Test
+    public void leastRecentlyUsedChunksAreEvicted() {
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(
+                2 * (96 + partValuation.getBytes()), null);
+        for (int chunkX = 0; chunkX < 3; chunkX++) {
+            chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, chunkX, 0),
+                    ScanRegion.ofChunk(world, chunkX, 0, 0, 64), partValuation);
+            if (chunkX == 1) {
+                chunkValuationCache.getParts(world, 0, 0, Collections.singletonList(
+                        ScanRegion.ofChunk(world, 0, 0, 0, 64)));
+            }
+        }
+
+        assertNotNull(chunkValuationCache.getParts(world, 0, 0, Collections.singletonList(
+                ScanRegion.ofChunk(world, 0, 0, 0, 64))));
+        assertNull(chunkValuationCache.getParts(world, 1, 0, Collections.singletonList(
+                ScanRegion.ofChunk(world, 1, 0, 0, 64))));
+        assertNotNull(chunkValuationCache.getParts(world, 2, 0, Collections.singletonList(
+                ScanRegion.ofChunk(world, 2, 0, 0, 64))));
+    }
+
+    @Test
+    public void unloadedChunksAreDirtyUnlessLoadedByScan() {
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(1 << 20, null);
+        ScanRegion part = ScanRegion.ofChunk(world, 0, 0, 0, 64);
+        ScanRegion otherPart = ScanRegion.ofChunk(world, 1, 0, 0, 64);
+        chunkValuationCache.markLoadedByScan(world, 0, 0);
+        chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, 0, 0), part,
+                partValuation);
+        chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, 1, 0), otherPart,
+                partValuation);
+
+        chunkValuationCache.onChunkUnload(world, 0, 0);
+        chunkValuationCache.onChunkUnload(world, 1, 0);
+
+        assertNotNull(chunkValuationCache.getParts(world, 0, 0,
+                Collections.singletonList(part)));
+        assertNull(chunkValuationCache.getParts(world, 1, 0,
+                Collections.singletonList(otherPart)));
+    }
+
+    @Test
+    public void savedEntriesAreLoadedWithTheirRegion() {
+        ChunkIndexStore chunkIndexStore = mock(ChunkIndexStore.class);
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(1 << 20,
+                chunkIndexStore);
+        ScanRegion part = ScanRegion.ofChunk(world, 33, 0, 0, 64);
+        chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, 33, 0), part,
+                partValuation);
+        chunkValuationCache.save();
+
+        ChunkIndexStore.RegionKey regionKey = new ChunkIndexStore.RegionKey(world.getUID(), 1,
+                0);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChunkIndexStore.IndexedChunk>> saved =
+                ArgumentCaptor.forClass(List.class);
+        verify(chunkIndexStore).save(eq(regionKey), saved.capture());
+        assertEquals(1, saved.getValue().size());
+
+        when(chunkIndexStore.listRegions()).thenReturn(Collections.singleton(regionKey));
+        when(chunkIndexStore.load(world, regionKey)).thenReturn(saved.getValue());
+        ChunkValuationCache reloaded = new ChunkValuationCache(1 << 20, chunkIndexStore);
+        assertNotNull(reloaded.getParts(world, 33, 0, Collections.singletonList(part)));
+        assertNull(reloaded.getParts(world, 34, 0, Collections.singletonList(
+                ScanRegion.ofChunk(world, 34, 0, 0, 64))));
+        verify(chunkIndexStore).load(world, regionKey);
+    }
+
+    @Test
+    public void evictedEntriesAreWrittenByNextSave() {
+        ChunkIndexStore chunkIndexStore = mock(ChunkIndexStore.class);
+        ChunkValuationCache chunkValuationCache = new ChunkValuationCache(
+                96 + partValuation.getBytes(), chunkIndexStore);
+        for (int chunkX = 0; chunkX < 2; chunkX++) {
+            chunkValuationCache.putPart(chunkValuationCache.getOrCreate(world, chunkX, 0),
+                    ScanRegion.ofChunk(world, chunkX, 0, 0, 64), partValuation);
+        }
+        verify(chunkIndexStore, never()).save(any(), any());
+
+        chunkValuationCache.save();
+        ChunkIndexStore.RegionKey regionKey = new ChunkIndexStore.RegionKey(world.getUID(), 0,
+                0);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChunkIndexStore.IndexedChunk>> saved =
+                ArgumentCaptor.forClass(List.class);
+        verify(chunkIndexStore).save(eq(regionKey), saved.capture());
+        assertEquals(2, saved.getValue().size());
+
+        when(chunkIndexStore.load(world, regionKey)).thenReturn(saved.getValue());
+        assertNotNull(chunkValuationCache.getParts(world, 0, 0, Collections.singletonList(
+                ScanRegion.ofChunk(world, 0, 0, 0, 64))));
+    }
+}
@@ -0,0 +1,107 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClaimLedgerTest {
+    private World world;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+    }
+
+    @Test
+    public void sharedLandIsScannedOnce() {
+        UUID player = UUID.randomUUID();
+        UUID member = UUID.randomUUID();
+        UUID group = UUID.randomUUID();
+        ScanRegion playerClaim = new ScanRegion(world, 0, 40, 0, 64, 0, 40);
+        ScanRegion memberClaim = new ScanRegion(world, -10, 20, 0, 64, 10, 30);
+
+        // the group normalizes both claims together, so the player claim is split up
+        List<ScanRegion> groupRegions = ScanRegion.toDisjoint(
+                Arrays.asList(playerClaim, memberClaim));
+        assertFalse(groupRegions.contains(playerClaim));
+
+        ClaimLedger claimLedger = new ClaimLedger();
+        claimLedger.addEntityRegions(player, ScanRegion.toDisjoint(
+                Arrays.asList(playerClaim)));
+        claimLedger.addEntityRegions(member, ScanRegion.toDisjoint(
+                Arrays.asList(memberClaim)));
+        claimLedger.addEntityRegions(group, groupRegions);
+        Map<UUID, List<ScanRegion>> claims = claimLedger.buildClaims();
+
+        List<ScanRegion> scanned = new ArrayList<>();
+        for (List<ScanRegion> regions : claims.values()) {
+            scanned.addAll(regions);
+        }
+        for (int i = 0; i < scanned.size(); i++) {
+            for (int j = i + 1; j < scanned.size(); j++) {
+                assertFalse(scanned.get(i).intersects(scanned.get(j)));
+            }
+        }
+        long overlap = 20L * 64 * 20;
+        assertEquals(playerClaim.getVolume() + memberClaim.getVolume() - overlap,
+                getVolume(scanned));
+
+        // worth of each claim is its volume, so each entity gets the volume of its own land
+        HashMap<UUID, Double> claimWorthMap = new HashMap<>();
+        for (Map.Entry<UUID, List<ScanRegion>> claim : claims.entrySet()) {
+            claimWorthMap.put(claim.getKey(), (double) getVolume(claim.getValue()));
+        }
+        HashMap<UUID, Double> entityWorthMap = claimLedger.foldIntoEntities(claimWorthMap);
+        assertEquals(playerClaim.getVolume(), entityWorthMap.get(player), 0);
+        assertEquals(memberClaim.getVolume(), entityWorthMap.get(member), 0);
+        assertEquals(getVolume(scanned), entityWorthMap.get(group), 0);
+    }
+
+    @Test
+    public void claimsDoNotDependOnHowRegionsAreSplit() {
+        UUID player = UUID.randomUUID();
+        UUID group = UUID.randomUUID();
+        ClaimLedger claimLedger = new ClaimLedger();
+        claimLedger.addEntityRegions(player, Arrays.asList(
+                new ScanRegion(world, 0, 32, 0, 64, 0, 32)));
+        claimLedger.addEntityRegions(group, Arrays.asList(
+                new ScanRegion(world, 0, 5, 0, 64, 0, 32),
+                new ScanRegion(world, 5, 32, 0, 64, 0, 7),
+                new ScanRegion(world, 5, 32, 0, 64, 7, 32)));
+        Map<UUID, List<ScanRegion>> claims = claimLedger.buildClaims();
+
+        assertEquals(1, claims.size());
+        assertEquals(32L * 64 * 32, getVolume(claims.values().iterator().next()));
+    }
+
+    @Test
+    public void entitiesWithoutLandAreFoldedToZero() {
+        UUID player = UUID.randomUUID();
+        ClaimLedger claimLedger = new ClaimLedger();
+        claimLedger.addEntityRegions(player, new ArrayList<>());
+
+        assertEquals(0, claimLedger.buildClaims().size());
+        assertEquals(0, claimLedger.foldIntoEntities(new HashMap<>()).get(player), 0);
+    }
+
+    private static long getVolume(List<ScanRegion> regions) {
+        long volume = 0;
+        for (ScanRegion region : regions) {
+            volume += region.getVolume();
+        }
+        return volume;
+    }
+}
@@ -0,0 +1,80 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.LinkedHashMap;
+
+import org.bukkit.Material;
+import org.bukkit.block.ShulkerBox;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.BlockStateMeta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.utils.types.WorthCounter;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ContainerContentsTest {
+    private WorthTable worthTable;
+
+    @BeforeEach
+    public void setUp() {
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("STONE", 1.0);
+        worthMap.put("DIAMOND_BLOCK", 100.0);
+        worthTable = new WorthTable(worthMap, Material.values());
+    }
+
+    @Test
+    public void amountsOfEveryStackAreCounted() {
+        ContainerContents containerContents = new ContainerContents();
+        containerContents.copyFrom(createInventory(new ItemStack(Material.STONE, 64), null,
+                new ItemStack(Material.DIRT, 10), new ItemStack(Material.DIAMOND_BLOCK, 3)));
+        containerContents.copyFrom(createInventory(new ItemStack(Material.STONE, 1000)));
+        WorthCounter worthCounter = new WorthCounter(worthTable);
+        containerContents.countInto(worthCounter);
+
+        assertEquals(1064, worthCounter.getCount(worthTable.getId(Material.STONE)));
+        assertEquals(3, worthCounter.getCount(worthTable.getId(Material.DIAMOND_BLOCK)));
+    }
+
+    @Test
+    public void shulkerBoxContentsAreMultipliedByStackSize() {
+        ItemStack innerShulkerBox = createShulkerBox(Material.RED_SHULKER_BOX, 3,
+                new ItemStack(Material.STONE, 2));
+        ItemStack shulkerBox = createShulkerBox(Material.SHULKER_BOX, 2,
+                new ItemStack(Material.DIAMOND_BLOCK, 5), innerShulkerBox);
+        ContainerContents containerContents = new ContainerContents();
+        containerContents.copyFrom(createInventory(shulkerBox));
+        WorthCounter worthCounter = new WorthCounter(worthTable);
+        containerContents.countInto(worthCounter);
+
+        assertEquals(10, worthCounter.getCount(worthTable.getId(Material.DIAMOND_BLOCK)));
+        assertEquals(12, worthCounter.getCount(worthTable.getId(Material.STONE)));
+    }
+
+    private static Inventory createInventory(ItemStack... contents) {
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getContents()).thenReturn(contents);
+        return inventory;
+    }
+
+    private static ItemStack createShulkerBox(Material material, int amount,
+            ItemStack... contents) {
+        Inventory inventory = createInventory(contents);
+        ShulkerBox blockState = mock(ShulkerBox.class);
+        when(blockState.getInventory()).thenReturn(inventory);
+        BlockStateMeta itemMeta = mock(BlockStateMeta.class);
+        when(itemMeta.hasBlockState()).thenReturn(true);
+        when(itemMeta.getBlockState()).thenReturn(blockState);
+        ItemStack itemStack = mock(ItemStack.class);
+        when(itemStack.getType()).thenReturn(material);
+        when(itemStack.getAmount()).thenReturn(amount);
+        when(itemStack.getItemMeta()).thenReturn(itemMeta);
+        when(itemStack.clone()).thenReturn(itemStack);
+        return itemStack;
+    }
+}
@@ -0,0 +1,146 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.stats.ServerStatsManager;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LandChangeTrackerTest {
+    private final UUID uuid = UUID.randomUUID();
+    private final UUID otherUuid = UUID.randomUUID();
+
+    private World world;
+    private ServerStatsManager serverStatsManager;
+    private LandChangeTracker landChangeTracker;
+
+    @BeforeEach
+    public void setUp() {
+        LandOperationsHelper landOperationsHelper = mock(LandOperationsHelper.class);
+        when(landOperationsHelper.getMaxLandHeight(any())).thenReturn(256);
+        serverStatsManager = mock(ServerStatsManager.class);
+        Main main = mock(Main.class);
+        when(main.getServerStatsManager()).thenReturn(serverStatsManager);
+
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("DIAMOND_BLOCK", 100.0);
+        landChangeTracker = new LandChangeTracker(main, landOperationsHelper,
+                new WorthTable(worthMap, Material.values()));
+        world = createWorld(UUID.randomUUID());
+    }
+
+    @Test
+    public void changesAreAppliedToEveryEntityOwningTheBlock() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, -20, 20, 0, 256, -20, 20)));
+        landChangeTracker.registerRegions(otherUuid, Collections.singletonList(
+                new ScanRegion(world, 10, 30, 0, 256, 10, 30)));
+        landChangeTracker.publishRegions();
+
+        landChangeTracker.applyChange(world, 15, 64, 15, Material.DIAMOND_BLOCK, 1);
+        landChangeTracker.applyChange(world, -20, 64, -1, Material.DIAMOND_BLOCK, -2);
+
+        verify(serverStatsManager).addBlockWealth(uuid, 100.0);
+        verify(serverStatsManager).addBlockWealth(otherUuid, 100.0);
+        verify(serverStatsManager).addBlockWealth(uuid, -200.0);
+    }
+
+    @Test
+    public void changesOutsideTrackedLandAreIgnored() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 300, 0, 16)));
+        landChangeTracker.publishRegions();
+
+        landChangeTracker.applyChange(world, 16, 64, 0, Material.DIAMOND_BLOCK, 1);
+        landChangeTracker.applyChange(world, 0, 256, 0, Material.DIAMOND_BLOCK, 1);
+        landChangeTracker.applyChange(world, 0, 64, 0, Material.DIRT, 1);
+        landChangeTracker.applyChange(createWorld(UUID.randomUUID()), 0, 64, 0,
+                Material.DIAMOND_BLOCK, 1);
+
+        verify(serverStatsManager, never()).addBlockWealth(any(), anyDouble());
+    }
+
+    @Test
+    public void changesAreMatchedToLandByWorldUid() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 256, 0, 16)));
+        landChangeTracker.publishRegions();
+
+        // a world loaded again after its land was scanned is a different object
+        World reloadedWorld = createWorld(world.getUID());
+        landChangeTracker.applyChange(reloadedWorld, 0, 64, 0, Material.DIAMOND_BLOCK, 1);
+        verify(serverStatsManager).addBlockWealth(uuid, 100.0);
+    }
+
+    @Test
+    public void regionsAreOnlyTrackedOnceUpdateIsPublished() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 256, 0, 16)));
+        landChangeTracker.applyChange(world, 0, 64, 0, Material.DIAMOND_BLOCK, 1);
+        verify(serverStatsManager, never()).addBlockWealth(any(), anyDouble());
+
+        landChangeTracker.clearPendingRegions();
+        landChangeTracker.publishRegions();
+        landChangeTracker.applyChange(world, 0, 64, 0, Material.DIAMOND_BLOCK, 1);
+        verify(serverStatsManager, never()).addBlockWealth(any(), anyDouble());
+    }
+
+    @Test
+    public void entitiesNotRefreshedKeepTheirRegions() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 256, 0, 16)));
+        landChangeTracker.registerRegions(otherUuid, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 256, 0, 16)));
+        landChangeTracker.publishRegions();
+        landChangeTracker.registerRegions(otherUuid, Collections.singletonList(
+                new ScanRegion(world, 16, 32, 0, 256, 0, 16)));
+        landChangeTracker.publishRegions();
+
+        landChangeTracker.applyChange(world, 0, 64, 0, Material.DIAMOND_BLOCK, 1);
+        verify(serverStatsManager).addBlockWealth(uuid, 100.0);
+        verify(serverStatsManager, never()).addBlockWealth(eq(otherUuid), anyDouble());
+    }
+
+    @Test
+    public void changesDuringUpdateAreHeldBackOnceChunkIsCaptured() {
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 32, 0, 256, 0, 16)));
+        landChangeTracker.publishRegions();
+        landChangeTracker.registerRegions(uuid, Collections.singletonList(
+                new ScanRegion(world, 0, 32, 0, 256, 0, 16)));
+        ChunkWork chunkWork = new ChunkWork(world, 0, 0);
+        chunkWork.addPart(ScanRegion.ofChunk(world, 0, 0, 0, 256), new LandScanSink(
+                Collections.singletonList(uuid), null, null, null, null, null, null));
+        landChangeTracker.markCaptured(chunkWork);
+
+        landChangeTracker.applyChange(world, 1, 64, 1, Material.DIAMOND_BLOCK, 1);
+        landChangeTracker.applyChange(world, 17, 64, 1, Material.DIAMOND_BLOCK, 1);
+        verify(serverStatsManager, never()).addBlockWealth(any(), anyDouble());
+
+        Map<UUID, Double> heldChanges = landChangeTracker.publishRegions();
+        assertEquals(Collections.singletonMap(uuid, 100.0), heldChanges);
+    }
+
+    private World createWorld(UUID worldUid) {
+        World newWorld = mock(World.class);
+        when(newWorld.getUID()).thenReturn(worldUid);
+        return newWorld;
+    }
+}
@@ -0,0 +1,249 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.TestServer;
+import tk.taverncraft.survivaltop.config.Options;
+import tk.taverncraft.survivaltop.land.operations.holders.BlockHolder;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LandScanEngineTest {
+    private World world;
+    private Options options;
+    private ChunkSnapshot snapshot;
+    private Chunk chunk;
+    private LandScanEngine landScanEngine;
+    private WorthTable blockWorth;
+    private int stoneId;
+    private BlockHolder blockHolder;
+    private LongAdder sectionsScanned;
+    private LongAdder sectionsSkipped;
+    private LongAdder chunksReused;
+    private ChunkValuationCache chunkValuationCache;
+    private LandOperationsHelper landOperationsHelper;
+    private PositionBuffer containers;
+    private LandScanSink landScanSink;
+
+    @BeforeEach
+    public void setUp() {
+        when(TestServer.get().isPrimaryThread()).thenReturn(true);
+        options = mock(Options.class);
+        when(options.getChunkSnapshotBatchSize()).thenReturn(16);
+        when(options.getLandScanThreads()).thenReturn(2);
+        Main main = mock(Main.class);
+        when(main.getOptions()).thenReturn(options);
+
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("STONE", 1.0);
+        blockWorth = new WorthTable(worthMap, Material.values());
+        stoneId = blockWorth.getId(Material.STONE);
+        landOperationsHelper = mock(LandOperationsHelper.class);
+        when(landOperationsHelper.getMaxLandHeight(any())).thenReturn(256);
+        when(landOperationsHelper.getScanDispatchTable()).thenReturn(
+                new ScanDispatchTable(blockWorth, false, Collections.emptySet()));
+        chunkValuationCache = new ChunkValuationCache(1 << 20, null);
+        when(landOperationsHelper.getChunkValuationCache()).thenReturn(chunkValuationCache);
+        when(landOperationsHelper.getCachedParts(any())).thenAnswer(invocation -> {
+            ChunkWork chunkWork = invocation.getArgument(0);
+            return chunkValuationCache.getParts(chunkWork.getWorld(), chunkWork.getChunkX(),
+                    chunkWork.getChunkZ(), chunkWork.getParts());
+        });
+
+        snapshot = mock(ChunkSnapshot.class);
+        when(snapshot.getBlockType(anyInt(), anyInt(), anyInt())).thenReturn(Material.STONE);
+        when(snapshot.getHighestBlockYAt(anyInt(), anyInt())).thenReturn(255);
+        chunk = mock(Chunk.class);
+        when(chunk.getChunkSnapshot(true, false, false)).thenReturn(snapshot);
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        landScanEngine = new LandScanEngine(main, landOperationsHelper);
+
+        blockHolder = new BlockHolder(blockWorth);
+        sectionsScanned = new LongAdder();
+        sectionsSkipped = new LongAdder();
+        chunksReused = new LongAdder();
+        containers = new PositionBuffer();
+        landScanSink = new LandScanSink(Collections.emptyList(), blockHolder,
+                new PositionBuffer(), containers, sectionsScanned, sectionsSkipped, chunksReused);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        landScanEngine.shutdown();
+    }
+
+    @Test
+    public void emptySectionsAreSkipped() {
+        when(snapshot.isSectionEmpty(0)).thenReturn(true);
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 48, 0, 16)));
+
+        assertEquals(1, sectionsSkipped.sum());
+        assertEquals(2, sectionsScanned.sum());
+        assertEquals(2 * 16 * 16 * 16, blockHolder.getCount(stoneId));
+        verify(snapshot, never()).getBlockType(anyInt(), intThat(y -> y < 16), anyInt());
+    }
+
+    @Test
+    public void partialSectionsOnlyScanRegionHeights() {
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(
+                new ScanRegion(world, 2, 4, 10, 20, 3, 4)));
+
+        assertEquals(2, sectionsScanned.sum());
+        assertEquals(2 * 10, blockHolder.getCount(stoneId));
+    }
+
+    @Test
+    public void regionsOutsideLandHeightsAreNotCaptured() {
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 256, 300, 0, 16)));
+
+        verify(world, never()).getChunkAt(anyInt(), anyInt());
+        assertEquals(0, sectionsScanned.sum());
+    }
+
+    @Test
+    public void columnsAreOnlyReadUpToHighestBlock() {
+        when(snapshot.getHighestBlockYAt(anyInt(), anyInt())).thenReturn(20);
+        when(snapshot.getHighestBlockYAt(5, 5)).thenReturn(40);
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(
+                new ScanRegion(world, 0, 16, 0, 64, 0, 16)));
+
+        assertEquals(3, sectionsScanned.sum());
+        assertEquals(1, sectionsSkipped.sum());
+        assertEquals(255 * 21 + 41, blockHolder.getCount(stoneId));
+    }
+
+    @Test
+    public void regionsAreClippedToLandHeightsOfTheirWorld() {
+        World otherWorld = mock(World.class);
+        when(otherWorld.getUID()).thenReturn(UUID.randomUUID());
+        when(otherWorld.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        when(landOperationsHelper.getMinLandHeight(otherWorld)).thenReturn(8);
+        when(landOperationsHelper.getMaxLandHeight(otherWorld)).thenReturn(32);
+        landScanEngine.scanRegions(landScanSink, List.of(
+                new ScanRegion(world, 0, 16, 0, 256, 0, 16),
+                new ScanRegion(otherWorld, 0, 16, 0, 256, 0, 16)));
+
+        assertEquals(256 * 256 + 24 * 256, blockHolder.getCount(stoneId));
+    }
+
+    @Test
+    public void chunksScannedInSubtasksAreMergedIntoSink() {
+        when(options.getChunkSnapshotBatchSize()).thenReturn(3);
+        ScanRegion region = new ScanRegion(world, -40, 40, 0, 16, -8, 50);
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(region));
+
+        assertEquals(6 * 5, sectionsScanned.sum());
+        assertEquals(region.getVolume(), blockHolder.getCount(stoneId));
+    }
+
+    @Test
+    public void cachedChunksAreReusedUntilMarkedDirty() {
+        List<ScanRegion> regions = Collections.singletonList(
+                new ScanRegion(world, 0, 32, 0, 16, 0, 16));
+        landScanEngine.scanRegions(landScanSink, regions);
+        landScanEngine.scanRegions(landScanSink, regions);
+
+        verify(world, times(2)).getChunkAt(anyInt(), anyInt());
+        assertEquals(2, chunksReused.sum());
+        assertEquals(2 * 2 * 16 * 16 * 16, blockHolder.getCount(stoneId));
+
+        chunkValuationCache.markDirty(world, 1, 0);
+        landScanEngine.scanRegions(landScanSink, regions);
+
+        verify(world, times(2)).getChunkAt(1, 0);
+        verify(world, times(3)).getChunkAt(anyInt(), anyInt());
+        assertEquals(3, chunksReused.sum());
+    }
+
+    @Test
+    public void containersAreFoundAmongTileEntitiesInRegion() {
+        WorthTable noBlockWorth = new WorthTable(new LinkedHashMap<>(), Material.values());
+        when(landOperationsHelper.getScanDispatchTable()).thenReturn(
+                new ScanDispatchTable(noBlockWorth, false, Collections.singleton("CHEST")));
+        BlockState[] blockStates = {createChest(2, 5, 3), createChest(12, 5, 3)};
+        when(chunk.getTileEntities()).thenReturn(blockStates);
+        landScanEngine.scanRegions(landScanSink, Collections.singletonList(
+                new ScanRegion(world, 0, 8, 0, 16, 0, 16)));
+
+        assertArrayEquals(new int[] {2, 5, 3}, containers.toXyzArray());
+        verify(chunk, never()).getChunkSnapshot(true, false, false);
+    }
+
+    @Test
+    public void regionsInSameChunkAreKeptApartBySink() {
+        BlockHolder otherBlockHolder = new BlockHolder(blockWorth);
+        LandScanSink otherSink = new LandScanSink(Collections.emptyList(), otherBlockHolder,
+                new PositionBuffer(), new PositionBuffer(), sectionsScanned, sectionsSkipped,
+                chunksReused);
+        landScanEngine.scanRegions(List.of(new ScanRegion(world, 0, 8, 0, 16, 0, 16),
+                new ScanRegion(world, 8, 16, 0, 16, 0, 4)), List.of(landScanSink, otherSink));
+
+        verify(world).getChunkAt(0, 0);
+        assertEquals(8 * 16 * 16, blockHolder.getCount(stoneId));
+        assertEquals(8 * 16 * 4, otherBlockHolder.getCount(stoneId));
+    }
+
+    @Test
+    public void scansReportWhetherEveryChunkWasScanned() {
+        List<ScanRegion> regions = Collections.singletonList(
+                new ScanRegion(world, 0, 32, 0, 16, 0, 16));
+        assertTrue(landScanEngine.scanRegions(landScanSink, regions));
+
+        chunkValuationCache.markDirty(world, 0, 0);
+        when(landOperationsHelper.getStopOperations()).thenReturn(true);
+        assertFalse(landScanEngine.scanRegions(landScanSink, regions));
+    }
+
+    @Test
+    public void everyTaskIsRunBeforeReturning() {
+        AtomicInteger count = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(count::incrementAndGet);
+        }
+        landScanEngine.invokeAll(tasks);
+
+        assertEquals(50, count.get());
+    }
+
+    private BlockState createChest(int x, int y, int z) {
+        BlockState blockState = mock(BlockState.class);
+        when(blockState.getType()).thenReturn(Material.CHEST);
+        when(blockState.getX()).thenReturn(x);
+        when(blockState.getY()).thenReturn(y);
+        when(blockState.getZ()).thenReturn(z);
+        return blockState;
+    }
+}
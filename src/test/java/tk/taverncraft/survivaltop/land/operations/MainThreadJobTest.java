@@ -0,0 +1,139 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.TestServer;
+import tk.taverncraft.survivaltop.config.Options;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MainThreadJobTest {
+    private final UUID uuid = UUID.randomUUID();
+    private final UUID otherUuid = UUID.randomUUID();
+
+    private World world;
+    private BukkitScheduler scheduler;
+    private Main main;
+    private LandOperationsHelper landOperationsHelper;
+    private AtomicInteger completed;
+
+    @BeforeEach
+    public void setUp() {
+        Server server = TestServer.get();
+        scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+        when(server.getScheduler()).thenReturn(scheduler);
+
+        Options options = mock(Options.class);
+        when(options.getSpawnerContainerBudgetMs()).thenReturn(1);
+        main = mock(Main.class);
+        when(main.getOptions()).thenReturn(options);
+        landOperationsHelper = mock(LandOperationsHelper.class);
+        completed = new AtomicInteger();
+        world = mock(World.class);
+    }
+
+    @Test
+    public void cursorVisitsBlocksOfEveryEntityInOrder() {
+        Block first = mock(Block.class);
+        Block second = mock(Block.class);
+        Block third = mock(Block.class);
+        when(world.getBlockAt(0, 64, 0)).thenReturn(first);
+        when(world.getBlockAt(1, 64, 0)).thenReturn(second);
+        when(world.getBlockAt(2, 64, 0)).thenReturn(third);
+        LinkedHashMap<UUID, PositionBuffer> blocks = new LinkedHashMap<>();
+        blocks.put(uuid, createPositions(0, 1));
+        blocks.put(UUID.randomUUID(), new PositionBuffer());
+        blocks.put(otherUuid, createPositions(2));
+        List<Object> visited = new ArrayList<>();
+        MainThreadJob.BlockCursor cursor = new MainThreadJob.BlockCursor(blocks,
+                (entityUuid, block) -> visited.addAll(Arrays.asList(entityUuid, block)));
+
+        assertEquals(3, cursor.getTotal());
+        while (cursor.hasNext()) {
+            cursor.processNext();
+        }
+        assertEquals(Arrays.asList(uuid, first, uuid, second, otherUuid, third), visited);
+    }
+
+    @Test
+    public void eachTickProcessesAtLeastOneBlockUntilDone() {
+        LinkedHashMap<UUID, PositionBuffer> blocks = new LinkedHashMap<>();
+        blocks.put(uuid, createPositions(0, 1));
+        MainThreadJob mainThreadJob = new MainThreadJob(main, landOperationsHelper, "blocks",
+                List.of(new MainThreadJob.BlockCursor(blocks, (entityUuid, block) -> sleep(5))),
+                completed::incrementAndGet);
+        mainThreadJob.start();
+
+        mainThreadJob.run();
+        assertEquals(1, mainThreadJob.getProcessed());
+        assertEquals(0, completed.get());
+
+        // the budget runs out before the next block, which is still processed in the next tick
+        when(landOperationsHelper.getStopOperations()).thenAnswer(invocation -> {
+            sleep(5);
+            return false;
+        });
+        mainThreadJob.run();
+        assertEquals(2, mainThreadJob.getProcessed());
+        assertEquals(1, completed.get());
+        assertEquals(2, mainThreadJob.getTotal());
+        verify(scheduler).cancelTask(anyInt());
+    }
+
+    @Test
+    public void stoppedJobCompletesWithoutProcessing() {
+        LinkedHashMap<UUID, PositionBuffer> blocks = new LinkedHashMap<>();
+        blocks.put(uuid, createPositions(0));
+        AtomicInteger processed = new AtomicInteger();
+        MainThreadJob mainThreadJob = new MainThreadJob(main, landOperationsHelper, "blocks",
+                List.of(new MainThreadJob.BlockCursor(blocks,
+                        (entityUuid, block) -> processed.incrementAndGet())),
+                completed::incrementAndGet);
+        mainThreadJob.start();
+        when(landOperationsHelper.getStopOperations()).thenReturn(true);
+        mainThreadJob.run();
+
+        assertEquals(0, processed.get());
+        assertEquals(1, completed.get());
+        assertEquals(0, mainThreadJob.getProcessed());
+        verify(scheduler).cancelTask(anyInt());
+    }
+
+    private PositionBuffer createPositions(int... xs) {
+        PositionBuffer positions = new PositionBuffer();
+        for (int x : xs) {
+            positions.add(world, x, 64, 0);
+        }
+        return positions;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class PositionBufferTest {
+    private static final int MIN_XZ = -(1 << 25);
+    private static final int MAX_XZ = (1 << 25) - 1;
+
+    private World world;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+    }
+
+    @Test
+    public void positionsAtBoundsAreUnpacked() {
+        int[] xyz = {
+            MIN_XZ, -2048, MAX_XZ,
+            MAX_XZ, 2047, MIN_XZ,
+            -1, -64, -1,
+            0, 0, 0,
+            30_000_000, 319, -30_000_000
+        };
+        PositionBuffer positionBuffer = new PositionBuffer();
+        for (int i = 0; i < xyz.length; i += 3) {
+            positionBuffer.add(world, xyz[i], xyz[i + 1], xyz[i + 2]);
+        }
+
+        assertEquals(xyz.length / 3, positionBuffer.size());
+        assertArrayEquals(xyz, positionBuffer.toXyzArray());
+    }
+
+    @Test
+    public void blocksAreLookedUpInTheirOwnWorld() {
+        World otherWorld = mock(World.class);
+        PositionBuffer positionBuffer = new PositionBuffer();
+        positionBuffer.add(world, MIN_XZ, -64, MAX_XZ);
+        PositionBuffer otherBuffer = new PositionBuffer();
+        otherBuffer.add(otherWorld, MAX_XZ, 100, MIN_XZ);
+        otherBuffer.add(world, 5, 6, 7);
+        positionBuffer.addAll(otherBuffer);
+
+        assertEquals(3, positionBuffer.size());
+        positionBuffer.getBlock(0);
+        positionBuffer.getBlock(1);
+        positionBuffer.getBlock(2);
+        verify(world).getBlockAt(MIN_XZ, -64, MAX_XZ);
+        verify(otherWorld).getBlockAt(MAX_XZ, 100, MIN_XZ);
+        verify(world).getBlockAt(5, 6, 7);
+    }
+
+    @Test
+    public void bufferGrowsPastInitialCapacity() {
+        PositionBuffer positionBuffer = new PositionBuffer();
+        for (int i = 0; i < 100; i++) {
+            positionBuffer.add(world, i, -i, -i * 1000);
+        }
+
+        int[] xyz = positionBuffer.toXyzArray();
+        assertEquals(100, positionBuffer.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, xyz[i * 3]);
+            assertEquals(-i, xyz[i * 3 + 1]);
+            assertEquals(-i * 1000, xyz[i * 3 + 2]);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScanDispatchTableTest {
+
+    @Test
+    public void materialsAreDispatchedByCategory() {
+        WorthTable blockWorth = createBlockWorth("STONE", "DIAMOND_BLOCK");
+        ScanDispatchTable scanDispatchTable = new ScanDispatchTable(blockWorth, true,
+                Collections.singleton("CHEST"));
+
+        assertEquals(ScanDispatchTable.BLOCK, scanDispatchTable.getCategory(Material.STONE));
+        assertEquals(blockWorth.getId(Material.DIAMOND_BLOCK),
+                scanDispatchTable.getBlockId(Material.DIAMOND_BLOCK));
+        assertEquals(ScanDispatchTable.SPAWNER, scanDispatchTable.getCategory(Material.SPAWNER));
+        assertEquals(ScanDispatchTable.CONTAINER, scanDispatchTable.getCategory(Material.CHEST));
+        assertEquals(ScanDispatchTable.IGNORE, scanDispatchTable.getCategory(Material.DIRT));
+    }
+
+    @Test
+    public void valuedBlocksTakePrecedence() {
+        WorthTable blockWorth = createBlockWorth("SPAWNER", "CHEST");
+        ScanDispatchTable scanDispatchTable = new ScanDispatchTable(blockWorth, true,
+                Collections.singleton("CHEST"));
+
+        assertEquals(ScanDispatchTable.BLOCK, scanDispatchTable.getCategory(Material.SPAWNER));
+        assertEquals(ScanDispatchTable.BLOCK, scanDispatchTable.getCategory(Material.CHEST));
+        assertEquals(1, scanDispatchTable.getBlockId(Material.CHEST));
+    }
+
+    @Test
+    public void untrackedSpawnersAndContainersAreIgnored() {
+        ScanDispatchTable scanDispatchTable = new ScanDispatchTable(createBlockWorth(), false,
+                Collections.emptySet());
+
+        assertEquals(ScanDispatchTable.IGNORE, scanDispatchTable.getCategory(Material.SPAWNER));
+        assertEquals(ScanDispatchTable.IGNORE, scanDispatchTable.getCategory(Material.CHEST));
+    }
+
+    @Test
+    public void blocksAndTileEntitiesAreOnlyNeededIfTracked() {
+        ScanDispatchTable blocksOnly = new ScanDispatchTable(createBlockWorth("STONE"), false,
+                Collections.emptySet());
+        ScanDispatchTable tileEntitiesOnly = new ScanDispatchTable(createBlockWorth(), false,
+                Collections.singleton("CHEST"));
+
+        assertTrue(blocksOnly.hasBlocks());
+        assertFalse(blocksOnly.hasTileEntities());
+        assertFalse(tileEntitiesOnly.hasBlocks());
+        assertTrue(tileEntitiesOnly.hasTileEntities());
+    }
+
+    private static WorthTable createBlockWorth(String... names) {
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        for (String name : names) {
+            worthMap.put(name, 1.0);
+        }
+        return new WorthTable(worthMap, Material.values());
+    }
+}
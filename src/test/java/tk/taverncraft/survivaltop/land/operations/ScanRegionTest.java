@@ -0,0 +1,173 @@
+package tk.taverncraft.survivaltop.land.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScanRegionTest {
+    private World world;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+    }
+
+    @Test
+    public void chunkRegionCoversWholeColumn() {
+        ScanRegion region = ScanRegion.ofChunk(world, -2, 3, 0, 256);
+
+        assertEquals(-32, region.getMinX());
+        assertEquals(-16, region.getMaxX());
+        assertEquals(48, region.getMinZ());
+        assertEquals(64, region.getMaxZ());
+        assertEquals(16L * 256 * 16, region.getVolume());
+    }
+
+    @Test
+    public void regionWithoutExtentIsEmpty() {
+        ScanRegion flat = new ScanRegion(world, 0, 16, 64, 64, 0, 16);
+        ScanRegion inverted = new ScanRegion(world, 16, 0, 0, 64, 0, 16);
+
+        assertTrue(flat.isEmpty());
+        assertTrue(inverted.isEmpty());
+        assertEquals(0, inverted.getVolume());
+        assertFalse(new ScanRegion(world, 0, 1, 0, 1, 0, 1).isEmpty());
+    }
+
+    @Test
+    public void volumeOfLargeRegionDoesNotOverflow() {
+        ScanRegion region = new ScanRegion(world, -30_000_000, 30_000_000, 0, 256,
+                -30_000_000, 30_000_000);
+
+        assertEquals(60_000_000L * 256 * 60_000_000L, region.getVolume());
+    }
+
+    @Test
+    public void subtractingDisjointRegionKeepsRegion() {
+        ScanRegion region = new ScanRegion(world, 0, 16, 0, 64, 0, 16);
+        ScanRegion other = new ScanRegion(world, 16, 32, 0, 64, 0, 16);
+
+        assertEquals(Collections.singletonList(region), region.subtract(other));
+    }
+
+    @Test
+    public void subtractingCoveringRegionLeavesNothing() {
+        ScanRegion region = new ScanRegion(world, 4, 8, 10, 20, 4, 8);
+        ScanRegion other = new ScanRegion(world, 0, 16, 0, 64, 0, 16);
+
+        assertTrue(region.subtract(other).isEmpty());
+    }
+
+    @Test
+    public void subtractingInnerRegionLeavesSixDisjointSlabs() {
+        ScanRegion region = new ScanRegion(world, 0, 16, 0, 64, 0, 16);
+        ScanRegion other = new ScanRegion(world, 4, 8, 10, 20, 4, 8);
+        List<ScanRegion> remaining = region.subtract(other);
+
+        assertEquals(6, remaining.size());
+        assertDisjoint(remaining);
+        assertEquals(region.getVolume() - other.getVolume(), getVolume(remaining));
+        for (ScanRegion piece : remaining) {
+            assertFalse(piece.intersects(other));
+        }
+    }
+
+    @Test
+    public void toDisjointCoversUnionOnce() {
+        List<ScanRegion> regions = Arrays.asList(
+                new ScanRegion(world, 0, 40, 0, 64, 0, 40),
+                new ScanRegion(world, -10, 20, 0, 64, 10, 30),
+                new ScanRegion(world, 0, 40, 0, 64, 0, 40),
+                new ScanRegion(world, 30, 50, 32, 96, 30, 50));
+        List<ScanRegion> disjoint = ScanRegion.toDisjoint(regions);
+
+        assertDisjoint(disjoint);
+        assertEquals(getBlocks(regions), getBlocks(disjoint));
+    }
+
+    @Test
+    public void toDisjointDropsEmptyRegionsAndRegionsWithoutWorld() {
+        ScanRegion region = new ScanRegion(world, 0, 16, 0, 64, 0, 16);
+        List<ScanRegion> disjoint = ScanRegion.toDisjoint(Arrays.asList(region,
+                new ScanRegion(world, 5, 5, 0, 64, 0, 16),
+                new ScanRegion(null, 0, 16, 0, 64, 0, 16)));
+
+        assertEquals(Collections.singletonList(region), disjoint);
+    }
+
+    @Test
+    public void toDisjointKeepsOverlappingRegionsOfOtherWorlds() {
+        World otherWorld = mock(World.class);
+        when(otherWorld.getName()).thenReturn("world_nether");
+        ScanRegion region = new ScanRegion(world, 0, 16, 0, 64, 0, 16);
+        ScanRegion otherRegion = new ScanRegion(otherWorld, 0, 16, 0, 64, 0, 16);
+        List<ScanRegion> disjoint = ScanRegion.toDisjoint(Arrays.asList(region, otherRegion));
+
+        assertEquals(2, disjoint.size());
+        assertEquals(region.getVolume() + otherRegion.getVolume(), getVolume(disjoint));
+    }
+
+    @Test
+    public void toDisjointMatchesBlocksOfRandomRegions() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            List<ScanRegion> regions = new ArrayList<>();
+            for (int j = 0; j < 6; j++) {
+                int minX = random.nextInt(12) - 6;
+                int minY = random.nextInt(12) - 6;
+                int minZ = random.nextInt(12) - 6;
+                regions.add(new ScanRegion(world, minX, minX + random.nextInt(8), minY,
+                        minY + random.nextInt(8), minZ, minZ + random.nextInt(8)));
+            }
+            List<ScanRegion> disjoint = ScanRegion.toDisjoint(regions);
+
+            assertDisjoint(disjoint);
+            assertEquals(getBlocks(regions), getBlocks(disjoint));
+        }
+    }
+
+    private static void assertDisjoint(List<ScanRegion> regions) {
+        for (int i = 0; i < regions.size(); i++) {
+            for (int j = i + 1; j < regions.size(); j++) {
+                assertFalse(regions.get(i).intersects(regions.get(j)));
+            }
+        }
+    }
+
+    private static long getVolume(List<ScanRegion> regions) {
+        long volume = 0;
+        for (ScanRegion region : regions) {
+            volume += region.getVolume();
+        }
+        return volume;
+    }
+
+    private static Set<List<Integer>> getBlocks(List<ScanRegion> regions) {
+        Set<List<Integer>> blocks = new HashSet<>();
+        for (ScanRegion region : regions) {
+            for (int x = region.getMinX(); x < region.getMaxX(); x++) {
+                for (int y = region.getMinY(); y < region.getMaxY(); y++) {
+                    for (int z = region.getMinZ(); z < region.getMaxZ(); z++) {
+                        blocks.add(Arrays.asList(x, y, z));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+}
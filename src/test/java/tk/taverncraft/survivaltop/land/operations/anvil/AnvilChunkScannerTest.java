@@ -0,0 +1,238 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tk.taverncraft.survivaltop.land.operations.LandScanSink;
+import tk.taverncraft.survivaltop.land.operations.ScanDispatchTable;
+import tk.taverncraft.survivaltop.land.operations.ScanRegion;
+import tk.taverncraft.survivaltop.utils.types.WorthTable;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnvilChunkScannerTest {
+    private static final int TIMESTAMP = 1_700_000_000;
+
+    // palette of 17 entries so that indices take 5 bits, which do not divide 64 evenly
+    private static final List<String> PALETTE = new ArrayList<>(Arrays.asList("minecraft:air",
+            "minecraft:stone", "minecraft:diamond_block", "minecraft:spawner", "minecraft:chest"));
+    private static final int SPAWNER_INDEX = 17 * 5 + 3;
+    private static final int CHEST_INDEX = 256 * 9 + 16 * 4 + 6;
+
+    static {
+        for (int i = PALETTE.size(); i < 17; i++) {
+            PALETTE.add("minecraft:unknown_block_" + i);
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private World world;
+    private ScanDispatchTable scanDispatchTable;
+    private WorthTable blockWorth;
+
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getWorldFolder()).thenReturn(tempDir.toFile());
+        when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("STONE", 1.0);
+        worthMap.put("DIAMOND_BLOCK", 100.0);
+        blockWorth = new WorthTable(worthMap, Material.values());
+        scanDispatchTable = new ScanDispatchTable(blockWorth, true,
+                Collections.singleton("CHEST"));
+    }
+
+    @Test
+    public void spanningBlockStatesAreDecodedAtFlattening() throws IOException {
+        assertPaletteIsDecoded(1451);
+    }
+
+    @Test
+    public void paddedBlockStatesAreDecodedWithinLevelTag() throws IOException {
+        assertPaletteIsDecoded(2529);
+    }
+
+    @Test
+    public void paddedBlockStatesAreDecodedFromRootSections() throws IOException {
+        assertPaletteIsDecoded(2844);
+    }
+
+    @Test
+    public void singleEntryPaletteCoversWholeSection() throws IOException {
+        Map<String, Object> section = new HashMap<>();
+        section.put("Y", (byte) 0);
+        section.put("block_states", Collections.singletonMap("palette",
+                Collections.singletonList(Collections.singletonMap("Name", "minecraft:stone"))));
+        Map<String, Object> root = new HashMap<>();
+        root.put("DataVersion", 2844);
+        root.put("Status", "minecraft:full");
+        root.put("sections", Collections.singletonList(section));
+        writeChunk(root);
+
+        AnvilChunkScanner.OfflineChunk offlineChunk = new AnvilChunkScanner().readChunk(world,
+                0, 0, 0);
+        assertNotNull(offlineChunk);
+        LandScanSink landScanSink = mock(LandScanSink.class);
+        offlineChunk.scanPart(landScanSink, scanDispatchTable,
+                new ScanRegion(world, 0, 16, 0, 8, 0, 4));
+        verify(landScanSink).addBlocks(blockWorth.getId(Material.STONE), 16L * 8 * 4);
+    }
+
+    @Test
+    public void chunksSavedBeforeFlatteningOrTooLongAgoAreNotRead() throws IOException {
+        Map<String, Object> root = new HashMap<>();
+        root.put("DataVersion", 1343);
+        root.put("Level", new HashMap<>());
+        writeChunk(root);
+        assertNull(new AnvilChunkScanner().readChunk(world, 0, 0, 0));
+
+        writeChunk(createChunk(2844));
+        assertNotNull(new AnvilChunkScanner().readChunk(world, 0, 0, TIMESTAMP * 1000L));
+        assertNull(new AnvilChunkScanner().readChunk(world, 0, 0, TIMESTAMP * 1000L + 1000));
+    }
+
+    private void assertPaletteIsDecoded(int dataVersion) throws IOException {
+        writeChunk(createChunk(dataVersion));
+        AnvilChunkScanner.OfflineChunk offlineChunk = new AnvilChunkScanner().readChunk(world,
+                0, 0, 0);
+        assertNotNull(offlineChunk);
+
+        ScanRegion part = new ScanRegion(world, 2, 14, 0, 20, 3, 16);
+        long[] counts = new long[PALETTE.size()];
+        for (int y = part.getMinY(); y < Math.min(16, part.getMaxY()); y++) {
+            for (int z = part.getMinZ(); z < part.getMaxZ(); z++) {
+                for (int x = part.getMinX(); x < part.getMaxX(); x++) {
+                    counts[getPaletteIndex((y << 8) | (z << 4) | x)]++;
+                }
+            }
+        }
+        LandScanSink landScanSink = mock(LandScanSink.class);
+        offlineChunk.scanPart(landScanSink, scanDispatchTable, part);
+
+        verify(landScanSink).addBlocks(blockWorth.getId(Material.STONE), counts[1]);
+        verify(landScanSink).addBlocks(blockWorth.getId(Material.DIAMOND_BLOCK), counts[2]);
+        verify(landScanSink).addSpawner(world, SPAWNER_INDEX & 15, SPAWNER_INDEX >> 8,
+                (SPAWNER_INDEX >> 4) & 15);
+        verify(landScanSink).addContainer(world, CHEST_INDEX & 15, CHEST_INDEX >> 8,
+                (CHEST_INDEX >> 4) & 15);
+        verify(landScanSink).addScannedSection();
+        verify(landScanSink).addSkippedSection();
+    }
+
+    private static int getPaletteIndex(int index) {
+        if (index == SPAWNER_INDEX) {
+            return 3;
+        } else if (index == CHEST_INDEX) {
+            return 4;
+        }
+        int paletteIndex = (index * 7 + index / 5) % PALETTE.size();
+        return paletteIndex == 3 || paletteIndex == 4 ? 0 : paletteIndex;
+    }
+
+    private static Map<String, Object> createChunk(int dataVersion) {
+        boolean rootSections = dataVersion >= 2844;
+        boolean spanning = dataVersion < 2529;
+        int bits = 5;
+        long[] data = new long[spanning ? 4096 * bits / 64 : (4096 + 11) / 12];
+        for (int i = 0; i < 4096; i++) {
+            long value = getPaletteIndex(i);
+            if (spanning) {
+                int bitIndex = i * bits;
+                int offset = bitIndex & 63;
+                data[bitIndex >> 6] |= value << offset;
+                if (offset + bits > 64) {
+                    data[(bitIndex >> 6) + 1] |= value >>> (64 - offset);
+                }
+            } else {
+                data[i / 12] |= value << ((i % 12) * bits);
+            }
+        }
+        List<Object> palette = new ArrayList<>();
+        for (String name : PALETTE) {
+            palette.add(Collections.singletonMap("Name", name));
+        }
+
+        Map<String, Object> section = new HashMap<>();
+        section.put("Y", (byte) 0);
+        if (rootSections) {
+            Map<String, Object> blockStates = new HashMap<>();
+            blockStates.put("palette", palette);
+            blockStates.put("data", data);
+            section.put("block_states", blockStates);
+        } else {
+            section.put("Palette", palette);
+            section.put("BlockStates", data);
+        }
+        List<Object> blockEntities = new ArrayList<>();
+        for (int index : new int[] {SPAWNER_INDEX, CHEST_INDEX}) {
+            Map<String, Object> blockEntity = new HashMap<>();
+            blockEntity.put("x", index & 15);
+            blockEntity.put("y", index >> 8);
+            blockEntity.put("z", (index >> 4) & 15);
+            blockEntities.add(blockEntity);
+        }
+
+        Map<String, Object> level = new HashMap<>();
+        level.put("Status", rootSections ? "minecraft:full" : "full");
+        level.put(rootSections ? "sections" : "Sections", Collections.singletonList(section));
+        level.put(rootSections ? "block_entities" : "TileEntities", blockEntities);
+        Map<String, Object> root = rootSections ? level : new HashMap<>();
+        if (!rootSections) {
+            root.put("Level", level);
+        }
+        root.put("DataVersion", dataVersion);
+        return root;
+    }
+
+    private void writeChunk(Map<String, Object> root) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream output = new DeflaterOutputStream(compressed)) {
+            output.write(NbtWriter.writeRoot(root));
+        }
+        byte[] data = compressed.toByteArray();
+        int sectorCount = (data.length + 5 + 4095) / 4096;
+        File regionFolder = new File(tempDir.toFile(), "region");
+        if (!regionFolder.isDirectory() && !regionFolder.mkdirs()) {
+            throw new IOException("Could not create " + regionFolder);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(new File(regionFolder, "r.0.0.mca"),
+                "rw")) {
+            file.setLength(0);
+            file.setLength(8192 + sectorCount * 4096L);
+            file.writeInt((2 << 8) | sectorCount);
+            file.seek(4096);
+            file.writeInt(TIMESTAMP);
+            file.seek(8192);
+            file.writeInt(data.length + 1);
+            file.writeByte(2);
+            file.write(data);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NbtReaderTest {
+
+    @Test
+    public void everyTagTypeIsReadBack() throws IOException {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("Name", "minecraft:stone");
+        Map<String, Object> root = new HashMap<>();
+        root.put("byte", (byte) -1);
+        root.put("short", (short) 300);
+        root.put("int", 2844);
+        root.put("long", Long.MIN_VALUE);
+        root.put("float", 1.5f);
+        root.put("double", -2.25);
+        root.put("bytes", new byte[] {1, 2, 3});
+        root.put("string", "full");
+        root.put("list", Arrays.asList(1, 2, 3));
+        root.put("compounds", Arrays.asList(nested, nested));
+        root.put("compound", nested);
+        root.put("ints", new int[] {Integer.MIN_VALUE, 0, Integer.MAX_VALUE});
+        root.put("longs", new long[] {-1L, 1L << 62});
+
+        HashMap<String, Object> read = read(NbtWriter.writeRoot(root));
+        assertEquals(root.keySet(), read.keySet());
+        assertEquals((byte) -1, read.get("byte"));
+        assertEquals((short) 300, read.get("short"));
+        assertEquals(2844, read.get("int"));
+        assertEquals(Long.MIN_VALUE, read.get("long"));
+        assertEquals(1.5f, read.get("float"));
+        assertEquals(-2.25, read.get("double"));
+        assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) read.get("bytes"));
+        assertEquals("full", read.get("string"));
+        assertEquals(Arrays.asList(1, 2, 3), read.get("list"));
+        assertEquals(nested, ((List<?>) read.get("compounds")).get(1));
+        assertEquals(nested, read.get("compound"));
+        assertArrayEquals((int[]) root.get("ints"), (int[]) read.get("ints"));
+        assertArrayEquals((long[]) root.get("longs"), (long[]) read.get("longs"));
+    }
+
+    @Test
+    public void rootMustBeCompound() {
+        byte[] bytes = {8, 0, 0, 0, 0};
+
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    @Test
+    public void negativeLengthIsRejected() {
+        // root compound holding an int array named "a" of length -1
+        byte[] bytes = {10, 0, 0, 11, 0, 1, 'a', -1, -1, -1, -1, 0};
+
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    @Test
+    public void unknownTagTypeIsRejected() {
+        byte[] bytes = {10, 0, 0, 13, 0, 1, 'a', 0};
+
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    private static HashMap<String, Object> read(byte[] bytes) throws IOException {
+        return NbtReader.readRoot(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,115 @@
+package tk.taverncraft.survivaltop.land.operations.anvil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes values in the NBT format for tests, picking the tag type from the Java type of each
+ * value the same way NbtReader reads them back.
+ */
+final class NbtWriter {
+
+    private NbtWriter() {
+    }
+
+    static byte[] writeRoot(Map<String, Object> root) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(10);
+            output.writeUTF("");
+            writePayload(output, root);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int getType(Object value) {
+        if (value instanceof Byte) {
+            return 1;
+        } else if (value instanceof Short) {
+            return 2;
+        } else if (value instanceof Integer) {
+            return 3;
+        } else if (value instanceof Long) {
+            return 4;
+        } else if (value instanceof Float) {
+            return 5;
+        } else if (value instanceof Double) {
+            return 6;
+        } else if (value instanceof byte[]) {
+            return 7;
+        } else if (value instanceof String) {
+            return 8;
+        } else if (value instanceof List) {
+            return 9;
+        } else if (value instanceof Map) {
+            return 10;
+        } else if (value instanceof int[]) {
+            return 11;
+        } else if (value instanceof long[]) {
+            return 12;
+        }
+        throw new IllegalArgumentException("No NBT type for " + value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writePayload(DataOutputStream output, Object value) throws IOException {
+        switch (getType(value)) {
+        case 1:
+            output.writeByte((Byte) value);
+            break;
+        case 2:
+            output.writeShort((Short) value);
+            break;
+        case 3:
+            output.writeInt((Integer) value);
+            break;
+        case 4:
+            output.writeLong((Long) value);
+            break;
+        case 5:
+            output.writeFloat((Float) value);
+            break;
+        case 6:
+            output.writeDouble((Double) value);
+            break;
+        case 7:
+            output.writeInt(((byte[]) value).length);
+            output.write((byte[]) value);
+            break;
+        case 8:
+            output.writeUTF((String) value);
+            break;
+        case 9:
+            List<Object> list = (List<Object>) value;
+            output.writeByte(list.isEmpty() ? 0 : getType(list.get(0)));
+            output.writeInt(list.size());
+            for (Object element : list) {
+                writePayload(output, element);
+            }
+            break;
+        case 10:
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                output.writeByte(getType(entry.getValue()));
+                output.writeUTF(entry.getKey());
+                writePayload(output, entry.getValue());
+            }
+            output.writeByte(0);
+            break;
+        case 11:
+            output.writeInt(((int[]) value).length);
+            for (int i : (int[]) value) {
+                output.writeInt(i);
+            }
+            break;
+        default:
+            output.writeInt(((long[]) value).length);
+            for (long l : (long[]) value) {
+                output.writeLong(l);
+            }
+            break;
+        }
+    }
+}
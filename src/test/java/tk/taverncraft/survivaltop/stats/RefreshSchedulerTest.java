@@ -0,0 +1,118 @@
+package tk.taverncraft.survivaltop.stats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RefreshSchedulerTest {
+    private static final long NOW = TimeUnit.DAYS.toMillis(1000);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void allPlayersAreSelectedWithoutCount() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(30, 3600);
+        List<OfflinePlayer> players = Arrays.asList(createPlayer(false, NOW - DAY),
+                createPlayer(true, NOW), createPlayer(false, NOW - DAY * 2));
+
+        assertEquals(players, refreshScheduler.selectPlayers(players, Collections.emptySet(),
+                -1, NOW));
+    }
+
+    @Test
+    public void dormantPlayersAreOnlySelectedWithoutValues() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(30, 3600);
+        OfflinePlayer active = createPlayer(false, NOW - DAY);
+        OfflinePlayer dormantCached = createPlayer(false, NOW - DAY * 31);
+        OfflinePlayer dormantNew = createPlayer(false, NOW - DAY * 31);
+        Set<UUID> cachedPlayers = new HashSet<>(Arrays.asList(active.getUniqueId(),
+                dormantCached.getUniqueId()));
+
+        assertEquals(Arrays.asList(active, dormantNew), refreshScheduler.selectPlayers(
+                Arrays.asList(active, dormantCached, dormantNew), cachedPlayers, -1, NOW));
+    }
+
+    @Test
+    public void overduePlayersAreSelectedFirst() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(0, 3600);
+        OfflinePlayer online = createPlayer(true, NOW);
+        OfflinePlayer overdue = createPlayer(false, NOW - DAY * 20);
+        refreshScheduler.recordRefresh(online.getUniqueId(), NOW - HOUR / 2);
+        refreshScheduler.recordRefresh(overdue.getUniqueId(), NOW - HOUR);
+
+        assertEquals(Collections.singletonList(overdue), refreshScheduler.selectPlayers(
+                Arrays.asList(online, overdue), Collections.emptySet(), 1, NOW));
+    }
+
+    @Test
+    public void activePlayersAreRefreshedMoreOften() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(0, 0);
+        OfflinePlayer online = createPlayer(true, NOW);
+        OfflinePlayer playedToday = createPlayer(false, NOW - HOUR);
+        OfflinePlayer playedLongAgo = createPlayer(false, NOW - DAY * 20);
+        List<OfflinePlayer> players = Arrays.asList(playedLongAgo, playedToday, online);
+        for (OfflinePlayer player : players) {
+            refreshScheduler.recordRefresh(player.getUniqueId(), NOW - HOUR);
+        }
+
+        assertEquals(Collections.singletonList(online), refreshScheduler.selectPlayers(players,
+                Collections.emptySet(), 1, NOW));
+        assertEquals(new HashSet<>(Arrays.asList(online, playedToday)), new HashSet<>(
+                refreshScheduler.selectPlayers(players, Collections.emptySet(), 2, NOW)));
+
+        // a long wait outweighs activity
+        refreshScheduler.recordRefresh(playedLongAgo.getUniqueId(), NOW - HOUR * 20);
+        assertEquals(Collections.singletonList(playedLongAgo), refreshScheduler.selectPlayers(
+                players, Collections.emptySet(), 1, NOW));
+    }
+
+    @Test
+    public void blockChangesRaisePriorityUntilRefreshed() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(0, 0);
+        OfflinePlayer quiet = createPlayer(false, NOW - DAY * 20);
+        OfflinePlayer building = createPlayer(false, NOW - DAY * 20);
+        List<OfflinePlayer> players = Arrays.asList(quiet, building);
+        refreshScheduler.recordRefresh(quiet.getUniqueId(), NOW - HOUR * 2);
+        refreshScheduler.recordRefresh(building.getUniqueId(), NOW - HOUR);
+        for (int i = 0; i < 500; i++) {
+            refreshScheduler.recordBlockChange(building.getUniqueId());
+        }
+
+        assertEquals(Collections.singletonList(building), refreshScheduler.selectPlayers(
+                players, Collections.emptySet(), 1, NOW));
+
+        refreshScheduler.recordRefresh(building.getUniqueId(), NOW - HOUR);
+        assertEquals(Collections.singletonList(quiet), refreshScheduler.selectPlayers(
+                players, Collections.emptySet(), 1, NOW));
+    }
+
+    @Test
+    public void playersNeverRefreshedComeFirst() {
+        RefreshScheduler refreshScheduler = new RefreshScheduler(0, 0);
+        OfflinePlayer refreshed = createPlayer(true, NOW);
+        OfflinePlayer neverRefreshed = createPlayer(false, NOW - DAY * 20);
+        refreshScheduler.recordRefresh(refreshed.getUniqueId(), NOW - DAY);
+
+        assertEquals(Collections.singletonList(neverRefreshed), refreshScheduler.selectPlayers(
+                Arrays.asList(refreshed, neverRefreshed), Collections.emptySet(), 1, NOW));
+    }
+
+    private static OfflinePlayer createPlayer(boolean online, long lastPlayed) {
+        OfflinePlayer player = mock(OfflinePlayer.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.isOnline()).thenReturn(online);
+        when(player.getLastPlayed()).thenReturn(lastPlayed);
+        return player;
+    }
+}
@@ -0,0 +1,43 @@
+package tk.taverncraft.survivaltop.stats;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RefreshSlicesTest {
+
+    @Test
+    public void everyEntityIsInExactlyOneSlice() {
+        int[] sliceSizes = new int[8];
+        for (int i = 0; i < 1000; i++) {
+            Object key = i % 2 == 0 ? UUID.randomUUID() : "group" + i;
+            int slices = 0;
+            for (int slice = 0; slice < sliceSizes.length; slice++) {
+                if (RefreshSlices.isInSlice(key, slice, sliceSizes.length)) {
+                    sliceSizes[slice]++;
+                    slices++;
+                }
+            }
+            assertEquals(1, slices);
+        }
+        for (int sliceSize : sliceSizes) {
+            assertTrue(sliceSize > 50);
+        }
+    }
+
+    @Test
+    public void singleSliceHoldsEveryEntity() {
+        assertTrue(RefreshSlices.isInSlice(UUID.randomUUID(), 0, 1));
+        assertTrue(RefreshSlices.isInSlice("group", 0, 0));
+    }
+
+    @Test
+    public void slicesAreSpreadOverUpdateInterval() {
+        assertEquals(21600 * 20L / 72, RefreshSlices.getSliceInterval(21600 * 20L, 72));
+        assertEquals(1, RefreshSlices.getSliceInterval(10, 72));
+        assertEquals(400, RefreshSlices.getSliceInterval(400, 1));
+    }
+}
@@ -0,0 +1,104 @@
+package tk.taverncraft.survivaltop.stats.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LeaderboardIndexTest {
+
+    @Test
+    public void entitiesAreRankedByWealthFromHighest() {
+        UUID poor = UUID.randomUUID();
+        UUID rich = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        leaderboardIndex.update(poor, 10);
+        leaderboardIndex.update(rich, 300);
+        leaderboardIndex.update(middle, 50);
+
+        assertEquals(Arrays.asList(rich, middle, poor), leaderboardIndex.getEntities());
+    }
+
+    @Test
+    public void tiesAreBrokenByUuid() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        leaderboardIndex.update(third, 100);
+        leaderboardIndex.update(first, 100);
+        leaderboardIndex.update(second, 100);
+
+        assertEquals(Arrays.asList(first, second, third), leaderboardIndex.getEntities());
+    }
+
+    @Test
+    public void updatingWealthMovesEntity() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        leaderboardIndex.update(a, 100);
+        leaderboardIndex.update(b, 50);
+        leaderboardIndex.update(b, 150);
+
+        assertEquals(Arrays.asList(b, a), leaderboardIndex.getEntities());
+        assertEquals(2, leaderboardIndex.size());
+    }
+
+    @Test
+    public void removedEntitiesAreNotRanked() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        leaderboardIndex.update(a, 100);
+        leaderboardIndex.update(b, 50);
+        leaderboardIndex.remove(a);
+
+        assertEquals(Collections.singletonList(b), leaderboardIndex.getEntities());
+
+        leaderboardIndex.clear();
+        assertEquals(0, leaderboardIndex.size());
+        assertTrue(leaderboardIndex.getEntities().isEmpty());
+    }
+
+    @Test
+    public void rankingMatchesSortAfterRandomUpdates() {
+        Random random = new Random(7);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            uuids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex();
+        Map<UUID, Double> wealthMap = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            UUID uuid = uuids.get(random.nextInt(uuids.size()));
+            if (random.nextInt(10) == 0) {
+                leaderboardIndex.remove(uuid);
+                wealthMap.remove(uuid);
+            } else {
+                // few distinct values so that ties are common
+                double wealth = random.nextInt(20) * 10.0;
+                leaderboardIndex.update(uuid, wealth);
+                wealthMap.put(uuid, wealth);
+            }
+        }
+
+        List<UUID> expected = new ArrayList<>(wealthMap.keySet());
+        expected.sort((a, b) -> {
+            int comparison = Double.compare(wealthMap.get(b), wealthMap.get(a));
+            return comparison != 0 ? comparison : a.compareTo(b);
+        });
+        assertEquals(expected, leaderboardIndex.getEntities());
+        assertEquals(expected.size(), leaderboardIndex.size());
+    }
+}
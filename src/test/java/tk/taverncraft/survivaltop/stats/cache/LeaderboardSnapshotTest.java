@@ -0,0 +1,101 @@
+package tk.taverncraft.survivaltop.stats.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LeaderboardSnapshotTest {
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    @Test
+    public void entitiesAreFoundByPositionAndUuid() {
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot(Arrays.asList(
+                new EntityLeaderboardCache(first, 20), new EntityLeaderboardCache(second, 10)),
+                new HashMap<>());
+
+        assertEquals(first, snapshot.getEntityAt(0).getUuid());
+        assertEquals(1, snapshot.getPosition(second));
+        assertSame(snapshot.getEntityAt(1), snapshot.getEntity(second));
+        assertEquals(-1, snapshot.getPosition(UUID.randomUUID()));
+        assertNull(snapshot.getEntity(UUID.randomUUID()));
+    }
+
+    @Test
+    public void laterChangesDoNotAffectSnapshot() {
+        EntityLeaderboardCache eCache = new EntityLeaderboardCache(first, 20);
+        List<EntityLeaderboardCache> rankedEntities = new ArrayList<>(Arrays.asList(eCache));
+        Map<UUID, String> groupUuidToNameMap = new HashMap<>();
+        groupUuidToNameMap.put(second, "town");
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot(rankedEntities,
+                groupUuidToNameMap);
+
+        eCache.setBlockWealth(100);
+        rankedEntities.add(new EntityLeaderboardCache(second, 10));
+        groupUuidToNameMap.clear();
+
+        assertEquals(1, snapshot.getRankedEntities().size());
+        assertEquals(20, snapshot.getEntityAt(0).getTotalWealth(), 0);
+        assertEquals("town", snapshot.getGroupUuidToNameMap().get(second));
+        assertEquals(second, snapshot.getGroupNameToUuidMap().get("town"));
+    }
+
+    @Test
+    public void unchangedEntitiesAreSharedWithPreviousSnapshot() {
+        EntityLeaderboardCache firstCache = new EntityLeaderboardCache(first, 20);
+        EntityLeaderboardCache secondCache = new EntityLeaderboardCache(second, 10);
+        LeaderboardSnapshot previous = new LeaderboardSnapshot(Arrays.asList(firstCache,
+                secondCache), new HashMap<>());
+
+        secondCache.setBlockWealth(5);
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot(Arrays.asList(firstCache,
+                secondCache), new HashMap<>(), previous);
+
+        assertSame(previous.getEntity(first), snapshot.getEntity(first));
+        assertNotSame(previous.getEntity(second), snapshot.getEntity(second));
+        assertEquals(15, snapshot.getEntity(second).getTotalWealth(), 0);
+        assertEquals(10, previous.getEntity(second).getTotalWealth(), 0);
+    }
+
+    @Test
+    public void changedEntitiesAreMovedToTheirNewPositions() {
+        UUID third = UUID.randomUUID();
+        EntityLeaderboardCache thirdCache = new EntityLeaderboardCache(third, 10);
+        Map<UUID, String> groupUuidToNameMap = new HashMap<>();
+        groupUuidToNameMap.put(first, "town");
+        LeaderboardSnapshot previous = new LeaderboardSnapshot(Arrays.asList(
+                new EntityLeaderboardCache(first, 30), new EntityLeaderboardCache(second, 20),
+                thirdCache), groupUuidToNameMap);
+
+        thirdCache.setBlockWealth(15);
+        LeaderboardSnapshot snapshot = previous.withChangedEntities(
+                Collections.singletonList(thirdCache));
+
+        assertEquals(Arrays.asList(first, third, second), getUuids(snapshot));
+        assertEquals(1, snapshot.getPosition(third));
+        assertEquals(25, snapshot.getEntity(third).getTotalWealth(), 0);
+        assertSame(previous.getEntity(first), snapshot.getEntity(first));
+        assertEquals("town", snapshot.getGroupUuidToNameMap().get(first));
+        assertEquals(Arrays.asList(first, second, third), getUuids(previous));
+        assertEquals(10, previous.getEntity(third).getTotalWealth(), 0);
+    }
+
+    private static List<UUID> getUuids(LeaderboardSnapshot snapshot) {
+        List<UUID> uuids = new ArrayList<>();
+        for (EntityLeaderboardCache eCache : snapshot.getRankedEntities()) {
+            uuids.add(eCache.getUuid());
+        }
+        return uuids;
+    }
+}
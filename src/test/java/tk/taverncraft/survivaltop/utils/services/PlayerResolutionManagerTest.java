@@ -0,0 +1,74 @@
+package tk.taverncraft.survivaltop.utils.services;
+
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.TestServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PlayerResolutionManagerTest {
+    private final UUID uuid = UUID.randomUUID();
+
+    private Server server;
+    private OfflinePlayer player;
+    private PlayerResolutionManager playerResolutionManager;
+
+    @BeforeEach
+    public void setUp() {
+        server = TestServer.get();
+        player = mock(OfflinePlayer.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn("Steve");
+        OfflinePlayer unnamedPlayer = mock(OfflinePlayer.class);
+        when(unnamedPlayer.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(server.getOfflinePlayers()).thenReturn(
+                new OfflinePlayer[] {player, unnamedPlayer});
+        when(server.getOfflinePlayer(uuid)).thenReturn(player);
+        Main main = mock(Main.class);
+        when(main.getServer()).thenReturn(server);
+        playerResolutionManager = new PlayerResolutionManager(main);
+    }
+
+    @Test
+    public void knownPlayersAreResolvedIgnoringCase() {
+        assertEquals(uuid, playerResolutionManager.getUuid("sTEVE"));
+        assertEquals("Steve", playerResolutionManager.getName(uuid));
+        assertSame(player, playerResolutionManager.getOfflinePlayer("steve"));
+    }
+
+    @Test
+    public void unknownPlayersResolveToNull() {
+        assertNull(playerResolutionManager.getUuid("Alex"));
+        assertNull(playerResolutionManager.getUuid(null));
+        assertNull(playerResolutionManager.getName(UUID.randomUUID()));
+        assertNull(playerResolutionManager.getOfflinePlayer("Alex"));
+    }
+
+    @Test
+    public void renamedPlayersAreOnlyFoundByNewName() {
+        playerResolutionManager.registerPlayer(uuid, "Alex");
+
+        assertNull(playerResolutionManager.getUuid("Steve"));
+        assertEquals(uuid, playerResolutionManager.getUuid("alex"));
+        assertEquals("Alex", playerResolutionManager.getName(uuid));
+    }
+
+    @Test
+    public void nameTakenOverByOtherPlayerIsNotDropped() {
+        UUID otherUuid = UUID.randomUUID();
+        playerResolutionManager.registerPlayer(otherUuid, "Steve");
+        playerResolutionManager.registerPlayer(uuid, "Alex");
+
+        assertEquals(otherUuid, playerResolutionManager.getUuid("Steve"));
+    }
+}
@@ -0,0 +1,59 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WorthCounterTest {
+    private WorthTable worthTable;
+
+    @BeforeEach
+    public void setUp() {
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        worthMap.put("DIAMOND_BLOCK", 100.0);
+        worthMap.put("STONE", 0.5);
+        worthMap.put("NOT_A_MATERIAL", 3.0);
+        worthTable = new WorthTable(worthMap, Material.values());
+    }
+
+    @Test
+    public void idsFollowConfigOrder() {
+        assertEquals(0, worthTable.getId(Material.DIAMOND_BLOCK));
+        assertEquals(1, worthTable.getIdByOrdinal(Material.STONE.ordinal()));
+        assertEquals(2, worthTable.getId("NOT_A_MATERIAL"));
+        assertEquals(-1, worthTable.getId(Material.DIRT));
+        assertEquals(-1, worthTable.getId("DIRT"));
+        assertEquals("STONE", worthTable.getName(1));
+        assertEquals(3, worthTable.size());
+    }
+
+    @Test
+    public void totalWorthIsSumOfCountsTimesWorth() {
+        WorthCounter worthCounter = new WorthCounter(worthTable);
+        worthCounter.addToHolder(0);
+        worthCounter.addToHolder(1, 10);
+        WorthCounter other = new WorthCounter(worthTable);
+        other.addToHolder(1, 4);
+        other.addToHolder(2, 2);
+        worthCounter.addAll(other);
+
+        assertEquals(14, worthCounter.getCount(1));
+        assertEquals(100 + 14 * 0.5 + 2 * 3.0, worthCounter.getTotalWorth(), 0);
+    }
+
+    @Test
+    public void counterListsEveryNameInOrder() {
+        WorthCounter worthCounter = new WorthCounter(worthTable);
+        worthCounter.addToHolder(1, Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("DIAMOND_BLOCK", "STONE", "NOT_A_MATERIAL"),
+                Arrays.asList(worthCounter.getCounter().keySet().toArray()));
+        assertEquals(0, worthCounter.getCounter().get("DIAMOND_BLOCK").get());
+        assertEquals(Integer.MAX_VALUE, worthCounter.getCounter().get("STONE").get());
+    }
+}